@@ -3,6 +3,7 @@ package core;
 import core.actions.AbstractAction;
 import core.actions.ActionSpace;
 import core.actions.DoNothing;
+import core.components.ComponentIdAllocator;
 import core.interfaces.IPlayerDecorator;
 import utilities.ActionTreeNode;
 import utilities.ElapsedCpuChessTimer;
@@ -52,8 +53,13 @@ public abstract class AbstractForwardModel {
                     firstState.gameParameters.incrementRoundS, firstState.gameParameters.incrementMilestoneS);
         }
 
-        _setup(firstState);
-        firstState.addAllComponents();
+        ComponentIdAllocator previous = firstState.idAllocator.bind();
+        try {
+            _setup(firstState);
+            firstState.addAllComponents();
+        } finally {
+            ComponentIdAllocator.restore(previous);
+        }
     }
 
     /* Methods to be implemented by subclasses, unavailable to AI players */
@@ -143,17 +149,22 @@ public abstract class AbstractForwardModel {
      * @param action       - action requested to be played by a player.
      */
     public final void next(AbstractGameState currentState, AbstractAction action) {
-        if (action != null) {
-            int player = currentState.getCurrentPlayer();
-            currentState.recordAction(action, player);
-            _next(currentState, action);
-        } else {
-            if (currentState.coreGameParameters.verbose) {
-                System.out.println("Invalid action.");
+        ComponentIdAllocator previous = currentState.idAllocator.bind();
+        try {
+            if (action != null) {
+                int player = currentState.getCurrentPlayer();
+                currentState.recordAction(action, player);
+                _next(currentState, action);
+            } else {
+                if (currentState.coreGameParameters.verbose) {
+                    System.out.println("Invalid action.");
+                }
+                illegalActionPlayed(currentState, action);
             }
-            illegalActionPlayed(currentState, action);
+            currentState.advanceGameTick();
+        } finally {
+            ComponentIdAllocator.restore(previous);
         }
-        currentState.advanceGameTick();
     }
 
     /**
@@ -169,12 +180,17 @@ public abstract class AbstractForwardModel {
     public final List<AbstractAction> computeAvailableActions(AbstractGameState gameState, ActionSpace actionSpace) {
         // If there is an action in progress (see IExtendedSequence), then delegate to that
         List<AbstractAction> retValue;
-        if (gameState.isActionInProgress()) {
-            retValue = gameState.actionsInProgress.peek()._computeAvailableActions(gameState, actionSpace);
-        } else if (actionSpace != null && !actionSpace.isDefault()) {
-            retValue = _computeAvailableActions(gameState, actionSpace);
-        } else {
-            retValue = _computeAvailableActions(gameState);
+        ComponentIdAllocator previous = gameState.idAllocator.bind();
+        try {
+            if (gameState.isActionInProgress()) {
+                retValue = gameState.actionsInProgress.peek()._computeAvailableActions(gameState, actionSpace);
+            } else if (actionSpace != null && !actionSpace.isDefault()) {
+                retValue = _computeAvailableActions(gameState, actionSpace);
+            } else {
+                retValue = _computeAvailableActions(gameState);
+            }
+        } finally {
+            ComponentIdAllocator.restore(previous);
         }
 
         // Then apply Decorators regardless of source of actions
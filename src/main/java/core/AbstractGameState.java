@@ -4,6 +4,8 @@ import core.actions.AbstractAction;
 import core.actions.LogEvent;
 import core.components.Area;
 import core.components.Component;
+import core.components.ComponentIdAllocator;
+import core.components.ComponentRegistry;
 import core.components.PartialObservableDeck;
 import core.interfaces.IComponentContainer;
 import core.interfaces.IExtendedSequence;
@@ -39,6 +41,8 @@ public abstract class AbstractGameState {
     // Game being played
     protected final GameType gameType = _getGameType();
     private Area allComponents;
+    // Index of all components by ID, for getComponentById(); filled on first use after each change
+    private ComponentRegistry componentRegistry = new ComponentRegistry();
 
     // Game tick, number of iterations of game loop
     private int tick = 0;
@@ -54,9 +58,9 @@ public abstract class AbstractGameState {
 
     // A record of all actions taken to reach this game state
     // The history is stored as a list of pairs, where the first element is the player who took the action
-    // this is in chronological order
-    private List<Pair<Integer, AbstractAction>> history = new ArrayList<>();
-    private List<String> historyText = new ArrayList<>();
+    // this is in chronological order. Entries are immutable and shared with copies of this state (see HistoryEntry),
+    // and history is the most recent one (null if there are none)
+    private HistoryEntry history;
 
     // Status of the game, and status for each player (in cooperative games, the game status is also each player's status)
     protected CoreConstants.GameResult gameStatus;
@@ -72,6 +76,8 @@ public abstract class AbstractGameState {
     // redeterminisationRnd is used for redeterminisation only - this is to ensure that the main game is not affected
     // this is not initialised from any seed, as redeterminisation is used to hide data from players and cannot affect the game itself
     protected Random redeterminisationRnd = new Random();
+    // IDs for the components of this game, inherited by copies
+    ComponentIdAllocator idAllocator = new ComponentIdAllocator();
 
     /**
      * @param gameParameters - game parameters.
@@ -90,12 +96,13 @@ public abstract class AbstractGameState {
      * Resets variables initialised for this game state.
      */
     protected void reset() {
+        idAllocator = new ComponentIdAllocator();
         allComponents = new Area(-1, "All Components");
+        componentRegistry = new ComponentRegistry();
         gameStatus = GAME_ONGOING;
         playerResults = new CoreConstants.GameResult[getNPlayers()];
         Arrays.fill(playerResults, GAME_ONGOING);
-        history = new ArrayList<>();
-        historyText = new ArrayList<>();
+        history = null;
         playerTimer = new ElapsedCpuChessTimer[getNPlayers()];
         tick = 0;
         turnOwner = 0;
@@ -162,14 +169,21 @@ public abstract class AbstractGameState {
 
 
     protected void setHistoryAt(int index, Pair<Integer, AbstractAction> action) {
-        history.set(index, action);
+        history = HistoryEntry.replaceAction(history, index, action);
     }
     /**
      * @return All actions that have been executed on this state since reset()/initialisation
      */
-    public List<Pair<Integer, AbstractAction>> getHistory() { return new ArrayList<>(history);}
+    public List<Pair<Integer, AbstractAction>> getHistory() { return HistoryEntry.actions(history);}
+    public int getHistorySize() {
+        return history == null ? 0 : history.nActions;
+    }
+    /**
+     * @return the actions and logged events in this state's history, as text; each action as it was rendered when
+     * it was recorded
+     */
     public List<String> getHistoryAsText() {
-        return new ArrayList<>(historyText);
+        return HistoryEntry.text(history);
     }
     public int getGameID() {
         return gameID;
@@ -240,20 +254,32 @@ public abstract class AbstractGameState {
         return playerResults[player] == GAME_ONGOING && gameStatus == GAME_ONGOING;
     }
     public final int getGameTick() {return tick;}
+    /**
+     * Looks a component up in the index of components by ID. The index is filled when first needed, and again after
+     * addAllComponents() or when an ID is not found, as components may be created without the index being told.
+     *
+     * @return the component with the given ID, or null if the state has none
+     */
     public final Component getComponentById(int id) {
-        Component c = allComponents.getComponent(id);
+        Component c = componentRegistry.get(id);
         if (c == null) {
-            try {
-                addAllComponents();
-                c = allComponents.getComponent(id);
-            } catch (Exception ignored) {
-            }  // Can crash from concurrent modifications if running with GUI TODO: this is an ugly fix
+            componentRegistry.fill(_getAllComponents(), idAllocator.size());
+            c = componentRegistry.get(id);
         }
         return c;
     }
 
+    /**
+     * @return the allocator of component IDs for this game (see ComponentIdAllocator)
+     */
+    public final ComponentIdAllocator getIdAllocator() {
+        return idAllocator;
+    }
+
     public final Area getAllComponents() {
-        addAllComponents(); // otherwise the list of allComponents is only ever updated when we copy the state!
+        // rebuilt on every call so that it shows the current components; this leaves componentRegistry alone
+        allComponents.clear();
+        allComponents.putComponents(_getAllComponents());
         return allComponents;
     }
 
@@ -269,11 +295,11 @@ public abstract class AbstractGameState {
     }
 
     /**
-     * Adds all components given by the game to the allComponents map in the correct way, first clearing the map.
+     * Marks the index of components by ID as out of date, so that it is rebuilt from _getAllComponents() on the
+     * next call to getComponentById(). Games call this when they replace components wholesale.
      */
     protected final void addAllComponents() {
-        allComponents.clear();
-        allComponents.putComponents(_getAllComponents());
+        componentRegistry.invalidate();
     }
 
     /**
@@ -287,6 +313,18 @@ public abstract class AbstractGameState {
         return copy(-1);
     }
 
+    /**
+     * A full copy that also keeps the game ID, for listeners that handle an event after the game has moved on
+     * (see evaluation.listeners.AsyncGameListener).
+     *
+     * @return - copy of the game state, as it is now
+     */
+    public final AbstractGameState snapshot() {
+        AbstractGameState s = copy();
+        s.gameID = gameID;
+        return s;
+    }
+
     /**
      * Copies the current game state, including super class methods, given player ID.
      * Reduces state variables to only those that the player observes.
@@ -295,9 +333,18 @@ public abstract class AbstractGameState {
      * @return - reduced copy of the game state.
      */
     public final AbstractGameState copy(int playerId) {
-        AbstractGameState s = _copy(playerId);
+        // any component created by the copy takes its ID from the copy's own allocator
+        ComponentIdAllocator ids = idAllocator.copy();
+        ComponentIdAllocator previous = ids.bind();
+        AbstractGameState s;
+        try {
+            s = _copy(playerId);
+            s.allComponents = allComponents.emptyCopy();
+        } finally {
+            ComponentIdAllocator.restore(previous);
+        }
+        s.idAllocator = ids;
         // Copy super class things
-        s.allComponents = allComponents.emptyCopy();
         s.gameStatus = gameStatus;
         s.playerResults = playerResults.clone();
         s.gamePhase = gamePhase;
@@ -314,8 +361,7 @@ public abstract class AbstractGameState {
         s.rnd = new Random(redeterminisationRnd.nextLong());
 
         if (!coreGameParameters.competitionMode) {
-            s.history = new ArrayList<>(history);
-            s.historyText = new ArrayList<>(historyText);
+            s.history = history;  // shared, as entries are immutable
             // we do not copy individual actions in history, as these are now dead and should not change
             // History is for debugging and spectation of games. There is a risk that History might contain information
             // formally hidden to some participants. For this reason, in COMPETITION_MODE we explicitly do not copy
@@ -334,8 +380,7 @@ public abstract class AbstractGameState {
             s.playerTimer[i] = playerTimer[i].copy();
         }
 
-        // Update the list of components for ID matching in actions.
-        s.addAllComponents();
+        // s.componentRegistry starts empty, and is filled if and when the copy looks a component up by ID
         return s;
     }
 
@@ -345,8 +390,7 @@ public abstract class AbstractGameState {
      * @param action The action that has just been applied (or is about to be applied) to the game state
      */
     protected final void recordAction(AbstractAction action, int player) {
-        history.add(new Pair<>(player, action.copy()));
-        historyText.add("Player " + player + " : " + action.getString(this));
+        history = new HistoryEntry(history, new Pair<>(player, action.copy()), "Player " + player + " : " + action.getString(this));
     }
 
 
@@ -374,8 +418,8 @@ public abstract class AbstractGameState {
         }
     }
 
-    public void recordHistory(String history) {
-        historyText.add(history);
+    public void recordHistory(String text) {
+        history = new HistoryEntry(history, text);
     }
 
     /* Methods dealing with ExtendedActions and the actionStack */
@@ -3,6 +3,7 @@ package core;
 import core.actions.AbstractAction;
 import core.actions.DoNothing;
 import core.interfaces.IExtendedSequence;
+import core.interfaces.IGamePhase;
 import core.interfaces.IPrintable;
 import core.turnorders.ReactiveTurnOrder;
 import evaluation.listeners.IGameListener;
@@ -60,6 +61,8 @@ public class Game {
     private ArrayList<Pair<Integer, Integer>> actionSpaceSize;
     // Number of times an agent is asked for decisions
     private int nDecisions;
+    // Latencies of this game, added to sharedProfile when it is over (see setProfile()); null if not profiled
+    private GameProfile profile, sharedProfile;
     // Number of actions taken in a turn by a player
     private int nActionsPerTurn, nActionsPerTurnSum, nActionsPerTurnCount;
     private boolean pause, stop;
@@ -102,6 +105,33 @@ public class Game {
         reset(Collections.emptyList(), gameState.gameParameters.randomSeed);
     }
 
+    // see snapshot()
+    private Game(Game game, AbstractGameState gameState, AbstractForwardModel forwardModel) {
+        this.gameType = game.gameType;
+        this.gameState = gameState;
+        this.forwardModel = forwardModel;
+        this.players = game.players == null ? null : new ArrayList<>(game.players);
+        this.nextTime = game.nextTime;
+        this.copyTime = game.copyTime;
+        this.agentTime = game.agentTime;
+        this.actionComputeTime = game.actionComputeTime;
+        this.nDecisions = game.nDecisions;
+        this.nActionsPerTurnSum = game.nActionsPerTurnSum;
+        this.actionSpaceSize = game.actionSpaceSize == null ? null : new ArrayList<>(game.actionSpaceSize);
+    }
+
+    /**
+     * A copy of the timings, counts and list of players of this game as they are now, to be read by a listener once
+     * the game has moved on (see AsyncGameListener). The players are the same objects as in this game, so anything
+     * they hold beyond their names and parameters may since have changed. The copy cannot be played.
+     *
+     * @param gameState    - the state the copy is to hold, usually a snapshot of the current one
+     * @param forwardModel - the forward model the copy is to hold
+     */
+    public Game snapshot(AbstractGameState gameState, AbstractForwardModel forwardModel) {
+        return new Game(this, gameState, forwardModel);
+    }
+
     /**
      * Runs one game.
      *
@@ -113,6 +143,15 @@ public class Game {
      */
     public static Game runOne(GameType gameToPlay, String parameterConfigFile, List<AbstractPlayer> players, long seed,
                               boolean randomizeParameters, List<IGameListener> listeners, ActionController ac, int turnPause) {
+        return runOne(gameToPlay, parameterConfigFile, players, seed, randomizeParameters, listeners, ac, turnPause, null);
+    }
+
+    /**
+     * Runs one game, as above, adding the latencies of its game loop to profile (see setProfile()) if that is not null.
+     */
+    public static Game runOne(GameType gameToPlay, String parameterConfigFile, List<AbstractPlayer> players, long seed,
+                              boolean randomizeParameters, List<IGameListener> listeners, ActionController ac, int turnPause,
+                              GameProfile profile) {
         // Creating game instance (null if not implemented)
         Game game;
         if (parameterConfigFile != null) {
@@ -142,6 +181,7 @@ public class Game {
         }
 
         // Reset game instance, passing the players for this game
+        game.setProfile(profile);
         game.reset(players);
         game.setTurnPause(turnPause);
 
@@ -192,7 +232,19 @@ public class Game {
     public static void runMany(List<GameType> gamesToPlay, List<AbstractPlayer> players, Long seed,
                                int nRepetitions, boolean randomizeParameters,
                                boolean detailedStatistics, List<IGameListener> listeners, int turnPause) {
+        runMany(gamesToPlay, players, seed, nRepetitions, randomizeParameters, detailedStatistics, listeners, turnPause, null);
+    }
+
+    /**
+     * Runs several games with a given random seed, as above, and if profileFile is not null writes the latencies of
+     * the game loop over all the games to it at the end, as JSON (see GameProfile).
+     */
+    public static void runMany(List<GameType> gamesToPlay, List<AbstractPlayer> players, Long seed,
+                               int nRepetitions, boolean randomizeParameters,
+                               boolean detailedStatistics, List<IGameListener> listeners, int turnPause,
+                               String profileFile) {
         int nPlayers = players.size();
+        GameProfile profile = profileFile == null ? null : new GameProfile();
 
         // Save win rate statistics over all games
         TAGNumericStatSummary[] overall = new TAGNumericStatSummary[nPlayers];
@@ -220,7 +272,7 @@ public class Game {
                 Long s = seed;
                 if (s == null) s = System.currentTimeMillis();
                 s += offset;
-                game = runOne(gt, null, players, s, randomizeParameters, listeners, null, turnPause);
+                game = runOne(gt, null, players, s, randomizeParameters, listeners, null, turnPause, profile);
                 if (game != null) {
                     recordPlayerResults(statSummaries, game);
                     offset = game.getGameState().getRoundCounter() * game.getGameState().getNPlayers();
@@ -256,6 +308,8 @@ public class Game {
                 System.out.println(overall[i].name + ": " + overall[i].mean());
             }
         }
+        if (profile != null)
+            profile.writeJSON(profileFile);
     }
 
     /**
@@ -270,7 +324,18 @@ public class Game {
      */
     public static void runMany(List<GameType> gamesToPlay, List<AbstractPlayer> players, int nRepetitions,
                                long[] seeds, ActionController ac, boolean randomizeParameters, List<IGameListener> listeners, int turnPause) {
+        runMany(gamesToPlay, players, nRepetitions, seeds, ac, randomizeParameters, listeners, turnPause, null);
+    }
+
+    /**
+     * Runs several games with a set of random seeds, as above, and if profileFile is not null writes the latencies of
+     * the game loop over all the games to it at the end, as JSON (see GameProfile).
+     */
+    public static void runMany(List<GameType> gamesToPlay, List<AbstractPlayer> players, int nRepetitions,
+                               long[] seeds, ActionController ac, boolean randomizeParameters, List<IGameListener> listeners,
+                               int turnPause, String profileFile) {
         int nPlayers = players.size();
+        GameProfile profile = profileFile == null ? null : new GameProfile();
 
         // Save win rate statistics over all games
         TAGNumericStatSummary[] overall = new TAGNumericStatSummary[nPlayers];
@@ -289,7 +354,7 @@ public class Game {
 
             // Play n repetitions of this game and record player results
             for (int i = 0; i < nRepetitions; i++) {
-                Game game = runOne(gt, null, players, seeds[i], randomizeParameters, listeners, null, turnPause);
+                Game game = runOne(gt, null, players, seeds[i], randomizeParameters, listeners, null, turnPause, profile);
                 if (game != null) {
                     recordPlayerResults(statSummaries, game);
                 }
@@ -310,6 +375,90 @@ public class Game {
             // Print statistics for this game
             System.out.println(overall[i].toString());
         }
+        if (profile != null)
+            profile.writeJSON(profileFile);
+    }
+
+    /**
+     * Runs several games concurrently, on nThreads worker threads (see ParallelGameRunner). The seed of each
+     * repetition is derived from the master seed, and every game plays with its own copies of the players, so the
+     * statistics printed are the same whatever the number of threads.
+     *
+     * @param gamesToPlay         - list of games to play.
+     * @param players             - list of players for the game.
+     * @param seed                - master seed, from which the seed of every game is derived.
+     * @param nRepetitions        - number of repetitions of each game.
+     * @param randomizeParameters - if true, game parameters are randomized for each run of each game (if possible).
+     * @param detailedStatistics  - if true, detailed statistics are printed, otherwise just average of wins
+     * @param listeners           - listeners shared by all games, see SynchronizedGameListener.
+     * @param nThreads            - number of worker threads; if not positive, one per available processor.
+     */
+    public static void runManyConcurrently(List<GameType> gamesToPlay, List<AbstractPlayer> players, long seed,
+                                           int nRepetitions, boolean randomizeParameters, boolean detailedStatistics,
+                                           List<IGameListener> listeners, int nThreads) {
+        runManyConcurrently(gamesToPlay, players, seed, nRepetitions, randomizeParameters, detailedStatistics, listeners,
+                nThreads, null);
+    }
+
+    /**
+     * Runs several games concurrently, as above, and if profileFile is not null writes the latencies of the game loop
+     * over all the games to it at the end, as JSON (see GameProfile).
+     */
+    public static void runManyConcurrently(List<GameType> gamesToPlay, List<AbstractPlayer> players, long seed,
+                                           int nRepetitions, boolean randomizeParameters, boolean detailedStatistics,
+                                           List<IGameListener> listeners, int nThreads, String profileFile) {
+        int nPlayers = players.size();
+        GameProfile profile = profileFile == null ? null : new GameProfile();
+
+        TAGNumericStatSummary[] overall = new TAGNumericStatSummary[nPlayers];
+        String[] agentNames = new String[nPlayers];
+        for (int i = 0; i < nPlayers; i++) {
+            String[] split = players.get(i).getClass().toString().split("\\.");
+            String agentName = split[split.length - 1] + "-" + i;
+            overall[i] = new TAGNumericStatSummary("Overall " + agentName);
+            agentNames[i] = agentName;
+        }
+
+        long[] seeds = ParallelGameRunner.seeds(seed, gamesToPlay.size() * nRepetitions);
+        try (ParallelGameRunner runner = new ParallelGameRunner(nThreads)) {
+            for (int g = 0; g < gamesToPlay.size(); g++) {
+                GameType gt = gamesToPlay.get(g);
+                TAGNumericStatSummary[] statSummaries = new TAGNumericStatSummary[nPlayers];
+                for (int i = 0; i < nPlayers; i++) {
+                    statSummaries[i] = new TAGNumericStatSummary("{Game: " + gt.name() + "; Player: " + agentNames[i] + "}");
+                }
+
+                long[] gameSeeds = Arrays.copyOfRange(seeds, g * nRepetitions, (g + 1) * nRepetitions);
+                List<CoreConstants.GameResult[]> results = runner.run(gt, null, players, gameSeeds, randomizeParameters,
+                        listeners, profile, game -> game.getGameState().getPlayerResults());
+                // aggregated in the order of the seeds, not of completion
+                for (CoreConstants.GameResult[] result : results) {
+                    if (result != null)
+                        recordPlayerResults(statSummaries, result);
+                }
+
+                System.out.println("---------------------");
+                for (int i = 0; i < nPlayers; i++) {
+                    if (detailedStatistics) {
+                        System.out.println(statSummaries[i].toString());
+                    } else {
+                        System.out.println(statSummaries[i].name + ": " + statSummaries[i].mean() + " (n=" + statSummaries[i].n() + ")");
+                    }
+                    overall[i].add(statSummaries[i]);
+                }
+            }
+        }
+
+        System.out.println("\n=====================\n");
+        for (int i = 0; i < nPlayers; i++) {
+            if (detailedStatistics) {
+                System.out.println(overall[i].toString());
+            } else {
+                System.out.println(overall[i].name + ": " + overall[i].mean());
+            }
+        }
+        if (profile != null)
+            profile.writeJSON(profileFile);
     }
 
     /**
@@ -320,8 +469,14 @@ public class Game {
      * @param game          - finished game
      */
     public static void recordPlayerResults(TAGNumericStatSummary[] statSummaries, Game game) {
+        recordPlayerResults(statSummaries, game.getGameState().getPlayerResults());
+    }
+
+    /**
+     * Records the given results of a finished game into the given StatSummary objects, as above.
+     */
+    public static void recordPlayerResults(TAGNumericStatSummary[] statSummaries, CoreConstants.GameResult[] results) {
         int nPlayers = statSummaries.length;
-        CoreConstants.GameResult[] results = game.getGameState().getPlayerResults();
         for (int p = 0; p < nPlayers; p++) {
             if (results[p] == CoreConstants.GameResult.WIN_GAME || results[p] == CoreConstants.GameResult.LOSE_GAME || results[p] == CoreConstants.GameResult.DRAW_GAME) {
                 statSummaries[p].add(results[p].value);
@@ -413,6 +568,7 @@ public class Game {
         agentTime = 0;
         actionComputeTime = 0;
         nDecisions = 0;
+        profile = sharedProfile == null ? null : new GameProfile();
         actionSpaceSize = new ArrayList<>();
         nActionsPerTurnSum = 0;
         nActionsPerTurn = 1;
@@ -527,16 +683,22 @@ public class Game {
             throw new AssertionError("Player " + activePlayer + " is not allowed to move");
         AbstractPlayer currentPlayer = players.get(activePlayer);
         if (debug) System.out.printf("Starting oneAction for player %s%n", activePlayer);
+        // the phase and tick the decision is made in, for the profile
+        IGamePhase phase = gameState.getGamePhase();
+        int tick = gameState.getGameTick();
 
         // Get player observation, and time how long it takes
+        if (profile != null) profile.start();
         double s = System.nanoTime();
         // copying the gamestate also copies the game parameters and resets the random seed (so agents cannot use this
         // to reconstruct the starting hands etc.)
         AbstractGameState observation = gameState.copy(activePlayer);
         copyTime = (System.nanoTime() - s);
+        if (profile != null) profile.record(GameProfile.Step.COPY, activePlayer, phase, tick, copyTime);
         //      System.out.printf("Total copyTime in ms = %.2f at tick %d (Avg %.3f) %n", copyTime / 1e6, tick, copyTime / (tick +1.0) / 1e6);
 
         // Get actions for the player
+        if (profile != null) profile.start();
         s = System.nanoTime();
         List<AbstractAction> observedActions = forwardModel.computeAvailableActions(observation, currentPlayer.getParameters().actionSpace);
         if (observedActions.isEmpty()) {
@@ -567,6 +729,7 @@ public class Game {
 
         }
         actionComputeTime = (System.nanoTime() - s);
+        if (profile != null) profile.record(GameProfile.Step.COMPUTE_ACTIONS, activePlayer, phase, tick, actionComputeTime);
         actionSpaceSize.add(new Pair<>(activePlayer, observedActions.size()));
 
         if (gameState.coreGameParameters.verbose) {
@@ -589,6 +752,7 @@ public class Game {
                 currentPlayer.registerUpdatedObservation(observation);
             } else {
                 // Get action from player, and time it
+                if (profile != null) profile.start();
                 s = System.nanoTime();
                 if (debug)
                     System.out.printf("About to get action for player %d%n", gameState.getCurrentPlayer());
@@ -601,6 +765,7 @@ public class Game {
                     System.out.printf("Game: %2d Tick: %3d\t%s%n", gameState.getGameID(), getTick(), action.getString(gameState));
 
                 agentTime = (System.nanoTime() - s);
+                if (profile != null) profile.record(GameProfile.Step.DECISION, activePlayer, phase, tick, agentTime);
                 nDecisions++;
             }
             if (gameState.coreGameParameters.competitionMode && action != null && !observedActions.contains(action)) {
@@ -608,8 +773,10 @@ public class Game {
                 action = null;
             }
             // We publish an ACTION_CHOSEN message before we implement the action, so that observers can record the state that led to the decision
-            AbstractAction finalAction = action;
-            listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ACTION_CHOSEN, gameState, finalAction, activePlayer)));
+            if (!listeners.isEmpty()) {
+                Event chosen = Event.createEvent(Event.GameEvent.ACTION_CHOSEN, gameState, action, activePlayer);
+                listeners.forEach(l -> l.onEvent(chosen));
+            }
 
         } else {
             currentPlayer.registerUpdatedObservation(observation);
@@ -630,18 +797,23 @@ public class Game {
             action = forwardModel.disqualifyOrRandomAction(gameState.coreGameParameters.disqualifyPlayerOnTimeout, gameState);
         } else {
             // Resolve action and game rules, time it
+            if (profile != null) profile.start();
             s = System.nanoTime();
             // we copy the action before using it..so that the action returned by oneAction() does not have a state link
             forwardModel.next(gameState, action.copy());
             nextTime = (System.nanoTime() - s);
+            if (profile != null) profile.record(GameProfile.Step.NEXT, activePlayer, phase, tick, nextTime);
         }
 
         lastPlayer = activePlayer;
 
         // We publish an ACTION_TAKEN message once the action is taken so that observers can record the result of the action
         // (such as the next player)
-        AbstractAction finalAction1 = action;
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ACTION_TAKEN, gameState, finalAction1.copy(), activePlayer)));
+        if (!listeners.isEmpty()) {
+            // one copy, shared by all the listeners
+            AbstractAction takenAction = action.copy();
+            listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ACTION_TAKEN, gameState, takenAction, activePlayer)));
+        }
 
         if (debug) System.out.printf("Finishing oneAction for player %s%n", activePlayer);
         return action;
@@ -658,6 +830,10 @@ public class Game {
 
         // Perform any end of game computations as required by the game
         forwardModel.endGame(gameState);
+        if (profile != null) {
+            sharedProfile.add(profile);
+            profile = new GameProfile();
+        }
         listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, gameState)));
         if (gameState.coreGameParameters.recordEventHistory) {
             gameState.recordHistory(Event.GameEvent.GAME_OVER.name());
@@ -784,6 +960,22 @@ public class Game {
         }
     }
 
+    /**
+     * Profiles the steps of the game loop (see GameProfile). Each game is recorded on a profile
+     * of its own, and added to the one given here once it is over, so the same profile can be shared by games played
+     * on different threads.
+     *
+     * @param profile - the profile the latencies of each game are added to, or null to stop profiling
+     */
+    public void setProfile(GameProfile profile) {
+        this.sharedProfile = profile;
+        this.profile = profile == null ? null : new GameProfile();
+    }
+
+    public GameProfile getProfile() {
+        return sharedProfile;
+    }
+
     public List<IGameListener> getListeners() {
         return listeners;
     }
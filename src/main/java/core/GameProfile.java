@@ -0,0 +1,223 @@
+package core;
+
+import core.interfaces.IGamePhase;
+import evaluation.summarisers.LatencyHistogram;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+
+/**
+ * Latencies of the steps of the game loop (see Game.oneAction()), as histograms per player, game phase and range of
+ * game ticks, with the bytes allocated on the game's thread during each step where the JVM can count them.
+ * <p>
+ * Only the game's own thread is counted: a player that searches on helper threads (a thread pool of its own, or
+ * the workers of players.mcts.ParallelSearch) allocates most of its memory there, and none of that is in the
+ * allocations for DECISION, which for such players are those of the game thread alone (handing out the work and
+ * waiting for it). Their latencies are still complete. The JSON output says as much, under "allocationsCounted".
+ * <p>
+ * A Game given a profile with setProfile() records each game on a profile of its own, and adds it to the shared
+ * one once the game is over; so one profile can be shared by games played concurrently, and always holds whole
+ * games. Ticks are grouped in powers of two (0-15, 16-31, 32-63, ...), so the number of histograms stays small
+ * however long the games are.
+ */
+public class GameProfile {
+
+    public enum Step {
+        COPY,               // the observation given to the player
+        COMPUTE_ACTIONS,    // computeAvailableActions() on the observation
+        DECISION,           // getAction(), when the player has a choice to make; allocations on helper threads are not counted
+        NEXT                // next() on the game state
+    }
+
+    /**
+     * @param fromTick - the first tick of the range of ticks, see tickBucket()
+     */
+    public record Key(Step step, int player, String phase, int fromTick) {
+        public int toTick() {
+            return fromTick == 0 ? 15 : 2 * fromTick - 1;
+        }
+    }
+
+    /**
+     * Which allocations are counted, as written in toJSON()
+     */
+    public static final String ALLOCATIONS_COUNTED = "game thread only, not threads a player searches on";
+
+    private static final ThreadMXBean threads = allocationCounter();
+
+    private final Map<Key, LatencyHistogram> latencies = new HashMap<>();
+    private final Map<Key, LatencyHistogram> allocations = new HashMap<>();
+    private long allocatedAtStart;
+
+    private static ThreadMXBean allocationCounter() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean counter && counter.isThreadAllocatedMemorySupported()) {
+                if (!counter.isThreadAllocatedMemoryEnabled())
+                    counter.setThreadAllocatedMemoryEnabled(true);
+                return counter;
+            }
+        } catch (UnsupportedOperationException | SecurityException | LinkageError e) {
+            // not a HotSpot-style JVM
+        }
+        return null;
+    }
+
+    /**
+     * @return true if this JVM can count the bytes allocated by a thread
+     */
+    public static boolean measuresAllocations() {
+        return threads != null;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) threads).getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * @return the first tick of the range of ticks that tick falls in
+     */
+    public static int tickBucket(int tick) {
+        return tick < 16 ? 0 : Integer.highestOneBit(tick);
+    }
+
+    /**
+     * Called just before a step starts, to mark the allocations made so far on this thread.
+     */
+    void start() {
+        if (threads != null)
+            allocatedAtStart = allocatedBytes();
+    }
+
+    /**
+     * Records a step that has just ended, started with start() on the same thread.
+     */
+    void record(Step step, int player, IGamePhase phase, int tick, double nanos) {
+        long allocated = threads == null ? 0 : allocatedBytes() - allocatedAtStart;
+        Key key = new Key(step, player, String.valueOf(phase), tickBucket(tick));
+        latencies.computeIfAbsent(key, k -> new LatencyHistogram()).record((long) nanos);
+        if (threads != null)
+            allocations.computeIfAbsent(key, k -> new LatencyHistogram()).record(allocated);
+    }
+
+    public synchronized void add(GameProfile other) {
+        for (Map.Entry<Key, LatencyHistogram> entry : other.latencies.entrySet())
+            latencies.computeIfAbsent(entry.getKey(), k -> new LatencyHistogram()).add(entry.getValue());
+        for (Map.Entry<Key, LatencyHistogram> entry : other.allocations.entrySet())
+            allocations.computeIfAbsent(entry.getKey(), k -> new LatencyHistogram()).add(entry.getValue());
+    }
+
+    public synchronized Set<Key> keys() {
+        return new HashSet<>(latencies.keySet());
+    }
+
+    /**
+     * @return the latencies in nanoseconds for key, or null if there are none
+     */
+    public synchronized LatencyHistogram getLatencies(Key key) {
+        LatencyHistogram latency = latencies.get(key);
+        return latency == null ? null : latency.copy();
+    }
+
+    /**
+     * @return the bytes allocated per step for key, or null if there are none (or allocations are not measured)
+     */
+    public synchronized LatencyHistogram getAllocations(Key key) {
+        LatencyHistogram allocated = allocations.get(key);
+        return allocated == null ? null : allocated.copy();
+    }
+
+    /**
+     * @return the latencies in nanoseconds of one step, over all players, phases and ticks
+     */
+    public synchronized LatencyHistogram getLatencies(Step step) {
+        return total(latencies, step);
+    }
+
+    public synchronized LatencyHistogram getAllocations(Step step) {
+        return total(allocations, step);
+    }
+
+    private static LatencyHistogram total(Map<Key, LatencyHistogram> histograms, Step step) {
+        LatencyHistogram total = new LatencyHistogram();
+        for (Map.Entry<Key, LatencyHistogram> entry : histograms.entrySet())
+            if (entry.getKey().step == step)
+                total.add(entry.getValue());
+        return total;
+    }
+
+    /**
+     * A summary of the profile: for each step its latencies (in nanoseconds) and allocations (in bytes) overall,
+     * and then for each player, phase and range of ticks.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized JSONObject toJSON() {
+        JSONObject json = new JSONObject();
+        json.put("allocationsMeasured", measuresAllocations());
+        json.put("allocationsCounted", ALLOCATIONS_COUNTED);
+        JSONObject steps = new JSONObject();
+        for (Step step : Step.values()) {
+            JSONObject stepJSON = new JSONObject();
+            stepJSON.put("latencyNanos", summary(getLatencies(step)));
+            if (measuresAllocations())
+                stepJSON.put("allocatedBytes", summary(getAllocations(step)));
+            steps.put(step.name(), stepJSON);
+        }
+        json.put("steps", steps);
+
+        List<Key> keys = new ArrayList<>(latencies.keySet());
+        keys.sort(Comparator.comparing(Key::step).thenComparingInt(Key::player).thenComparing(Key::phase)
+                .thenComparingInt(Key::fromTick));
+        JSONArray breakdown = new JSONArray();
+        for (Key key : keys) {
+            JSONObject entry = new JSONObject();
+            entry.put("step", key.step.name());
+            entry.put("player", key.player);
+            entry.put("phase", key.phase);
+            entry.put("fromTick", key.fromTick);
+            entry.put("toTick", key.toTick());
+            entry.put("latencyNanos", summary(latencies.get(key)));
+            if (allocations.containsKey(key))
+                entry.put("allocatedBytes", summary(allocations.get(key)));
+            breakdown.add(entry);
+        }
+        json.put("breakdown", breakdown);
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject summary(LatencyHistogram histogram) {
+        JSONObject json = new JSONObject();
+        json.put("n", histogram.n());
+        if (histogram.n() > 0) {
+            json.put("mean", histogram.mean());
+            json.put("min", histogram.min());
+            json.put("p50", histogram.quantile(0.5));
+            json.put("p90", histogram.quantile(0.9));
+            json.put("p99", histogram.quantile(0.99));
+            json.put("p999", histogram.quantile(0.999));
+            json.put("max", histogram.max());
+        }
+        return json;
+    }
+
+    /**
+     * Writes toJSON() to fileName, creating its directory if need be.
+     */
+    public void writeJSON(String fileName) {
+        File file = new File(fileName);
+        if (file.getParentFile() != null && !file.getParentFile().exists() && !file.getParentFile().mkdirs())
+            throw new AssertionError("Unable to create directory for " + fileName);
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(toJSON().toJSONString());
+        } catch (IOException e) {
+            throw new AssertionError("Unable to write game profile to " + fileName + " : " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.actions.ActionSpace;
+import core.components.ComponentIdAllocator;
+import core.interfaces.ITunableParameters;
+import games.GameType;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compact record of one game: enough to replay it exactly with GameReplay, without keeping any states.
+ * <p>
+ * The game is identified by its type, number of players, a hash of its parameters (see parametersHash()) and the
+ * random seed it was played with. Each decision is then recorded as the position of the chosen action in the list of
+ * actions available in the true state (see availableActions()), which is the list GameReplay rebuilds, rather than in
+ * the list computed on the player's observation. The length of that list and a 16-bit hash of the action chosen (see
+ * actionHash()) are recorded with it, and GameReplay checks both as it goes. The position and length are written as
+ * variable-length integers, so most decisions take four bytes.
+ * <p>
+ * The action space of each player is recorded too, as it changes the lists of actions. Records are written one after
+ * another to a stream (see GameRecordListener), and read back one at a time with read().
+ */
+public class GameRecord {
+
+    private static final int VERSION = 2;
+
+    private final GameType gameType;
+    private final int nPlayers;
+    private final long parametersHash;
+    private final long seed;
+    private final ActionSpace[] actionSpaces;
+    private int[] actionIndices;
+    private int[] actionCounts;
+    private short[] actionHashes;
+    private int size;
+
+    public GameRecord(GameType gameType, int nPlayers, long parametersHash, long seed, ActionSpace[] actionSpaces) {
+        if (actionSpaces.length != nPlayers)
+            throw new IllegalArgumentException("One action space is needed per player");
+        this.gameType = gameType;
+        this.nPlayers = nPlayers;
+        this.parametersHash = parametersHash;
+        this.seed = seed;
+        this.actionSpaces = actionSpaces;
+        this.actionIndices = new int[64];
+        this.actionCounts = new int[64];
+        this.actionHashes = new short[64];
+    }
+
+    /**
+     * Records the next decision of the game, taken in state (the true state, not the player's observation) by its
+     * current player, with the actions GameReplay will compute there.
+     *
+     * @throws IllegalArgumentException if action is not among the actions available in state
+     */
+    public void addDecision(AbstractForwardModel forwardModel, AbstractGameState state, AbstractAction action) {
+        List<AbstractAction> actions = availableActions(forwardModel, state, actionSpaces[state.getCurrentPlayer()]);
+        int index = actions.indexOf(action);
+        if (index < 0)
+            throw new IllegalArgumentException("Action " + action + " is not available in the true state, so cannot be replayed");
+        addDecision(index, actions.size(), actionHash(actions.get(index)));
+    }
+
+    /**
+     * Records the next decision of the game.
+     *
+     * @param actionIndex - position of the chosen action in the list of available actions
+     * @param actionCount - number of actions available
+     * @param actionHash  - actionHash() of the chosen action
+     */
+    public void addDecision(int actionIndex, int actionCount, int actionHash) {
+        if (actionIndex < 0 || actionIndex >= actionCount)
+            throw new IllegalArgumentException("Action index " + actionIndex + " out of range for " + actionCount + " actions");
+        if (size == actionIndices.length) {
+            actionIndices = Arrays.copyOf(actionIndices, size * 2);
+            actionCounts = Arrays.copyOf(actionCounts, size * 2);
+            actionHashes = Arrays.copyOf(actionHashes, size * 2);
+        }
+        actionIndices[size] = actionIndex;
+        actionCounts[size] = actionCount;
+        actionHashes[size] = (short) actionHash;
+        size++;
+    }
+
+    /**
+     * The actions available to the current player in state, as recorded and replayed. Game computes the actions on a
+     * copy of the state, so any component IDs handed out while doing so here must not advance the IDs of the state
+     * itself.
+     */
+    static List<AbstractAction> availableActions(AbstractForwardModel forwardModel, AbstractGameState state, ActionSpace actionSpace) {
+        ComponentIdAllocator ids = state.idAllocator;
+        state.idAllocator = ids.copy();
+        try {
+            return forwardModel.computeAvailableActions(state, actionSpace);
+        } finally {
+            state.idAllocator = ids;
+        }
+    }
+
+    /**
+     * A 16-bit hash of the action's class and toString(), which is the same from one run to the next as long as the
+     * action's toString() is (as it is for actions that describe themselves by their values rather than by identity).
+     * Used to check that the replay takes the action that was recorded, not just one at the same position.
+     */
+    public static int actionHash(AbstractAction action) {
+        long hash = fnv1a(0xcbf29ce484222325L, action.getClass().getName() + ";" + action);
+        return (int) (hash ^ (hash >>> 16) ^ (hash >>> 32) ^ (hash >>> 48)) & 0xffff;
+    }
+
+    public GameType getGameType() {
+        return gameType;
+    }
+
+    public int getNPlayers() {
+        return nPlayers;
+    }
+
+    public long getParametersHash() {
+        return parametersHash;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public ActionSpace getActionSpace(int player) {
+        return actionSpaces[player];
+    }
+
+    /**
+     * @return the number of decisions recorded
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getActionIndex(int decision) {
+        return actionIndices[decision];
+    }
+
+    public int getActionCount(int decision) {
+        return actionCounts[decision];
+    }
+
+    public int getActionHash(int decision) {
+        return actionHashes[decision] & 0xffff;
+    }
+
+    /**
+     * A hash of the values of the parameters, excluding the random seed, that is the same from one run to the next
+     * (unlike hashCode(), which for enum values depends on the JVM). Used to check that a game is replayed with the
+     * parameters it was played with.
+     */
+    public static long parametersHash(AbstractParameters params) {
+        long hash = 0xcbf29ce484222325L;
+        List<String> values = new ArrayList<>();
+        values.add(params.getClass().getName());
+        values.add(String.valueOf(params.getMaxRounds()));
+        values.add(String.valueOf(params.getTimeoutRounds()));
+        if (params instanceof ITunableParameters<?> tunable)
+            for (String name : tunable.getParameterNames().stream().sorted().toList())
+                values.add(name + "=" + tunable.getParameterValue(name));
+        for (String value : values)
+            hash = fnv1a(hash, value + ";");
+        return hash;
+    }
+
+    // FNV-1a, over the UTF-8 bytes of value
+    private static long fnv1a(long hash, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeByte(VERSION);
+        out.writeUTF(gameType.name());
+        writeVarInt(out, nPlayers);
+        out.writeLong(parametersHash);
+        out.writeLong(seed);
+        boolean defaultSpaces = Arrays.stream(actionSpaces).allMatch(ActionSpace::isDefault);
+        out.writeBoolean(defaultSpaces);
+        if (!defaultSpaces) {
+            for (ActionSpace space : actionSpaces) {
+                out.writeByte(space.structure.ordinal());
+                out.writeByte(space.flexibility.ordinal());
+                out.writeByte(space.context.ordinal());
+            }
+        }
+        writeVarInt(out, size);
+        for (int i = 0; i < size; i++) {
+            writeVarInt(out, actionIndices[i]);
+            writeVarInt(out, actionCounts[i]);
+            out.writeShort(actionHashes[i]);
+        }
+    }
+
+    /**
+     * @return the next record in the stream, or null at the end of the stream
+     */
+    public static GameRecord read(DataInputStream in) throws IOException {
+        int version = in.read();
+        if (version < 0)
+            return null;
+        if (version != VERSION)
+            throw new IOException("Unknown game record version " + version);
+        GameType gameType = GameType.valueOf(in.readUTF());
+        int nPlayers = readVarInt(in);
+        long parametersHash = in.readLong();
+        long seed = in.readLong();
+        ActionSpace[] actionSpaces = new ActionSpace[nPlayers];
+        boolean defaultSpaces = in.readBoolean();
+        for (int p = 0; p < nPlayers; p++) {
+            actionSpaces[p] = defaultSpaces ? ActionSpace.Default : new ActionSpace(
+                    ActionSpace.Structure.values()[in.readByte()],
+                    ActionSpace.Flexibility.values()[in.readByte()],
+                    ActionSpace.Context.values()[in.readByte()]);
+        }
+        GameRecord record = new GameRecord(gameType, nPlayers, parametersHash, seed, actionSpaces);
+        int size = readVarInt(in);
+        record.actionIndices = new int[Math.max(size, 1)];
+        record.actionCounts = new int[Math.max(size, 1)];
+        record.actionHashes = new short[Math.max(size, 1)];
+        for (int i = 0; i < size; i++) {
+            record.actionIndices[i] = readVarInt(in);
+            record.actionCounts[i] = readVarInt(in);
+            record.actionHashes[i] = in.readShort();
+        }
+        record.size = size;
+        return record;
+    }
+
+    /**
+     * Reads all the records in a file written by GameRecordListener.
+     */
+    public static List<GameRecord> readAll(String fileName) {
+        List<GameRecord> records = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)))) {
+            for (GameRecord record = read(in); record != null; record = read(in))
+                records.add(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read game records from " + fileName, e);
+        }
+        return records;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+}
@@ -0,0 +1,111 @@
+package core;
+
+import core.actions.AbstractAction;
+
+import java.util.List;
+
+/**
+ * Rebuilds the states of a game from its GameRecord, by setting the game up from the recorded seed and applying the
+ * recorded decisions with the forward model. At each decision the actions available are computed again, and both the
+ * number of them and the hash of the action at the recorded position checked against the record, so a replay that has gone astray (different parameters, a change to the
+ * game's rules, a forward model that is not deterministic given the seed) fails at the first decision that differs,
+ * rather than producing states that were never played.
+ * <p>
+ * Games in which a player was replaced by a random action on running out of time cannot be replayed.
+ */
+public class GameReplay {
+
+    private final GameRecord record;
+    private final AbstractForwardModel forwardModel;
+    private final AbstractGameState gameState;
+    private int decision;
+
+    /**
+     * Replays the game with the default parameters of its game type.
+     */
+    public GameReplay(GameRecord record) {
+        this(record, record.getGameType().createParameters(record.getSeed()));
+    }
+
+    /**
+     * @param record - the game to replay
+     * @param params - the parameters the game was played with
+     */
+    public GameReplay(GameRecord record, AbstractParameters params) {
+        if (GameRecord.parametersHash(params) != record.getParametersHash())
+            throw new IllegalArgumentException("Parameters do not match those the game was recorded with");
+        this.record = record;
+        Game game = record.getGameType().createGameInstance(record.getNPlayers(), record.getSeed(), params);
+        this.forwardModel = game.getForwardModel();
+        this.gameState = game.getGameState();
+    }
+
+    /**
+     * @return the state after the decisions replayed so far. This is the state being replayed, not a copy.
+     */
+    public AbstractGameState getGameState() {
+        return gameState;
+    }
+
+    /**
+     * @return the number of decisions replayed so far
+     */
+    public int getDecision() {
+        return decision;
+    }
+
+    public boolean hasNext() {
+        return decision < record.size();
+    }
+
+    /**
+     * Replays the next decision.
+     *
+     * @return the action taken
+     * @throws IllegalStateException if the actions available do not match the record
+     */
+    public AbstractAction next() {
+        if (!hasNext())
+            throw new IllegalStateException("All " + record.size() + " decisions have been replayed");
+        if (!gameState.isNotTerminal())
+            throw new IllegalStateException("Game over at decision " + decision + " of " + record.size());
+        int player = gameState.getCurrentPlayer();
+        List<AbstractAction> actions = GameRecord.availableActions(forwardModel, gameState, record.getActionSpace(player));
+        int index = record.getActionIndex(decision);
+        if (actions.size() != record.getActionCount(decision))
+            throw new IllegalStateException(String.format("Decision %d of game %s with seed %d: %d actions available, but %d recorded",
+                    decision, record.getGameType(), record.getSeed(), actions.size(), record.getActionCount(decision)));
+        AbstractAction action = actions.get(index);
+        if (GameRecord.actionHash(action) != record.getActionHash(decision))
+            throw new IllegalStateException(String.format("Decision %d of game %s with seed %d: action %d is %s, which is not the action recorded",
+                    decision, record.getGameType(), record.getSeed(), index, action));
+        forwardModel.next(gameState, action.copy());
+        decision++;
+        // as Game.terminate() does, so that the final results are those of the game recorded
+        if (!gameState.isNotTerminal())
+            forwardModel.endGame(gameState);
+        return action;
+    }
+
+    /**
+     * Replays decisions up to (not including) the given one.
+     *
+     * @return the state just before the decision, i.e. the state in which it was made
+     */
+    public AbstractGameState advanceTo(int decision) {
+        if (decision < this.decision || decision > record.size())
+            throw new IllegalArgumentException("Cannot advance from decision " + this.decision + " to " + decision);
+        while (this.decision < decision)
+            next();
+        return gameState;
+    }
+
+    /**
+     * Replays the rest of the game.
+     *
+     * @return the final state
+     */
+    public AbstractGameState toEnd() {
+        return advanceTo(record.size());
+    }
+}
@@ -0,0 +1,84 @@
+package core;
+
+import core.actions.AbstractAction;
+import utilities.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One entry in the history of a game state, linked to the entry before it.
+ * <p>
+ * Entries are immutable once created, so the history of a state is just a reference to its last entry: a copy of the state shares the whole history in O(1), and each of them then
+ * appends its own entries on top of the shared prefix.
+ * <p>
+ * An entry is either an action taken by a player, or a line of text logged with recordHistory(). The text for an
+ * action is rendered (with AbstractAction.getString()) when it is recorded, as many actions describe themselves by
+ * looking up their components in the state they are taken in, which later states may no longer have.
+ */
+final class HistoryEntry {
+
+    final HistoryEntry previous;
+    final Pair<Integer, AbstractAction> action;  // null for text-only entries
+    final int size;  // number of entries up to and including this one
+    final int nActions;  // number of action entries up to and including this one
+    final String text;
+
+    HistoryEntry(HistoryEntry previous, String text) {
+        this(previous, null, String.valueOf(text));
+    }
+
+    HistoryEntry(HistoryEntry previous, Pair<Integer, AbstractAction> action, String text) {
+        this.previous = previous;
+        this.action = action;
+        this.text = text;
+        this.size = previous == null ? 1 : previous.size + 1;
+        this.nActions = (previous == null ? 0 : previous.nActions) + (action == null ? 0 : 1);
+    }
+
+    /**
+     * @return the actions in the history ending with the given entry, oldest first
+     */
+    static List<Pair<Integer, AbstractAction>> actions(HistoryEntry last) {
+        int n = last == null ? 0 : last.nActions;
+        List<Pair<Integer, AbstractAction>> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) result.add(null);
+        for (HistoryEntry e = last; e != null && n > 0; e = e.previous) {
+            if (e.action != null)
+                result.set(--n, e.action);
+        }
+        return result;
+    }
+
+    /**
+     * @return the text of every entry in the history ending with the given entry, oldest first
+     */
+    static List<String> text(HistoryEntry last) {
+        int n = last == null ? 0 : last.size;
+        List<String> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) result.add(null);
+        for (HistoryEntry e = last; e != null; e = e.previous)
+            result.set(--n, e.text);
+        return result;
+    }
+
+    /**
+     * @return a history equal to the one ending with last, except that its index-th action is replaced.
+     * Entries after the replaced one are re-created, so other states sharing the old history are not affected.
+     */
+    static HistoryEntry replaceAction(HistoryEntry last, int index, Pair<Integer, AbstractAction> action) {
+        if (last == null || index < 0 || index >= last.nActions)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for history of " +
+                    (last == null ? 0 : last.nActions) + " actions");
+        List<HistoryEntry> after = new ArrayList<>();
+        HistoryEntry e = last;
+        while (e.action == null || e.nActions != index + 1) {
+            after.add(e);
+            e = e.previous;
+        }
+        HistoryEntry result = new HistoryEntry(e.previous, action, e.text);
+        for (int i = after.size() - 1; i >= 0; i--)
+            result = new HistoryEntry(result, after.get(i).action, after.get(i).text);
+        return result;
+    }
+}
@@ -0,0 +1,167 @@
+package core;
+
+import evaluation.listeners.IGameListener;
+import evaluation.listeners.SynchronizedGameListener;
+import games.GameType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Plays independent games on a pool of worker threads.
+ * <p>
+ * Results always come back in the order the games were given, and each game is fully determined by its own seed
+ * and its own copies of the players, so the results are the same whatever the number of threads. Use seeds() to
+ * derive the seeds of a batch from one master seed.
+ * <p>
+ * A player whose copy() returns the player itself (such as a human player) cannot be in two games at once, so
+ * games with such a player are played one after the other, in order, on the calling thread.
+ * <p>
+ * Listeners are shared by all games through a SynchronizedGameListener each, so any one listener only ever handles
+ * one event at a time. Events from different games may reach a listener interleaved, in an order that depends on
+ * thread timing.
+ */
+public class ParallelGameRunner implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    /**
+     * @param nThreads - number of worker threads; if not positive, one per available processor
+     */
+    public ParallelGameRunner(int nThreads) {
+        int n = nThreads > 0 ? nThreads : Runtime.getRuntime().availableProcessors();
+        this.executor = Executors.newFixedThreadPool(n, r -> {
+            Thread t = new Thread(r, "game-runner");
+            t.setDaemon(true);
+            return t;
+        });
+        this.ownsExecutor = true;
+    }
+
+    /**
+     * Runs games on the given executor (for example one of virtual threads, where available), which the caller
+     * remains responsible for shutting down.
+     */
+    public ParallelGameRunner(ExecutorService executor) {
+        this.executor = executor;
+        this.ownsExecutor = false;
+    }
+
+    /**
+     * @return nGames seeds, drawn in order from a Random with the given master seed
+     */
+    public static long[] seeds(long masterSeed, int nGames) {
+        Random rnd = new Random(masterSeed);
+        long[] seeds = new long[nGames];
+        for (int i = 0; i < nGames; i++)
+            seeds[i] = rnd.nextLong();
+        return seeds;
+    }
+
+    /**
+     * Plays one game of the given type for each seed.
+     *
+     * @param gameType            - game to play
+     * @param parameterConfigFile - JSON file with the game parameters, or null for the defaults
+     * @param players             - players for the game; every game plays with its own copies of them
+     * @param seeds               - one seed per game
+     * @param randomizeParameters - if true, game parameters are randomized for each game
+     * @param listeners           - listeners shared by all games, may be null
+     * @param summary             - extracts what the caller needs from a finished game, so that the game itself
+     *                            can be dropped as soon as it is over
+     * @return the summary of each game, in the order of seeds
+     */
+    public <R> List<R> run(GameType gameType, String parameterConfigFile, List<AbstractPlayer> players, long[] seeds,
+                           boolean randomizeParameters, List<IGameListener> listeners, Function<Game, R> summary) {
+        return run(gameType, parameterConfigFile, players, seeds, randomizeParameters, listeners, null, summary);
+    }
+
+    /**
+     * Plays one game of the given type for each seed, as above, adding the latencies of every game to profile (see
+     * Game.setProfile()) if that is not null.
+     */
+    public <R> List<R> run(GameType gameType, String parameterConfigFile, List<AbstractPlayer> players, long[] seeds,
+                           boolean randomizeParameters, List<IGameListener> listeners, GameProfile profile,
+                           Function<Game, R> summary) {
+        List<Callable<R>> games = new ArrayList<>(seeds.length);
+        boolean shared = false;
+        for (long seed : seeds) {
+            // copied here, in order, as copy() may draw from the random generator of the original player
+            List<AbstractPlayer> gamePlayers = new ArrayList<>(players.size());
+            for (AbstractPlayer player : players) {
+                AbstractPlayer copy = player.copy();
+                shared |= copy == player;
+                gamePlayers.add(copy);
+            }
+            games.add(() -> {
+                List<IGameListener> gameListeners = null;
+                if (listeners != null) {
+                    gameListeners = new ArrayList<>(listeners.size());
+                    for (IGameListener listener : listeners)
+                        gameListeners.add(new SynchronizedGameListener(listener));
+                }
+                Game game = Game.runOne(gameType, parameterConfigFile, gamePlayers, seed, randomizeParameters,
+                        gameListeners, null, 0, profile);
+                return game == null ? null : summary.apply(game);
+            });
+        }
+        return shared ? runSerially(games) : runAll(games);
+    }
+
+    /**
+     * Runs the given tasks one after the other on the calling thread, stopping at the first that fails.
+     *
+     * @return the result of each task, in the order given
+     */
+    public static <R> List<R> runSerially(List<? extends Callable<R>> tasks) {
+        List<R> results = new ArrayList<>(tasks.size());
+        for (Callable<R> task : tasks) {
+            try {
+                results.add(task.call());
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs the given tasks concurrently. If any of them fails, the others are cancelled and the failure is
+     * rethrown.
+     *
+     * @return the result of each task, in the order given
+     */
+    public <R> List<R> runAll(List<? extends Callable<R>> tasks) {
+        List<Future<R>> futures = new ArrayList<>(tasks.size());
+        for (Callable<R> task : tasks)
+            futures.add(executor.submit(task));
+        List<R> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<R> future : futures)
+                results.add(future.get());
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for games to finish", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new RuntimeException(cause);
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor)
+            executor.shutdownNow();
+    }
+}
@@ -9,6 +9,7 @@ import core.interfaces.IStateFeatureJSON;
 import games.GameType;
 import games.diamant.DiamantFeatures;
 import games.loveletter.features.LLStateFeaturesReduced;
+import games.president.PresidentStateVector;
 import games.stratego.StrategoFeatures;
 import games.sushigo.SGFeatures;
 import games.tictactoe.TTTFeatures;
@@ -19,6 +20,7 @@ import players.simple.RandomPlayer;
 import utilities.ActionTreeNode;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.IntStream;
@@ -31,7 +33,8 @@ enum FeatureExtractors {
     Stratego(StrategoFeatures.class, null),
     SushiGo(null, SGFeatures.class),
     TicTacToe(TTTFeatures.class, TTTFeatures.class),
-    Diamant(DiamantFeatures.class, DiamantFeatures.class);
+    Diamant(DiamantFeatures.class, DiamantFeatures.class),
+    President(PresidentStateVector.class, null);
     Class<? extends IStateFeatureVector> stateFeatureVector;
     Class<? extends IStateFeatureJSON> stateFeatureJSON;
     FeatureExtractors(Class<? extends IStateFeatureVector> stateFeatureVector, Class<? extends IStateFeatureJSON> stateFeatureJSON) {
@@ -174,6 +177,17 @@ public class PyTAG {
         else throw new Exception("Observation vectoriser function is not implemented");
     }
 
+    // Writes the observation vector into out[offset..offset + getObservationSpace() - 1], in place where the
+    // vectoriser supports it, and without copying the state if the vectoriser only reads what the player observes
+    public void getObservationVector(double[] out, int offset) throws Exception {
+        if (stateVectoriser == null)
+            throw new Exception("Observation vectoriser function is not implemented");
+        int player = gameState.getCurrentPlayer();
+        AbstractGameState gs = stateVectoriser.observableOnly() ? gameState : gameState.copy(player);
+        Arrays.fill(out, offset, offset + stateVectoriser.names().length, 0.0);
+        stateVectoriser.fill(gs, player, out, offset);
+    }
+
     // Gets the action space size as an integer
     public int getActionSpace(){
         return leaves.size();
@@ -192,6 +206,12 @@ public class PyTAG {
                 .toArray();
     }
 
+    // Writes the action mask into out[offset..offset + getActionSpace() - 1], without allocating
+    public void getActionMask(int[] out, int offset) {
+        for (int i = 0; i < leaves.size(); i++)
+            out[offset + i] = leaves.get(i).getValue();
+    }
+
     // gets the whole action tree as an array (tree can be reconstructed using the getTreeShape() function)
     public int[] getActionTree() {
         return root.getActionMask();
@@ -254,6 +274,10 @@ public class PyTAG {
         return gameState.getGameScore(gameState.getCurrentPlayer());
     }
 
+    public double getReward(int playerID){
+        return gameState.getGameScore(playerID);
+    }
+
     public List<AbstractAction> getActions(){
         return availableActions;
     }
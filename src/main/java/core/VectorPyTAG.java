@@ -0,0 +1,123 @@
+package core;
+
+import games.GameType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * K independent PyTAG environments of the same game, stepped together so that a Python training loop needs one
+ * call per batch rather than one per environment.
+ * <p>
+ * Results are written into arrays allocated once, on the first reset(), with one row per environment:
+ * observations[K * observationSpace], masks[K * actionSpace], rewards[K], dones[K] and playerIDs[K].
+ * An environment whose episode ends in step() is reset straight away: its done flag and reward refer to the
+ * finished episode, and its observation and mask to the first decision of the next one.
+ * The reward is the game score (see AbstractGameState.getGameScore()) of the player who chose the action.
+ * <p>
+ * The game needs a vector feature extractor and an ITreeActionSpace forward model (see FeatureExtractors in PyTAG).
+ */
+public class VectorPyTAG {
+
+    private final PyTAG[] envs;
+    private int observationSpace, actionSpace;
+    private double[] observations;
+    private int[] masks;
+    private double[] rewards;
+    private boolean[] dones;
+    private int[] playerIDs;
+
+    /**
+     * @param players - the players of one environment; every environment gets its own copies
+     */
+    public VectorPyTAG(GameType gameToPlay, String parameterConfigFile, List<AbstractPlayer> players, int nEnvs,
+                       long seed, boolean isNormalized) throws Exception {
+        if (nEnvs < 1)
+            throw new IllegalArgumentException("Need at least one environment, not " + nEnvs);
+        Random seeds = new Random(seed);
+        envs = new PyTAG[nEnvs];
+        for (int i = 0; i < nEnvs; i++) {
+            List<AbstractPlayer> envPlayers = new ArrayList<>();
+            for (AbstractPlayer player : players)
+                envPlayers.add(player.copy());
+            envs[i] = new PyTAG(gameToPlay, parameterConfigFile, envPlayers, seeds.nextLong(), isNormalized);
+        }
+    }
+
+    /**
+     * Resets every environment, and fills observations, masks and playerIDs.
+     */
+    public void reset() throws Exception {
+        for (int i = 0; i < envs.length; i++) {
+            envs[i].reset();
+            if (observations == null) {
+                observationSpace = envs[i].getObservationSpace();
+                actionSpace = envs[i].getActionSpace();
+                observations = new double[envs.length * observationSpace];
+                masks = new int[envs.length * actionSpace];
+                rewards = new double[envs.length];
+                dones = new boolean[envs.length];
+                playerIDs = new int[envs.length];
+            }
+            rewards[i] = 0.0;
+            dones[i] = false;
+            observe(i);
+        }
+    }
+
+    /**
+     * Plays actions[i] in environment i, for every environment, and updates all the result arrays.
+     */
+    public void step(int[] actions) throws Exception {
+        if (observations == null)
+            throw new IllegalStateException("Need to reset the environments before calling step");
+        if (actions.length != envs.length)
+            throw new IllegalArgumentException("Expected " + envs.length + " actions, got " + actions.length);
+        for (int i = 0; i < envs.length; i++) {
+            PyTAG env = envs[i];
+            int player = env.getPlayerID();
+            env.step(actions[i]);
+            rewards[i] = env.getReward(player);
+            dones[i] = env.isDone();
+            if (dones[i])
+                env.reset();
+            observe(i);
+        }
+    }
+
+    private void observe(int i) throws Exception {
+        int from = i * observationSpace;
+        envs[i].getObservationVector(observations, from);
+        envs[i].getActionMask(masks, i * actionSpace);
+        playerIDs[i] = envs[i].getPlayerID();
+    }
+
+    public int getNumEnvs() {
+        return envs.length;
+    }
+    public int getObservationSpace() {
+        return observationSpace;
+    }
+    public int getActionSpace() {
+        return actionSpace;
+    }
+    public double[] getObservations() {
+        return observations;
+    }
+    public int[] getMasks() {
+        return masks;
+    }
+    public double[] getRewards() {
+        return rewards;
+    }
+    public boolean[] getDones() {
+        return dones;
+    }
+    public int[] getPlayerIDs() {
+        return playerIDs;
+    }
+    public PyTAG getEnv(int i) {
+        return envs[i];
+    }
+}
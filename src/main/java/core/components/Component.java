@@ -9,8 +9,6 @@ import core.CoreConstants.ComponentType;
 import java.util.*;
 
 public abstract class Component {
-    private static int ID = 0;  // All components receive a unique and final ID from this always increasing counter
-
     protected transient final int componentID;  // Unique ID of this component
     protected final ComponentType type;  // Type of this component
     protected HashMap<Integer, Property> properties;  // Maps between integer key for the property and the property object
@@ -18,14 +16,14 @@ public abstract class Component {
     protected String componentName;  // Name of this component
 
     public Component(ComponentType type, String name) {
-        this.componentID = ID++;
+        this.componentID = ComponentIdAllocator.allocate();  // unique within the game, see ComponentIdAllocator
         this.type = type;
         this.componentName = name;
         this.properties = new HashMap<>();
     }
 
     public Component(ComponentType type) {
-        this.componentID = ID++;
+        this.componentID = ComponentIdAllocator.allocate();
         this.type = type;
         this.componentName = type.toString();
         this.properties = new HashMap<>();
@@ -0,0 +1,98 @@
+package core.components;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands out component IDs for one game.
+ * <p>
+ * Every AbstractGameState owns an allocator, which starts from 0 when the game is set up and is copied (by value)
+ * into every copy of the state, so IDs are unique within a state and equal for the same component across its
+ * copies. The framework binds the allocator of the state it is working on to the current thread around setup,
+ * copy, computeAvailableActions and next (see bind()), and Component constructors draw their ID from whichever
+ * allocator is bound. Nothing is shared between games, so games can run concurrently.
+ * <p>
+ * Components created while no allocator is bound (e.g. in static initialisers, or game state field initialisers)
+ * get IDs from a JVM-wide atomic counter, in a separate range (from UNBOUND_BASE upwards) so they can never clash
+ * with per-game IDs. Class initialisation can happen inside a binding (whenever a game first touches the class), so
+ * components kept in static fields must be created through unbound(), or they would take IDs from whichever game
+ * happened to load the class.
+ */
+public final class ComponentIdAllocator {
+
+    public static final int UNBOUND_BASE = 1 << 30;
+
+    private static final ThreadLocal<ComponentIdAllocator> current = new ThreadLocal<>();
+    private static final AtomicInteger unbound = new AtomicInteger(UNBOUND_BASE);
+
+    private int next;
+
+    public ComponentIdAllocator() {
+    }
+
+    private ComponentIdAllocator(int next) {
+        this.next = next;
+    }
+
+    /**
+     * @return an allocator that continues from the same ID, independently of this one
+     */
+    public ComponentIdAllocator copy() {
+        return new ComponentIdAllocator(next);
+    }
+
+    public int nextId() {
+        return next++;
+    }
+
+    /**
+     * @return number of IDs handed out so far, all of which are below this value
+     */
+    public int size() {
+        return next;
+    }
+
+    /**
+     * Makes this the allocator used by Component constructors on the current thread.
+     *
+     * @return the allocator bound before, to be given back to restore()
+     */
+    public ComponentIdAllocator bind() {
+        ComponentIdAllocator previous = current.get();
+        current.set(this);
+        return previous;
+    }
+
+    public static void restore(ComponentIdAllocator previous) {
+        if (previous == null)
+            current.remove();
+        else
+            current.set(previous);
+    }
+
+    /**
+     * @return the allocator bound to the current thread, or null
+     */
+    public static ComponentIdAllocator bound() {
+        return current.get();
+    }
+
+    /**
+     * Creates shared components (e.g. constants in static fields) with IDs from the JVM-wide range, whatever
+     * allocator is bound to the current thread.
+     */
+    public static <T> T unbound(Supplier<T> factory) {
+        ComponentIdAllocator previous = current.get();
+        current.remove();
+        try {
+            return factory.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static int allocate() {
+        ComponentIdAllocator allocator = current.get();
+        return allocator != null ? allocator.next++ : unbound.getAndIncrement();
+    }
+}
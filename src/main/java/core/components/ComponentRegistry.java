@@ -0,0 +1,73 @@
+package core.components;
+
+import core.interfaces.IComponentContainer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Index from component ID to component, used by AbstractGameState.getComponentById().
+ * <p>
+ * Per-game IDs are dense (see ComponentIdAllocator), so they index an array directly; anything else (IDs from the
+ * unbound range, or negative placeholder IDs) goes into a small map. The registry is only filled when it is first
+ * needed: a copied state starts with an empty registry, and pays for walking its components only if something
+ * looks a component up by ID.
+ */
+public final class ComponentRegistry {
+
+    private static final Component[] EMPTY = new Component[0];
+
+    private Component[] dense = EMPTY;
+    private final HashMap<Integer, Component> sparse = new HashMap<>();
+    private boolean filled;
+
+    /**
+     * @return the component with the given ID, or null if there is none or the registry has not been filled
+     */
+    public Component get(int id) {
+        if (!filled)
+            return null;
+        if (id >= 0 && id < dense.length)
+            return dense[id];
+        return sparse.isEmpty() ? null : sparse.get(id);
+    }
+
+    /**
+     * Marks the registry as out of date, so that the next fill() rebuilds it.
+     */
+    public void invalidate() {
+        filled = false;
+    }
+
+    /**
+     * Rebuilds the registry from the given components and everything they contain. As with Area.putComponent(),
+     * if two components share an ID the one found last wins.
+     *
+     * @param components - top-level components of the state
+     * @param denseSize  - number of per-game IDs handed out so far (ComponentIdAllocator.size())
+     */
+    public void fill(List<? extends Component> components, int denseSize) {
+        if (dense.length < denseSize)
+            dense = new Component[denseSize];
+        else
+            Arrays.fill(dense, null);
+        sparse.clear();
+        for (Component c : components)
+            put(c);
+        filled = true;
+    }
+
+    private void put(Component component) {
+        if (component == null) return;
+        int id = component.getComponentID();
+        if (id >= 0 && id < dense.length)
+            dense[id] = component;
+        else
+            sparse.put(id, component);
+        if (component instanceof IComponentContainer) {
+            for (Component nested : ((IComponentContainer<?>) component).getComponents())
+                put(nested);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
+import utilities.CircularArrayList;
 
 import java.io.FileReader;
 import java.io.IOException;
@@ -27,6 +28,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     protected int capacity;  // Capacity of the deck (maximum number of elements)
     protected List<T> components;  // List of components in this deck
     protected VisibilityMode visibility;
+    protected boolean arrayBacked;  // components kept in a CircularArrayList rather than a LinkedList, see setArrayBacked()
 
     public Deck(String name, VisibilityMode visibility) {
         this(name, -1, visibility);
@@ -372,6 +374,34 @@ public class Deck<T extends Component> extends Component implements IComponentCo
         }
     }
 
+    /**
+     * Switches how this deck stores its components. By default a deck keeps them in a LinkedList, which makes
+     * adding to the top cheap but indexed access (get, pick, remove by index) O(n). An array-backed deck keeps
+     * them in a CircularArrayList, which is as cheap at either end and O(1) for indexed access. Copies of the deck
+     * keep the same storage; as each component is copied in turn, a copy is not itself any cheaper.
+     *
+     * @param arrayBacked - true to store the components in an array, false for the default LinkedList
+     */
+    public void setArrayBacked(boolean arrayBacked) {
+        if (this.arrayBacked == arrayBacked) return;
+        this.arrayBacked = arrayBacked;
+        List<T> newComponents = newComponentList(components.size());
+        newComponents.addAll(components);
+        components = newComponents;
+    }
+
+    public boolean isArrayBacked() {
+        return arrayBacked;
+    }
+
+    /**
+     * @param expectedSize - number of components the list will hold
+     * @return an empty list of the kind this deck stores its components in
+     */
+    protected List<T> newComponentList(int expectedSize) {
+        return arrayBacked ? new CircularArrayList<>(expectedSize) : new LinkedList<>();
+    }
+
     /**
      * Maximum number of components this deck may contain.
      */
@@ -438,12 +468,13 @@ public class Deck<T extends Component> extends Component implements IComponentCo
 
     @SuppressWarnings("unchecked")
     protected void copyTo(Deck<T> deck) {
-        List<T> newComponents = new LinkedList<>();
+        List<T> newComponents = newComponentList(components.size());
         for (T c : components) {
             newComponents.add((T) c.copy());
         }
         deck.components = newComponents;
         deck.capacity = capacity;
+        deck.arrayBacked = arrayBacked;
 
         //copy type and component.
         copyComponentTo(deck);
@@ -452,12 +483,13 @@ public class Deck<T extends Component> extends Component implements IComponentCo
 
     @SuppressWarnings("unchecked")
     protected void copyTo(Deck<T> deck, int playerId) {
-        List<T> newComponents = new LinkedList<>();
+        List<T> newComponents = newComponentList(components.size());
         for (T c : components) {
             newComponents.add((T) c.copy(playerId));
         }
         deck.components = newComponents;
         deck.capacity = capacity;
+        deck.arrayBacked = arrayBacked;
 
         //copy type and component.
         copyComponentTo(deck);
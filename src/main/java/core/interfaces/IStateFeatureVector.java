@@ -8,6 +8,23 @@ public interface IStateFeatureVector extends IStateKey {
 
     String[] names();
 
+    /**
+     * Writes featureVector(state, playerID) into out[offset..offset + names().length - 1], which must be zeroed
+     * beforehand. Override this to write the features in place, without allocating a vector.
+     */
+    default void fill(AbstractGameState state, int playerID, double[] out, int offset) {
+        double[] features = featureVector(state, playerID);
+        System.arraycopy(features, 0, out, offset, features.length);
+    }
+
+    /**
+     * @return true if the features only use what playerID can observe, so that they can be taken from the game
+     * state itself rather than from a copy(playerID) of it
+     */
+    default boolean observableOnly() {
+        return false;
+    }
+
     @Override
     default Integer getKey(AbstractGameState state, int p) {
         int retValue = state.getCurrentPlayer();
@@ -0,0 +1,15 @@
+package core.interfaces;
+
+/**
+ * Implemented by game states that maintain a Zobrist hash of themselves as actions are applied, so that a state key
+ * can be read in constant time rather than computed from the whole state (see evaluation.features.ZobristStateKey).
+ * <p>
+ * The hash must depend only on what playerId can see of the state, so that states in the same information set
+ * for that player have the same hash. Equal hashes do not guarantee equal states: with 64 bits a collision is
+ * unlikely, but not impossible.
+ */
+public interface IZobristHashed {
+
+    long getZobristHash(int playerId);
+
+}
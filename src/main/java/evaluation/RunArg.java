@@ -27,6 +27,17 @@ public enum RunArg {
             "\t This may be useful if you want to use the same destDir for multiple experiments.",
             false,
             new Usage[]{Usage.RunGames}),
+    asyncListeners("(Optional) If true (default is false), then each listener handles its events on its own background thread\n" +
+            "\t (see AsyncGameListener), so that the games are not held up by the work the listeners do.\n" +
+            "\t A TournamentMetricsGameListener, or one that reads the players' search trees or populations\n" +
+            "\t (see IGameListener.readsPlayers()), always runs on the game's thread.",
+            false,
+            new Usage[]{Usage.RunGames}),
+    batchSize("The number of candidate settings NTBEA evaluates in each generation (default is 1).\n" +
+            "\t The games of one generation are independent of each other, and are played concurrently on nThreads threads.\n" +
+            "\t For the best throughput this should be at least nThreads.",
+            1,
+            new Usage[]{Usage.ParameterSearch}),
     budget("The budget to be used by all agent (if they support the IAnyTime interface). \n" +
             "\t If non-zero then this will override the value in any JSON definitions.\n",
             0,
@@ -105,6 +116,13 @@ public enum RunArg {
             "\tFor scores with larger ranges, we recommend scaling kExplore appropriately.",
             1.0,
             new Usage[]{Usage.ParameterSearch}),
+    latencyProfile("(Optional) The name of a JSON file in destDir, to which histograms of the time taken (and memory allocated)\n" +
+            "\t to copy observations, compute actions, make decisions and apply actions in the game loop are written\n" +
+            "\t at the end of the tournament; per player, game phase and range of game ticks (see GameProfile).\n" +
+            "\t Memory is counted on the game's thread only, not on threads a player searches on.\n" +
+            "\t If not specified, the game loop is not profiled.",
+            "",
+            new Usage[]{Usage.RunGames}),
     listener("The full class name of an IGameListener implementation. Or, better, the location\n" +
             "\t of a json file from which a listener can be instantiated.\n" +
             "\t Defaults to evaluation.metrics.MetricsGameListener. \n" +
@@ -138,6 +156,11 @@ public enum RunArg {
     nPlayers("The number of players in each game. Overrides playerRange.",
             -1,
             new Usage[]{Usage.ParameterSearch, Usage.RunGames}),
+    nThreads("The number of threads on which the games of a tournament, or of an NTBEA batch, are played (default is 1).\n" +
+            "\t If 0 or less, one thread is used per available processor. Every game is played with its own copies\n" +
+            "\t of the agents and game parameters, so results do not depend on the number of threads.",
+            1,
+            new Usage[]{Usage.RunGames, Usage.ParameterSearch}),
     discretisation("The number of discretisation levels to use in NTBEAFunctions. Default is 10.",
             10,
             new Usage[]{Usage.ParameterSearch}),
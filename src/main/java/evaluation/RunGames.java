@@ -3,7 +3,9 @@ package evaluation;
 import core.AbstractParameters;
 import core.AbstractPlayer;
 import core.interfaces.IGameRunner;
+import evaluation.listeners.AsyncGameListener;
 import evaluation.listeners.IGameListener;
+import evaluation.listeners.TournamentMetricsGameListener;
 import evaluation.tournaments.RoundRobinTournament;
 import evaluation.tournaments.SkillGrid;
 import games.GameType;
@@ -108,20 +110,26 @@ public class RunGames implements IGameRunner {
 
                 RoundRobinTournament tournament = new RoundRobinTournament(agents, gameType, playerCount, params, config);
 
+                String outputDir = (String) config.get(destDir);
+                List<String> directories = new ArrayList<>(Arrays.asList(outputDir.split(Pattern.quote(File.separator))));
+                if (gamesAndPlayerCounts.size() > 1)
+                    directories.add(gameName);
+                if (gamesAndPlayerCounts.get(gameType).length > 1)
+                    directories.add(playersDir);
+                if ((boolean) config.get(addTimeStamp))
+                    directories.add(timeDir);
+                if (!config.get(latencyProfile).equals(""))
+                    tournament.setProfileFile(String.join(File.separator, directories) + File.separator + config.get(latencyProfile));
+
                 // Add listeners
                 //noinspection unchecked
                 for (String listenerClass : ((List<String>) config.get(listener))) {
                     try {
                         IGameListener gameTracker = IGameListener.createListener(listenerClass);
+                        if ((boolean) config.get(asyncListeners) && !(gameTracker instanceof TournamentMetricsGameListener)
+                                && !gameTracker.readsPlayers())
+                            gameTracker = new AsyncGameListener(gameTracker);
                     tournament.addListener(gameTracker);
-                    String outputDir = (String) config.get(destDir);
-                    List<String> directories = new ArrayList<>(Arrays.asList(outputDir.split(Pattern.quote(File.separator))));
-                    if (gamesAndPlayerCounts.size() > 1)
-                        directories.add(gameName);
-                    if (gamesAndPlayerCounts.get(gameType).length > 1)
-                        directories.add(playersDir);
-                    if ((boolean) config.get(addTimeStamp))
-                        directories.add(timeDir);
                     gameTracker.setOutputDirectory(directories.toArray(new String[0]));
                     } catch (IllegalArgumentException e) {
                         System.out.println("Error creating listener: " + e.getMessage());
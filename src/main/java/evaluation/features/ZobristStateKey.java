@@ -0,0 +1,19 @@
+package evaluation.features;
+
+import core.AbstractGameState;
+import core.interfaces.IStateKey;
+import core.interfaces.IZobristHashed;
+
+/**
+ * A state key for games whose state is IZobristHashed. The hash is maintained by the forward model as actions are
+ * applied, so unlike a key built from a feature vector, getting the key does not depend on the size of the state.
+ */
+public class ZobristStateKey implements IStateKey {
+
+    @Override
+    public Long getKey(AbstractGameState state, int playerId) {
+        if (state instanceof IZobristHashed hashed)
+            return hashed.getZobristHash(playerId);
+        throw new IllegalArgumentException("State does not maintain a Zobrist hash: " + state.getGameType());
+    }
+}
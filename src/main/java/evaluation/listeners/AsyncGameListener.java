@@ -0,0 +1,225 @@
+package evaluation.listeners;
+
+import core.AbstractForwardModel;
+import core.Game;
+import evaluation.metrics.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Hands events on to another listener on a background thread, so that a listener with a lot of work to do per event
+ * (computing features, writing files) does not hold up the game.
+ * <p>
+ * Each event is queued with a snapshot of its state (see AbstractGameState.snapshot()), as the game will have moved
+ * on by the time the event is handled. The queue is bounded: once capacity events are waiting, the game blocks until
+ * the listener catches up. The background thread takes events off the queue in batches, and delivers them in the
+ * order they were raised. On GAME_OVER the game waits until every event of the game has been handled, so a listener
+ * has seen the whole game by the time Game.run() returns; report(), reset(), init() and setOutputDirectory() also
+ * wait for the queue to empty, and are then run on the calling thread.
+ * <p>
+ * The listener's getGame() is likewise a snapshot (see Game.snapshot()), taken with the event: its timings, counts and
+ * players are as they were when the event was raised. It has a forward model of its own where one can be created for
+ * the game, so that the listener does not share the game's. The players themselves are the live ones, so a listener
+ * that reads more of them than their names and parameters (see IGameListener.readsPlayers()) cannot be wrapped.
+ * <p>
+ * Not suitable for a TournamentMetricsGameListener, which the tournament also calls directly as match-ups change.
+ * An exception thrown by the listener is rethrown in the game's thread, from the next call made to this one.
+ */
+public class AsyncGameListener implements IGameListener, AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    // an event to deliver, or (if event is null) a latch to count down once everything before it has been delivered
+    private record Item(Event event, Game game, CountDownLatch flushed) {
+    }
+
+    private final IGameListener delegate;
+    private final BlockingQueue<Item> queue;
+    private volatile Thread consumer;
+    private volatile Throwable failure;
+    private Game game;
+    // the listener's own forward model for game, see forwardModel()
+    private AbstractForwardModel forwardModel;
+    private Game forwardModelOf;
+
+    public AsyncGameListener(IGameListener delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param delegate - the listener to hand events on to
+     * @param capacity - the number of events that can be waiting before the game blocks
+     */
+    public AsyncGameListener(IGameListener delegate, int capacity) {
+        if (delegate.readsPlayers())
+            throw new IllegalArgumentException(delegate.getClass().getSimpleName() +
+                    " reads the players as it handles events, so must handle them on the game's thread");
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public IGameListener getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        Event snapshot = Event.createEvent(event.type, event.state == null ? null : event.state.snapshot(),
+                event.action, event.playerID);
+        Game gameSnapshot = game == null ? null : game.snapshot(snapshot.state, forwardModel());
+        submit(new Item(snapshot, gameSnapshot, null));
+        if (event.type == Event.GameEvent.GAME_OVER)
+            flush();
+    }
+
+    // a forward model for the listener to use, made once per game; the game's own if no other can be created
+    private AbstractForwardModel forwardModel() {
+        if (forwardModelOf != game) {
+            forwardModelOf = game;
+            forwardModel = game.getForwardModel();
+            try {
+                AbstractForwardModel own = game.getGameType().createForwardModel(
+                        game.getGameState().getGameParameters(), game.getGameState().getNPlayers());
+                if (own.getClass() == forwardModel.getClass())
+                    forwardModel = own;
+            } catch (RuntimeException | AssertionError e) {
+                // we fall back to sharing the forward model of the game
+            }
+        }
+        return forwardModel;
+    }
+
+    /**
+     * Waits until every event queued so far has been handled by the listener.
+     */
+    public void flush() {
+        if (consumer != null) {
+            CountDownLatch flushed = new CountDownLatch(1);
+            submit(new Item(null, null, flushed));
+            try {
+                flushed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for listener events to be handled", e);
+            }
+        }
+        checkFailure();
+    }
+
+    private void submit(Item item) {
+        checkFailure();
+        startConsumer();
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while queueing a listener event", e);
+        }
+    }
+
+    private synchronized void startConsumer() {
+        if (consumer == null) {
+            consumer = new Thread(this::deliver, "game-listener");
+            consumer.setDaemon(true);
+            consumer.start();
+        }
+    }
+
+    private void deliver() {
+        List<Item> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                for (Item item : batch) {
+                    if (item.event == null) {
+                        item.flushed.countDown();
+                    } else if (failure == null) {
+                        // once the listener has failed, events are dropped so that the game never blocks on a full queue
+                        try {
+                            if (item.game != null)
+                                delegate.setGame(item.game);
+                            delegate.onEvent(item.event);
+                        } catch (Throwable t) {
+                            failure = t;
+                        }
+                    }
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // closed
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null)
+            throw new RuntimeException("Listener " + delegate.getClass().getSimpleName() + " failed while handling an event", failure);
+    }
+
+    /**
+     * Handles anything still queued, and stops the background thread. The listener can still be used afterwards,
+     * and a new thread is then started.
+     */
+    @Override
+    public synchronized void close() {
+        if (consumer == null)
+            return;
+        try {
+            flush();
+        } finally {
+            consumer.interrupt();
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            consumer = null;
+        }
+    }
+
+    @Override
+    public void report() {
+        flush();
+        delegate.report();
+    }
+
+    @Override
+    public boolean setOutputDirectory(String... nestedDirectories) {
+        flush();
+        return delegate.setOutputDirectory(nestedDirectories);
+    }
+
+    @Override
+    public void setGame(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public Game getGame() {
+        return game;
+    }
+
+    @Override
+    public boolean readsPlayers() {
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        flush();
+        delegate.reset();
+    }
+
+    @Override
+    public void init(Game game, int nPlayersPerGame, Set<String> playerNames) {
+        this.game = game;
+        flush();
+        delegate.init(game, nPlayersPerGame, playerNames);
+    }
+}
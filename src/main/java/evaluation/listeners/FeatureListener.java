@@ -3,6 +3,7 @@ package evaluation.listeners;
 import core.*;
 import core.actions.AbstractAction;
 import core.interfaces.IStatisticLogger;
+import evaluation.loggers.ColumnarStatsLogger;
 import evaluation.loggers.FileStatsLogger;
 import evaluation.metrics.Event;
 import utilities.Utils;
@@ -37,6 +38,16 @@ public abstract class FeatureListener implements IGameListener {
         this.logger = logger;
     }
 
+    /**
+     * @return a ColumnarStatsLogger if the file name ends in ColumnarStatsLogger.EXTENSION, otherwise a
+     * FileStatsLogger writing tab-delimited text
+     */
+    protected static IStatisticLogger createLogger(String fileName) {
+        if (fileName.endsWith(ColumnarStatsLogger.EXTENSION))
+            return new ColumnarStatsLogger(fileName);
+        return new FileStatsLogger(fileName);
+    }
+
     @Override
     public void onEvent(Event event) {
 
@@ -59,6 +70,8 @@ public abstract class FeatureListener implements IGameListener {
 
         if (logger instanceof FileStatsLogger fileLogger) {
             fileLogger.setOutPutDirectory(nestedDirectories);
+        } else if (logger instanceof ColumnarStatsLogger columnarLogger) {
+            columnarLogger.setOutPutDirectory(nestedDirectories);
         }
         return true;
     }
@@ -0,0 +1,106 @@
+package evaluation.listeners;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import core.GameRecord;
+import core.actions.ActionSpace;
+import evaluation.metrics.Event;
+import utilities.Utils;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a GameRecord of each game to a binary file, from which any state of the game can later be rebuilt with
+ * core.GameReplay. A record is kept in memory only while its game is in progress, and is written out when the game
+ * ends; records of games played concurrently (see core.ParallelGameRunner) are kept apart by game ID. Records are
+ * appended to the file if it already exists; read them back with GameRecord.readAll() or GameRecord.read().
+ * <p>
+ * Each decision is recorded against the actions available in the true state, computed again here with the game's
+ * forward model, as that is the list GameReplay will have; the player chose from the list computed on its observation,
+ * which may differ.
+ */
+public class GameRecordListener implements IGameListener {
+
+    private String fileName;
+    private DataOutputStream out;
+    private final Map<Integer, GameRecord> inProgress = new HashMap<>();
+    private Game game;
+
+    /**
+     * @param fileName - the file to write to, relative to the output directory if one is set
+     */
+    public GameRecordListener(String fileName) {
+        this.fileName = fileName;
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        AbstractGameState state = event.state;
+        if (event.type == Event.GameEvent.ABOUT_TO_START) {
+            List<AbstractPlayer> players = game.getPlayers();
+            ActionSpace[] actionSpaces = new ActionSpace[state.getNPlayers()];
+            for (int p = 0; p < actionSpaces.length; p++) {
+                ActionSpace space = players.get(p).getParameters().actionSpace;
+                actionSpaces[p] = space == null ? ActionSpace.Default : space;
+            }
+            inProgress.put(state.getGameID(), new GameRecord(game.getGameType(), state.getNPlayers(),
+                    GameRecord.parametersHash(state.getGameParameters()), state.getGameParameters().getRandomSeed(), actionSpaces));
+        } else if (event.type == Event.GameEvent.ACTION_CHOSEN) {
+            GameRecord record = inProgress.get(state.getGameID());
+            if (record != null)
+                record.addDecision(game.getForwardModel(), state, event.action);
+        } else if (event.type == Event.GameEvent.GAME_OVER) {
+            GameRecord record = inProgress.remove(state.getGameID());
+            if (record != null)
+                write(record);
+        }
+    }
+
+    private void write(GameRecord record) {
+        try {
+            if (out == null)
+                out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName, true)));
+            record.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write game record to " + fileName, e);
+        }
+    }
+
+    @Override
+    public boolean setOutputDirectory(String... nestedDirectories) {
+        if (out != null)
+            throw new AssertionError("Cannot set output directory after initialisation");
+        String folder = Utils.createDirectory(nestedDirectories);
+        fileName = folder + File.separator + fileName;
+        return true;
+    }
+
+    /**
+     * Flushes the records written so far to the file, and closes it. Later games are appended.
+     */
+    @Override
+    public void report() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to close " + fileName, e);
+            }
+            out = null;
+        }
+    }
+
+    @Override
+    public void setGame(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public Game getGame() {
+        return game;
+    }
+}
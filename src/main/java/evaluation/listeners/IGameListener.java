@@ -41,6 +41,15 @@ public interface IGameListener {
 
     Game getGame();
 
+    /**
+     * @return true if the listener reads what the players of the game hold beyond their names and parameters (such
+     * as the search tree of an MCTSPlayer) while handling an event. That changes as soon as the player acts again, so
+     * such a listener must handle each event as it is raised, and cannot be wrapped in an AsyncGameListener.
+     */
+    default boolean readsPlayers() {
+        return false;
+    }
+
     /**
      * Create listener based on given class, logger and metrics class. TODO: more than 1 metrics class
      *
@@ -6,6 +6,7 @@ import evaluation.metrics.AbstractMetric;
 import evaluation.metrics.Event;
 import evaluation.metrics.IDataLogger;
 import evaluation.metrics.IMetricsCollection;
+import evaluation.metrics.streaming.StreamingDataLogger;
 import evaluation.metrics.tablessaw.DataTableSaw;
 import utilities.Utils;
 
@@ -47,6 +48,9 @@ public class MetricsGameListener implements IGameListener {
     String destDir = "metrics/out/"; //by default
     boolean firstReport;
 
+    // Whether metrics use a StreamingDataLogger, which keeps summaries rather than all the data
+    boolean streaming;
+
     public MetricsGameListener() {
     }
 
@@ -59,12 +63,26 @@ public class MetricsGameListener implements IGameListener {
     }
 
     public MetricsGameListener(IDataLogger.ReportDestination logTo, IDataLogger.ReportType[] dataTypes, AbstractMetric[] metrics) {
+        this(logTo, dataTypes, metrics, false);
+    }
+
+    /**
+     * @param streaming - if true, metrics record their data in a StreamingDataLogger, so that memory use stays bounded
+     *                  over long runs. Summaries and plots are then built from running statistics (with approximate
+     *                  quantiles), and raw data is only kept if RawData or RawDataPerEvent reports are asked for.
+     */
+    public MetricsGameListener(IDataLogger.ReportDestination logTo, IDataLogger.ReportType[] dataTypes, AbstractMetric[] metrics, boolean streaming) {
         reportDestinations = Collections.singletonList(logTo);
         this.reportTypes = Arrays.asList(dataTypes);
         this.metrics = new LinkedHashMap<>();
         this.firstReport = true;
+        this.streaming = streaming;
+        boolean keepRawData = reportTypes.contains(RawData) || reportTypes.contains(RawDataPerEvent);
         for (AbstractMetric m : metrics) {
-            m.setDataLogger(new DataTableSaw(m)); //todo this logger needs to be read from JSON
+            if (streaming)
+                m.setDataLogger(new StreamingDataLogger(m, keepRawData));
+            else
+                m.setDataLogger(new DataTableSaw(m)); //todo this logger needs to be read from JSON
             this.metrics.put(m.getName(), m);
             eventsOfInterest.addAll(m.getEventTypes());
         }
@@ -90,8 +108,10 @@ public class MetricsGameListener implements IGameListener {
                 metric.run(this, event);
             }
 
-            if (event.type == GAME_OVER)
+            if (event.type == GAME_OVER) {
                 metric.notifyGameOver();
+                metric.getDataLogger().endGame(event.state.getGameID());
+            }
         }
     }
 
@@ -135,16 +155,24 @@ public class MetricsGameListener implements IGameListener {
 
         // We also create raw data files for groups of metrics responding to the same event
         if (reportTypes.contains(RawDataPerEvent)) {
-            for (IGameEvent event : eventsOfInterest) {
-                List<AbstractMetric> eventMetrics = new ArrayList<>();
-                for (AbstractMetric metric : metrics.values()) {
-                    if (metric.listens(event)) {
-                        eventMetrics.add(metric);
+            if (streaming) {
+                // Joining the tables of several metrics needs them all in memory, so each metric's raw data is
+                // written to its own file instead (unless already done above as RawData)
+                if (!reportTypes.contains(RawData))
+                    for (AbstractMetric metric : metrics.values())
+                        metric.report(destDir, Collections.singletonList(RawData), Collections.singletonList(ToFile), !firstReport);
+            } else {
+                for (IGameEvent event : eventsOfInterest) {
+                    List<AbstractMetric> eventMetrics = new ArrayList<>();
+                    for (AbstractMetric metric : metrics.values()) {
+                        if (metric.listens(event)) {
+                            eventMetrics.add(metric);
+                        }
+                    }
+                    if (!eventMetrics.isEmpty()) {
+                        IDataLogger dataLogger = new DataTableSaw(eventMetrics, event, eventToIndexingColumn(event));
+                        dataLogger.getDefaultProcessor().processRawDataToFile(dataLogger, destDir, !firstReport);
                     }
-                }
-                if (!eventMetrics.isEmpty()) {
-                    IDataLogger dataLogger = new DataTableSaw(eventMetrics, event, eventToIndexingColumn(event));
-                    dataLogger.getDefaultProcessor().processRawDataToFile(dataLogger, destDir, !firstReport);
                 }
             }
             //Clean the data. We don't want to keep this in memory; instead we append after every reporting.
@@ -181,6 +209,11 @@ public class MetricsGameListener implements IGameListener {
         return game;
     }
 
+    @Override
+    public boolean readsPlayers() {
+        return metrics.values().stream().anyMatch(AbstractMetric::readsPlayers);
+    }
+
     public void reset() {
         for (AbstractMetric metric : metrics.values()) {
             metric.reset();
@@ -0,0 +1,75 @@
+package evaluation.listeners;
+
+import core.Game;
+import evaluation.metrics.Event;
+
+import java.util.Set;
+
+/**
+ * Lets one listener be shared by games running concurrently (see core.ParallelGameRunner).
+ * <p>
+ * Each game gets its own wrapper around the shared listener. Every call into the shared listener is made while
+ * holding its lock, and onEvent() first points the shared listener at the wrapper's game (setGame()), so that a
+ * listener that looks at getGame() sees the game the event came from. Events from one game are delivered in order,
+ * but events from different games may be interleaved with each other.
+ */
+public class SynchronizedGameListener implements IGameListener {
+
+    private final IGameListener delegate;
+    private Game game;
+
+    public SynchronizedGameListener(IGameListener delegate) {
+        this.delegate = delegate;
+    }
+
+    public IGameListener getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        synchronized (delegate) {
+            delegate.setGame(game);
+            delegate.onEvent(event);
+        }
+    }
+
+    @Override
+    public void report() {
+        synchronized (delegate) {
+            delegate.report();
+        }
+    }
+
+    @Override
+    public boolean setOutputDirectory(String... nestedDirectories) {
+        synchronized (delegate) {
+            return delegate.setOutputDirectory(nestedDirectories);
+        }
+    }
+
+    @Override
+    public void setGame(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public Game getGame() {
+        return game;
+    }
+
+    @Override
+    public void reset() {
+        synchronized (delegate) {
+            delegate.reset();
+        }
+    }
+
+    @Override
+    public void init(Game game, int nPlayersPerGame, Set<String> playerNames) {
+        this.game = game;
+        synchronized (delegate) {
+            delegate.init(game, nPlayersPerGame, playerNames);
+        }
+    }
+}
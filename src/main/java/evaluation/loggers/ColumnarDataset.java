@@ -0,0 +1,235 @@
+package evaluation.loggers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Reads a binary columnar file written by ColumnarStatsLogger. The file is memory-mapped rather than read in, so
+ * values are only paged in from disk as they are used, and a dataset much larger than the heap can be iterated over a
+ * row at a time.
+ * <p>
+ * File layout (all little-endian): the magic number "TAGC", the format version, the width of each value in bytes
+ * (4 or 8), the number of columns, and each column name as a 2-byte length and UTF-8 bytes. Then blocks, each of
+ * which is the number of rows in the block followed by each column's values for those rows. A block cut short (e.g.
+ * by a run that was killed) is ignored.
+ */
+public class ColumnarDataset implements AutoCloseable {
+
+    static final int MAGIC = 0x43474154;  // "TAGC" in little-endian order
+    static final int VERSION = 1;
+    static final int FIXED_HEADER_BYTES = 3 * Integer.BYTES + 1;
+    // blocks are grouped into buffers of at most this size, as one MappedByteBuffer cannot exceed 2GB
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final String fileName;
+    private final FileChannel channel;
+    private final String[] columns;
+    private final int width;
+    private final long dataEnd;
+
+    // blocks of rows: first row of each block, its number of rows, and where it is in which mapped segment
+    private final long[] blockFirstRow;
+    private final int[] blockRows;
+    private final int[] blockSegment;
+    private final int[] blockOffset;
+    private final MappedByteBuffer[] segments;
+    private final long rows;
+
+    public ColumnarDataset(String fileName) {
+        this.fileName = fileName;
+        try {
+            channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ);
+            long size = channel.size();
+
+            // header
+            ByteBuffer fixed = read(0, FIXED_HEADER_BYTES);
+            if (fixed.getInt() != MAGIC)
+                throw new IOException("Not a columnar data file");
+            int version = fixed.getInt();
+            if (version != VERSION)
+                throw new IOException("Unknown columnar data version " + version);
+            width = fixed.get();
+            if (width != Float.BYTES && width != Double.BYTES)
+                throw new IOException("Unknown value width " + width);
+            columns = new String[fixed.getInt()];
+            long position = FIXED_HEADER_BYTES;
+            for (int c = 0; c < columns.length; c++) {
+                int length = read(position, Short.BYTES).getShort();
+                columns[c] = StandardCharsets.UTF_8.decode(read(position + Short.BYTES, length)).toString();
+                position += Short.BYTES + length;
+            }
+
+            // find the blocks, and group them into segments to map
+            List<long[]> blocks = new ArrayList<>();  // {offset, rows}
+            long rowBytes = (long) columns.length * width;
+            while (position + Integer.BYTES <= size) {
+                int n = read(position, Integer.BYTES).getInt();
+                long blockBytes = Integer.BYTES + n * rowBytes;
+                if (n <= 0 || position + blockBytes > size)
+                    break;
+                blocks.add(new long[]{position, n});
+                position += blockBytes;
+            }
+            dataEnd = position;
+
+            int nBlocks = blocks.size();
+            blockFirstRow = new long[nBlocks];
+            blockRows = new int[nBlocks];
+            blockSegment = new int[nBlocks];
+            blockOffset = new int[nBlocks];
+            List<MappedByteBuffer> mapped = new ArrayList<>();
+            long segmentStart = -1, totalRows = 0;
+            for (int b = 0; b < nBlocks; b++) {
+                long offset = blocks.get(b)[0];
+                long end = b + 1 < nBlocks ? blocks.get(b + 1)[0] : dataEnd;
+                if (segmentStart < 0 || end - segmentStart > MAX_SEGMENT_BYTES) {
+                    if (segmentStart >= 0)
+                        mapped.add(map(segmentStart, offset));
+                    segmentStart = offset;
+                }
+                blockFirstRow[b] = totalRows;
+                blockRows[b] = (int) blocks.get(b)[1];
+                blockSegment[b] = mapped.size();
+                // values start after the row count
+                blockOffset[b] = (int) (offset - segmentStart) + Integer.BYTES;
+                totalRows += blockRows[b];
+            }
+            if (segmentStart >= 0)
+                mapped.add(map(segmentStart, dataEnd));
+            segments = mapped.toArray(new MappedByteBuffer[0]);
+            rows = totalRows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Problem reading columnar data from " + fileName, e);
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining())
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new IOException("Unexpected end of file");
+        return buffer.flip();
+    }
+
+    private MappedByteBuffer map(long start, long end) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * @return true if the file starts with the header of a columnar data file
+     */
+    public static boolean isColumnar(String fileName) {
+        try (FileChannel c = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            return c.read(magic, 0) == Integer.BYTES && magic.flip().getInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public String[] columnNames() {
+        return columns.clone();
+    }
+
+    /**
+     * @return the index of the named column, or -1 if there is none
+     */
+    public int columnIndex(String name) {
+        for (int c = 0; c < columns.length; c++)
+            if (columns[c].equals(name))
+                return c;
+        return -1;
+    }
+
+    public boolean isSinglePrecision() {
+        return width == Float.BYTES;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * @return the end of the last complete block
+     */
+    long dataEnd() {
+        return dataEnd;
+    }
+
+    private double value(int block, int column, int rowInBlock) {
+        int index = blockOffset[block] + (column * blockRows[block] + rowInBlock) * width;
+        MappedByteBuffer segment = segments[blockSegment[block]];
+        return width == Double.BYTES ? segment.getDouble(index) : segment.getFloat(index);
+    }
+
+    private int blockOf(long row) {
+        if (row < 0 || row >= rows)
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rows);
+        int b = Arrays.binarySearch(blockFirstRow, row);
+        return b >= 0 ? b : -b - 2;
+    }
+
+    public double get(long row, int column) {
+        int b = blockOf(row);
+        return value(b, column, (int) (row - blockFirstRow[b]));
+    }
+
+    /**
+     * Reads one row into the given array, which must have one entry per column
+     */
+    public void readRow(long row, double[] into) {
+        int b = blockOf(row);
+        int r = (int) (row - blockFirstRow[b]);
+        for (int c = 0; c < columns.length; c++)
+            into[c] = value(b, c, r);
+    }
+
+    /**
+     * Calls action on each row in turn. The array passed is reused from one row to the next, so only one row is ever
+     * held on the heap.
+     */
+    public void forEachRow(Consumer<double[]> action) {
+        double[] row = new double[columns.length];
+        for (int b = 0; b < blockRows.length; b++) {
+            for (int r = 0; r < blockRows[b]; r++) {
+                for (int c = 0; c < columns.length; c++)
+                    row[c] = value(b, c, r);
+                action.accept(row);
+            }
+        }
+    }
+
+    /**
+     * Reads all the values of one column
+     */
+    public double[] column(int column) {
+        if (rows > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Too many rows to read a column into one array: " + rows);
+        double[] values = new double[(int) rows];
+        int i = 0;
+        for (int b = 0; b < blockRows.length; b++)
+            for (int r = 0; r < blockRows[b]; r++)
+                values[i++] = value(b, column, r);
+        return values;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Problem closing " + fileName, e);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package evaluation.loggers;
+
+import core.interfaces.IStatisticLogger;
+import evaluation.summarisers.TAGStatSummary;
+import utilities.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Writes numeric data to a binary columnar file, which ColumnarDataset reads back through memory-mapped buffers.
+ * A drop-in alternative to FileStatsLogger for feature data (see FeatureListener), which avoids formatting and
+ * parsing text.
+ * <p>
+ * The file has a small header (see ColumnarDataset), then blocks of up to blockRows rows. Each block holds the
+ * number of rows in it, and then each column in turn as fixed-width values (float64, or float32 if singlePrecision is
+ * set). Rows are buffered until a block is full, and written with a single FileChannel write. As with
+ * FileStatsLogger, the columns are fixed by the first record; values that are missing or not numbers are written as
+ * NaN, and unknown keys are ignored.
+ */
+public class ColumnarStatsLogger implements IStatisticLogger {
+
+    public static final int DEFAULT_BLOCK_ROWS = 4096;
+    // file extension that FeatureListener takes to mean this format
+    public static final String EXTENSION = ".cols";
+
+    private String fileName;
+    private final boolean append;
+    private final boolean singlePrecision;
+    private final int maxBlockRows;
+    private String actionName;
+
+    private String[] columns;
+    private Map<String, Integer> columnIndex;
+    private double[][] block;   // [column][row]
+    private int blockRows;      // capacity of block, in rows
+    private int rows;           // rows in block
+    private ByteBuffer buffer;
+    private FileChannel channel;
+
+    public ColumnarStatsLogger(String fileName) {
+        this(fileName, false, true, DEFAULT_BLOCK_ROWS);
+    }
+
+    /**
+     * @param fileName        - the full location of the file to write to
+     * @param singlePrecision - write values as float32 rather than float64
+     * @param append          - add to the file if it exists (it must then have the same columns and precision)
+     * @param blockRows       - the number of rows per block
+     */
+    public ColumnarStatsLogger(String fileName, boolean singlePrecision, boolean append, int blockRows) {
+        if (blockRows < 1)
+            throw new AssertionError("blockRows must be positive");
+        this.fileName = fileName;
+        this.singlePrecision = singlePrecision;
+        this.append = append;
+        this.maxBlockRows = blockRows;
+    }
+
+    public void setOutPutDirectory(String... nestedDirectories) {
+        if (channel != null) {
+            throw new AssertionError("Cannot set output directory after initialisation");
+        }
+        String folder = Utils.createDirectory(nestedDirectories);
+        this.fileName = folder + File.separator + this.fileName;
+    }
+
+    private void initialise(Collection<String> keys) {
+        columns = keys.stream()
+                .map(k -> actionName == null ? k : k.replace(":" + actionName, ""))
+                .toArray(String[]::new);
+        columnIndex = new HashMap<>();
+        int i = 0;
+        for (String key : keys)
+            columnIndex.put(key, i++);
+        int width = singlePrecision ? Float.BYTES : Double.BYTES;
+        // keep blocks well within what can be mapped in one buffer
+        blockRows = (int) Math.max(1, Math.min(maxBlockRows, (1L << 30) / ((long) width * Math.max(1, columns.length))));
+        block = new double[columns.length][blockRows];
+        buffer = ByteBuffer.allocateDirect(Integer.BYTES + blockRows * columns.length * width).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            Path path = Path.of(fileName);
+            boolean exists = path.toFile().exists() && path.toFile().length() > 0;
+            if (append && exists) {
+                try (ColumnarDataset existing = new ColumnarDataset(fileName)) {
+                    if (!Arrays.equals(existing.columnNames(), columns) || existing.isSinglePrecision() != singlePrecision)
+                        throw new AssertionError("Cannot append to " + fileName + ": it has different columns or precision");
+                    // drop any partial block left by a writer that did not finish
+                    try (FileChannel c = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                        c.truncate(existing.dataEnd());
+                    }
+                }
+                channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            } else {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                writeHeader();
+            }
+        } catch (IOException e) {
+            throw new AssertionError("Problem opening file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        List<byte[]> names = new ArrayList<>();
+        int size = ColumnarDataset.FIXED_HEADER_BYTES;
+        for (String column : columns) {
+            byte[] name = column.getBytes(StandardCharsets.UTF_8);
+            if (name.length > Short.MAX_VALUE)
+                throw new AssertionError("Column name too long: " + column);
+            names.add(name);
+            size += Short.BYTES + name.length;
+        }
+        ByteBuffer header = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(ColumnarDataset.MAGIC);
+        header.putInt(ColumnarDataset.VERSION);
+        header.put((byte) (singlePrecision ? Float.BYTES : Double.BYTES));
+        header.putInt(columns.length);
+        for (byte[] name : names) {
+            header.putShort((short) name.length);
+            header.put(name);
+        }
+        header.flip();
+        while (header.hasRemaining())
+            channel.write(header);
+    }
+
+    /**
+     * Records one row. Nested maps are flattened, as in FileStatsLogger.
+     */
+    @Override
+    public void record(Map<String, ?> rawData) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (Map.Entry<String, ?> entry : rawData.entrySet()) {
+            if (entry.getValue() instanceof Map<?, ?> map) {
+                for (Map.Entry<?, ?> nested : map.entrySet())
+                    data.put(String.valueOf(nested.getKey()), nested.getValue());
+            } else {
+                data.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (channel == null)
+            initialise(data.keySet());
+
+        for (int c = 0; c < columns.length; c++)
+            block[c][rows] = Double.NaN;
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            Integer c = columnIndex.get(entry.getKey());
+            if (c != null && entry.getValue() instanceof Number n)
+                block[c][rows] = n.doubleValue();
+        }
+        if (++rows == blockRows)
+            writeBlock();
+    }
+
+    @Override
+    public void record(String key, Object datum) {
+        // only whole rows are recorded, as with FileStatsLogger
+    }
+
+    private void writeBlock() {
+        if (rows == 0)
+            return;
+        buffer.clear();
+        buffer.putInt(rows);
+        for (double[] column : block) {
+            for (int r = 0; r < rows; r++) {
+                if (singlePrecision)
+                    buffer.putFloat((float) column[r]);
+                else
+                    buffer.putDouble(column[r]);
+            }
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Problem writing to file " + fileName, e);
+        }
+        rows = 0;
+    }
+
+    /**
+     * Writes out any buffered rows (as a short block), and closes the file
+     */
+    @Override
+    public void processDataAndFinish() {
+        if (channel == null) return;
+        writeBlock();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new AssertionError("Problem closing file " + fileName + " : " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    /**
+     * Writes out any buffered rows (as a short block)
+     */
+    @Override
+    public void processDataAndNotFinish() {
+        if (channel == null) return;
+        writeBlock();
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new AssertionError("Problem flushing file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * This always returns an empty Map
+     */
+    @Override
+    public Map<String, TAGStatSummary> summary() {
+        return new HashMap<>();
+    }
+
+    @Override
+    public ColumnarStatsLogger emptyCopy(String id) {
+        String[] fileParts = fileName.split(Pattern.quote("."));
+        if (fileParts.length != 2)
+            throw new AssertionError("Filename does not conform to expected <stem>.<type>");
+        String newFileName = fileParts[0] + "_" + id + "." + fileParts[1];
+        ColumnarStatsLogger retValue = new ColumnarStatsLogger(newFileName, singlePrecision, append, maxBlockRows);
+        retValue.actionName = id;
+        return retValue;
+    }
+}
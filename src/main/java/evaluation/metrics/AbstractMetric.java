@@ -184,6 +184,14 @@ public abstract class AbstractMetric {
         return eventTypes.contains(eventType);
     }
 
+    /**
+     * @return true if this metric reads what the players hold beyond their names and parameters, such as their
+     * search trees (see IGameListener.readsPlayers()). Default behaviour is false.
+     */
+    public boolean readsPlayers() {
+        return false;
+    }
+
     /**
      * @return true if this metric should filter data in table by event type when reporting, creating several
      * tables of separate relevant data instead of one. Default behaviour is true. May override to return false
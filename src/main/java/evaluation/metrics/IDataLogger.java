@@ -45,6 +45,12 @@ public interface IDataLogger
      */
     IDataProcessor getDefaultProcessor();
 
+    /**
+     * Called when a game has finished, for loggers that summarise the data of each game as they go.
+     * @param gameID - ID of the game that has finished
+     */
+    default void endGame(int gameID) {}
+
     void flush();
 
     IDataLogger copy();
@@ -0,0 +1,107 @@
+package evaluation.metrics.streaming;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Running statistics for a categorical column: the total count of each category, and, across the games finished so
+ * far, the mean, variance, min and max of the number of times each category was recorded in a game. Counts are only
+ * kept per game while the game is in progress; when it ends they are folded into the per-category statistics. Games
+ * in which the column recorded nothing are left out of these, and a game in which a category was not recorded counts
+ * as zero for that category.
+ */
+class CategoryColumnSummary {
+
+    private final Map<String, Long> totals = new LinkedHashMap<>();
+    private final Map<String, Map<String, Integer>> openGames = new HashMap<>();
+    private final Map<String, PerGame> perGame = new HashMap<>();
+    private int games;
+
+    void add(String category, String gameID) {
+        totals.merge(category, 1L, Long::sum);
+        openGames.computeIfAbsent(gameID, id -> new HashMap<>()).merge(category, 1, Integer::sum);
+    }
+
+    void endGame(String gameID) {
+        Map<String, Integer> counts = openGames.remove(gameID);
+        if (counts == null)
+            return;
+        games++;
+        for (Map.Entry<String, Integer> e : counts.entrySet())
+            perGame.computeIfAbsent(e.getKey(), c -> new PerGame()).add(e.getValue());
+    }
+
+    CategoryColumnSummary copy() {
+        CategoryColumnSummary copy = new CategoryColumnSummary();
+        copy.totals.putAll(totals);
+        openGames.forEach((id, counts) -> copy.openGames.put(id, new HashMap<>(counts)));
+        perGame.forEach((category, p) -> copy.perGame.put(category, p.copy()));
+        copy.games = games;
+        return copy;
+    }
+
+    Set<String> categories() {
+        return totals.keySet();
+    }
+
+    long total(String category) {
+        return totals.getOrDefault(category, 0L);
+    }
+
+    /**
+     * @return the number of finished games in which this column recorded something
+     */
+    int games() {
+        return games;
+    }
+
+    double meanPerGame(String category) {
+        PerGame p = perGame.get(category);
+        return p == null || games == 0 ? 0 : p.sum / games;
+    }
+
+    double variancePerGame(String category) {
+        PerGame p = perGame.get(category);
+        if (p == null || games < 2)
+            return 0;
+        double mean = p.sum / games;
+        return Math.max(0, (p.sumSq - games * mean * mean) / (games - 1));
+    }
+
+    double minPerGame(String category) {
+        PerGame p = perGame.get(category);
+        return p == null || p.games < games ? 0 : p.min;
+    }
+
+    double maxPerGame(String category) {
+        PerGame p = perGame.get(category);
+        return p == null ? 0 : p.max;
+    }
+
+    // count of a category over the games in which it was recorded
+    private static class PerGame {
+        int games;
+        double sum, sumSq;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+
+        void add(int count) {
+            games++;
+            sum += count;
+            sumSq += (double) count * count;
+            min = Math.min(min, count);
+            max = Math.max(max, count);
+        }
+
+        PerGame copy() {
+            PerGame copy = new PerGame();
+            copy.games = games;
+            copy.sum = sum;
+            copy.sumSq = sumSq;
+            copy.min = min;
+            copy.max = max;
+            return copy;
+        }
+    }
+}
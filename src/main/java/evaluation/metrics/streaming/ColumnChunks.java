@@ -0,0 +1,222 @@
+package evaluation.metrics.streaming;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Raw rows of data, held column by column in typed arrays of chunkRows rows. Once every column of the current chunk
+ * is full, the chunk is appended to a temporary file and the arrays are reused, so memory use does not grow with the
+ * number of rows.
+ * <p>
+ * Each chunk on file is: the number of rows and of columns, then for each column its type and its values in row
+ * order, each preceded by a flag for a missing value. Columns added after rows have been recorded are missing from
+ * the earlier rows.
+ */
+class ColumnChunks {
+
+    private static final byte INT = 0, DOUBLE = 1, BOOLEAN = 2, STRING = 3;
+
+    private final int chunkRows;
+    private final List<String> names = new ArrayList<>();
+    private final List<Buffer> columns = new ArrayList<>();
+    private final Map<String, Buffer> byName = new HashMap<>();
+    private int fullColumns;
+    private long rowsSpilled;
+    private Path file;
+    private DataOutputStream out;
+
+    ColumnChunks(int chunkRows) {
+        this.chunkRows = chunkRows;
+    }
+
+    void addColumn(String name, Class<?> type) {
+        if (byName.containsKey(name))
+            return;
+        byte code;
+        if (type == Integer.class) code = INT;
+        else if (type == Double.class) code = DOUBLE;
+        else if (type == Boolean.class) code = BOOLEAN;
+        else code = STRING;
+        Buffer buffer = new Buffer(code);
+        // pad the rows already in the current chunk
+        int size = columns.isEmpty() ? 0 : columns.get(0).size;
+        for (int i = 0; i < size; i++)
+            buffer.add(null);
+        names.add(name);
+        columns.add(buffer);
+        byName.put(name, buffer);
+    }
+
+    List<String> names() {
+        return names;
+    }
+
+    void add(String name, Object value) {
+        Buffer buffer = byName.get(name);
+        if (buffer == null)
+            throw new IllegalArgumentException("Unknown column " + name);
+        buffer.add(value);
+        if (buffer.size == chunkRows && ++fullColumns == columns.size())
+            spill();
+    }
+
+    /**
+     * @return the number of complete rows recorded
+     */
+    long rows() {
+        long inMemory = columns.stream().mapToInt(b -> b.size).min().orElse(0);
+        return rowsSpilled + inMemory;
+    }
+
+    private void spill() {
+        try {
+            if (out == null) {
+                file = Files.createTempFile("tag-metrics-", ".chunks");
+                file.toFile().deleteOnExit();
+                out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            }
+            out.writeInt(chunkRows);
+            out.writeInt(columns.size());
+            for (Buffer buffer : columns) {
+                out.writeByte(buffer.type);
+                for (int i = 0; i < chunkRows; i++)
+                    buffer.write(out, i);
+                buffer.size = 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write metrics data to " + file, e);
+        }
+        rowsSpilled += chunkRows;
+        fullColumns = 0;
+    }
+
+    /**
+     * Calls action on each complete row, in the order recorded; the array passed is reused from one row to the next.
+     */
+    void forEachRow(Consumer<Object[]> action) {
+        Object[] row = new Object[columns.size()];
+        if (out != null) {
+            try {
+                out.flush();
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                    for (long read = 0; read < rowsSpilled; ) {
+                        int nRows = in.readInt();
+                        int nColumns = in.readInt();
+                        Object[][] chunk = new Object[columns.size()][nRows];
+                        for (int c = 0; c < nColumns; c++) {
+                            byte type = in.readByte();
+                            for (int r = 0; r < nRows; r++)
+                                chunk[c][r] = read(in, type);
+                        }
+                        for (int r = 0; r < nRows; r++) {
+                            for (int c = 0; c < row.length; c++)
+                                row[c] = chunk[c][r];
+                            action.accept(row);
+                        }
+                        read += nRows;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read metrics data from " + file, e);
+            }
+        }
+        long inMemory = rows() - rowsSpilled;
+        for (int r = 0; r < inMemory; r++) {
+            for (int c = 0; c < row.length; c++)
+                row[c] = columns.get(c).get(r);
+            action.accept(row);
+        }
+    }
+
+    private static Object read(DataInputStream in, byte type) throws IOException {
+        if (in.readBoolean())
+            return null;
+        return switch (type) {
+            case INT -> in.readInt();
+            case DOUBLE -> in.readDouble();
+            case BOOLEAN -> in.readBoolean();
+            default -> in.readUTF();
+        };
+    }
+
+    /**
+     * Drops all the rows recorded so far, keeping the columns
+     */
+    void clear() {
+        for (Buffer buffer : columns)
+            buffer.size = 0;
+        fullColumns = 0;
+        rowsSpilled = 0;
+        if (out != null) {
+            try {
+                out.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to delete " + file, e);
+            }
+            out = null;
+            file = null;
+        }
+    }
+
+    /**
+     * The current chunk of one column. Values are held in the array of their type, so that numbers are not boxed.
+     */
+    private class Buffer {
+        final byte type;
+        final boolean[] missing = new boolean[chunkRows];
+        final int[] ints;
+        final double[] doubles;
+        final String[] strings;
+        int size;
+
+        Buffer(byte type) {
+            this.type = type;
+            ints = type == INT || type == BOOLEAN ? new int[chunkRows] : null;
+            doubles = type == DOUBLE ? new double[chunkRows] : null;
+            strings = type == STRING ? new String[chunkRows] : null;
+        }
+
+        void add(Object value) {
+            missing[size] = value == null;
+            if (value != null) {
+                switch (type) {
+                    case INT -> ints[size] = ((Number) value).intValue();
+                    case DOUBLE -> doubles[size] = ((Number) value).doubleValue();
+                    case BOOLEAN -> ints[size] = (Boolean) value ? 1 : 0;
+                    default -> strings[size] = value.toString();
+                }
+            }
+            size++;
+        }
+
+        Object get(int i) {
+            if (missing[i])
+                return null;
+            return switch (type) {
+                case INT -> ints[i];
+                case DOUBLE -> doubles[i];
+                case BOOLEAN -> ints[i] == 1;
+                default -> strings[i];
+            };
+        }
+
+        void write(DataOutputStream out, int i) throws IOException {
+            out.writeBoolean(missing[i]);
+            if (missing[i])
+                return;
+            switch (type) {
+                case INT -> out.writeInt(ints[i]);
+                case DOUBLE -> out.writeDouble(doubles[i]);
+                case BOOLEAN -> out.writeBoolean(ints[i] == 1);
+                default -> out.writeUTF(strings[i]);
+            }
+        }
+    }
+}
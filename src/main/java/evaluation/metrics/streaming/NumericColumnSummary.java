@@ -0,0 +1,118 @@
+package evaluation.metrics.streaming;
+
+import evaluation.summarisers.QuantileSketch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Running statistics for a numeric column: count, sum, mean and variance (Welford's method), min and max, and a
+ * QuantileSketch for the median and other quantiles. Alongside these, the same count, mean and variance are kept for
+ * each row index within a game (the first row of each game, the second, ...), for plots of the progression through
+ * a game. Memory use depends on the length of the longest game, not on the number of games.
+ */
+class NumericColumnSummary {
+
+    private Moments all = new Moments();
+    private final List<Moments> byRow = new ArrayList<>();
+    private final QuantileSketch sketch = new QuantileSketch();
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param value     - the value recorded
+     * @param rowInGame - the index of its row among the rows of the same game
+     */
+    void add(double value, int rowInGame) {
+        all.add(value);
+        while (byRow.size() <= rowInGame)
+            byRow.add(new Moments());
+        byRow.get(rowInGame).add(value);
+        sketch.add(value);
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    long n() {
+        return all.n;
+    }
+
+    double sum() {
+        return sum;
+    }
+
+    double mean() {
+        return all.mean;
+    }
+
+    double variance() {
+        return all.variance();
+    }
+
+    double min() {
+        return all.n == 0 ? Double.NaN : min;
+    }
+
+    double max() {
+        return all.n == 0 ? Double.NaN : max;
+    }
+
+    double quantile(double q) {
+        return sketch.quantile(q);
+    }
+
+    NumericColumnSummary copy() {
+        NumericColumnSummary copy = new NumericColumnSummary();
+        copy.all = all.copy();
+        for (Moments m : byRow)
+            copy.byRow.add(m.copy());
+        copy.sketch.add(sketch);
+        copy.sum = sum;
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+
+    /**
+     * @return the number of row indices seen, i.e. the number of rows in the longest game
+     */
+    int rowsInLongestGame() {
+        return byRow.size();
+    }
+
+    double meanAtRow(int row) {
+        return byRow.get(row).mean;
+    }
+
+    double stdErrAtRow(int row) {
+        Moments m = byRow.get(row);
+        return m.n > 1 ? Math.sqrt(m.variance() / m.n) : 0;
+    }
+
+    private static class Moments {
+        long n;
+        double mean;
+        double m2;
+
+        void add(double value) {
+            n++;
+            double delta = value - mean;
+            mean += delta / n;
+            m2 += delta * (value - mean);
+        }
+
+        Moments copy() {
+            Moments copy = new Moments();
+            copy.n = n;
+            copy.mean = mean;
+            copy.m2 = m2;
+            return copy;
+        }
+
+        double variance() {
+            return n > 1 ? m2 / (n - 1) : 0;
+        }
+    }
+}
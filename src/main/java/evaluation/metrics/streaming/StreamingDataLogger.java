@@ -0,0 +1,184 @@
+package evaluation.metrics.streaming;
+
+import core.Game;
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.IDataLogger;
+import evaluation.metrics.IDataProcessor;
+
+import java.util.*;
+
+/**
+ * A data logger that keeps running summaries of each column rather than the data itself, so that memory use stays
+ * bounded however many games are run. Numeric columns keep the statistics in NumericColumnSummary, including
+ * approximate quantiles; categorical (String and Boolean) columns keep the counts in CategoryColumnSummary.
+ * <p>
+ * If keepRawData is set (needed for the RawData report), the rows are also kept, column by column in typed arrays,
+ * and spilled to a temporary file every chunkRows rows (see ColumnChunks). flush() drops the rows, once they have
+ * been written out; the summaries cover everything recorded since the last reset().
+ * <p>
+ * Rows are counted on the GameID column, which AbstractMetric.addDefaultData() records first for each row. Statistics
+ * per game are completed by endGame(), which MetricsGameListener calls on GAME_OVER.
+ */
+public class StreamingDataLogger implements IDataLogger {
+
+    public static final int DEFAULT_CHUNK_ROWS = 4096;
+
+    final AbstractMetric metric;
+    final boolean keepRawData;
+    final int chunkRows;
+
+    final Map<String, NumericColumnSummary> numeric = new LinkedHashMap<>();
+    final Map<String, CategoryColumnSummary> categories = new LinkedHashMap<>();
+    ColumnChunks rawData;
+    private final Map<String, Class<?>> columns = new LinkedHashMap<>();
+    private final Map<String, Integer> rowsInOpenGames = new HashMap<>();
+    private long rows;
+    private String gameID;
+    private int rowInGame;
+
+    public StreamingDataLogger(AbstractMetric metric, boolean keepRawData) {
+        this(metric, keepRawData, DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * @param metric      - the metric whose data this logs
+     * @param keepRawData - whether to keep the rows for a RawData report, as well as the summaries
+     * @param chunkRows   - the number of rows held in memory before they are written to a temporary file
+     */
+    public StreamingDataLogger(AbstractMetric metric, boolean keepRawData, int chunkRows) {
+        if (chunkRows < 1)
+            throw new AssertionError("chunkRows must be positive");
+        this.metric = metric;
+        this.keepRawData = keepRawData;
+        this.chunkRows = chunkRows;
+        this.rawData = keepRawData ? new ColumnChunks(chunkRows) : null;
+    }
+
+    @Override
+    public void reset() {
+        if (rawData != null)
+            rawData.clear();
+        rawData = keepRawData ? new ColumnChunks(chunkRows) : null;
+        numeric.clear();
+        categories.clear();
+        columns.clear();
+        rowsInOpenGames.clear();
+        rows = 0;
+        gameID = null;
+    }
+
+    @Override
+    public void init(Game game, int nPlayersPerGame, Set<String> playerNames) {
+        // Add default columns
+        for (Map.Entry<String, Class<?>> entry : metric.getDefaultColumns().entrySet())
+            addColumn(entry.getKey(), entry.getValue());
+
+        // Add metric-defined columns
+        for (Map.Entry<String, Class<?>> entry : metric.getColumns(nPlayersPerGame, playerNames).entrySet()) {
+            if (addColumn(entry.getKey(), entry.getValue())) {
+                // Keep the name of the column
+                metric.addColumnName(entry.getKey());
+            }
+        }
+    }
+
+    private boolean addColumn(String name, Class<?> type) {
+        if (columns.containsKey(name))
+            return false;
+        if (type != Integer.class && type != Double.class && type != String.class && type != Boolean.class)
+            throw new AssertionError("Unknown column type");
+        columns.put(name, type);
+        if (rawData != null)
+            rawData.addColumn(name, type);
+        if (!metric.getDefaultColumns().containsKey(name)) {
+            if (type == Integer.class || type == Double.class)
+                numeric.put(name, new NumericColumnSummary());
+            else
+                categories.put(name, new CategoryColumnSummary());
+        }
+        return true;
+    }
+
+    @Override
+    public void addData(String columnName, Object data) {
+        if (!columns.containsKey(columnName))
+            throw new IllegalArgumentException("Unknown column " + columnName);
+        if (columnName.equals("GameID")) {
+            rows++;
+            gameID = String.valueOf(data);
+            rowInGame = rowsInOpenGames.merge(gameID, 1, Integer::sum) - 1;
+        }
+        if (data != null) {
+            NumericColumnSummary n = numeric.get(columnName);
+            if (n != null) {
+                n.add(((Number) data).doubleValue(), rowInGame);
+            } else {
+                CategoryColumnSummary c = categories.get(columnName);
+                if (c != null)
+                    c.add(data.toString(), gameID);
+            }
+        }
+        if (rawData != null)
+            rawData.add(columnName, data);
+    }
+
+    @Override
+    public void endGame(int gameID) {
+        String id = String.valueOf(gameID);
+        rowsInOpenGames.remove(id);
+        for (CategoryColumnSummary c : categories.values())
+            c.endGame(id);
+    }
+
+    /**
+     * @return the number of rows recorded since the last reset()
+     */
+    public long rows() {
+        return rows;
+    }
+
+    @Override
+    public IDataProcessor getDefaultProcessor() {
+        return new StreamingDataProcessor();
+    }
+
+    @Override
+    public void flush() {
+        if (rawData != null)
+            rawData.clear();
+    }
+
+    /**
+     * @return a logger with the same metric, settings and columns, and copies of the summaries and any rows kept
+     */
+    @Override
+    public IDataLogger copy() {
+        StreamingDataLogger copy = (StreamingDataLogger) emptyCopy();
+        numeric.forEach((name, summary) -> copy.numeric.put(name, summary.copy()));
+        categories.forEach((name, summary) -> copy.categories.put(name, summary.copy()));
+        copy.rowsInOpenGames.putAll(rowsInOpenGames);
+        copy.rows = rows;
+        copy.gameID = gameID;
+        copy.rowInGame = rowInGame;
+        if (rawData != null) {
+            List<String> names = rawData.names();
+            rawData.forEachRow(row -> {
+                for (int c = 0; c < row.length; c++)
+                    copy.rawData.add(names.get(c), row[c]);
+            });
+        }
+        return copy;
+    }
+
+    @Override
+    public IDataLogger emptyCopy() {
+        StreamingDataLogger copy = new StreamingDataLogger(metric, keepRawData, chunkRows);
+        columns.forEach(copy::addColumn);
+        return copy;
+    }
+
+    @Override
+    public IDataLogger create() {
+        return new StreamingDataLogger(metric, keepRawData, chunkRows);
+    }
+}
@@ -0,0 +1,253 @@
+package evaluation.metrics.streaming;
+
+import evaluation.metrics.IDataLogger;
+import evaluation.metrics.IDataProcessor;
+import evaluation.metrics.tablessaw.TableSawDataProcessor;
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.plotly.components.*;
+import tech.tablesaw.plotly.traces.BarTrace;
+import tech.tablesaw.plotly.traces.ScatterTrace;
+import tech.tablesaw.plotly.traces.Trace;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static utilities.Utils.createDirectory;
+
+/**
+ * Reports the data of a StreamingDataLogger. Summaries and plots are built from the running summaries, in the same
+ * layout as TableSawDataProcessor (a Measure/Value table per numeric column, Category/Count per categorical column,
+ * and a table of statistics per category across games when the metric records more than one row per game); the
+ * median and the other quantiles are approximate. Raw data is written as CSV straight from the kept rows.
+ */
+public class StreamingDataProcessor implements IDataProcessor {
+
+    private static final double[] QUANTILES = {0.1, 0.25, 0.5, 0.75, 0.9};
+    private static final String[] QUANTILE_NAMES = {"P10", "P25", "Median", "P75", "P90"};
+
+    @Override
+    public void processRawDataToConsole(IDataLogger logger) {
+        StreamingDataLogger sdl = (StreamingDataLogger) logger;
+        if (sdl.rawData == null) {
+            System.out.println("Raw data for " + sdl.metric.getName() + " was not kept");
+            return;
+        }
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        System.out.println();
+        writeCsv(sdl.rawData, writer, true);
+        writer.flush();
+    }
+
+    @Override
+    public void processRawDataToFile(IDataLogger logger, String folderName, boolean append) {
+        StreamingDataLogger sdl = (StreamingDataLogger) logger;
+        if (sdl.rawData == null) {
+            System.out.println("Raw data for " + sdl.metric.getName() + " was not kept");
+            return;
+        }
+        File file = new File(folderName + "/" + sdl.metric.getName() + ".csv");
+        boolean headerNeeded = !append || !file.exists();
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file, append), StandardCharsets.UTF_8)))) {
+            writeCsv(sdl.rawData, writer, headerNeeded);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsv(ColumnChunks rawData, PrintWriter writer, boolean header) {
+        if (header)
+            writer.println(String.join(",", rawData.names().stream().map(StreamingDataProcessor::csvValue).toList()));
+        StringBuilder line = new StringBuilder();
+        rawData.forEachRow(row -> {
+            line.setLength(0);
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) line.append(',');
+                if (row[i] != null) line.append(csvValue(row[i].toString()));
+            }
+            writer.println(line);
+        });
+    }
+
+    private static String csvValue(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0)
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Whether the metric records more than one row per game, as in TableSawDataProcessor.
+     */
+    private boolean isProgression(StreamingDataLogger sdl) {
+        return sdl.metric.getGamesCompleted() < sdl.rows();
+    }
+
+    protected Map<String, List<Table>> summariseData(StreamingDataLogger sdl) {
+        boolean progression = isProgression(sdl);
+        String name = sdl.metric.getName();
+        Map<String, List<Table>> allDataSummaries = new LinkedHashMap<>();
+
+        for (Map.Entry<String, NumericColumnSummary> e : sdl.numeric.entrySet()) {
+            NumericColumnSummary s = e.getValue();
+            if (s.n() == 0) continue;
+            StringColumn measure = StringColumn.create("Measure");
+            DoubleColumn value = DoubleColumn.create("Value");
+            addMeasure(measure, value, "Count", s.n());
+            addMeasure(measure, value, "sum", s.sum());
+            addMeasure(measure, value, "Mean", s.mean());
+            addMeasure(measure, value, "Min", s.min());
+            addMeasure(measure, value, "Max", s.max());
+            addMeasure(measure, value, "Range", s.max() - s.min());
+            addMeasure(measure, value, "Variance", s.variance());
+            addMeasure(measure, value, "Std. Dev", Math.sqrt(s.variance()));
+            for (int i = 0; i < QUANTILES.length; i++)
+                addMeasure(measure, value, QUANTILE_NAMES[i], s.quantile(QUANTILES[i]));
+            Table summary = Table.create(name + "_" + e.getKey(), measure, value);
+            allDataSummaries.put(e.getKey(), Collections.singletonList(summary));
+        }
+
+        for (Map.Entry<String, CategoryColumnSummary> e : sdl.categories.entrySet()) {
+            CategoryColumnSummary s = e.getValue();
+            if (s.categories().isEmpty()) continue;
+            Table summary;
+            if (progression && s.games() > 0) {
+                StringColumn category = StringColumn.create("Category");
+                DoubleColumn mean = DoubleColumn.create("Mean");
+                DoubleColumn sd = DoubleColumn.create("Std. Dev");
+                DoubleColumn min = DoubleColumn.create("Min");
+                DoubleColumn max = DoubleColumn.create("Max");
+                DoubleColumn count = DoubleColumn.create("Count");
+                for (String c : s.categories()) {
+                    category.append(c);
+                    mean.append(s.meanPerGame(c));
+                    sd.append(Math.sqrt(s.variancePerGame(c)));
+                    min.append(s.minPerGame(c));
+                    max.append(s.maxPerGame(c));
+                    count.append((double) s.total(c));
+                }
+                summary = Table.create("Stats " + e.getKey(), category, mean, sd, min, max, count).sortDescendingOn("Mean");
+            } else {
+                StringColumn category = StringColumn.create("Category");
+                DoubleColumn count = DoubleColumn.create("Count");
+                for (String c : s.categories()) {
+                    category.append(c);
+                    count.append((double) s.total(c));
+                }
+                summary = Table.create(name + "_" + e.getKey(), category, count).sortDescendingOn("Count");
+            }
+            allDataSummaries.put(e.getKey(), Collections.singletonList(summary));
+        }
+        return allDataSummaries;
+    }
+
+    private static void addMeasure(StringColumn measure, DoubleColumn value, String name, double v) {
+        measure.append(name);
+        value.append(v);
+    }
+
+    @Override
+    public void processSummaryToConsole(IDataLogger logger) {
+        for (List<Table> tables : summariseData((StreamingDataLogger) logger).values()) {
+            System.out.println();
+            for (Table t : tables)
+                System.out.println(t + "\n");
+        }
+    }
+
+    @Override
+    public void processSummaryToFile(IDataLogger logger, String folderName) {
+        StreamingDataLogger sdl = (StreamingDataLogger) logger;
+        String summaryFolder = createDirectory(folderName + "/summaries/" + sdl.metric.getName());
+        for (List<Table> tables : summariseData(sdl).values())
+            for (Table t : tables)
+                t.write().csv(summaryFolder + "/" + t.name() + ".csv");
+    }
+
+    /**
+     * Plots numeric columns as their mean (+/- standard error) at each row of a game when the metric records more
+     * than one row per game, and as their quantiles otherwise; categorical columns as the count of each category.
+     */
+    protected Map<String, Figure> plotData(StreamingDataLogger sdl) {
+        boolean progression = isProgression(sdl);
+        String name = sdl.metric.getName();
+        Map<String, Figure> figures = new LinkedHashMap<>();
+
+        for (Map.Entry<String, NumericColumnSummary> e : sdl.numeric.entrySet()) {
+            NumericColumnSummary s = e.getValue();
+            if (s.n() == 0) continue;
+            if (progression) {
+                int rows = s.rowsInLongestGame();
+                double[] x = new double[rows], yMean = new double[rows], yMinus = new double[rows], yPlus = new double[rows];
+                for (int j = 0; j < rows; j++) {
+                    x[j] = j;
+                    yMean[j] = s.meanAtRow(j);
+                    yMinus[j] = yMean[j] - s.stdErrAtRow(j);
+                    yPlus[j] = yMean[j] + s.stdErrAtRow(j);
+                }
+                Trace plusTrace = ScatterTrace.builder(x, yPlus).name("Mean + SE")
+                        .opacity(0.3)
+                        .line(Line.builder().simplify(true).dash(Line.Dash.DASH_DOT).color("rgb(0, 0, 255)").build())
+                        .mode(ScatterTrace.Mode.LINE).build();
+                Trace meanTrace = ScatterTrace.builder(x, yMean).name("Mean")
+                        .mode(ScatterTrace.Mode.LINE)
+                        .line(Line.builder().width(2).color("rgb(0, 0, 255)").build())
+                        .build();
+                Trace minusTrace = ScatterTrace.builder(x, yMinus).name("Mean - SE")
+                        .opacity(0.3)
+                        .line(Line.builder().simplify(true).dash(Line.Dash.DASH_DOT).color("rgb(0, 0, 255)").build())
+                        .mode(ScatterTrace.Mode.LINE).build();
+                Layout layout = Layout.builder().title(name)
+                        .height(600).width(800)
+                        .yAxis(Axis.builder().title(e.getKey()).build())
+                        .xAxis(Axis.builder().title("Row in game").build())
+                        .build();
+                figures.put(e.getKey(), new Figure(layout, plusTrace, meanTrace, minusTrace));
+            } else {
+                StringColumn quantile = StringColumn.create("Quantile");
+                DoubleColumn value = DoubleColumn.create(e.getKey());
+                for (int i = 0; i < QUANTILES.length; i++) {
+                    quantile.append(QUANTILE_NAMES[i]);
+                    value.append(s.quantile(QUANTILES[i]));
+                }
+                Layout layout = Layout.builder().title(name)
+                        .yAxis(Axis.builder().title(e.getKey()).build())
+                        .xAxis(Axis.builder().categoryOrder(Axis.CategoryOrder.TRACE).build())
+                        .build();
+                figures.put(e.getKey(), new Figure(layout, BarTrace.builder(quantile, value).build()));
+            }
+        }
+
+        for (Map.Entry<String, CategoryColumnSummary> e : sdl.categories.entrySet()) {
+            CategoryColumnSummary s = e.getValue();
+            if (s.categories().isEmpty()) continue;
+            StringColumn category = StringColumn.create("Category");
+            DoubleColumn count = DoubleColumn.create(progression ? "Mean per game" : "Count");
+            for (String c : s.categories()) {
+                category.append(c);
+                count.append(progression ? s.meanPerGame(c) : (double) s.total(c));
+            }
+            Layout layout = Layout.builder().title(name)
+                    .yAxis(Axis.builder().title(count.name()).build())
+                    .xAxis(Axis.builder().title(e.getKey()).categoryOrder(Axis.CategoryOrder.CATEGORY_ASCENDING).build())
+                    .build();
+            figures.put(e.getKey(), new Figure(layout, BarTrace.builder(category, count).build()));
+        }
+        return figures;
+    }
+
+    @Override
+    public void processPlotToFile(IDataLogger logger, String folderName) {
+        StreamingDataLogger sdl = (StreamingDataLogger) logger;
+        String plotFolder = createDirectory(folderName + "/plots/" + sdl.metric.getName());
+        for (Map.Entry<String, Figure> figure : plotData(sdl).entrySet())
+            TableSawDataProcessor.TAGPlot.save(figure.getValue(), new File(plotFolder + "/" + figure.getKey() + ".html"));
+    }
+
+    @Override
+    public void processPlotToConsole(IDataLogger logger) {
+        System.out.println("Plot report to console not implemented yet");
+    }
+}
@@ -418,7 +418,7 @@ public class TableSawDataProcessor implements IDataProcessor {
     /**
      * Overwrites functionality to only save the figures as .html files, rather than opening the browsers too.
      */
-    static class TAGPlot extends Plot {
+    public static class TAGPlot extends Plot {
         public static void save(Figure figure, File outputFile) {
             Page page = Page.pageBuilder(figure, "target").build();
             String output = page.asJavascript();
@@ -3,6 +3,7 @@ package evaluation.optimisation;
 import core.AbstractParameters;
 import core.AbstractPlayer;
 import core.Game;
+import core.ParallelGameRunner;
 import core.interfaces.IGameHeuristic;
 import core.interfaces.IStateHeuristic;
 import evaluation.listeners.IGameListener;
@@ -13,6 +14,8 @@ import games.GameType;
 import players.IAnyTimePlayer;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.DoubleSupplier;
 import java.util.stream.IntStream;
 
 import static evaluation.optimisation.NTBEAParameters.Mode.CoopNTBEA;
@@ -37,6 +40,9 @@ public class GameEvaluator implements SolutionEvaluator {
     int nEvals = 0;
     Random rnd;
     boolean avoidOppDupes;
+    // true once an opponent's copy() has returned the opponent itself; such an opponent cannot play in two games at
+    // once, so evaluate(List, ParallelGameRunner) then plays the games one after the other
+    boolean sharedOpponents;
     IStateHeuristic stateHeuristic;
     IGameHeuristic gameHeuristic;
     List<IGameListener> listeners = new ArrayList<>();
@@ -90,6 +96,34 @@ public class GameEvaluator implements SolutionEvaluator {
      */
     @Override
     public double evaluate(int[] settings) {
+        return prepare(settings).getAsDouble();
+    }
+
+    /**
+     * Evaluates each of the settings as evaluate(int[]) would, one after the other. The seeds, team positions and
+     * players of every game are drawn here, in order, on the calling thread; only playing the games is spread over
+     * the runner. The results are hence the same whatever the number of threads. Games with an opponent that is its
+     * own copy are played one after the other on the calling thread.
+     */
+    @Override
+    public double[] evaluate(List<int[]> solutions, ParallelGameRunner runner) {
+        List<DoubleSupplier> evaluations = new ArrayList<>(solutions.size());
+        for (int[] settings : solutions)
+            evaluations.add(prepare(settings));
+        if (runner == null || sharedOpponents)
+            return evaluations.stream().mapToDouble(DoubleSupplier::getAsDouble).toArray();
+        List<Callable<Double>> tasks = new ArrayList<>(evaluations.size());
+        for (DoubleSupplier evaluation : evaluations)
+            tasks.add(evaluation::getAsDouble);
+        return runner.runAll(tasks).stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    /**
+     * Sets up the games for one evaluation of settings, drawing everything random that is needed from rnd.
+     *
+     * @return plays the games and returns the game score for the agent being optimised
+     */
+    private DoubleSupplier prepare(int[] settings) {
         if (debug)
             System.out.printf("Starting evaluation %d of %s at %tT%n", nEvals,
                     Arrays.toString(settings), System.currentTimeMillis());
@@ -112,28 +146,34 @@ public class GameEvaluator implements SolutionEvaluator {
             throw new AssertionError("StableNTBEA mode requires tuning of player");
         int gamesToRun = params.mode == StableNTBEA ? nTeams : 1;
         long seed = rnd.nextLong();
-        double retValue = 0.0;
+        List<List<AbstractPlayer>> playersPerGame = new ArrayList<>(gamesToRun);
         for (int loop = 0; loop < gamesToRun; loop++) {
             int thisTeamIndex = teamIndex == -99 ? -99 : (teamIndex + loop) % nTeams;
-            List<AbstractPlayer> allPlayers = setupPlayers(thisTeamIndex, nTeams, settings);
+            playersPerGame.add(setupPlayers(thisTeamIndex, nTeams, settings));
+        }
+        nEvals++;
 
-            // always reset the random seed for each new game
-            newGame.reset(allPlayers, seed);
-            newGame.run();
+        return () -> {
+            double retValue = 0.0;
+            for (int loop = 0; loop < gamesToRun; loop++) {
+                int thisTeamIndex = teamIndex == -99 ? -99 : (teamIndex + loop) % nTeams;
 
-            int playerOnTeam = -1;
-            for (int p = 0; p < newGame.getGameState().getNPlayers(); p++) {
-                if (newGame.getGameState().getTeam(p) == thisTeamIndex) {
-                    playerOnTeam = p;
+                // always reset the random seed for each new game
+                newGame.reset(playersPerGame.get(loop), seed);
+                newGame.run();
+
+                int playerOnTeam = -1;
+                for (int p = 0; p < newGame.getGameState().getNPlayers(); p++) {
+                    if (newGame.getGameState().getTeam(p) == thisTeamIndex) {
+                        playerOnTeam = p;
+                    }
                 }
+                if (tuningPlayer && playerOnTeam == -1)
+                    throw new AssertionError("No Player found on team " + thisTeamIndex);
+                retValue += (tuningGame ? gameHeuristic.evaluateGame(newGame) : stateHeuristic.evaluateState(newGame.getGameState(), playerOnTeam)) / gamesToRun;
             }
-            if (tuningPlayer && playerOnTeam == -1)
-                throw new AssertionError("No Player found on team " + thisTeamIndex);
-            retValue += (tuningGame ? gameHeuristic.evaluateGame(newGame) : stateHeuristic.evaluateState(newGame.getGameState(), playerOnTeam)) / gamesToRun;
-        }
-
-        nEvals++;
-        return retValue;
+            return retValue;
+        };
     }
 
     private List<AbstractPlayer> setupPlayers(int teamIndex, int nTeams, int[] settings) {
@@ -147,7 +187,10 @@ public class GameEvaluator implements SolutionEvaluator {
             if (params.mode != CoopNTBEA && i != teamIndex) {
                 int oppIndex = (avoidOppDupes) ? count : rnd.nextInt(opponents.size());
                 count = (count + 1) % nTeams;
-                allPlayers.add(opponents.get(oppIndex).copy());
+                AbstractPlayer opponent = opponents.get(oppIndex);
+                AbstractPlayer copy = opponent.copy();
+                sharedOpponents |= copy == opponent;
+                allPlayers.add(copy);
             } else {
                 AbstractPlayer tunedPlayer = (AbstractPlayer) searchSpace.instantiate(settings); // we create for each, in case this is coop
                 allPlayers.add(tunedPlayer);
@@ -2,6 +2,7 @@ package evaluation.optimisation;
 
 import core.AbstractGameState;
 import core.AbstractPlayer;
+import core.ParallelGameRunner;
 import core.interfaces.IGameHeuristic;
 import core.interfaces.IStateHeuristic;
 import evaluation.RunArg;
@@ -49,6 +50,8 @@ public class NTBEA {
     int currentIteration = 0;
     IStateHeuristic stateHeuristic;
     IGameHeuristic gameHeuristic;
+    // plays the games of each iteration when params.nThreads is not 1, otherwise null
+    ParallelGameRunner runner;
 
     protected NTBEA(NTBEAParameters parameters) {
         this.params = parameters;
@@ -200,6 +203,7 @@ public class NTBEA {
                 config.put(RunArg.budget, params.budget);
                 config.put(RunArg.verbose, false);
                 config.put(RunArg.destDir, params.destDir);
+                config.put(RunArg.nThreads, params.nThreads);
                 RoundRobinTournament tournament = new RoundRobinTournament(players, game, nPlayers, params.gameParams, config);
                 createListeners().forEach(tournament::addListener);
                 tournament.run();
@@ -297,12 +301,23 @@ public class NTBEA {
 
     protected void runTrials() {
         evaluator.reset();
-        searchFramework.runTrial(evaluator, params.iterationsPerRun);
+        searchFramework.runTrial(evaluator, params.iterationsPerRun, runner);
     }
 
     protected void runIteration() {
         landscapeModel.reset();
 
+        runner = params.nThreads == 1 ? null : new ParallelGameRunner(params.nThreads);
+        try {
+            runTrialsAndRecordWinner();
+        } finally {
+            if (runner != null)
+                runner.close();
+            runner = null;
+        }
+    }
+
+    private void runTrialsAndRecordWinner() {
         runTrials();
 
         if (params.verbose)
@@ -338,8 +353,9 @@ public class NTBEA {
 
     protected Pair<Double, Double> evaluateWinner(int[] winnerSettings) {
 
-        double[] results = IntStream.range(0, params.evalGames)
-                .mapToDouble(answer -> evaluator.evaluate(winnerSettings)).toArray();
+        double[] results = runner == null
+                ? IntStream.range(0, params.evalGames).mapToDouble(answer -> evaluator.evaluate(winnerSettings)).toArray()
+                : evaluator.evaluate(Collections.nCopies(params.evalGames, winnerSettings), runner);
         Arrays.sort(results);
         double avg = Arrays.stream(results).average().orElse(0.0);
         double quantileValue = results[(int) (results.length * params.quantile / 100.0)];
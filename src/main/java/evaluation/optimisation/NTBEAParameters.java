@@ -59,6 +59,9 @@ public class NTBEAParameters extends TunableParameters<NTBEA> {
     public boolean byTeam = false;
     public GameType gameType;
     public int nPlayers;
+    // the number of candidate settings evaluated in each generation, and the threads their games are played on
+    public int batchSize = 1;
+    public int nThreads = 1;
 
     public NTBEAParameters() {
         addTunableParameter("iterations", 1000);
@@ -146,6 +149,8 @@ public class NTBEAParameters extends TunableParameters<NTBEA> {
         byTeam = (boolean) args.get(RunArg.byTeam);
         gameType = GameType.valueOf(args.get(RunArg.game).toString());
         nPlayers = (int) args.get(RunArg.nPlayers);
+        batchSize = (int) args.get(RunArg.batchSize);
+        nThreads = (int) args.get(RunArg.nThreads);
         gameParams = args.get(RunArg.gameParams).equals("") ? null :
                 AbstractParameters.createFromFile(gameType, (String) args.get(RunArg.gameParams));
 
@@ -232,6 +237,8 @@ public class NTBEAParameters extends TunableParameters<NTBEA> {
         ntp.gameType = gameType;
         ntp.nPlayers = nPlayers;
         ntp.logFile = logFile;
+        ntp.batchSize = batchSize;
+        ntp.nThreads = nThreads;
         return ntp;
     }
 
@@ -246,7 +253,9 @@ public class NTBEAParameters extends TunableParameters<NTBEA> {
                     destDir.equals(parameters.destDir) &&
                     gameType.equals(parameters.gameType) &&
                     logFile.equals(parameters.logFile) &&
-                    nPlayers == parameters.nPlayers;
+                    nPlayers == parameters.nPlayers &&
+                    batchSize == parameters.batchSize &&
+                    nThreads == parameters.nThreads;
         }
         return false;
     }
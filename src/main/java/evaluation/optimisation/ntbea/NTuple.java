@@ -4,85 +4,198 @@ import utilities.StatSummary;
 
 import java.util.*;
 
+/**
+ * Statistics of the fitness of every combination of values of one subset (tuple) of the search space dimensions.
+ * <p>
+ * The statistics are held as primitive arrays (count, sum and sum of squares) rather than as one StatSummary per
+ * combination. When the number of combinations is small enough they are indexed directly by the combination's
+ * mixed-radix index over the tuple's dimensions; otherwise (typically for the full N-tuple) a slot is allocated the
+ * first time a combination is seen.
+ * <p>
+ * All methods are synchronized, so results from games played on several threads can be folded in concurrently.
+ */
 public class NTuple {
 
+    // above this many combinations, slots are only allocated for the combinations actually sampled
+    static final int MAX_DENSE_SIZE = 1 << 16;
+
+    public record Entry(IntArrayPattern pattern, int n, double mean, double stdErr) {
+    }
+
     SearchSpace searchSpace;
     public int[] tuple;
-    public Map<IntArrayPattern, StatSummary> ntMap;
+    final int[] radix;
+    final boolean dense;
 
     public int nSamples;
     int nEntries;
 
+    int[] count;
+    double[] sum;
+    double[] sumSq;
+    // only used when not dense
+    Map<IntArrayPattern, Integer> slots;
+    List<IntArrayPattern> slotPatterns;
+
     public NTuple(SearchSpace searchSpace, int[] tuple) {
         this.searchSpace = searchSpace;
         this.tuple = tuple;
+        radix = new int[tuple.length];
+        long size = 1;
+        for (int i = 0; i < tuple.length; i++) {
+            radix[i] = searchSpace.nValues(tuple[i]);
+            size = Math.min(size * radix[i], MAX_DENSE_SIZE + 1L);
+        }
+        dense = size <= MAX_DENSE_SIZE;
         reset();
     }
 
-    public void reset() {
+    public synchronized void reset() {
         nSamples = 0;
         nEntries = 0;
-        ntMap = new HashMap<>();
+        if (dense) {
+            int size = 1;
+            for (int r : radix)
+                size *= r;
+            count = new int[size];
+            sum = new double[size];
+            sumSq = new double[size];
+        } else {
+            count = new int[16];
+            sum = new double[16];
+            sumSq = new double[16];
+            slots = new HashMap<>();
+            slotPatterns = new ArrayList<>();
+        }
     }
 
-    public void add(int[] x, double v) {
-        // for each address that occurs, we're going to store something
-        StatSummary ss = getStatsForceCreate(x);
-        ss.add(v);
+    public synchronized void add(int[] x, double v) {
+        int slot = slotForceCreate(x);
+        count[slot]++;
+        sum[slot] += v;
+        sumSq[slot] += v * v;
         nSamples++;
     }
 
-    public void add(int[] x, StatSummary ssIncoming) {
-        // for each address that occurs, we're going to store something
-        StatSummary ss = getStatsForceCreate(x);
-        ss.add(ssIncoming);
+    public synchronized void add(int[] x, StatSummary ssIncoming) {
+        if (ssIncoming.n() == 0) return;
+        int slot = slotForceCreate(x);
+        double mean = ssIncoming.mean();
+        count[slot] += ssIncoming.n();
+        sum[slot] += mean * ssIncoming.n();
+        sumSq[slot] += ssIncoming.sumSquareDiff() + ssIncoming.n() * mean * mean;
         nSamples++;
     }
 
-    public void printNonEmpty() {
-        TreeSet<IntArrayPattern> orderedKeys = new TreeSet<>();
-        orderedKeys.addAll(ntMap.keySet());
-        for (IntArrayPattern key : orderedKeys) {
-            StatSummary ss = ntMap.get(key);
-            System.out.println(key + "\t " + ss.n() + "\t " + ss.mean() + "\t " + ss.sd());
-            // System.out.println();
-        }
+    /**
+     * @return the number of samples of the combination of values that x has on this tuple's dimensions
+     */
+    public synchronized int n(int[] x) {
+        int slot = slot(x);
+        return slot < 0 ? 0 : count[slot];
     }
 
     /**
-     * Get stats but force creation if it does not already exists
-     *
-     * @param x
-     * @return
+     * @return the mean fitness of the combination of values that x has on this tuple's dimensions, or NaN if it
+     * has not been sampled
      */
-    public StatSummary getStatsForceCreate(int[] x) {
-        IntArrayPattern key = new IntArrayPattern().setPattern(x, tuple);
-        StatSummary ss = ntMap.get(key);
-        if (ss == null) {
-            ss = new StatSummary();
-            nEntries++;
-            ntMap.put(key, ss);
-        }
-        return ss;
+    public synchronized double mean(int[] x) {
+        int slot = slot(x);
+        return slot < 0 || count[slot] == 0 ? Double.NaN : sum[slot] / count[slot];
     }
 
     /**
-     * For reporting we only want to know about the stats if they already exist.
-     *
-     * So this version provides that.
-     *
-     * @param x
-     * @return
+     * @return the statistics of every combination sampled so far, in the order of their patterns
      */
-    public StatSummary getStats(int[] x) {
-        IntArrayPattern key = new IntArrayPattern().setPattern(x, tuple);
-        return ntMap.get(key);
+    public synchronized List<Entry> entries() {
+        List<Entry> retValue = new ArrayList<>(nEntries);
+        if (dense) {
+            for (int slot = 0; slot < count.length; slot++) {
+                if (count[slot] > 0)
+                    retValue.add(entry(decode(slot), slot));
+            }
+        } else {
+            for (int slot = 0; slot < slotPatterns.size(); slot++)
+                retValue.add(entry(slotPatterns.get(slot), slot));
+            retValue.sort(Comparator.comparing(Entry::pattern));
+        }
+        return retValue;
+    }
+
+    private Entry entry(IntArrayPattern pattern, int slot) {
+        int n = count[slot];
+        double mean = sum[slot] / n;
+        if (n < 2)
+            return new Entry(pattern, n, mean, 0.0);  // no estimate of the spread, but 0 rather than NaN
+        double num = Math.max(sumSq[slot] - n * mean * mean, 0.0);
+        double sd = Math.sqrt(num / (n - 1));
+        return new Entry(pattern, n, mean, sd / Math.sqrt(n));
+    }
+
+    public void printNonEmpty() {
+        for (Entry e : entries()) {
+            System.out.println(e.pattern() + "\t " + e.n() + "\t " + e.mean() + "\t " + e.stdErr() * Math.sqrt(e.n()));
+        }
+    }
+
+    // the slot of the combination x has, or -1 if there is none yet
+    private int slot(int[] x) {
+        if (dense)
+            return index(x);
+        Integer slot = slots.get(new IntArrayPattern().setPattern(x, tuple));
+        return slot == null ? -1 : slot;
+    }
+
+    private int slotForceCreate(int[] x) {
+        int slot;
+        if (dense) {
+            slot = index(x);
+        } else {
+            IntArrayPattern key = new IntArrayPattern().setPattern(x, tuple);
+            Integer existing = slots.get(key);
+            if (existing != null)
+                return existing;
+            slot = slotPatterns.size();
+            if (slot == count.length) {
+                count = Arrays.copyOf(count, slot * 2);
+                sum = Arrays.copyOf(sum, slot * 2);
+                sumSq = Arrays.copyOf(sumSq, slot * 2);
+            }
+            slots.put(key, slot);
+            slotPatterns.add(key);
+        }
+        if (count[slot] == 0)
+            nEntries++;
+        return slot;
+    }
+
+    private int index(int[] x) {
+        int index = 0;
+        for (int i = 0; i < tuple.length; i++)
+            index = index * radix[i] + x[tuple[i]];
+        return index;
+    }
+
+    private IntArrayPattern decode(int index) {
+        int[] v = new int[tuple.length];
+        for (int i = tuple.length - 1; i >= 0; i--) {
+            v[i] = index % radix[i];
+            index /= radix[i];
+        }
+        return new IntArrayPattern().setPattern(v);
     }
 
     public int nSamples() {
         return nSamples;
     }
 
+    /**
+     * @return the number of distinct combinations sampled so far
+     */
+    public synchronized int nEntries() {
+        return nEntries;
+    }
+
     public String toString() {
         return tuple.length + "\t " + Arrays.toString(tuple) + "\t " + nSamples  + "\t " + nEntries;
     }
@@ -1,9 +1,11 @@
 package evaluation.optimisation.ntbea;
 
+import core.ParallelGameRunner;
 import evaluation.optimisation.NTBEAParameters;
-import utilities.StatSummary;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -18,26 +20,52 @@ public class NTupleBanditEA {
     // they are only explored IN THE FITNESS LANDSCAPE MODEL, not by sampling the fitness function
     int nNeighbours;
     int nSamples = 1;
+    // the number of points evaluated in each generation
+    int batchSize = 1;
 
     public NTupleBanditEA(LandscapeModel model, NTBEAParameters params) {
         landscapeModel = model;
         this.nNeighbours = params.neighbourhoodSize;
         this.nSamples = params.evaluationsPerTrial;
+        this.batchSize = Math.max(params.batchSize, 1);
     }
 
-    StatSummary fitness(SolutionEvaluator evaluator, int[] sol) {
-        StatSummary ss = new StatSummary();
-        for (int i = 0; i < nSamples; i++) {
-            double fitness = evaluator.evaluate(sol);
-            ss.add(fitness);
-        }
-        return ss;
+    // the mean over nSamples evaluations of each point, evaluated together so that their games can be played concurrently
+    double[] fitness(SolutionEvaluator evaluator, List<int[]> points, ParallelGameRunner runner) {
+        if (nSamples == 1 && points.size() == 1 && runner == null)
+            return new double[]{evaluator.evaluate(points.get(0))};
+        List<int[]> toEvaluate = new ArrayList<>(points.size() * nSamples);
+        for (int[] point : points)
+            for (int i = 0; i < nSamples; i++)
+                toEvaluate.add(point);
+        double[] results = evaluator.evaluate(toEvaluate, runner);
+        double[] retValue = new double[points.size()];
+        for (int i = 0; i < results.length; i++)
+            retValue[i / nSamples] += results[i];
+        for (int i = 0; i < retValue.length; i++)
+            retValue[i] /= nSamples;
+        return retValue;
     }
 
     Random rnd = new Random();
     SolutionEvaluator evaluator;
 
     public void runTrial(SolutionEvaluator evaluator, int nEvals) {
+        runTrial(evaluator, nEvals, null);
+    }
+
+    /**
+     * Runs nEvals evaluations of the fitness function.
+     * <p>
+     * Each generation evaluates a batch of up to batchSize points: the best (by upper bound) distinct points of the
+     * neighbourhood of the point in the last batch with the highest mean estimate. The evaluations of one batch are
+     * independent of each other, so their games may be played concurrently on the runner. The results are then
+     * added to the landscape model in batch order, so for a given seed the search does not depend on the number of
+     * threads. With a batchSize of 1 this is the usual, sequential, NTBEA.
+     *
+     * @param runner - runner to play the games of each batch on; if null everything is run on the calling thread
+     */
+    public void runTrial(SolutionEvaluator evaluator, int nEvals, ParallelGameRunner runner) {
         this.evaluator = evaluator;
         // set  up some convenient reference
         SearchSpace searchSpace = landscapeModel.getSearchSpace();
@@ -46,55 +74,80 @@ public class NTupleBanditEA {
         if (nNeighbours < 5) nNeighbours = 5;
 
         // then each time around the loop try the following
-        // create a neighbourhood set of points and pick the best one that combines its exploitation and evaluation scores
+        // create a neighbourhood set of points and pick the best ones that combine their exploitation and evaluation scores
 
-        int[] p = SearchSpaceUtil.randomPoint(searchSpace);
+        List<int[]> batch = new ArrayList<>();
+        batch.add(SearchSpaceUtil.randomPoint(searchSpace));
 
-        for (int i = 0; i < nEvals; i++) {
-            // each time around the loop we make one fitness evaluation of p
+        int i = 0;
+        while (i < nEvals) {
+            // each time around the loop we make one fitness evaluation of each point in the batch
             // and add this NEW information to the memory
-            double fitness;
-            if (nSamples == 1) {
-                fitness = evaluator.evaluate(p);
-            } else {
-                fitness = fitness(evaluator, p).mean();
-            }
-
-            landscapeModel.addPoint(p, fitness);
-
-            // and then explore the neighbourhood around p, balancing exploration and exploitation
-            // we currently hardcode one mutation function to randomly change one setting at a time
-
-            int nDims = searchSpace.nDims();
-            double bestSoFar = Double.NEGATIVE_INFINITY;
-            int[] settingToTryNext = new int[0];
-            for (int n = 0; n < nNeighbours; n++) {
-                int[] pp = Arrays.copyOf(p, p.length);
-                boolean mutation = false;
-                for (int d = 0; d < nDims; d++) {
-                    if (rnd.nextDouble() < 1.0 / nDims) {
-                        pp[d] = rnd.nextInt(searchSpace.nValues(d) - 1);
-                        if (p[d] <= pp[d]) pp[d]++;
-                        mutation = true;
+            if (batch.size() > nEvals - i)
+                batch = batch.subList(0, nEvals - i);
+            double[] fitness = fitness(evaluator, batch, runner);
+            for (int b = 0; b < batch.size(); b++)
+                landscapeModel.addPoint(batch.get(b), fitness[b]);
+            i += batch.size();
+
+            int[] p = batch.get(0);
+            if (batch.size() > 1) {
+                double bestEstimate = Double.NEGATIVE_INFINITY;
+                for (int[] point : batch) {
+                    double estimate = landscapeModel.getMeanEstimate(point);
+                    if (estimate > bestEstimate) {
+                        p = point;
+                        bestEstimate = estimate;
                     }
                 }
-                // if no mutations made, then change one
-                if (!mutation) {
-                    int d = rnd.nextInt(searchSpace.nDims());
+            }
+            batch = bestNeighbours(p, batchSize);
+        }
+    }
+
+    // explore the neighbourhood around p, balancing exploration and exploitation
+    // we currently hardcode one mutation function to randomly change one setting at a time
+    private List<int[]> bestNeighbours(int[] p, int nBest) {
+        SearchSpace searchSpace = landscapeModel.getSearchSpace();
+        int nDims = searchSpace.nDims();
+        // in descending order of upper bound
+        List<int[]> best = new ArrayList<>(nBest + 1);
+        List<Double> bestBounds = new ArrayList<>(nBest + 1);
+        for (int n = 0; n < nNeighbours; n++) {
+            int[] pp = Arrays.copyOf(p, p.length);
+            boolean mutation = false;
+            for (int d = 0; d < nDims; d++) {
+                if (rnd.nextDouble() < 1.0 / nDims) {
                     pp[d] = rnd.nextInt(searchSpace.nValues(d) - 1);
                     if (p[d] <= pp[d]) pp[d]++;
+                    mutation = true;
                 }
+            }
+            // if no mutations made, then change one
+            if (!mutation) {
+                int d = rnd.nextInt(searchSpace.nDims());
+                pp[d] = rnd.nextInt(searchSpace.nValues(d) - 1);
+                if (p[d] <= pp[d]) pp[d]++;
+            }
 
-                double estimatedUpperBound = landscapeModel.getUpperBound(pp);
-                if (estimatedUpperBound > bestSoFar) {
-                    settingToTryNext = pp;
-                    bestSoFar = estimatedUpperBound;
+            double estimatedUpperBound = landscapeModel.getUpperBound(pp);
+            if (best.stream().anyMatch(b -> Arrays.equals(b, pp)))
+                continue;
+            int position = 0;
+            while (position < best.size() && bestBounds.get(position) >= estimatedUpperBound)
+                position++;
+            if (position < nBest && estimatedUpperBound > Double.NEGATIVE_INFINITY) {
+                best.add(position, pp);
+                bestBounds.add(position, estimatedUpperBound);
+                if (best.size() > nBest) {
+                    best.remove(nBest);
+                    bestBounds.remove(nBest);
                 }
             }
-
-            if (settingToTryNext.length == 0)
-                settingToTryNext = p;
-            p = settingToTryNext;
         }
+
+        if (best.isEmpty())
+            best.add(p);
+        return best;
     }
 }
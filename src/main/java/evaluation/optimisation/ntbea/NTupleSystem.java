@@ -79,7 +79,7 @@ public class NTupleSystem implements LandscapeModel {
     }
 
     @Override
-    public void addPoint(int[] datapoint, double value) {
+    public synchronized void addPoint(int[] datapoint, double value) {
         for (NTuple tuple : tuples) {
             tuple.add(datapoint, value);
         }
@@ -95,13 +95,10 @@ public class NTupleSystem implements LandscapeModel {
         // we could get an average ...
         var ssTot = new StatSummary();
         for (NTuple tuple : tuples) {
-            var ss = tuple.getStats(x);
-            if (ss != null) {
-                if (tuple.tuple.length >= minTupleSize) {
-                    var mean = ss.mean();
-                    if (!java.lang.Double.isNaN(mean))
-                        ssTot.add(mean);
-                }
+            if (tuple.tuple.length >= minTupleSize) {
+                var mean = tuple.mean(x);
+                if (!java.lang.Double.isNaN(mean))
+                    ssTot.add(mean);
             }
         }
         return ssTot.mean();
@@ -130,8 +127,7 @@ public class NTupleSystem implements LandscapeModel {
         double[] retValue = new double[tuples.size()];
         for (int i = 0; i < retValue.length; i++) {
             NTuple tuple = tuples.get(i);
-            var ss = tuple.getStats(x);
-            int n = (ss == null ? 0 : ss.n());
+            int n = tuple.n(x);
             if (simpleRegret) {
                 retValue[i] = Math.sqrt(1 + tuple.nSamples) / (epsilon + n);
             } else {
@@ -191,7 +187,7 @@ public class NTupleSystem implements LandscapeModel {
         String tuplesExploredBySize = Arrays.toString(IntStream.rangeClosed(1, params.searchSpace.nDims())
                 .map(size -> getTuples().stream()
                         .filter(t -> t.tuple.length == size)
-                        .mapToInt(it -> it.ntMap.size())
+                        .mapToInt(NTuple::nEntries)
                         .sum()
                 ).toArray());
 
@@ -201,22 +197,20 @@ public class NTupleSystem implements LandscapeModel {
         IntStream.range(0, params.searchSpace.nDims()) // assumes that the first N tuples are the 1-dimensional ones
                 .mapToObj(i -> new Pair<>(params.searchSpace.name(i), getTuples().get(i)))
                 .forEach(nameTuplePair ->
-                        nameTuplePair.b.ntMap.keySet().stream().sorted().forEach(k -> {
-                            StatSummary v = nameTuplePair.b.ntMap.get(k);
-                            System.out.printf("\t%20s\t%s\t%d trials\t mean %.3g +/- %.2g%n", nameTuplePair.a, k, v.n(), v.mean(), v.stdErr());
-                        })
+                        nameTuplePair.b.entries().forEach(v ->
+                            System.out.printf("\t%20s\t%s\t%d trials\t mean %.3g +/- %.2g%n", nameTuplePair.a, v.pattern(), v.n(), v.mean(), v.stdErr())
+                        )
                 );
 
         System.out.println("\nSummary of 10 most tried full-tuple statistics:");
         getTuples().stream()
                 .filter(t -> t.tuple.length == params.searchSpace.nDims())
-                .forEach(t -> t.ntMap.keySet().stream()
-                        .map(k -> new Pair<>(k, t.ntMap.get(k)))
-                        .sorted(Comparator.comparing(p -> -p.b.n()))
+                .forEach(t -> t.entries().stream()
+                        .sorted(Comparator.comparing(e -> -e.n()))
                         .limit(10)
                         .forEach(item ->
                                 System.out.printf("\t%s\t%d trials\t mean %.3g +/- %.2g\t(NTuple estimate: %.3g)%n",
-                                        item.a, item.b.n(), item.b.mean(), item.b.stdErr(), getMeanEstimate(item.a.v))
+                                        item.pattern(), item.n(), item.mean(), item.stdErr(), getMeanEstimate(item.pattern().v))
                         )
                 );
     }
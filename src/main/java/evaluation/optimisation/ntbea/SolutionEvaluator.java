@@ -1,5 +1,9 @@
 package evaluation.optimisation.ntbea;
 
+import core.ParallelGameRunner;
+
+import java.util.List;
+
 public interface SolutionEvaluator {
     /**
      * Created by simonmarklucas on 06/08/2016.
@@ -21,6 +25,21 @@ public interface SolutionEvaluator {
     double evaluate(int[] solution);
     // has the algorithm found the optimal solution?
 
+    /**
+     * Evaluates several sets of parameter settings. Evaluators that play games may play them concurrently on the
+     * runner; the default evaluates the settings one after another on the calling thread.
+     *
+     * @param solutions The settings to evaluate, as for evaluate(int[])
+     * @param runner    The runner to play games on; if null everything is evaluated on the calling thread
+     * @return The fitness of each set of settings, in the order given
+     */
+    default double[] evaluate(List<int[]> solutions, ParallelGameRunner runner) {
+        double[] retValue = new double[solutions.size()];
+        for (int i = 0; i < retValue.length; i++)
+            retValue[i] = evaluate(solutions.get(i));
+        return retValue;
+    }
+
     /**
      * @return TThe search space being used
      */
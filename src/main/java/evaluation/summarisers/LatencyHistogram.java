@@ -0,0 +1,120 @@
+package evaluation.summarisers;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of non-negative whole numbers, such as latencies in nanoseconds or bytes allocated, kept in the
+ * manner of HdrHistogram: values below 128 are counted exactly, and above that each power of two is split into 64
+ * buckets of equal width, so that any quantile is known to within 1/64 (about 1.6%) of its value.
+ * <p>
+ * Recording a value is a handful of integer operations, with no allocation once the buckets cover the values seen,
+ * so it is cheap enough to do on every call of the code being measured. Unlike QuantileSketch no logarithms are
+ * taken, and the exact count, total, min and max are kept alongside the buckets.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int HALF = 1 << (SUB_BITS - 1);  // buckets per power of two
+
+    private long[] counts = new long[2 * HALF];
+    private long n, total;
+    private long min = Long.MAX_VALUE, max;
+
+    /**
+     * @param value - the value to record; negative values count as zero
+     */
+    public void record(long value) {
+        if (value < 0)
+            value = 0;
+        int index = index(value);
+        if (index >= counts.length)
+            counts = Arrays.copyOf(counts, index + HALF);
+        counts[index]++;
+        n++;
+        total += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    public void add(LatencyHistogram other) {
+        if (other.counts.length > counts.length)
+            counts = Arrays.copyOf(counts, other.counts.length);
+        for (int i = 0; i < other.counts.length; i++)
+            counts[i] += other.counts[i];
+        n += other.n;
+        total += other.total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    static int index(long value) {
+        if (value < 2 * HALF)
+            return (int) value;
+        // the top SUB_BITS bits of the value, of which the first is always set
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    static long lowest(int index) {
+        if (index < 2 * HALF)
+            return index;
+        int shift = index / HALF - 1;
+        return (long) (index - shift * HALF) << shift;
+    }
+
+    static long width(int index) {
+        return index < 2 * HALF ? 1 : 1L << (index / HALF - 1);
+    }
+
+    public long n() {
+        return n;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    /**
+     * @return the smallest value recorded, or 0 if there are none
+     */
+    public long min() {
+        return n == 0 ? 0 : min;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public double mean() {
+        return n == 0 ? Double.NaN : (double) total / n;
+    }
+
+    /**
+     * @param q - the quantile wanted, between 0 and 1
+     * @return an estimate of the q quantile of the values recorded (the middle of its bucket), or NaN if there are none
+     */
+    public double quantile(double q) {
+        if (n == 0)
+            return Double.NaN;
+        if (q <= 0)
+            return min;
+        if (q >= 1)
+            return max;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                double middle = lowest(i) + (width(i) - 1) / 2.0;
+                return Math.min(Math.max(middle, min), max);
+            }
+        }
+        throw new AssertionError("Rank beyond the number of values recorded");
+    }
+
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(this);
+        return copy;
+    }
+}
@@ -0,0 +1,139 @@
+package evaluation.summarisers;
+
+import java.util.Arrays;
+
+/**
+ * Estimates quantiles of a stream of numbers in bounded memory, without keeping the numbers themselves.
+ * <p>
+ * Each number is counted in a bucket whose width grows geometrically with its magnitude (as in DDSketch), so any
+ * quantile is estimated to within the given relative accuracy of a number actually added. Adding a number is O(1),
+ * and the number of buckets only grows with the log of the range of magnitudes seen: with the default 1% accuracy,
+ * every number between 1e-6 and 1e9 in magnitude fits in about 1,800 buckets. Magnitudes below 1e-6 count as zero;
+ * NaN and infinite values have no bucket, and are not added.
+ */
+public class QuantileSketch {
+
+    private static final double MIN_MAGNITUDE = 1e-6;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final Buckets positive = new Buckets();
+    private final Buckets negative = new Buckets();
+    private long zeros;
+    private long n;
+
+    public QuantileSketch() {
+        this(0.01);
+    }
+
+    /**
+     * @param relativeAccuracy - bound on the relative error of the quantiles returned
+     */
+    public QuantileSketch(double relativeAccuracy) {
+        this.relativeAccuracy = relativeAccuracy;
+        gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        if (!Double.isFinite(value))
+            return;
+        n++;
+        if (value > MIN_MAGNITUDE)
+            positive.add(index(value));
+        else if (value < -MIN_MAGNITUDE)
+            negative.add(index(-value));
+        else
+            zeros++;
+    }
+
+    public void add(QuantileSketch other) {
+        if (other.gamma != gamma)
+            throw new IllegalArgumentException("Sketches must have the same accuracy to be merged");
+        positive.add(other.positive);
+        negative.add(other.negative);
+        zeros += other.zeros;
+        n += other.n;
+    }
+
+    private int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / logGamma);
+    }
+
+    private double value(int index) {
+        // the point of the bucket (gamma^(i-1), gamma^i] with the same relative error to both ends
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    public long n() {
+        return n;
+    }
+
+    /**
+     * @param q - the quantile wanted, between 0 and 1
+     * @return an estimate of the q quantile of the numbers added, or NaN if there are none
+     */
+    public double quantile(double q) {
+        if (n == 0)
+            return Double.NaN;
+        long rank = (long) Math.floor(Math.min(Math.max(q, 0), 1) * (n - 1));
+        // negative numbers come first, from the largest magnitude down
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            rank -= negative.counts[i];
+            if (rank < 0)
+                return -value(i + negative.offset);
+        }
+        rank -= zeros;
+        if (rank < 0)
+            return 0;
+        for (int i = 0; i < positive.counts.length; i++) {
+            rank -= positive.counts[i];
+            if (rank < 0)
+                return value(i + positive.offset);
+        }
+        throw new AssertionError("Rank beyond the number of values added");
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(relativeAccuracy);
+        copy.add(this);
+        return copy;
+    }
+
+    /**
+     * Counts per bucket index, in an array that grows to cover the range of indices seen
+     */
+    private static class Buckets {
+        long[] counts = new long[0];
+        int offset;  // index of counts[0]
+
+        void add(int index) {
+            grow(index);
+            counts[index - offset]++;
+        }
+
+        void add(Buckets other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] == 0) continue;
+                grow(i + other.offset);
+                counts[i + other.offset - offset] += other.counts[i];
+            }
+        }
+
+        private void grow(int index) {
+            if (counts.length == 0) {
+                counts = new long[16];
+                offset = index - 8;
+            } else if (index < offset) {
+                int extra = Math.max(offset - index, counts.length / 2);
+                long[] grown = new long[counts.length + extra];
+                System.arraycopy(counts, 0, grown, extra, counts.length);
+                counts = grown;
+                offset -= extra;
+            } else if (index >= offset + counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(index - offset + 1, counts.length * 3 / 2));
+            }
+        }
+    }
+}
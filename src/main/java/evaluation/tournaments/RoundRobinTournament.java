@@ -1,9 +1,14 @@
 package evaluation.tournaments;
 
+import core.AbstractGameState;
 import core.AbstractParameters;
 import core.AbstractPlayer;
+import core.Game;
+import core.GameProfile;
+import core.ParallelGameRunner;
 import evaluation.RunArg;
 import evaluation.listeners.IGameListener;
+import evaluation.listeners.SynchronizedGameListener;
 import evaluation.listeners.TournamentMetricsGameListener;
 import games.GameType;
 import org.apache.commons.math3.linear.EigenDecomposition;
@@ -15,6 +20,7 @@ import utilities.*;
 import java.io.File;
 import java.io.FileWriter;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -56,6 +62,21 @@ public class RoundRobinTournament extends AbstractTournament {
     String seedFile;
     Random seedRnd;
 
+    // Every game is played with its own copies of the agents and game parameters (see evaluateMatchUp()). With more
+    // than one thread, games are queued in pendingGames as match-ups are created, played on the runner, and their
+    // outcomes added to the statistics in the order they were queued (see playPendingGames())
+    int nThreads;
+    private ParallelGameRunner runner;
+    private final List<PendingGame> pendingGames = new ArrayList<>();
+    private Set<String> agentNames;
+    // parameters every game's own parameters are copied from; game itself is replaced by each game played on one
+    // thread, so that getGame() shows the last of them
+    private final AbstractParameters baseParams;
+
+    // latencies of the game loop over all the games, written to profileFile at the end; null if not profiled
+    protected GameProfile profile;
+    protected String profileFile;
+
     /**
      * Create a round robin tournament, which plays all agents against all others.
      *
@@ -67,6 +88,7 @@ public class RoundRobinTournament extends AbstractTournament {
                                 AbstractParameters gameParams, Map<RunArg, Object> config) {
         super(agents, gameToPlay, playersPerGame, gameParams);
         int nTeams = game.getGameState().getNTeams();
+        this.baseParams = game.getGameState().getGameParameters().copy();
         this.verbose = (boolean) config.getOrDefault(RunArg.verbose, false);
         this.tournamentMode = switch (config.get(RunArg.mode).toString().toUpperCase()) {
             case "EXHAUSTIVE" -> EXHAUSTIVE;
@@ -151,6 +173,7 @@ public class RoundRobinTournament extends AbstractTournament {
         this.randomSeed = ((Number) config.getOrDefault(RunArg.seed, System.currentTimeMillis())).longValue();
         this.seedRnd = new Random(randomSeed);
         this.randomGameParams = (boolean) config.getOrDefault(RunArg.randomGameParams, false);
+        this.nThreads = (int) config.getOrDefault(RunArg.nThreads, 1);
 
         this.name = String.format("Game: %s, Players: %d, Mode: %s, TotalGames: %d, GamesPerMatchup: %d",
                 gameToPlay.name(), playersPerGame, tournamentMode, actualGames, gamesPerMatchup);
@@ -158,6 +181,11 @@ public class RoundRobinTournament extends AbstractTournament {
         String destDir = (String) config.getOrDefault(RunArg.destDir, "");
         if (!destDir.isEmpty())
             this.resultsFile = destDir + File.separator + resultsFile;
+        String latencyProfile = (String) config.getOrDefault(RunArg.latencyProfile, "");
+        if (!latencyProfile.isEmpty()) {
+            this.profile = new GameProfile();
+            this.profileFile = destDir.isEmpty() ? latencyProfile : destDir + File.separator + latencyProfile;
+        }
     }
 
     /**
@@ -168,7 +196,7 @@ public class RoundRobinTournament extends AbstractTournament {
         if (verbose)
             System.out.println("Playing " + game.getGameType().name());
 
-        Set<String> agentNames = agents.stream()
+        agentNames = agents.stream()
                 //           .peek(a -> System.out.println(a.toString()))
                 .map(AbstractPlayer::toString).collect(Collectors.toSet());
 
@@ -177,6 +205,14 @@ public class RoundRobinTournament extends AbstractTournament {
             game.addListener(gameTracker);
         }
 
+        if (nThreads != 1 && listeners.stream().anyMatch(l -> l instanceof TournamentMetricsGameListener)) {
+            // these record metrics per match-up, so need the match-ups to be played one after the other
+            System.out.println("TournamentMetricsGameListener in use: running the tournament on a single thread");
+            nThreads = 1;
+        }
+        if (nThreads != 1)
+            runner = new ParallelGameRunner(nThreads);
+
         LinkedList<Integer> matchUp = new LinkedList<>();
         // add outer loop if we have tournamentSeeds enabled; if not this will just run once
         List<Integer> allSeeds = new ArrayList<>(gameSeeds);
@@ -192,12 +228,28 @@ public class RoundRobinTournament extends AbstractTournament {
             }
             createAndRunMatchUp(matchUp);
         }
+        if (runner != null) {
+            playPendingGames();
+            runner.close();
+            runner = null;
+        }
         reportResults();
+        if (profile != null)
+            profile.writeJSON(profileFile);
 
         for (IGameListener listener : listeners)
             listener.report();
     }
 
+    /**
+     * Profiles the game loop of every game of the tournament (see GameProfile), and writes the latencies to
+     * fileName at the end of run(), in place of the latencyProfile file in destDir.
+     */
+    public void setProfileFile(String fileName) {
+        this.profile = new GameProfile();
+        this.profileFile = fileName;
+    }
+
     protected List<Integer> loadSeedsFromFile() {
         // we open seedFile, and read in the comma-delimited list of seeds, and put this in an array
         try {
@@ -341,92 +393,144 @@ public class RoundRobinTournament extends AbstractTournament {
         }
 
         // TODO : Not sure this is the ideal place for this...ask Raluca
-        Set<String> agentNames = agents.stream().map(AbstractPlayer::toString).collect(Collectors.toSet());
+        agentNames = agents.stream().map(AbstractPlayer::toString).collect(Collectors.toSet());
         for (IGameListener listener : listeners) {
             if (listener instanceof TournamentMetricsGameListener) {
                 ((TournamentMetricsGameListener) listener).tournamentInit(game, nPlayers, agentNames, new HashSet<>(matchUpPlayers));
             }
         }
 
-        // Run the game N = gamesPerMatchUp times with these players
+        // Run the game N = gamesPerMatchUp times with these players. Every game gets its own copies of the players
+        // and parameters, made here so that they are drawn in a fixed order whatever the number of threads.
+        // if tournamentSeeds > 0, then we are running this many tournaments, each with a different random seed fixed
+        // for the whole tournament, so we override the standard random seeds
         for (int i = 0; i < nGames; i++) {
-            // if tournamentSeeds > 0, then we are running this many tournaments, each with a different random seed fixed for the whole tournament
-            // so we override the standard random seeds
-            game.reset(matchUpPlayers, seeds.get(i));
-
-            // Randomize parameters
-            if (randomGameParams) {
-                game.getGameState().getGameParameters().randomize();
-                System.out.println("Game parameters: " + game.getGameState().getGameParameters());
-            }
+            List<AbstractPlayer> gamePlayers = new ArrayList<>(agentIDsInThisGame.size());
+            for (int agentID : agentIDsInThisGame)
+                gamePlayers.add(this.agents.get(agentID).copy());
+            AbstractParameters gameParams = baseParams.copy();
+            gameParams.setRandomSeed(seeds.get(i));
+            if (randomGameParams)
+                gameParams.randomize();
+            PendingGame pending = new PendingGame(new ArrayList<>(agentIDsInThisGame), gamePlayers, gameParams, seeds.get(i));
+            if (runner == null) {
+                GameOutcome outcome = play(pending, false);  // Always running tournaments without visuals
+                recordGame(pending.agentIDs(), outcome);
+            } else
+                pendingGames.add(pending);
+        }
+        if (runner != null) {
+            // played in batches, to bound the number of player copies held at once
+            int threads = nThreads > 0 ? nThreads : Runtime.getRuntime().availableProcessors();
+            if (pendingGames.size() >= 8 * threads)
+                playPendingGames();
+        }
+    }
 
-            game.run();  // Always running tournaments without visuals
-            GameResult[] results = game.getGameState().getPlayerResults();
+    /**
+     * Plays all queued games on the runner, and then adds their outcomes to the statistics in the order the games
+     * were queued, so that the statistics do not depend on the number of threads.
+     */
+    private void playPendingGames() {
+        List<Callable<GameOutcome>> tasks = new ArrayList<>(pendingGames.size());
+        for (PendingGame pending : pendingGames)
+            tasks.add(() -> play(pending, true));
+        List<GameOutcome> outcomes = runner.runAll(tasks);
+        for (int i = 0; i < outcomes.size(); i++)
+            recordGame(pendingGames.get(i).agentIDs(), outcomes.get(i));
+        pendingGames.clear();
+    }
 
-            int numDraws = 0;
-            for (int j = 0; j < matchUpPlayers.size(); j++) {
-                nGamesPlayed[agentIDsInThisGame.get(j)] += 1;
-                for (int k = 0; k < matchUpPlayers.size(); k++) {
-                    if (k != j) {
-                        nGamesPlayedPerOpponent[agentIDsInThisGame.get(j)][agentIDsInThisGame.get(k)] += 1;
-                    }
+    /**
+     * Plays one game on a game instance of its own, with the tournament's listeners initialised for it.
+     *
+     * @param concurrent - true if other games may be played at the same time, in which case each listener is
+     *                   reached through a SynchronizedGameListener
+     */
+    private GameOutcome play(PendingGame pending, boolean concurrent) {
+        Game g = game.getGameType().createGameInstance(nPlayers, pending.params());
+        if (!concurrent)
+            game = g;
+        for (IGameListener listener : listeners) {
+            IGameListener gameListener = concurrent ? new SynchronizedGameListener(listener) : listener;
+            gameListener.init(g, nPlayers, agentNames);
+            g.addListener(gameListener);
+        }
+        g.setProfile(profile);
+        g.reset(pending.players(), pending.seed());
+        g.run();
+        return new GameOutcome(g.getGameState());
+    }
+
+    /**
+     * Adds the outcome of one game to the statistics of the agents that played it.
+     */
+    private void recordGame(List<Integer> agentIDsInThisGame, GameOutcome outcome) {
+        GameResult[] results = outcome.results;
+
+        int numDraws = 0;
+        for (int j = 0; j < agentIDsInThisGame.size(); j++) {
+            nGamesPlayed[agentIDsInThisGame.get(j)] += 1;
+            for (int k = 0; k < agentIDsInThisGame.size(); k++) {
+                if (k != j) {
+                    nGamesPlayedPerOpponent[agentIDsInThisGame.get(j)][agentIDsInThisGame.get(k)] += 1;
                 }
+            }
 
-                // now we need to be careful if we have a team game, as the agents are indexed by Team, not player
-                if (byTeam) {
-                    for (int player = 0; player < game.getGameState().getNPlayers(); player++) {
-                        if (game.getGameState().getTeam(player) == j) {
-                            numDraws += updatePoints(results, agentIDsInThisGame, agentIDsInThisGame.get(j), player);
-                            break; // we stop after one player on the team to avoid double counting
-                        }
+            // now we need to be careful if we have a team game, as the agents are indexed by Team, not player
+            if (byTeam) {
+                for (int player = 0; player < outcome.team.length; player++) {
+                    if (outcome.team[player] == j) {
+                        numDraws += updatePoints(outcome, agentIDsInThisGame, agentIDsInThisGame.get(j), player);
+                        break; // we stop after one player on the team to avoid double counting
                     }
-                } else {
-                    numDraws += updatePoints(results, agentIDsInThisGame, agentIDsInThisGame.get(j), j);
                 }
+            } else {
+                numDraws += updatePoints(outcome, agentIDsInThisGame, agentIDsInThisGame.get(j), j);
             }
+        }
 
-            if (numDraws > 0) {
-                double pointsPerDraw = 1.0 / numDraws;
-                for (int j = 0; j < matchUpPlayers.size(); j++) {
-                    if (results[j] == GameResult.DRAW_GAME) pointsPerPlayer[agentIDsInThisGame.get(j)] += pointsPerDraw;
-                    if (results[j] == GameResult.DRAW_GAME)
-                        pointsPerPlayerSquared[agentIDsInThisGame.get(j)] += pointsPerDraw * pointsPerDraw;
-                }
+        if (numDraws > 0) {
+            double pointsPerDraw = 1.0 / numDraws;
+            for (int j = 0; j < agentIDsInThisGame.size(); j++) {
+                if (results[j] == GameResult.DRAW_GAME) pointsPerPlayer[agentIDsInThisGame.get(j)] += pointsPerDraw;
+                if (results[j] == GameResult.DRAW_GAME)
+                    pointsPerPlayerSquared[agentIDsInThisGame.get(j)] += pointsPerDraw * pointsPerDraw;
             }
+        }
 
-            if (verbose) {
-                StringBuffer sb = new StringBuffer();
-                sb.append("[");
-                for (int j = 0; j < matchUpPlayers.size(); j++) {
-                    for (int player = 0; player < game.getGameState().getNPlayers(); player++) {
-                        if (game.getGameState().getTeam(player) == j) {
-                            sb.append(results[player]).append(",");
-                            break; // we stop after one player on the team to avoid double counting
-                        }
+        if (verbose) {
+            StringBuffer sb = new StringBuffer();
+            sb.append("[");
+            for (int j = 0; j < agentIDsInThisGame.size(); j++) {
+                for (int player = 0; player < outcome.team.length; player++) {
+                    if (outcome.team[player] == j) {
+                        sb.append(results[player]).append(",");
+                        break; // we stop after one player on the team to avoid double counting
                     }
                 }
-                sb.setCharAt(sb.length() - 1, ']');
-                System.out.println(sb);
             }
-
+            sb.setCharAt(sb.length() - 1, ']');
+            System.out.println(sb);
         }
-        totalGamesRun += nGames;
+        totalGamesRun += 1;
     }
 
-    private int updatePoints(GameResult[] results, List<Integer> matchUpPlayers, int j, int player) {
+    private int updatePoints(GameOutcome outcome, List<Integer> matchUpPlayers, int j, int player) {
         // j is the index of the agent in the matchup; player is the corresponding player number in the game
-        int ordinalPos = game.getGameState().getOrdinalPosition(player);
+        GameResult[] results = outcome.results;
+        int ordinalPos = outcome.ordinal[player];
         rankPerPlayer[j] += ordinalPos;
         rankPerPlayerSquared[j] += ordinalPos * ordinalPos;
 
-        for (int playerPos = 0; playerPos < game.getGameState().getNPlayers(); playerPos++) {
+        for (int playerPos = 0; playerPos < outcome.ordinal.length; playerPos++) {
             if (playerPos != player) {
-                int ordinalOther = game.getGameState().getOrdinalPosition(playerPos);
+                int ordinalOther = outcome.ordinal[playerPos];
                 ordinalDeltaPerOpponent[j][matchUpPlayers.get(playerPos)] += ordinalOther - ordinalPos;
             }
         }
 
-        scorePerPlayer[j] += game.getGameState().getGameScore(player);
+        scorePerPlayer[j] += outcome.score[player];
 
         if (results[player] == GameResult.WIN_GAME) {
             pointsPerPlayer[j] += 1;
@@ -443,6 +547,33 @@ public class RoundRobinTournament extends AbstractTournament {
         return 0;
     }
 
+    /**
+     * What the statistics need from a finished game, so that the game itself can be dropped.
+     */
+    private static class GameOutcome {
+        final GameResult[] results;
+        final int[] ordinal;
+        final double[] score;
+        final int[] team;
+
+        GameOutcome(AbstractGameState state) {
+            int n = state.getNPlayers();
+            results = state.getPlayerResults().clone();
+            ordinal = new int[n];
+            score = new double[n];
+            team = new int[n];
+            for (int p = 0; p < n; p++) {
+                ordinal[p] = state.getOrdinalPosition(p);
+                score[p] = state.getGameScore(p);
+                team[p] = state.getTeam(p);
+            }
+        }
+    }
+
+    private record PendingGame(List<Integer> agentIDs, List<AbstractPlayer> players, AbstractParameters params,
+                               long seed) {
+    }
+
 
     protected void calculateFinalResults() {
         finalWinRanking = new LinkedHashMap<>();
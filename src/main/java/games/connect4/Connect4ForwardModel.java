@@ -23,6 +23,7 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
         Connect4GameState state = (Connect4GameState) firstState;
         state.gridBoard = new GridBoard(gridSize, gridSize, new BoardNode(Connect4Constants.emptyCell));
         state.winnerCells = new LinkedList<>();
+        state.zobristHash = 0;
     }
 
     @Override
@@ -50,6 +51,13 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
         return actions;
     }
 
+    @Override
+    protected void _beforeAction(AbstractGameState currentState, AbstractAction action) {
+        if (action instanceof SetGridValueAction set)
+            ((Connect4GameState) currentState).placeToken(set.getX(), set.getY(), currentState.getCurrentPlayer());
+        super._beforeAction(currentState, action);
+    }
+
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
         Connect4GameState c4gs = (Connect4GameState) currentState;
@@ -8,18 +8,22 @@ import core.components.GridBoard;
 import core.components.Token;
 import core.interfaces.IGridGameState;
 import core.interfaces.IPrintable;
+import core.interfaces.IZobristHashed;
 import games.GameType;
 import utilities.Pair;
+import utilities.Zobrist;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 
-public class Connect4GameState extends AbstractGameState implements IPrintable, IGridGameState {
+public class Connect4GameState extends AbstractGameState implements IPrintable, IGridGameState, IZobristHashed {
 
     GridBoard gridBoard;
     LinkedList<Pair<Integer, Integer>> winnerCells;
+    // XOR of the keys of all the tokens on the board, kept up to date by the forward model
+    long zobristHash;
 
     public Connect4GameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, nPlayers);
@@ -35,6 +39,35 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
         return token == null ? -1 : token.getOwnerId();
     }
 
+    /**
+     * Called by the forward model as player drops a token into (x, y)
+     */
+    void placeToken(int x, int y, int player) {
+        zobristHash ^= tokenKey(x, y, player);
+    }
+
+    private long tokenKey(int x, int y, int player) {
+        return Zobrist.key(0, (y * gridBoard.getWidth() + x) * getNPlayers() + player);
+    }
+
+    @Override
+    public long getZobristHash(int playerId) {
+        return zobristHash ^ Zobrist.key(1, getCurrentPlayer());
+    }
+
+    /**
+     * @return the Zobrist hash of the board computed from scratch, for checking the incremental version
+     */
+    public long computeZobristHash() {
+        long hash = 0;
+        for (int x = 0; x < gridBoard.getWidth(); x++)
+            for (int y = 0; y < gridBoard.getHeight(); y++)
+                for (int p = 0; p < getNPlayers(); p++)
+                    if (gridBoard.getElement(x, y).getComponentName().equals(Connect4Constants.playerMapping.get(p).getComponentName()))
+                        hash ^= tokenKey(x, y, p);
+        return hash ^ Zobrist.key(1, getCurrentPlayer());
+    }
+
     @Override
     protected GameType _getGameType() {
         return GameType.Connect4;
@@ -52,6 +85,7 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
     protected AbstractGameState _copy(int playerId) {
         Connect4GameState s = new Connect4GameState(gameParameters.copy(), getNPlayers());
         s.gridBoard = gridBoard.copy();
+        s.zobristHash = zobristHash;
 
         s.winnerCells.clear();
         for (Pair<Integer, Integer> wC : this.winnerCells)
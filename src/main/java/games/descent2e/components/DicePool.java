@@ -2,6 +2,7 @@ package games.descent2e.components;
 
 import core.CoreConstants;
 import core.components.Component;
+import core.components.ComponentIdAllocator;
 import core.interfaces.IComponentContainer;
 import core.properties.PropertyStringArray;
 import games.descent2e.DescentGameData;
@@ -13,7 +14,7 @@ import java.util.stream.Collectors;
 
 public class DicePool extends Component implements IComponentContainer<DescentDice> {
 
-    public static DicePool empty = new DicePool(Collections.emptyList());
+    public static DicePool empty = ComponentIdAllocator.unbound(() -> new DicePool(Collections.emptyList()));
     public static DicePool revive;
     public static DicePool heal;
 
@@ -7,10 +7,12 @@ import games.dominion.DominionGameState;
 import games.dominion.actions.BuyCard;
 import games.dominion.actions.EndPhase;
 import games.dominion.cards.CardType;
+import players.PlayerParameters;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 public class BigMoney extends AbstractPlayer {
 
@@ -69,7 +71,12 @@ public class BigMoney extends AbstractPlayer {
 
     @Override
     public BigMoney copy() {
-        return this;
+        BigMoney copy = new BigMoney();
+        copy.parameters = (PlayerParameters) parameters.copy();
+        copy.rnd = new Random(rnd.nextLong());
+        copy.decorators = decorators;
+        copy.setForwardModel(getForwardModel());
+        return copy;
     }
 
     @Override
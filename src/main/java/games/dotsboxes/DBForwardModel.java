@@ -45,6 +45,7 @@ public class DBForwardModel extends StandardForwardModel {
         }
         // Initialise other variables
         dbgs.nCellsPerPlayer = new int[dbgs.getNPlayers()];
+        dbgs.zobristHash = 0;
     }
 
     @Override
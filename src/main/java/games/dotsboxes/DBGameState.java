@@ -4,11 +4,13 @@ import core.AbstractGameState;
 import core.AbstractParameters;
 import core.components.Component;
 import core.interfaces.IStateHeuristic;
+import core.interfaces.IZobristHashed;
 import games.GameType;
+import utilities.Zobrist;
 
 import java.util.*;
 
-public class DBGameState extends AbstractGameState {
+public class DBGameState extends AbstractGameState implements IZobristHashed {
 
     IStateHeuristic heuristic;
 
@@ -26,6 +28,7 @@ public class DBGameState extends AbstractGameState {
     HashMap<DBCell, Integer> cellToOwnerMap;  // Mapping from each cell to its owner, if complete
     HashMap<DBEdge, Integer> edgeToOwnerMap;  // Mapping from each edge to its owner, if placed
     boolean lastActionDidNotScore;
+    long zobristHash;  // of the placed edges and the scores, kept up to date by placeEdge() and scoreCell()
 
     /**
      * Constructor. Initialises some generic game state variables.
@@ -55,6 +58,7 @@ public class DBGameState extends AbstractGameState {
         dbgs.edgeToCellMap = edgeToCellMap;
         dbgs.cellToEdgesMap = cellToEdgesMap;
         dbgs.lastActionDidNotScore = lastActionDidNotScore;
+        dbgs.zobristHash = zobristHash;
 
         dbgs.nCellsPerPlayer = nCellsPerPlayer.clone();
         dbgs.cellToOwnerMap = (HashMap<DBCell, Integer>) cellToOwnerMap.clone();
@@ -63,6 +67,44 @@ public class DBGameState extends AbstractGameState {
         return dbgs;
     }
 
+    void placeEdge(DBEdge edge, int player) {
+        edgeToOwnerMap.put(edge, player);
+        zobristHash ^= edgeKey(edge);
+    }
+
+    void scoreCell(DBCell cell, int player) {
+        cellToOwnerMap.put(cell, player);
+        zobristHash ^= scoreKey(player, nCellsPerPlayer[player]);
+        nCellsPerPlayer[player]++;
+        zobristHash ^= scoreKey(player, nCellsPerPlayer[player]);
+    }
+
+    // As in DBEdgeAndScoreKey, an edge is identified by its mid-point, and who placed it does not matter
+    private static long edgeKey(DBEdge edge) {
+        return Zobrist.key(0, edge.from.getX() + edge.to.getX(), edge.from.getY() + edge.to.getY());
+    }
+
+    private static long scoreKey(int player, int score) {
+        return score == 0 ? 0 : Zobrist.key(1, player, score);
+    }
+
+    @Override
+    public long getZobristHash(int playerId) {
+        return zobristHash ^ Zobrist.key(2, getCurrentPlayer());
+    }
+
+    /**
+     * @return the Zobrist hash computed from scratch, for checking the incremental version
+     */
+    public long computeZobristHash() {
+        long hash = 0;
+        for (DBEdge edge : edgeToOwnerMap.keySet())
+            hash ^= edgeKey(edge);
+        for (int p = 0; p < getNPlayers(); p++)
+            hash ^= scoreKey(p, nCellsPerPlayer[p]);
+        return hash ^ Zobrist.key(2, getCurrentPlayer());
+    }
+
     @Override
     protected double _getHeuristicScore(int playerId) {
         if (heuristic == null) { // lazy initialization
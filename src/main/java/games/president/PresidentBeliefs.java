@@ -0,0 +1,150 @@
+package games.president;
+
+import java.util.Arrays;
+
+/**
+ * Public beliefs about which card values each player holds.
+ * <p>
+ * For every player there is a distribution over card values (the probability that a card of theirs has a given
+ * value), stored in one flat primitive array together with its suffix sums, so that the probability that a player
+ * holds something above a value (getProbabilityAbove()) is O(1). Updates are applied in place:
+ * <ul>
+ *     <li>when cards are played, every player's weight for that value is scaled by copiesLeftAfter / copiesLeftBefore
+ *     (it drops to zero once the last copy is out);</li>
+ *     <li>when a pass shows that a player cannot hold a value any more (see PresidentGameState.addPassConstraint()),
+ *     their weight for it is set to zero;</li>
+ * </ul>
+ * after which only the affected rows are renormalised. A player with no possible values (e.g. no cards left)
+ * has an all-zero row. Copying is a clone of two small arrays.
+ */
+public class PresidentBeliefs {
+
+    private final int nPlayers;
+    private final int nValues;      // values are 0..maxCardValue
+    private final int stride;       // per player: nValues probabilities, then nValues + 1 suffix sums
+    private final double[] data;
+    private final int[] remaining;  // copies of each value not played yet
+
+    public PresidentBeliefs(int nPlayers, int minCardValue, int maxCardValue, int copiesPerValue) {
+        this.nPlayers = nPlayers;
+        this.nValues = maxCardValue + 1;
+        this.stride = 2 * nValues + 1;
+        this.data = new double[nPlayers * stride];
+        this.remaining = new int[nValues];
+        for (int v = minCardValue; v <= maxCardValue; v++)
+            remaining[v] = copiesPerValue;
+        for (int p = 0; p < nPlayers; p++) {
+            int row = p * stride;
+            for (int v = minCardValue; v <= maxCardValue; v++)
+                data[row + v] = copiesPerValue;
+            normalise(p);
+        }
+    }
+
+    private PresidentBeliefs(PresidentBeliefs other) {
+        this.nPlayers = other.nPlayers;
+        this.nValues = other.nValues;
+        this.stride = other.stride;
+        this.data = other.data.clone();
+        this.remaining = other.remaining.clone();
+    }
+
+    public PresidentBeliefs copy() {
+        return new PresidentBeliefs(this);
+    }
+
+    /**
+     * nCards cards of the given value have been played by player.
+     */
+    public void onPlay(int player, int nCards, int value) {
+        int before = remaining[value];
+        int after = Math.max(0, before - nCards);
+        remaining[value] = after;
+        double factor = before > 0 ? (double) after / before : 0.0;
+        for (int p = 0; p < nPlayers; p++) {
+            int idx = p * stride + value;
+            if (data[idx] == 0.0) continue;
+            data[idx] *= factor;
+            normalise(p);
+        }
+    }
+
+    /**
+     * Zeroes the player's weight for every value they cannot hold any more.
+     *
+     * @param maxCopies - upper bound on the copies of each value the player can hold, indexed by value
+     */
+    public void applyLimits(int player, int[] maxCopies) {
+        int row = player * stride;
+        boolean changed = false;
+        for (int v = 0; v < nValues && v < maxCopies.length; v++) {
+            if (maxCopies[v] == 0 && data[row + v] != 0.0) {
+                data[row + v] = 0.0;
+                changed = true;
+            }
+        }
+        if (changed)
+            normalise(player);
+    }
+
+    private void normalise(int player) {
+        int row = player * stride;
+        double sum = 0.0;
+        for (int v = 0; v < nValues; v++)
+            sum += data[row + v];
+        if (sum > 0.0 && sum != 1.0) {
+            for (int v = 0; v < nValues; v++)
+                data[row + v] /= sum;
+        }
+        int suffix = row + nValues;
+        data[suffix + nValues] = 0.0;
+        for (int v = nValues - 1; v >= 0; v--)
+            data[suffix + v] = data[suffix + v + 1] + data[row + v];
+    }
+
+    /**
+     * @return probability that a card held by the player has the given value
+     */
+    public double getProbability(int player, int value) {
+        if (value < 0 || value >= nValues) return 0.0;
+        return data[player * stride + value];
+    }
+
+    /**
+     * @return probability that a card held by the player has a value strictly above the given one
+     */
+    public double getProbabilityAbove(int player, int value) {
+        int from = Math.max(0, value + 1);
+        if (from >= nValues) return 0.0;
+        return data[player * stride + nValues + from];
+    }
+
+    /**
+     * @return copies of the value that have not been played yet
+     */
+    public int getRemaining(int value) {
+        if (value < 0 || value >= nValues) return 0;
+        return remaining[value];
+    }
+
+    public int getNPlayers() {
+        return nPlayers;
+    }
+
+    public int getMaxCardValue() {
+        return nValues - 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PresidentBeliefs other)) return false;
+        return nPlayers == other.nPlayers && nValues == other.nValues &&
+                Arrays.equals(data, other.data) && Arrays.equals(remaining, other.remaining);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(data) + Arrays.hashCode(remaining);
+    }
+}
@@ -0,0 +1,233 @@
+package games.president;
+
+import core.components.Deck;
+import games.president.cards.PresidentCard;
+
+import java.util.Arrays;
+
+/**
+ * Compact, perfect-information view of a President position.
+ * <p>
+ * The rules only care about how many copies of each value a player holds, so a hand is stored as a histogram
+ * indexed directly by card value (hands[player][value]). Together with the trick fields this is everything
+ * PresidentForwardModel needs to simulate the game, and copying it is just a few array clones.
+ * <p>
+ * Moves are encoded as ints (see move(), moveSize(), moveValue()), with PASS == 0.
+ * Beliefs (card probabilities) and the discard pile are not tracked: this is meant for rollouts and search on
+ * an already determinised state.
+ */
+public class PresidentCompactState {
+
+    public static final int PASS = 0;
+    // playing this value closes the discard pile, and the same player plays again (see PlayCard/PlayCards)
+    public static final int CLOSING_VALUE = 10;
+
+    final int nPlayers;
+    final int minCardValue;
+    final int maxCardValue;
+    final int maxSetSize;
+
+    // player, card value -> number of copies held
+    final int[][] hands;
+    final int[] handSizes;
+    int currentValue;       // 0 if the trick is empty
+    int requiredCards;      // 0 if the trick is empty
+    int passingPlayers;
+    int turnOwner;
+    int[] orderOfPlayerDone;
+    int doneCount;
+    boolean gameOver;
+
+    PresidentCompactState(int nPlayers, int minCardValue, int maxCardValue, int maxSetSize) {
+        this.nPlayers = nPlayers;
+        this.minCardValue = minCardValue;
+        this.maxCardValue = maxCardValue;
+        this.maxSetSize = maxSetSize;
+        this.hands = new int[nPlayers][maxCardValue + 1];
+        this.handSizes = new int[nPlayers];
+        this.orderOfPlayerDone = new int[nPlayers];
+        Arrays.fill(orderOfPlayerDone, -1);
+    }
+
+    private PresidentCompactState(PresidentCompactState other) {
+        this.nPlayers = other.nPlayers;
+        this.minCardValue = other.minCardValue;
+        this.maxCardValue = other.maxCardValue;
+        this.maxSetSize = other.maxSetSize;
+        this.hands = new int[nPlayers][];
+        for (int p = 0; p < nPlayers; p++)
+            this.hands[p] = other.hands[p].clone();
+        this.handSizes = other.handSizes.clone();
+        this.orderOfPlayerDone = other.orderOfPlayerDone.clone();
+        copyScalars(other);
+    }
+
+    /**
+     * Builds the compact view of a full game state. All hands are copied as they are, so a redeterminised
+     * copy (PresidentGameState.copy(playerId)) should be used if hidden information must not leak.
+     */
+    public static PresidentCompactState from(PresidentGameState state) {
+        PresidentParameters params = (PresidentParameters) state.getGameParameters();
+        int maxValue = params.maxCardValue;
+        for (Deck<PresidentCard> hand : state.getPlayerHandCards())
+            for (PresidentCard card : hand.getComponents())
+                maxValue = Math.max(maxValue, card.value);
+
+        PresidentCompactState compact = new PresidentCompactState(state.getNPlayers(), params.minCardValue, maxValue, params.maxSetSize);
+        for (int p = 0; p < compact.nPlayers; p++) {
+            for (PresidentCard card : state.getPlayerHandCards().get(p).getComponents())
+                compact.hands[p][card.value]++;
+            compact.handSizes[p] = state.getPlayerHandCards().get(p).getSize();
+            compact.orderOfPlayerDone[p] = state.orderOfPlayerDone[p];
+            if (compact.orderOfPlayerDone[p] != -1)
+                compact.doneCount++;
+        }
+        compact.currentValue = state.isFirstCard() ? 0 : state.getCurrentCard().value;
+        compact.requiredCards = state.isFirstCard() ? 0 : state.getCurrentRequiredCards();
+        compact.passingPlayers = state.getPassingPlayers();
+        compact.turnOwner = state.getCurrentPlayer();
+        compact.gameOver = !state.isNotTerminal();
+        return compact;
+    }
+
+    public PresidentCompactState copy() {
+        return new PresidentCompactState(this);
+    }
+
+    /**
+     * Overwrites this state with the contents of other, without allocating.
+     * Both states must have been created for the same game configuration.
+     */
+    public void copyFrom(PresidentCompactState other) {
+        for (int p = 0; p < nPlayers; p++)
+            System.arraycopy(other.hands[p], 0, hands[p], 0, hands[p].length);
+        System.arraycopy(other.handSizes, 0, handSizes, 0, nPlayers);
+        System.arraycopy(other.orderOfPlayerDone, 0, orderOfPlayerDone, 0, nPlayers);
+        copyScalars(other);
+    }
+
+    private void copyScalars(PresidentCompactState other) {
+        this.currentValue = other.currentValue;
+        this.requiredCards = other.requiredCards;
+        this.passingPlayers = other.passingPlayers;
+        this.turnOwner = other.turnOwner;
+        this.doneCount = other.doneCount;
+        this.gameOver = other.gameOver;
+    }
+
+    public static int move(int nCards, int value) {
+        return (nCards << 8) | value;
+    }
+
+    public static int moveSize(int move) {
+        return move >> 8;
+    }
+
+    public static int moveValue(int move) {
+        return move & 0xFF;
+    }
+
+    /**
+     * @return a buffer large enough for PresidentForwardModel.computeAvailableMoves() on this state
+     */
+    public int[] newMoveBuffer() {
+        return new int[maxSetSize * (maxCardValue + 1) + 1];
+    }
+
+    public int nextPlayer(int player) {
+        int next = (player + 1) % nPlayers;
+        while (orderOfPlayerDone[next] != -1)
+            next = (next + 1) % nPlayers;
+        return next;
+    }
+
+    void clearTrick() {
+        currentValue = 0;
+        requiredCards = 0;
+        passingPlayers = 0;
+    }
+
+    public int getNPlayers() {
+        return nPlayers;
+    }
+    public int getMinCardValue() {
+        return minCardValue;
+    }
+    public int getMaxCardValue() {
+        return maxCardValue;
+    }
+    public int getMaxSetSize() {
+        return maxSetSize;
+    }
+    public int getCount(int player, int value) {
+        return hands[player][value];
+    }
+    public int getHandSize(int player) {
+        return handSizes[player];
+    }
+    public int getCurrentValue() {
+        return currentValue;
+    }
+    public int getRequiredCards() {
+        return requiredCards;
+    }
+    public int getPassingPlayers() {
+        return passingPlayers;
+    }
+    public int getCurrentPlayer() {
+        return turnOwner;
+    }
+    public int getOrderOfPlayerDone(int player) {
+        return orderOfPlayerDone[player];
+    }
+    public boolean isGameOver() {
+        return gameOver;
+    }
+    public int getTotalCards() {
+        int total = 0;
+        for (int size : handSizes) total += size;
+        return total;
+    }
+
+    /**
+     * Same scoring as PresidentGameState.getGameScore()
+     */
+    public double getGameScore(int player) {
+        int doneOrder = orderOfPlayerDone[player];
+        if (doneOrder == -1)
+            return 0;
+        return nPlayers - doneOrder;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PresidentCompactState other)) return false;
+        return nPlayers == other.nPlayers && currentValue == other.currentValue &&
+                requiredCards == other.requiredCards && passingPlayers == other.passingPlayers &&
+                turnOwner == other.turnOwner && doneCount == other.doneCount && gameOver == other.gameOver &&
+                Arrays.deepEquals(hands, other.hands) &&
+                Arrays.equals(orderOfPlayerDone, other.orderOfPlayerDone);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.deepHashCode(hands);
+        result = 31 * result + Arrays.hashCode(orderOfPlayerDone);
+        result = 31 * result + currentValue;
+        result = 31 * result + requiredCards;
+        result = 31 * result + passingPlayers;
+        result = 31 * result + turnOwner;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int p = 0; p < nPlayers; p++)
+            sb.append("P").append(p).append(Arrays.toString(Arrays.copyOfRange(hands[p], minCardValue, maxCardValue + 1))).append(" ");
+        sb.append("turn=").append(turnOwner).append(" current=").append(currentValue)
+                .append("x").append(requiredCards).append(" passing=").append(passingPlayers);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,205 @@
+package games.president;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Exact, perfect-information solver for President endgames.
+ * <p>
+ * Runs a MaxN search (every player maximises their own final score, see PresidentCompactState.getGameScore())
+ * over a PresidentCompactState until the game ends. Positions are memoised in a bounded transposition table of
+ * 2^tableBits entries, keyed by a 64-bit hash of the position and replaced always on collision. The table is kept
+ * between calls, so repeated solves of related positions (e.g. several determinisations of the same endgame) are
+ * mostly lookups. The game cannot cycle (every pass round ends with a cleared trick, and somebody must then play),
+ * so plain depth-first search terminates.
+ * <p>
+ * The search is only meant for the last few cards: each call stops after nodeLimit new positions and reports
+ * failure, so that callers can fall back to rollouts.
+ */
+public class PresidentEndgameSolver {
+
+    public static final int DEFAULT_TABLE_BITS = 18;
+    public static final long DEFAULT_NODE_LIMIT = 1_000_000;
+
+    private static final long ABORTED = -1L;
+    private static final int SCORE_BITS = 4;        // scores are 0..nPlayers, and there are at most 6 players
+
+    private final PresidentForwardModel fm = new PresidentForwardModel();
+    private final long nodeLimit;
+    private final int mask;
+    private final long[] keys;
+    private final long[] values;
+    private final int[] bestMoves;
+    private long nodes;
+
+    // configuration the hash keys and buffers were built for
+    private int nPlayers = -1, maxCardValue = -1, maxSetSize = -1;
+    private long[][] handKeys;      // player, value
+    private long[][] doneKeys;      // player, done order + 1
+    private long[] turnKeys, currentKeys, requiredKeys, passingKeys;
+    private final List<PresidentCompactState> children = new ArrayList<>();
+    private final List<int[]> moveBuffers = new ArrayList<>();
+
+    public PresidentEndgameSolver() {
+        this(DEFAULT_TABLE_BITS, DEFAULT_NODE_LIMIT);
+    }
+
+    public PresidentEndgameSolver(int tableBits, long nodeLimit) {
+        if (tableBits < 1 || tableBits > 28)
+            throw new IllegalArgumentException("tableBits must be between 1 and 28, not " + tableBits);
+        this.nodeLimit = nodeLimit;
+        this.mask = (1 << tableBits) - 1;
+        this.keys = new long[1 << tableBits];
+        this.values = new long[1 << tableBits];
+        this.bestMoves = new int[1 << tableBits];
+    }
+
+    /**
+     * Solves the position.
+     *
+     * @return the final score of every player under MaxN play, or null if the node limit was reached first
+     */
+    public double[] solve(PresidentCompactState state) {
+        long packed = search(state);
+        if (packed == ABORTED)
+            return null;
+        double[] scores = new double[state.nPlayers];
+        for (int p = 0; p < state.nPlayers; p++)
+            scores[p] = score(packed, p);
+        return scores;
+    }
+
+    /**
+     * @return the move (as encoded by PresidentCompactState.move()) that the current player should make under MaxN
+     * play, or -1 if the game is over or the node limit was reached first
+     */
+    public int getBestMove(PresidentCompactState state) {
+        if (state.gameOver || search(state) == ABORTED)
+            return -1;
+        // the root is the last entry stored by the search, so it is still in the table
+        long key = hash(state);
+        int slot = slot(key);
+        return keys[slot] == key ? bestMoves[slot] : -1;
+    }
+
+    /**
+     * @return number of positions expanded by the last call to solve() or getBestMove()
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+    }
+
+    private long search(PresidentCompactState root) {
+        if (root.nPlayers * SCORE_BITS >= Long.SIZE)
+            throw new IllegalArgumentException("Too many players for the endgame solver: " + root.nPlayers);
+        configure(root);
+        nodes = 0;
+        return search(root, 0);
+    }
+
+    private long search(PresidentCompactState state, int depth) {
+        if (state.gameOver) {
+            long packed = 0;
+            for (int p = 0; p < state.nPlayers; p++)
+                packed |= (long) state.getGameScore(p) << (p * SCORE_BITS);
+            return packed;
+        }
+        long key = hash(state);
+        int slot = slot(key);
+        if (keys[slot] == key)
+            return values[slot];
+        if (++nodes > nodeLimit)
+            return ABORTED;
+
+        if (depth == children.size()) {
+            children.add(state.copy());
+            moveBuffers.add(state.newMoveBuffer());
+        }
+        PresidentCompactState child = children.get(depth);
+        int[] moves = moveBuffers.get(depth);
+        int nMoves = fm.computeAvailableMoves(state, moves);
+
+        int player = state.turnOwner;
+        long best = ABORTED;
+        int bestScore = -1, bestMove = -1;
+        for (int i = 0; i < nMoves; i++) {
+            child.copyFrom(state);
+            fm.next(child, moves[i]);
+            long value = search(child, depth + 1);
+            if (value == ABORTED)
+                return ABORTED;
+            int s = score(value, player);
+            if (s > bestScore) {
+                bestScore = s;
+                best = value;
+                bestMove = moves[i];
+            }
+        }
+        // the children may have overwritten the slot
+        keys[slot] = key;
+        values[slot] = best;
+        bestMoves[slot] = bestMove;
+        return best;
+    }
+
+    private static int score(long packed, int player) {
+        return (int) (packed >>> (player * SCORE_BITS)) & ((1 << SCORE_BITS) - 1);
+    }
+
+    private int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    /**
+     * Additive Zobrist-style hash: hand counts are multiplied into per (player, value) keys, the rest of the
+     * position picks one key per field.
+     */
+    private long hash(PresidentCompactState state) {
+        long h = turnKeys[state.turnOwner] + currentKeys[state.currentValue] +
+                requiredKeys[state.requiredCards] + passingKeys[state.passingPlayers];
+        for (int p = 0; p < nPlayers; p++) {
+            int[] hand = state.hands[p];
+            long[] hk = handKeys[p];
+            for (int v = state.minCardValue; v <= maxCardValue; v++)
+                h += hand[v] * hk[v];
+            h += doneKeys[p][state.orderOfPlayerDone[p] + 1];
+        }
+        // 0 marks an empty slot
+        return h == 0 ? 1 : h;
+    }
+
+    private void configure(PresidentCompactState state) {
+        if (state.nPlayers == nPlayers && state.maxCardValue == maxCardValue && state.maxSetSize == maxSetSize)
+            return;
+        nPlayers = state.nPlayers;
+        maxCardValue = state.maxCardValue;
+        maxSetSize = state.maxSetSize;
+        // fixed seed, so that hashes (and hence search results on ties) are reproducible
+        Random rnd = new Random(0x5eed);
+        handKeys = new long[nPlayers][maxCardValue + 1];
+        doneKeys = new long[nPlayers][nPlayers + 1];
+        for (int p = 0; p < nPlayers; p++) {
+            for (int v = 0; v <= maxCardValue; v++) handKeys[p][v] = rnd.nextLong();
+            for (int o = 0; o <= nPlayers; o++) doneKeys[p][o] = rnd.nextLong();
+        }
+        turnKeys = randomKeys(rnd, nPlayers);
+        currentKeys = randomKeys(rnd, maxCardValue + 1);
+        requiredKeys = randomKeys(rnd, maxSetSize + 1);
+        passingKeys = randomKeys(rnd, nPlayers + 1);
+        children.clear();
+        moveBuffers.clear();
+        clear();
+    }
+
+    private static long[] randomKeys(Random rnd, int n) {
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = rnd.nextLong();
+        return keys;
+    }
+}
@@ -5,38 +5,49 @@ import core.CoreConstants;
 import core.StandardForwardModel;
 import core.actions.AbstractAction;
 import core.components.Deck;
+import core.interfaces.ITreeActionSpace;
 import games.president.actions.Pass;
 import games.president.actions.PlayCard;
 import games.president.actions.PlayCards;
+import games.president.actions.PresidentActionTable;
 import games.president.cards.PresidentCard;
+import utilities.ActionTreeNode;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import static core.CoreConstants.GameResult.GAME_ONGOING;
 import static core.CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
 import static core.CoreConstants.VisibilityMode.VISIBLE_TO_OWNER;
 
-public class PresidentForwardModel extends StandardForwardModel {
+public class PresidentForwardModel extends StandardForwardModel implements ITreeActionSpace {
+
+    private PresidentActionTable actionTable;
 
     @Override
     protected void _setup(AbstractGameState firstState) {
         PresidentGameState gameState = (PresidentGameState) firstState;
 
         gameState.playerHandCards = new ArrayList<>(firstState.getNPlayers());
+        // hands are played from by index, so they are array-backed (copies keep this)
         for (int i = 0; i < gameState.getNPlayers(); i++) {
-            gameState.playerHandCards.add(new Deck<>("Player " + i + " deck", i, VISIBLE_TO_OWNER));
+            Deck<PresidentCard> hand = new Deck<>("Player " + i + " deck", i, VISIBLE_TO_OWNER);
+            hand.setArrayBacked(true);
+            gameState.playerHandCards.add(hand);
         }
         gameState.discardPile = new Deck<>("DiscardPile", VISIBLE_TO_ALL);
+        gameState.discardPile.setArrayBacked(true);
 
         createAndDealCards(gameState);
         PresidentParameters params = (PresidentParameters) gameState.getGameParameters();
-        gameState.initCardProbabilities(gameState.getNPlayers(), params.maxCardValue);
+        gameState.beliefs = new PresidentBeliefs(gameState.getNPlayers(), params.minCardValue, params.maxCardValue, params.copiesPerValue);
+        gameState.maxCopiesHeld = new int[gameState.getNPlayers()][params.maxCardValue + 1];
+        for (int[] limits : gameState.maxCopiesHeld)
+            Arrays.fill(limits, params.copiesPerValue);
 
-        gameState.currentCard = new PresidentCard(0);
+        gameState.currentCard = PresidentCard.none();
         gameState.currentRequiredCards = 0;
         gameState.isFirstCard = true;
         gameState.passingPlayers = 0;
+        gameState.initZobristHashes();
 
         gameState.orderOfPlayerDone = new int[gameState.getNPlayers()];
         for (int playerId = 0; playerId < gameState.getNPlayers(); playerId++) {
@@ -71,44 +82,35 @@ public class PresidentForwardModel extends StandardForwardModel {
             currentPlayer = (currentPlayer + 1) % game.getNPlayers();   // round-robin
         }
 
-        if (game.getGameStatus() != CoreConstants.GameResult.GAME_ONGOING) {
-            System.out.println("START - All player hand cards: ");
-            for (int i = 0; i < game.playerHandCards.size(); i++) {
-                Deck<PresidentCard> hand = game.playerHandCards.get(i);
-                StringBuilder sb = new StringBuilder();
-                sb.append("Player ").append(i).append(" (").append(hand.getSize()).append(" cards): ");
-                for (PresidentCard card : hand.getComponents()) {
-                    sb.append(card.toString()).append(" ");
-                }
-                System.out.println(sb);
-            }
-            System.out.println();
+        if (game.getTrace() != null) {
+            for (int i = 0; i < game.playerHandCards.size(); i++)
+                for (PresidentCard card : game.playerHandCards.get(i).getComponents())
+                    game.recordTrace(PresidentTrace.Type.DEAL, i, 1, card.value);
         }
     }
 
     @Override
-    protected void _afterAction(AbstractGameState gameState, AbstractAction action) {
-
+    protected void _beforeAction(AbstractGameState gameState, AbstractAction action) {
         PresidentGameState game = (PresidentGameState) gameState;
-        PresidentParameters params = (PresidentParameters) game.getGameParameters();
-        int maxCardValue = params.maxCardValue;
-        int currentCardValue = (game.getCurrentCard() != null) ? game.getCurrentCard().value : 0;
-        int actingPlayer = game.getCurrentPlayer(); 
-
-        if (action instanceof PlayCard) {
-            PlayCard play = (PlayCard) action;
-            int val = play.getNumber();                 
-            game.updateCardProbabilities(actingPlayer, val, false, currentCardValue, maxCardValue);
-
-        } else if (action instanceof PlayCards) {
-            PlayCards playMulti = (PlayCards) action;
-            int val = playMulti.getNumber();
-            game.updateCardProbabilities(actingPlayer, val, false, currentCardValue, maxCardValue);
-
-        } else if (action instanceof Pass) {
-            game.updateCardProbabilities(actingPlayer, null, true, currentCardValue, maxCardValue);
+        // update the public information revealed by the action
+        int player = game.getCurrentPlayer();
+        if (action instanceof PlayCard play) {
+            game.beliefs.onPlay(player, 1, play.getNumber());
+            game.updateZobristHashes(player, 1, play.getNumber());
+        } else if (action instanceof PlayCards play) {
+            game.beliefs.onPlay(player, play.getNCards(), play.getNumber());
+            game.updateZobristHashes(player, play.getNCards(), play.getNumber());
+        } else if (action instanceof Pass && !game.isFirstCard()) {
+            // the trick is read before the pass, as the last pass clears it
+            game.addPassConstraint(player, game.getCurrentCard().value, game.getCurrentRequiredCards());
+            game.beliefs.applyLimits(player, game.getMaxCopiesHeld()[player]);
         }
+    }
 
+    @Override
+    protected void _afterAction(AbstractGameState gameState, AbstractAction action) {
+
+        PresidentGameState game = (PresidentGameState) gameState;
         if (checkGameEnd((PresidentGameState) gameState))
             return;
 
@@ -145,6 +147,7 @@ public class PresidentForwardModel extends StandardForwardModel {
                     && game.getPlayerResults()[playerId] == GAME_ONGOING) {
                 doneCount++;
                 game.orderOfPlayerDone[playerId] = doneCount;
+                game.recordTrace(PresidentTrace.Type.PLAYER_DONE, playerId, 0, doneCount);
                 game.setPlayerResult(CoreConstants.GameResult.WIN_GAME, playerId); // the player is done
             }
         }
@@ -171,7 +174,6 @@ public class PresidentForwardModel extends StandardForwardModel {
             game.setPlayerResult(CoreConstants.GameResult.WIN_GAME, winner);
             game.setPlayerResult(CoreConstants.GameResult.LOSE_GAME, looser);
             // the others remain with "DRAW_GAME"
-            printResults(game, winner, looser);
             return true;
         }
         return false;
@@ -180,105 +182,147 @@ public class PresidentForwardModel extends StandardForwardModel {
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
         PresidentGameState game = (PresidentGameState) gameState;
-        game.printToConsole();
-        ArrayList<AbstractAction> actions = new ArrayList<>();
+        PresidentParameters params = (PresidentParameters) game.getGameParameters();
+        PresidentActionTable table = getActionTable(game);
 
-        int player = game.getCurrentPlayer();
-        Deck<PresidentCard> playerHand = game.getPlayerHandCards().get(player);
-        int currentRequiredCards = game.getCurrentRequiredCards();
-        System.out.println();
-        System.out.println("Available actions: ");
-
-        if (currentRequiredCards != 2)      // if 0 or 1 I check actions with one card
-            actions.addAll(getActionsWithOneCard(game, playerHand));
-        if (currentRequiredCards != 1)      // if 0 or 2 I check actions with two cards
-            actions.addAll(getActionsWithTwoCards(game, playerHand));
-
-        if (actions.isEmpty()) {
-            actions.add(new Pass());
-        }
-        System.out.println("----------------------------------------------------");
+        int[] counts = game.getHandCounts(game.getCurrentPlayer());
+        int currentValue = game.isFirstCard() ? 0 : game.getCurrentCard().value;
+        int[] moves = new int[table.getMaxSetSize() * (counts.length) + 1];
+        int nMoves = generateMoves(counts, params.minCardValue, params.maxCardValue, currentValue,
+                game.getCurrentRequiredCards(), table.getMaxSetSize(), moves);
+
+        ArrayList<AbstractAction> actions = new ArrayList<>(nMoves);
+        for (int i = 0; i < nMoves; i++)
+            actions.add(table.get(moves[i]));
         return actions;
     }
 
-    private List<AbstractAction> getActionsWithOneCard(PresidentGameState game, Deck<PresidentCard> playerHand) {
-        ArrayList<AbstractAction> actionsOneCard = new ArrayList<>();
-
-        for (PresidentCard card : playerHand.getComponents()) {
-            int cardIdx = playerHand.getComponents().indexOf(card);
-            if (card.isPlayable(game)) {
-                PlayCard action = new PlayCard(playerHand.getComponentID(), game.discardPile.getComponentID(), cardIdx, card.value);
-                System.out.println("    - "+action.getString(game));
-                actionsOneCard.add(action);
-            }
+    /**
+     * Fixed action space for PyTAG: "pass", then one node per set size n (named "n") with a leaf per card value
+     * (named "n:value"). Leaves in breadth-first order are therefore pass followed by every (set size, value)
+     * pair, sizes major.
+     */
+    @Override
+    public ActionTreeNode initActionTree(AbstractGameState gameState) {
+        PresidentParameters params = (PresidentParameters) gameState.getGameParameters();
+        ActionTreeNode root = new ActionTreeNode(0, "root");
+        root.addChild(0, "pass");
+        for (int n = 1; n <= params.maxSetSize; n++) {
+            ActionTreeNode size = root.addChild(0, String.valueOf(n));
+            for (int value = params.minCardValue; value <= params.maxCardValue; value++)
+                size.addChild(0, n + ":" + value);
         }
-        return actionsOneCard;
+        return root;
     }
 
-    private List<AbstractAction> getActionsWithTwoCards(PresidentGameState game, Deck<PresidentCard> playerHand) {
-        ArrayList<AbstractAction> actionsTwoCard = new ArrayList<>();
-        List<PresidentCard> maybePlayableCards = new ArrayList<>();
-
-        for (PresidentCard card : playerHand.getComponents()) {
-            if (card.isPlayable(game)) {
-                maybePlayableCards.add(card);       // all cards greater that the current one
+    @Override
+    public ActionTreeNode updateActionTree(ActionTreeNode root, AbstractGameState gameState) {
+        PresidentParameters params = (PresidentParameters) gameState.getGameParameters();
+        root.resetTree();
+        for (AbstractAction action : _computeAvailableActions(gameState)) {
+            int move = PresidentActionTable.toMove(action);
+            if (move == PresidentCompactState.PASS) {
+                root.getChildren().get(0).setAction(action);
+            } else {
+                int n = PresidentCompactState.moveSize(move);
+                root.getChildren().get(n).getChildren().get(PresidentCompactState.moveValue(move) - params.minCardValue).setAction(action);
             }
         }
+        return root;
+    }
 
-        Map<Integer, List<Integer>> grouped = new HashMap<>();      // all cards grouped by value
-        for (PresidentCard card : maybePlayableCards) {
-            grouped.computeIfAbsent(card.value, ids ->  new ArrayList<>()).add(card.getComponentID());
+    /**
+     * @return the shared table of immutable actions for the configuration of the given state
+     */
+    public PresidentActionTable getActionTable(PresidentGameState game) {
+        PresidentParameters params = (PresidentParameters) game.getGameParameters();
+        PresidentActionTable table = actionTable;
+        if (table == null || table.getMinCardValue() != params.minCardValue || table.getMaxCardValue() != params.maxCardValue
+                || table.getMaxSetSize() != params.maxSetSize) {
+            table = PresidentActionTable.of(params.minCardValue, params.maxCardValue, params.maxSetSize);
+            actionTable = table;
         }
+        return table;
+    }
 
-        for (Map.Entry<Integer, List<Integer>> entry : grouped.entrySet()) {
-            int key = entry.getKey();
-            List<Integer> ids = entry.getValue();
-            if (ids.size() >= 2) {
-                ArrayList<Integer> cards = new ArrayList<>();
-                cards.add(playerHand.getComponents().indexOf(game.getComponentById(ids.get(0))));
-                cards.add(playerHand.getComponents().indexOf(game.getComponentById(ids.get(1))));
-
-                // even if more, I'm interested just in two playable cards, I'll take the first two
-                //ArrayList<Integer> cards = new ArrayList<>(List.of(ids.get(0), ids.get(1)));
-                PlayCards action = new PlayCards(playerHand.getComponentID(), game.discardPile.getComponentID(), cards, key);
-                System.out.println("    - "+action.getString(game));
-                actionsTwoCard.add(action);
+    /**
+     * Move generator shared by the full and the compact game state, in a single pass over the card values.
+     * On an empty trick any set of 1 to maxSetSize cards of the same value can be played; otherwise the set must
+     * have exactly the required number of cards, with a value higher than the current one.
+     * Pass is only available if nothing can be played.
+     *
+     * @param counts - number of cards held by the player, indexed by value
+     * @param moves  - buffer the moves are written into, encoded as in PresidentCompactState
+     * @return the number of moves written
+     */
+    static int generateMoves(int[] counts, int minCardValue, int maxCardValue, int currentValue, int required,
+                             int maxSetSize, int[] moves) {
+        int nMoves = 0;
+        int lastValue = Math.min(maxCardValue, counts.length - 1);
+        for (int value = Math.max(minCardValue, currentValue + 1); value <= lastValue; value++) {
+            int count = counts[value];
+            if (required == 0) {
+                for (int n = 1, max = Math.min(count, maxSetSize); n <= max; n++)
+                    moves[nMoves++] = PresidentCompactState.move(n, value);
+            } else if (count >= required && required <= maxSetSize) {
+                moves[nMoves++] = PresidentCompactState.move(required, value);
             }
         }
-        return actionsTwoCard;
+        if (nMoves == 0)
+            moves[nMoves++] = PresidentCompactState.PASS;
+        return nMoves;
     }
 
-    public void printResults(PresidentGameState game, int winner, int looser) {
-        System.out.println("\n===============================");
-        System.out.println("GAME OVER - FINAL RANKINGS");
-        System.out.println(
-                "Game finished at time: " +
-                        LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"))
-        );
-        System.out.println("===============================");
-
-        List<Integer> finishedPlayers = new ArrayList<>();
-        for (int i = 0; i < game.orderOfPlayerDone.length; i++) {
-            if (game.orderOfPlayerDone[i] != -1)
-                finishedPlayers.add(i);
-        }
-
-        finishedPlayers.sort(Comparator.comparingInt(p -> game.orderOfPlayerDone[p]));
+    /**
+     * Computes the legal moves on a compact state, with the same rules as _computeAvailableActions().
+     * Moves are written into the given buffer (see PresidentCompactState.newMoveBuffer()), nothing is allocated.
+     *
+     * @return the number of moves written
+     */
+    public int computeAvailableMoves(PresidentCompactState state, int[] moves) {
+        return generateMoves(state.hands[state.turnOwner], state.minCardValue, state.maxCardValue,
+                state.currentValue, state.requiredCards, state.maxSetSize, moves);
+    }
 
-        int rank = 1;
-        for (int player : finishedPlayers) {
-            System.out.printf("%d° Player %d (finished %d°)%n", rank, player, game.orderOfPlayerDone[player]);
-            rank++;
+    /**
+     * Applies a move to a compact state, mirroring the effects of the President actions and _afterAction()
+     * on the full game state.
+     */
+    public void next(PresidentCompactState state, int move) {
+        int player = state.turnOwner;
+        boolean playAgain = false;
+
+        if (move == PresidentCompactState.PASS) {
+            state.passingPlayers++;
+            if (state.passingPlayers == state.nPlayers)      // everybody passed
+                state.clearTrick();
+        } else {
+            int nCards = PresidentCompactState.moveSize(move);
+            int value = PresidentCompactState.moveValue(move);
+            state.hands[player][value] -= nCards;
+            state.handSizes[player] -= nCards;
+            state.currentValue = value;
+            state.passingPlayers = 0;
+            if (state.requiredCards == 0)
+                state.requiredCards = nCards;
+            if (value == PresidentCompactState.CLOSING_VALUE) {    // it closes the discardPile
+                state.clearTrick();
+                playAgain = true;
+            }
         }
 
-        // last player 
-        if (looser != -1) {
-            System.out.printf("%d° Player %d (last player with cards)%n", rank, looser);
+        if (state.handSizes[player] == 0 && state.orderOfPlayerDone[player] == -1) {
+            state.doneCount++;
+            state.orderOfPlayerDone[player] = state.doneCount;
+        }
+        if (state.doneCount == state.nPlayers - 1) {
+            state.gameOver = true;
+            return;
         }
 
-        System.out.println("-------------------------------");
-        System.out.println("WINNER: Player " + winner);
-        System.out.println("LOSER : Player " + looser);
-        System.out.println("===============================\n");
+        if (playAgain && state.handSizes[player] != 0)
+            state.turnOwner = player;
+        else
+            state.turnOwner = state.nextPlayer(player);
     }
 }
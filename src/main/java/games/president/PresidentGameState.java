@@ -5,28 +5,24 @@ import core.AbstractParameters;
 import core.components.Component;
 import core.components.Deck;
 import core.interfaces.IPrintable;
+import core.interfaces.IZobristHashed;
 import games.GameType;
 import games.president.cards.PresidentCard;
+import utilities.Zobrist;
 import java.util.*;
 
-import static core.CoreConstants.VisibilityMode.HIDDEN_TO_ALL;
 
+public class PresidentGameState extends AbstractGameState implements IPrintable, IZobristHashed {
 
-public class PresidentGameState extends AbstractGameState implements IPrintable {
+    // public beliefs about the values each player holds
+    PresidentBeliefs beliefs;
 
-    // playerID, cardValue (probability that playerID has cardValue)
-    private Map<Integer, Map<Integer, Double>> cardProbabilities = new HashMap<>();
-
-    public Map<Integer, Map<Integer, Double>> getCardProbabilities() {
-        return cardProbabilities;
+    public PresidentBeliefs getBeliefs() {
+        return beliefs;
     }
 
-    // global remaining copies per card value (value -> remaining copies)
-    private Map<Integer, Integer> remainingCounts = new HashMap<>();
-
-    public Map<Integer, Integer> getRemainingCounts() {
-        return remainingCounts;
-    }
+    // the default heuristic, shared by all states; it keeps no state between calls, and its buffer is per thread
+    private static final PresidentHeuristic heuristic = new PresidentHeuristic();
 
     List<Deck<PresidentCard>> playerHandCards;
     Deck<PresidentCard> discardPile;
@@ -38,6 +34,19 @@ public class PresidentGameState extends AbstractGameState implements IPrintable
     int passingPlayers;
     int[] orderOfPlayerDone;
 
+    // player, card value -> upper bound on copies held, implied by passes
+    int[][] maxCopiesHeld;
+
+    // Zobrist hashes of the cards, kept up to date by the forward model. These are sums rather than XORs of keys, so
+    // that they hash multisets: playing n cards of a value is then one update whatever the number of copies held.
+    // handHash[p] sums the key of p and the value of each card in p's hand. publicHash sums the key of the value
+    // of each card played, and the key of the holder of each card still in a hand, so it only uses the hand sizes.
+    long[] handHash;
+    long publicHash;
+
+    // optional sink for game events, off by default and never copied
+    PresidentTrace trace;
+
     public PresidentGameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, nPlayers);
     }
@@ -62,111 +71,169 @@ public class PresidentGameState extends AbstractGameState implements IPrintable
         copy.playerHandCards = new ArrayList<>();
         copy.isFirstCard = isFirstCard;
         copy.passingPlayers = passingPlayers;
-        copy.orderOfPlayerDone = orderOfPlayerDone;
+        copy.orderOfPlayerDone = orderOfPlayerDone.clone();
         copy.discardPile = discardPile.copy();
         copy.currentRequiredCards = currentRequiredCards;
         copy.currentCard = (PresidentCard) currentCard.copy();
-        Deck<PresidentCard> hiddenPile = new Deck<>("Starting_deck", HIDDEN_TO_ALL);
 
         for (Deck<PresidentCard> deck : playerHandCards) {
             copy.playerHandCards.add(deck.copy());
         }
 
-        // copy card probabilities (deep copy) to avoid NPEs when agents read them
-        if (this.cardProbabilities != null) {
-            copy.cardProbabilities = new HashMap<>();
-            for (Map.Entry<Integer, Map<Integer, Double>> e : this.cardProbabilities.entrySet()) {
-                copy.cardProbabilities.put(e.getKey(), new HashMap<>(e.getValue()));
-            }
-        } else {
-            copy.cardProbabilities = new HashMap<>();
-        }
+        copy.handHash = handHash.clone();
+        copy.publicHash = publicHash;
+        copy.beliefs = beliefs.copy();
+        copy.maxCopiesHeld = new int[maxCopiesHeld.length][];
+        for (int p = 0; p < maxCopiesHeld.length; p++)
+            copy.maxCopiesHeld[p] = maxCopiesHeld[p].clone();
 
         if (getCoreGameParameters().partialObservable && playerId != -1) { // to hide cards of other players
-            // collect hidden cards
-            List<PresidentCard> pool = new ArrayList<>();
-            for (int i = 0; i < getNPlayers(); i++) {
-                if (i != playerId) {
-                    pool.addAll(copy.playerHandCards.get(i).getComponents());
-                }
-            }
+            copy.redeterminise(playerId, redeterminisationRnd);
+        }
+        return copy;
+    }
 
-            // clear other players' hands
-            for (int i = 0; i < getNPlayers(); i++) {
-                if (i == playerId) continue;
-                Deck<PresidentCard> deck = copy.playerHandCards.get(i);
-                int nCards = deck.getSize();
-                deck.clear();
-
-                Map<Integer, Double> oppMap = copy.cardProbabilities.get(i); // probabilities for opponent 
-
-                for (int c = 0; c < nCards; c++) {
-                    if (pool.isEmpty()) break;
-
-                    Map<Integer, Integer> valueCounts = new HashMap<>();
-                    for (PresidentCard pc : pool) valueCounts.merge(pc.value, 1, Integer::sum);
-
-                    List<Integer> values = new ArrayList<>(valueCounts.keySet());
-                    double[] weights = new double[values.size()];
-                    double totalW = 0.0;
-                    for (int vi = 0; vi < values.size(); vi++) {
-                        int v = values.get(vi);
-                        double marginal = 1.0;
-                        if (oppMap != null) marginal = Math.max(oppMap.getOrDefault(v, 0.0), 1e-6);
-                        // more weight to more probable cards
-                        double w = marginal * valueCounts.get(v);
-                        weights[vi] = w;
-                        totalW += w;
-                    }
-
-                    // fallback
-                    if (totalW <= 0.0) {
-                        for (int vi = 0; vi < weights.length; vi++) {
-                            weights[vi] = 1.0;
-                        }
-                        totalW = weights.length;
-                    }
-
-                    double r = redeterminisationRnd.nextDouble() * totalW;
-                    double acc = 0.0;
-                    int chosenValueIdx = 0;
-                    for (int vi = 0; vi < weights.length; vi++) {
-                        acc += weights[vi];
-                        if (r <= acc) { chosenValueIdx = vi; break; }
-                    }
-                    int chosenValue = values.get(chosenValueIdx);
-
-                    PresidentCard chosenCard = null;
-                    for (int k = 0; k < pool.size(); k++) {
-                        if (pool.get(k).value == chosenValue) {
-                            chosenCard = pool.remove(k); // remove a card with chosenValue from pool
-                            break;
-                        }
-                    }
-                    if (chosenCard == null) { // fallback: remove first
-                        chosenCard = pool.remove(0);
-                    }
-                    deck.add(chosenCard);
-                }
-            }
+    /**
+     * Same as copy(playerId), but the hidden cards are dealt with the given generator rather than this state's
+     * redeterminisationRnd, so that samples are reproducible from a seed. Copying still draws on this state (for the
+     * Random of the copy), so copies of one state should be made on one thread, in a fixed order.
+     */
+    public PresidentGameState copy(int playerId, Random rnd) {
+        PresidentGameState copy = (PresidentGameState) copy();
+        if (getCoreGameParameters().partialObservable && playerId != -1)
+            copy.redeterminise(playerId, rnd);
+        return copy;
+    }
 
-            // redistribute remaining cards (if any) to other players
-            int idx = 0;
-            while (!pool.isEmpty()) {
-                int target = idx % getNPlayers();
-                if (target == playerId) { idx++; continue; }
-                copy.playerHandCards.get(target).add(pool.remove(0));
-                idx++;
-            }
+    /**
+     * Redistributes the cards of all players other than playerId, consistently with what playerId has observed:
+     * hand sizes, the cards left in the game, the hard limits implied by passes (maxCopiesHeld) and, as soft
+     * evidence, the public beliefs.
+     */
+    void redeterminise(int playerId, Random rnd) {
+        int nValues = ((PresidentParameters) getGameParameters()).maxCardValue + 1;
+
+        // collect hidden cards, bucketed by value
+        int[] hidden = new int[nValues];
+        int[] handSizes = new int[getNPlayers()];
+        for (int i = 0; i < getNPlayers(); i++) {
+            handSizes[i] = playerHandCards.get(i).getSize();
+            if (i == playerId) continue;
+            for (PresidentCard card : playerHandCards.get(i).getComponents())
+                hidden[card.value]++;
+        }
+        int[] next = new int[nValues];  // next free slot in the bucket of each value
+        for (int v = 1; v < nValues; v++)
+            next[v] = next[v - 1] + hidden[v - 1];
+        PresidentCard[] pool = new PresidentCard[next[nValues - 1] + hidden[nValues - 1]];
+        for (int i = 0; i < getNPlayers(); i++) {
+            if (i == playerId) continue;
+            for (PresidentCard card : playerHandCards.get(i).getComponents())
+                pool[next[card.value]++] = card;
+            playerHandCards.get(i).clear();
+        }
+
+        int[][] dealt = new int[getNPlayers()][nValues];
+        new PresidentHandSampler(getNPlayers(), nValues - 1).deal(hidden, handSizes, playerId, beliefs, maxCopiesHeld, rnd, dealt);
+
+        // hand out the actual cards from the buckets
+        for (int v = nValues - 1; v >= 0; v--)
+            next[v] = v == 0 ? 0 : next[v - 1];
+        for (int i = 0; i < getNPlayers(); i++) {
+            if (i == playerId) continue;
+            Deck<PresidentCard> deck = playerHandCards.get(i);
+            for (int v = 0; v < nValues; v++)
+                for (int c = 0; c < dealt[i][v]; c++)
+                    deck.add(pool[next[v]++]);
+            handHash[i] = computeHandHash(i);
         }
-        return copy;
     }
 
+    /**
+     * Records the public information given by a pass: the player cannot beat nCards of the given value, so they
+     * hold fewer than nCards copies of each higher value.
+     */
+    public void addPassConstraint(int playerId, int value, int nCards) {
+        if (nCards <= 0) return;
+        int[] limits = maxCopiesHeld[playerId];
+        for (int v = value + 1; v < limits.length; v++)
+            limits[v] = Math.min(limits[v], nCards - 1);
+    }
+
+    /**
+     * @return for each player and card value, the maximum number of copies the player can be holding,
+     * given the public information (passes) so far
+     */
+    public int[][] getMaxCopiesHeld() {
+        return maxCopiesHeld;
+    }
+
+    /**
+     * Called by the forward model as player plays nCards of the given value, before they leave the hand
+     */
+    void updateZobristHashes(int player, int nCards, int value) {
+        handHash[player] -= nCards * Zobrist.key(0, player, value);
+        publicHash += nCards * (Zobrist.key(1, value) - Zobrist.key(2, player));
+    }
+
+    /**
+     * Sets the hashes of the cards from scratch, as after the deal
+     */
+    void initZobristHashes() {
+        handHash = new long[getNPlayers()];
+        for (int p = 0; p < getNPlayers(); p++)
+            handHash[p] = computeHandHash(p);
+        publicHash = computePublicHash();
+    }
+
+    private long computeHandHash(int playerId) {
+        long hash = 0;
+        for (PresidentCard card : playerHandCards.get(playerId).getComponents())
+            hash += Zobrist.key(0, playerId, card.value);
+        return hash;
+    }
+
+    private long computePublicHash() {
+        PresidentParameters params = (PresidentParameters) getGameParameters();
+        long hash = 0;
+        for (int v = params.minCardValue; v <= params.maxCardValue; v++)
+            hash += params.copiesPerValue * Zobrist.key(1, v);
+        for (int p = 0; p < getNPlayers(); p++)
+            for (PresidentCard card : playerHandCards.get(p).getComponents())
+                hash += Zobrist.key(2, p) - Zobrist.key(1, card.value);
+        return hash;
+    }
+
+    /**
+     * The hash covers playerId's own hand, the cards played, the hand sizes of the other players and the state of
+     * the trick; but not which cards the other players hold.
+     */
+    @Override
+    public long getZobristHash(int playerId) {
+        return zobristHash(playerId, publicHash, handHash[playerId]);
+    }
+
+    /**
+     * @return getZobristHash(playerId), computed from scratch, for checking the incremental version
+     */
+    public long computeZobristHash(int playerId) {
+        return zobristHash(playerId, computePublicHash(), computeHandHash(playerId));
+    }
 
+    private long zobristHash(int playerId, long publicHash, long handHash) {
+        long hash = publicHash ^ handHash ^ Zobrist.key(3, playerId) ^ Zobrist.key(4, getCurrentPlayer())
+                ^ Zobrist.key(5, currentCard.value, currentRequiredCards) ^ Zobrist.key(6, passingPlayers);
+        if (isFirstCard)
+            hash ^= Zobrist.key(7, 0);
+        for (int p = 0; p < getNPlayers(); p++)
+            if (orderOfPlayerDone[p] != -1)
+                hash ^= Zobrist.key(8, p, orderOfPlayerDone[p]);
+        return hash;
+    }
 
     @Override
     protected double _getHeuristicScore(int playerId) {
-        return new PresidentHeuristic().evaluateState(this, playerId);
+        return heuristic.evaluateState(this, playerId);
     }
 
     @Override
@@ -212,8 +279,28 @@ public class PresidentGameState extends AbstractGameState implements IPrintable
         return Objects.hash(super.hashCode(), playerHandCards, discardPile, currentCard, Arrays.hashCode(orderOfPlayerDone), isFirstCard, passingPlayers);
     }
 
+    /**
+     * Records an event in the attached trace, if any. This is a no-op on copies and when no trace is attached.
+     */
+    public void recordTrace(PresidentTrace.Type type, int player, int nCards, int value) {
+        if (trace != null)
+            trace.record(type, getGameTick(), player, nCards, value);
+    }
+
+    public PresidentTrace getTrace() {
+        return trace;
+    }
+
+    public void setTrace(PresidentTrace trace) {
+        this.trace = trace;
+    }
+
     @Override
     public void printToConsole() {
+        if (!isNotTerminal()) {
+            printResults();
+            return;
+        }
 
         System.out.println("====================================================");
         System.out.println("                    GAME STATUS");
@@ -235,6 +322,36 @@ public class PresidentGameState extends AbstractGameState implements IPrintable
         }
     }
 
+    private void printResults() {
+        System.out.println("===============================");
+        System.out.println("GAME OVER - FINAL RANKINGS");
+        System.out.println("===============================");
+
+        List<Integer> finishedPlayers = new ArrayList<>();
+        int looser = -1;
+        for (int i = 0; i < orderOfPlayerDone.length; i++) {
+            if (orderOfPlayerDone[i] != -1)
+                finishedPlayers.add(i);
+            else
+                looser = i;
+        }
+        finishedPlayers.sort(Comparator.comparingInt(p -> orderOfPlayerDone[p]));
+
+        int rank = 1;
+        for (int player : finishedPlayers) {
+            System.out.printf("%d. Player %d (finished %d)%n", rank, player, orderOfPlayerDone[player]);
+            rank++;
+        }
+        // last player
+        if (looser != -1) {
+            System.out.printf("%d. Player %d (last player with cards)%n", rank, looser);
+        }
+        System.out.println("-------------------------------");
+        System.out.println("WINNER: Player " + getWinner());
+        System.out.println("LOSER : Player " + looser);
+        System.out.println("===============================");
+    }
+
     public List<Deck<PresidentCard>> getPlayerHandCards() {
         return playerHandCards;
     }
@@ -272,6 +389,19 @@ public class PresidentGameState extends AbstractGameState implements IPrintable
         this.playAgain = playAgain;
     }
 
+    /**
+     * @return the number of cards of each value held by the player, indexed by card value
+     */
+    public int[] getHandCounts(int playerId) {
+        int[] counts = new int[((PresidentParameters) getGameParameters()).maxCardValue + 1];
+        for (PresidentCard card : playerHandCards.get(playerId).getComponents()) {
+            if (card.value >= counts.length)
+                counts = Arrays.copyOf(counts, card.value + 1);
+            counts[card.value]++;
+        }
+        return counts;
+    }
+
     public int getMaxCardsPerPlayer() {
         PresidentParameters gameParam = (PresidentParameters) getGameParameters();
         int players = getNPlayers();
@@ -341,111 +471,4 @@ public class PresidentGameState extends AbstractGameState implements IPrintable
         }
         return comboCount;
     }
-
-
-    public void initCardProbabilities(int nPlayers, int maxCardValue) {
-        cardProbabilities.clear();
-        remainingCounts.clear();
-
-        // copiesPerValue
-        int copies = 2;
-        if (getGameParameters() instanceof PresidentParameters) {
-            copies = ((PresidentParameters) getGameParameters()).copiesPerValue;
-        }
-
-        // at first copiesPerValue = remainingCounts
-        for (int v = 1; v <= maxCardValue; v++) {
-            remainingCounts.put(v, copies);
-        }
-
-        if (playerHandCards != null) {
-            for (Deck<PresidentCard> d : playerHandCards) {
-                if (d == null) continue;
-                for (PresidentCard c : d.getComponents()) {
-                    remainingCounts.merge(c.value, -1, Integer::sum);
-                }
-            }
-        }
-        if (discardPile != null) {
-            for (PresidentCard c : discardPile.getComponents()) {
-                remainingCounts.merge(c.value, -1, Integer::sum);
-            }
-        }
-
-        for (int v = 1; v <= maxCardValue; v++) {
-            remainingCounts.put(v, Math.max(0, remainingCounts.getOrDefault(v, 0)));
-        }
-
-        for (int p = 0; p < nPlayers; p++) {
-            Map<Integer, Double> probs = new HashMap<>();
-            double sum = 0.0;
-            for (int v = 1; v <= maxCardValue; v++) {
-                double w = Math.max(1e-6, remainingCounts.getOrDefault(v, 0));
-                probs.put(v, w);
-                sum += w;
-            }
-            for (int v = 1; v <= maxCardValue; v++) probs.put(v, probs.get(v) / sum);
-            cardProbabilities.put(p, probs);
-        }
-    }
-
-    public void updateCardProbabilities(int playerId, Integer playedValue, boolean passed, int currentValue, int maxCardValue) {
-        if (cardProbabilities == null) return;
-
-        int beforeCount = -1;
-        if (!passed && playedValue != null) {
-            beforeCount = remainingCounts.getOrDefault(playedValue, 0);
-            remainingCounts.put(playedValue, Math.max(0, beforeCount - 1));
-        }
-
-        Map<Integer, Double> probsActing = cardProbabilities.get(playerId);
-        if (probsActing == null) return;
-
-        if (!passed && playedValue != null) {
-            int afterCount = remainingCounts.getOrDefault(playedValue, 0);
-            double factor = beforeCount > 0 ? ((double) afterCount / (double) beforeCount) : 0.0;
-            double old = probsActing.getOrDefault(playedValue, 0.0);
-            probsActing.put(playedValue, old * factor);
-        } else if (passed) {
-            // player passed: no cards > currentValue
-            for (int v = currentValue + 1; v <= maxCardValue; v++) {
-                probsActing.put(v, 0.0);
-            }
-            normalize(probsActing);
-        }
-
-        for (int p = 0; p < getNPlayers(); p++) {
-            Map<Integer, Double> probs = cardProbabilities.get(p);
-            if (probs == null) continue;
-            double sum = 0.0;
-            for (int v = 1; v <= maxCardValue; v++) {
-                double rem = Math.max(1e-6, remainingCounts.getOrDefault(v, 0));
-                double prior = probs.getOrDefault(v, 0.0);
-                double newVal = prior * rem;
-                probs.put(v, newVal);
-                sum += newVal;
-            }
-            
-            if (sum <= 0.0) {
-                double s2 = 0.0;
-                for (int v = 1; v <= maxCardValue; v++) {
-                    double w = Math.max(1e-6, remainingCounts.getOrDefault(v, 0));
-                    probs.put(v, w);
-                    s2 += w;
-                }
-                for (int v = 1; v <= maxCardValue; v++) probs.put(v, probs.get(v) / s2);
-            } else {
-                for (int v = 1; v <= maxCardValue; v++) probs.put(v, probs.get(v) / sum);
-            }
-        }
-    }
-
-    private void normalize(Map<Integer, Double> map) {
-        double sum = map.values().stream().mapToDouble(Double::doubleValue).sum();
-        if (sum == 0) return;
-        for (Map.Entry<Integer, Double> e : map.entrySet()) {
-            e.setValue(e.getValue() / sum);
-        }
-    }
-
 }
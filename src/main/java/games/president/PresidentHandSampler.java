@@ -0,0 +1,248 @@
+package games.president;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Deals the hidden cards of a President game among the opponents of an observing player, for redeterminisation.
+ * <p>
+ * The sampler works on per-value counts only: the hidden cards are a histogram, and each opponent receives a
+ * histogram. Cards are dealt one at a time, choosing a value with probability proportional to
+ * (belief that the opponent holds the value) * (copies of the value still to deal), which is the same distribution
+ * as dealing from the pool card by card. This costs O(hidden cards * values), with no allocation after construction.
+ * <p>
+ * Hard constraints are given as the maximum number of copies of each value an opponent can hold. These come from
+ * passes: a player who passes on a set of k cards of value x holds fewer than k copies of every value above x.
+ * Opponents are dealt most constrained first; if a deal breaks a constraint it is retried. After MAX_ATTEMPTS the
+ * cards are dealt again with a check, before each card is handed out, that the cards left can still be dealt within
+ * the constraints (a small max-flow from values to players). That deal always succeeds if any deal respecting the
+ * constraints exists, which is always the case for constraints that come from the real game, as a player can only
+ * pass when they have nothing to play. Constraints are never dropped: if no deal respects them, an AssertionError is
+ * thrown.
+ */
+public class PresidentHandSampler {
+
+    public static final int MAX_ATTEMPTS = 100;
+
+    private final int[] remaining;
+    private final double[] weights;
+    private final int[] order;
+    private final int[] slack;
+    // residual capacities of the flow network source -> values -> players -> sink, with the search arrays
+    private final int[][] residual;
+    private final int[] parent, queue;
+    int attempts = MAX_ATTEMPTS;
+
+    public PresidentHandSampler(int nPlayers, int maxCardValue) {
+        this.remaining = new int[maxCardValue + 1];
+        this.weights = new double[maxCardValue + 1];
+        this.order = new int[nPlayers];
+        this.slack = new int[nPlayers];
+        int nNodes = 2 + maxCardValue + 1 + nPlayers;
+        this.residual = new int[nNodes][nNodes];
+        this.parent = new int[nNodes];
+        this.queue = new int[nNodes];
+    }
+
+    /**
+     * Deals the hidden cards to all players except the observer.
+     *
+     * @param hidden    - number of hidden cards of each value, indexed by value
+     * @param handSizes - number of cards each player must receive (the observer's entry is ignored)
+     * @param observer  - the player whose hand is known, and is not dealt
+     * @param beliefs   - relative likelihood that each player holds each value; null for uniform
+     * @param maxCopies - maxCopies[player][value], hard limit on the copies of the value the player can hold; null for none
+     * @param rnd       - random number generator to use
+     * @param dealt     - output, dealt[player][value] is set to the number of cards of the value dealt to the player
+     * @throws AssertionError if no deal respects the hard constraints
+     */
+    public void deal(int[] hidden, int[] handSizes, int observer, PresidentBeliefs beliefs, int[][] maxCopies,
+                        Random rnd, int[][] dealt) {
+        int nPlayers = handSizes.length;
+        int nOrder = 0;
+        for (int p = 0; p < nPlayers; p++) {
+            if (p == observer) continue;
+            Arrays.fill(dealt[p], 0);
+            if (handSizes[p] == 0) continue;
+            // slack: how many more cards the player could take than it has to, the smaller the more constrained
+            int capacity = 0;
+            for (int v = 0; v < hidden.length; v++)
+                capacity += maxCopies == null ? hidden[v] : Math.min(hidden[v], maxCopies[p][v]);
+            slack[p] = capacity - handSizes[p];
+            // insertion sort, there are only a handful of players
+            int i = nOrder++;
+            while (i > 0 && slack[order[i - 1]] > slack[p]) {
+                order[i] = order[i - 1];
+                i--;
+            }
+            order[i] = p;
+        }
+
+        if (maxCopies == null) {
+            tryDeal(hidden, handSizes, nOrder, beliefs, null, rnd, dealt);
+            return;
+        }
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            if (tryDeal(hidden, handSizes, nOrder, beliefs, maxCopies, rnd, dealt))
+                return;
+        }
+        checkedDeal(hidden, handSizes, nOrder, beliefs, maxCopies, rnd, dealt);
+    }
+
+    private boolean tryDeal(int[] hidden, int[] handSizes, int nOrder, PresidentBeliefs beliefs, int[][] maxCopies,
+                            Random rnd, int[][] dealt) {
+        int nValues = hidden.length;
+        System.arraycopy(hidden, 0, remaining, 0, nValues);
+        for (int i = 0; i < nOrder; i++)
+            Arrays.fill(dealt[order[i]], 0);
+
+        for (int i = 0; i < nOrder; i++) {
+            int p = order[i];
+            int[] hand = dealt[p];
+            if (i == nOrder - 1) {
+                // the last player gets whatever is left
+                for (int v = 0; v < nValues; v++) {
+                    hand[v] = remaining[v];
+                    if (maxCopies != null && hand[v] > maxCopies[p][v])
+                        return false;
+                }
+                return true;
+            }
+            for (int c = 0; c < handSizes[p]; c++) {
+                double total = 0.0;
+                for (int v = 0; v < nValues; v++) {
+                    double w = 0.0;
+                    if (remaining[v] > 0 && (maxCopies == null || hand[v] < maxCopies[p][v])) {
+                        // more weight to more probable cards
+                        w = remaining[v];
+                        if (beliefs != null) w *= Math.max(beliefs.getProbability(p, v), 1e-6);
+                    }
+                    weights[v] = w;
+                    total += w;
+                }
+                if (total <= 0.0)
+                    return false;
+
+                int chosen = choose(total, rnd);
+                hand[chosen]++;
+                remaining[chosen]--;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deals card by card as tryDeal() does, but only hands out a card if the cards left can then still be dealt
+     * within the constraints.
+     */
+    private void checkedDeal(int[] hidden, int[] handSizes, int nOrder, PresidentBeliefs beliefs, int[][] maxCopies,
+                             Random rnd, int[][] dealt) {
+        int nValues = hidden.length;
+        System.arraycopy(hidden, 0, remaining, 0, nValues);
+        for (int i = 0; i < nOrder; i++)
+            Arrays.fill(dealt[order[i]], 0);
+        if (!feasible(handSizes, 0, nOrder, maxCopies, dealt))
+            throw new AssertionError("No deal of the hidden cards respects the constraints given by passes");
+
+        for (int i = 0; i < nOrder; i++) {
+            int p = order[i];
+            int[] hand = dealt[p];
+            for (int c = 0; c < handSizes[p]; c++) {
+                double total = 0.0;
+                for (int v = 0; v < nValues; v++) {
+                    double w = 0.0;
+                    if (remaining[v] > 0 && hand[v] < maxCopies[p][v]) {
+                        w = remaining[v];
+                        if (beliefs != null) w *= Math.max(beliefs.getProbability(p, v), 1e-6);
+                    }
+                    weights[v] = w;
+                    total += w;
+                }
+                // some value keeps the deal feasible, as the deal so far is; draw until one is found
+                while (true) {
+                    if (total <= 0.0)
+                        throw new AssertionError("No value can be dealt to player " + p + " within the constraints");
+                    int chosen = choose(total, rnd);
+                    hand[chosen]++;
+                    remaining[chosen]--;
+                    if (feasible(handSizes, i, nOrder, maxCopies, dealt))
+                        break;
+                    hand[chosen]--;
+                    remaining[chosen]++;
+                    weights[chosen] = 0.0;
+                    total = 0.0;
+                    for (double w : weights)
+                        total += w;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a value drawn with probability proportional to weights
+     */
+    private int choose(double total, Random rnd) {
+        double r = rnd.nextDouble() * total;
+        int chosen = -1;
+        for (int v = 0; v < weights.length; v++) {
+            if (weights[v] <= 0.0) continue;
+            chosen = v;
+            r -= weights[v];
+            if (r < 0.0) break;
+        }
+        return chosen;
+    }
+
+    /**
+     * @return true if the remaining cards can be dealt to order[from..nOrder-1], on top of what they have been dealt
+     * so far, without breaking maxCopies; that is, if the maximum flow from values to players fills every hand
+     */
+    private boolean feasible(int[] handSizes, int from, int nOrder, int[][] maxCopies, int[][] dealt) {
+        int nValues = remaining.length;
+        int source = 0, sink = 1, values = 2, players = 2 + nValues;
+        for (int[] row : residual)
+            Arrays.fill(row, 0);
+        int needed = 0;
+        for (int v = 0; v < nValues; v++)
+            residual[source][values + v] = remaining[v];
+        for (int i = from; i < nOrder; i++) {
+            int p = order[i];
+            int need = handSizes[p];
+            for (int v = 0; v < nValues; v++) {
+                need -= dealt[p][v];
+                residual[values + v][players + p] = Math.max(0, maxCopies[p][v] - dealt[p][v]);
+            }
+            residual[players + p][sink] = need;
+            needed += need;
+        }
+
+        // augmenting paths, found breadth first
+        int nNodes = residual.length;
+        for (int flow = 0; flow < needed; ) {
+            Arrays.fill(parent, -1);
+            parent[source] = source;
+            int head = 0, tail = 0;
+            queue[tail++] = source;
+            while (head < tail && parent[sink] == -1) {
+                int u = queue[head++];
+                for (int w = 0; w < nNodes; w++) {
+                    if (parent[w] == -1 && residual[u][w] > 0) {
+                        parent[w] = u;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            if (parent[sink] == -1)
+                return false;
+            int bottleneck = Integer.MAX_VALUE;
+            for (int w = sink; w != source; w = parent[w])
+                bottleneck = Math.min(bottleneck, residual[parent[w]][w]);
+            for (int w = sink; w != source; w = parent[w]) {
+                residual[parent[w]][w] -= bottleneck;
+                residual[w][parent[w]] += bottleneck;
+            }
+            flow += bottleneck;
+        }
+        return true;
+    }
+}
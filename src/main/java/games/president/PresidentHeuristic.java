@@ -21,6 +21,10 @@ public class PresidentHeuristic extends TunableParameters implements IStateHeuri
     double FACTOR_FLEXIBILITY = 0.3;                   // player avoid to block himself
     double FACTOR_NEXT_PLAYER = 0.2;                   // player complicates the turn of the next player
 
+    // the factors are computed in one pass; the buffer is per thread as rollouts may evaluate states in parallel
+    private final PresidentStateFeatures features = new PresidentStateFeatures();
+    private final ThreadLocal<double[]> buffer = ThreadLocal.withInitial(() -> new double[features.names().length]);
+
     public PresidentHeuristic() {
         addTunableParameter("FACTOR_FEW_CARDS", FACTOR_FEW_CARDS);
         addTunableParameter("FACTOR_HIGH_CARDS", FACTOR_HIGH_CARDS);
@@ -57,7 +61,6 @@ public class PresidentHeuristic extends TunableParameters implements IStateHeuri
     @Override
     public double evaluateState(AbstractGameState gs, int playerId) {
         PresidentGameState gameState = (PresidentGameState) gs;
-        PresidentParameters params = (PresidentParameters) gameState.getGameParameters();
         CoreConstants.GameResult playerResult = gs.getPlayerResults()[playerId];
 
         if (playerResult == CoreConstants.GameResult.LOSE_GAME)
@@ -65,30 +68,15 @@ public class PresidentHeuristic extends TunableParameters implements IStateHeuri
         if (playerResult == CoreConstants.GameResult.WIN_GAME)
             return 1;
 
-        int maxCards = gameState.getMaxCardsPerPlayer();
-        double score = 0.0;
-
-        // 1. Few cards left
-        score += FACTOR_FEW_CARDS * (maxCards - gameState.getPlayerHandCards().get(playerId).getSize()) / (double) maxCards;
-
-        // 2. High cards left
-        score += FACTOR_HIGH_CARDS * gameState.getAverageCardValue(playerId) / params.maxCardValue;
-
-        // 3. Avoid next player from winning
-        int nextPlayer = gameState.getNextPlayer();
-        score += FACTOR_NEXT_PLAYER * (maxCards - gameState.getPlayerHandCards().get(nextPlayer).getSize()) / (double) maxCards;
-
-        // 4. Relative advantage
-        double avgOpponents = gameState.getAverageOpponentsHandSize(playerId);
-        score += FACTOR_RELATIVE_ADVANTAGE * (avgOpponents - gameState.getPlayerHandCards().get(nextPlayer).getSize()) / (double) maxCards;
-
-        // 5. Flexibility
-        score += FACTOR_FLEXIBILITY * gameState.getPlayableCardsCount(playerId) / (double) gameState.getPlayerHandCards().get(nextPlayer).getSize();
-
-        // 6. Combo possibility
-        score += FACTOR_COMBO * gameState.getComboCount(playerId) / (double) gameState.getPlayerHandCards().get(nextPlayer).getSize();
+        double[] f = buffer.get();
+        features.fill(gameState, playerId, f);
 
-        return score;
+        return FACTOR_FEW_CARDS * f[PresidentStateFeatures.FEW_CARDS]         // 1. Few cards left
+                + FACTOR_HIGH_CARDS * f[PresidentStateFeatures.HIGH_CARDS]      // 2. High cards left
+                + FACTOR_NEXT_PLAYER * f[PresidentStateFeatures.NEXT_PLAYER]    // 3. Avoid next player from winning
+                + FACTOR_RELATIVE_ADVANTAGE * f[PresidentStateFeatures.RELATIVE_ADVANTAGE]  // 4. Relative advantage
+                + FACTOR_FLEXIBILITY * f[PresidentStateFeatures.FLEXIBILITY]    // 5. Flexibility
+                + FACTOR_COMBO * f[PresidentStateFeatures.COMBOS];              // 6. Combo possibility
     }
 
     @Override
@@ -17,6 +17,7 @@ public class PresidentParameters extends TunableParameters {
     public int minCardValue = 1;
     public int maxCardValue = 10;
     public int copiesPerValue = 2; //fixed
+    public int maxSetSize = 4; // largest set of same-value cards that can be played at once; a rule, so not tuned
 
     public PresidentParameters() {
         addTunableParameter("minCardValue", 2, Arrays.asList(2, 3, 4));
@@ -36,6 +37,7 @@ public class PresidentParameters extends TunableParameters {
         copy.minCardValue = this.minCardValue;
         copy.maxCardValue = this.maxCardValue;
         copy.copiesPerValue = this.copiesPerValue;
+        copy.maxSetSize = this.maxSetSize;
         return copy;
     }
 
@@ -52,12 +54,13 @@ public class PresidentParameters extends TunableParameters {
                 && minCardValue == that.minCardValue
                 && maxCardValue == that.maxCardValue
                 && copiesPerValue == that.copiesPerValue
+                && maxSetSize == that.maxSetSize
                 && Objects.equals(dataPath, that.dataPath);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), dataPath, nNumberCards, minCardValue, maxCardValue, copiesPerValue);
+        return Objects.hash(super.hashCode(), dataPath, nNumberCards, minCardValue, maxCardValue, copiesPerValue, maxSetSize);
     }
 
     @Override
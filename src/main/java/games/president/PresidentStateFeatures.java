@@ -0,0 +1,75 @@
+package games.president;
+
+import core.AbstractGameState;
+import core.interfaces.IStateFeatureVector;
+import games.president.cards.PresidentCard;
+
+/**
+ * The six factors of PresidentHeuristic as a feature vector, so that they can also be used by
+ * LinearStateHeuristic / LogisticStateHeuristic and the learners.
+ * <p>
+ * All features come from one pass over the player's hand and one over the hand sizes, with no allocation when
+ * fill() is given a buffer: pairs are found with two bitmasks over card values (values are below 64).
+ */
+public class PresidentStateFeatures implements IStateFeatureVector {
+
+    public static final int FEW_CARDS = 0;
+    public static final int HIGH_CARDS = 1;
+    public static final int NEXT_PLAYER = 2;
+    public static final int RELATIVE_ADVANTAGE = 3;
+    public static final int FLEXIBILITY = 4;
+    public static final int COMBOS = 5;
+
+    private static final String[] names = new String[]{"FEW_CARDS", "HIGH_CARDS", "NEXT_PLAYER",
+            "RELATIVE_ADVANTAGE", "FLEXIBILITY", "COMBOS"};
+
+    @Override
+    public double[] featureVector(AbstractGameState state, int playerID) {
+        double[] features = new double[names.length];
+        fill((PresidentGameState) state, playerID, features);
+        return features;
+    }
+
+    /**
+     * Writes the features of the state, from the point of view of playerID, into features[0..names().length-1].
+     */
+    public void fill(PresidentGameState state, int playerID, double[] features) {
+        PresidentParameters params = (PresidentParameters) state.getGameParameters();
+        int maxCards = state.getMaxCardsPerPlayer();
+        int nextPlayer = state.getNextPlayer();
+        int threshold = state.isFirstCard() ? Integer.MIN_VALUE : state.getCurrentCard().value;
+
+        // the player's hand: total value, playable cards, and values with two or more playable cards
+        int handSize = 0, playable = 0;
+        double valueSum = 0.0;
+        long seen = 0L, pairs = 0L;
+        for (PresidentCard card : state.playerHandCards.get(playerID).getComponents()) {
+            handSize++;
+            valueSum += card.value;
+            if (card.value > threshold) {
+                playable++;
+                long bit = 1L << card.value;
+                pairs |= seen & bit;
+                seen |= bit;
+            }
+        }
+
+        int opponentCards = 0;
+        for (int p = 0; p < state.getNPlayers(); p++)
+            if (p != playerID) opponentCards += state.playerHandCards.get(p).getSize();
+        double avgOpponents = (double) opponentCards / (state.getNPlayers() - 1);
+        int nextSize = state.playerHandCards.get(nextPlayer).getSize();
+
+        features[FEW_CARDS] = (maxCards - handSize) / (double) maxCards;
+        features[HIGH_CARDS] = (handSize == 0 ? 0.0 : valueSum / handSize) / params.maxCardValue;
+        features[NEXT_PLAYER] = (maxCards - nextSize) / (double) maxCards;
+        features[RELATIVE_ADVANTAGE] = (avgOpponents - nextSize) / (double) maxCards;
+        features[FLEXIBILITY] = playable / (double) nextSize;
+        features[COMBOS] = Long.bitCount(pairs) / (double) nextSize;
+    }
+
+    @Override
+    public String[] names() {
+        return names;
+    }
+}
@@ -0,0 +1,91 @@
+package games.president;
+
+import core.AbstractGameState;
+import core.interfaces.IStateFeatureVector;
+import games.president.cards.PresidentCard;
+
+/**
+ * Observation vector of President for PyTAG, from the point of view of one player. It only uses what that player
+ * can see: their own hand, the public history (copies of each value still unplayed) and the trick.
+ * <p>
+ * The layout is fixed for every configuration, so that the same network can be used across parameter settings:
+ * <ul>
+ *     <li>HAND_v: copies of value v held, for v = 1..MAX_VALUE</li>
+ *     <li>UNSEEN_v: copies of value v held by opponents, i.e. neither played nor in the own hand</li>
+ *     <li>HAND_SIZE_k: cards held by the player k seats after this one (k = 0 is the player), 0 for missing seats</li>
+ *     <li>CURRENT_VALUE, REQUIRED_CARDS: the set to beat, 0 on an empty trick</li>
+ *     <li>PASSING_PLAYERS: consecutive passes on the current trick</li>
+ * </ul>
+ */
+public class PresidentStateVector implements IStateFeatureVector {
+
+    // largest maxCardValue allowed by PresidentParameters and largest number of players of GameType.President
+    public static final int MAX_VALUE = 12;
+    public static final int MAX_PLAYERS = 6;
+
+    static final int HAND = 0;
+    static final int UNSEEN = HAND + MAX_VALUE;
+    static final int HAND_SIZE = UNSEEN + MAX_VALUE;
+    static final int CURRENT_VALUE = HAND_SIZE + MAX_PLAYERS;
+    static final int REQUIRED_CARDS = CURRENT_VALUE + 1;
+    static final int PASSING_PLAYERS = REQUIRED_CARDS + 1;
+    static final int SIZE = PASSING_PLAYERS + 1;
+
+    private static final String[] names = new String[SIZE];
+
+    static {
+        for (int v = 1; v <= MAX_VALUE; v++) {
+            names[HAND + v - 1] = "HAND_" + v;
+            names[UNSEEN + v - 1] = "UNSEEN_" + v;
+        }
+        for (int k = 0; k < MAX_PLAYERS; k++)
+            names[HAND_SIZE + k] = "HAND_SIZE_" + k;
+        names[CURRENT_VALUE] = "CURRENT_VALUE";
+        names[REQUIRED_CARDS] = "REQUIRED_CARDS";
+        names[PASSING_PLAYERS] = "PASSING_PLAYERS";
+    }
+
+    @Override
+    public double[] featureVector(AbstractGameState state, int playerID) {
+        double[] features = new double[SIZE];
+        fill((PresidentGameState) state, playerID, features, 0);
+        return features;
+    }
+
+    @Override
+    public void fill(AbstractGameState state, int playerID, double[] out, int offset) {
+        fill((PresidentGameState) state, playerID, out, offset);
+    }
+
+    /**
+     * Only the player's own hand and public information are read.
+     */
+    @Override
+    public boolean observableOnly() {
+        return true;
+    }
+
+    /**
+     * Writes the observation into out[offset..offset + names().length - 1], which must be zeroed beforehand.
+     */
+    public void fill(PresidentGameState state, int playerID, double[] out, int offset) {
+        PresidentBeliefs beliefs = state.getBeliefs();
+        for (PresidentCard card : state.getPlayerHandCards().get(playerID).getComponents())
+            out[offset + HAND + card.value - 1]++;
+        for (int v = 1; v <= Math.min(MAX_VALUE, beliefs.getMaxCardValue()); v++)
+            out[offset + UNSEEN + v - 1] = beliefs.getRemaining(v) - out[offset + HAND + v - 1];
+        int nPlayers = state.getNPlayers();
+        for (int k = 0; k < nPlayers; k++)
+            out[offset + HAND_SIZE + k] = state.getPlayerHandCards().get((playerID + k) % nPlayers).getSize();
+        if (!state.isFirstCard()) {
+            out[offset + CURRENT_VALUE] = state.getCurrentCard().value;
+            out[offset + REQUIRED_CARDS] = state.getCurrentRequiredCards();
+        }
+        out[offset + PASSING_PLAYERS] = state.getPassingPlayers();
+    }
+
+    @Override
+    public String[] names() {
+        return names;
+    }
+}
@@ -0,0 +1,119 @@
+package games.president;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded ring buffer of structured President game events.
+ * <p>
+ * This replaces the console output that used to be printed by the actions and the forward model. A trace is only
+ * attached to a game state on request (PresidentGameState.setTrace()), and is never carried over to copies, so
+ * simulations during search do no logging and format no strings. Records are stored in primitive arrays; text is
+ * only produced by toText().
+ * Once the buffer is full the oldest records are overwritten.
+ */
+public class PresidentTrace {
+
+    public enum Type {
+        DEAL,           // player was dealt a card of value
+        PLAY,           // player played nCards of value
+        PASS,           // player passed
+        TRICK_CLEARED,  // the discard pile was cleared (everybody passed, or a closing card was played)
+        PLAYER_DONE     // player has no cards left, value is their finishing position
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    private final int capacity;
+    private final byte[] types;
+    private final int[] ticks;
+    private final int[] players;
+    private final int[] nCards;
+    private final int[] values;
+    private long nRecorded;
+
+    public PresidentTrace(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Trace capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        this.types = new byte[capacity];
+        this.ticks = new int[capacity];
+        this.players = new int[capacity];
+        this.nCards = new int[capacity];
+        this.values = new int[capacity];
+    }
+
+    public void record(Type type, int tick, int player, int cards, int value) {
+        int slot = (int) (nRecorded % capacity);
+        types[slot] = (byte) type.ordinal();
+        ticks[slot] = tick;
+        players[slot] = player;
+        nCards[slot] = cards;
+        values[slot] = value;
+        nRecorded++;
+    }
+
+    /**
+     * @return the number of records currently held (at most the capacity)
+     */
+    public int size() {
+        return (int) Math.min(nRecorded, capacity);
+    }
+
+    /**
+     * @return the number of records ever written, including those since overwritten
+     */
+    public long getTotalRecorded() {
+        return nRecorded;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        nRecorded = 0;
+    }
+
+    // index 0 is the oldest record still held
+    private int slot(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for trace of size " + size());
+        long first = nRecorded - size();
+        return (int) ((first + index) % capacity);
+    }
+
+    public Type getType(int index) {
+        return TYPES[types[slot(index)]];
+    }
+    public int getTick(int index) {
+        return ticks[slot(index)];
+    }
+    public int getPlayer(int index) {
+        return players[slot(index)];
+    }
+    public int getNCards(int index) {
+        return nCards[slot(index)];
+    }
+    public int getValue(int index) {
+        return values[slot(index)];
+    }
+
+    public String getString(int index) {
+        int player = getPlayer(index);
+        return switch (getType(index)) {
+            case DEAL -> "Player " + player + " dealt " + getValue(index);
+            case PLAY -> "Player " + player + " plays " + getNCards(index) + " x " + getValue(index);
+            case PASS -> "Player " + player + " passes";
+            case TRICK_CLEARED -> "Discard pile cleared";
+            case PLAYER_DONE -> "Player " + player + " finished " + getValue(index);
+        };
+    }
+
+    public List<String> toText() {
+        List<String> text = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++)
+            text.add("[" + getTick(i) + "] " + getString(i));
+        return text;
+    }
+}
@@ -2,7 +2,9 @@ package games.president.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import games.president.PresidentCompactState;
 import games.president.PresidentGameState;
+import games.president.PresidentTrace;
 import games.president.cards.PresidentCard;
 
 // * the action does nothing, unless everybody is passing
@@ -13,23 +15,24 @@ public class Pass extends AbstractAction {
     public boolean execute(AbstractGameState gs) {
         PresidentGameState gameState = (PresidentGameState) gs;
         gameState.addPassingPlayer();
+        gameState.recordTrace(PresidentTrace.Type.PASS, gameState.getCurrentPlayer(), 0, 0);
 
         if (gameState.getPassingPlayers() == gameState.getNPlayers()) {        // everybody passed
             // I'm the last one, so I'm clearing the turn
             gameState.clearPassingPlayers();
             gameState.clearDiscardPile();
-            gameState.updateCurrentCard(new PresidentCard(0));
+            gameState.updateCurrentCard(PresidentCard.none());
             gameState.updateCurrentRequiredCard(0);
             gameState.setCurrentCardUnset(true);
+            gameState.recordTrace(PresidentTrace.Type.TRICK_CLEARED, gameState.getCurrentPlayer(), 0, 0);
             // the next player will find everything clear to do play the first card
         }
-        System.out.println("Player is passing");
         return true;
     }
 
     @Override
-    public AbstractAction copy() {
-        return new Pass();
+    public Pass copy() {
+        return this; // immutable
     }
 
     @Override
@@ -39,7 +42,7 @@ public class Pass extends AbstractAction {
 
     @Override
     public int hashCode() {
-        return 0;
+        return PresidentCompactState.PASS;
     }
 
     @Override
@@ -47,6 +50,11 @@ public class Pass extends AbstractAction {
         return "Player passing.";
     }
 
+    @Override
+    public String toString() {
+        return "Pass";
+    }
+
     @Override
     public void printToConsole(AbstractGameState gameState) {
         System.out.println("Player "+ gameState.getCurrentPlayer() +" is passing.");
@@ -2,25 +2,17 @@ package games.president.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
-import core.actions.DrawCard;
-import core.components.Card;
-import core.components.Deck;
+import games.president.PresidentCompactState;
 import games.president.PresidentGameState;
-import games.president.cards.PresidentCard;
 
-import java.util.Objects;
-
-// * the action moves a card from a deck (player's cards) to another one (discard pile)
+// * the action moves a single card from the player's hand to the discard pile
 // * there's no choice logic here, only the consequences
-public class PlayCard extends DrawCard {
+// * actions are identified by value only, and are immutable: use PresidentActionTable to get them
+public class PlayCard extends AbstractAction {
 
     public final int value; // the value of the card I'm playing
 
-    public PlayCard (int playerHandCards, int discardPile, int cardIndex, int value) {
-        this.deckFrom = playerHandCards;
-        this.deckTo = discardPile;
-        this.fromIndex = cardIndex;
-        this.toIndex = 0;       // only the first card on the discard pile matters
+    public PlayCard(int value) {
         this.value = value;
     }
 
@@ -30,58 +22,25 @@ public class PlayCard extends DrawCard {
 
     @Override
     public boolean execute(AbstractGameState gs) {
-        PresidentGameState gameState = (PresidentGameState) gs;
-        super.execute(gameState);       // card moved - basic move
-
-        // President logic consequences
-        PresidentCard playedCard = (PresidentCard) gameState.getComponentById(cardId);
-        gameState.updateCurrentCard(playedCard);
-        gameState.clearPassingPlayers();   // reset passing players status
-
-        if(gameState.isFirstCard()) {
-            gameState.setCurrentCardUnset(false);
-            gameState.updateCurrentRequiredCard(1);
-        }
-
-        if (playedCard.value == 10) {    // it closes the discardPile
-            gameState.clearDiscardPile();
-            gameState.updateCurrentCard(new PresidentCard(0));
-            gameState.setCurrentCardUnset(true);
-            gameState.updateCurrentRequiredCard(0);
-            gameState.setPlayAgain(true);
-        }
-        System.out.println("Played card: "+ value);
+        PlayCards.play((PresidentGameState) gs, 1, value);
         return true;
     }
 
     @Override
-    public Card getCard(AbstractGameState gs) {
-        if (!executed) {
-            Deck<PresidentCard> deck = (Deck<PresidentCard>) gs.getComponentById(deckFrom);
-            if (fromIndex == deck.getSize())
-                return deck.get(fromIndex - 1);
-            return deck.get(fromIndex);
-        }
-        return (PresidentCard) gs.getComponentById(cardId);
-    }
-
-    @Override
-    public AbstractAction copy() {
-        return new games.president.actions.PlayCard(deckFrom, deckTo, fromIndex,value);
+    public PlayCard copy() {
+        return this; // immutable
     }
 
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
-        if (!(obj instanceof PlayCards)) return false;
-        if (!super.equals(obj)) return false;
-        PlayCard playCard = (PlayCard) obj;
-        return Objects.equals(value, playCard.value);
+        if (!(obj instanceof PlayCard other)) return false;
+        return value == other.value;
     }
 
     @Override
     public int hashCode() {
-        return 0;
+        return PresidentCompactState.move(1, value);
     }
 
     @Override
@@ -90,7 +49,7 @@ public class PlayCard extends DrawCard {
     }
 
     @Override
-    public void printToConsole(AbstractGameState gameState) {
-        super.printToConsole(gameState);
+    public String toString() {
+        return getString(null);
     }
 }
@@ -2,22 +2,24 @@ package games.president.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
-import core.actions.DrawComponents;
 import core.components.Deck;
+import games.president.PresidentCompactState;
 import games.president.PresidentGameState;
+import games.president.PresidentTrace;
 import games.president.cards.PresidentCard;
 
-import java.util.ArrayList;
-import java.util.Objects;
+import java.util.Iterator;
 
-// * the action moves two cards from a deck (player's cards) to another one (discard pile)
+// * the action moves a set of cards with the same value from the player's hand to the discard pile
 // * there's no choice logic here, only the consequences
-public class PlayCards extends DrawComponents {
+// * actions are identified by (number of cards, value) only, and are immutable: use PresidentActionTable to get them
+public class PlayCards extends AbstractAction {
 
-    public final int value; // the value of the card I'm playing
+    public final int nCards; // the number of cards I'm playing
+    public final int value; // the value of the cards I'm playing
 
-    public PlayCards(int deckFrom, int deckTo, ArrayList ids, int value) {
-        super(deckFrom, deckTo, ids);
+    public PlayCards(int nCards, int value) {
+        this.nCards = nCards;
         this.value = value;
     }
 
@@ -25,59 +27,89 @@ public class PlayCards extends DrawComponents {
         return this.value;
     }
 
+    public int getNCards() {
+        return this.nCards;
+    }
+
     @Override
     public boolean execute(AbstractGameState gs) {
-        PresidentGameState gameState = (PresidentGameState) gs;
-        Deck<PresidentCard> from = (Deck<PresidentCard>) gameState.getComponentById(deckFrom);
-        PresidentCard playedCard = from.getComponents().get((Integer) this.idxs.get(0));
-        super.execute(gameState);       // card moved - basic move
+        play((PresidentGameState) gs, nCards, value);
+        return true;
+    }
+
+    /**
+     * Moves nCards cards of the given value from the current player's hand to the discard pile,
+     * and applies the consequences on the current trick.
+     */
+    static void play(PresidentGameState gameState, int nCards, int value) {
+        int player = gameState.getCurrentPlayer();
+        Deck<PresidentCard> hand = gameState.getPlayerHandCards().get(player);
+        Deck<PresidentCard> discardPile = gameState.getDiscardPile();
+
+        PresidentCard playedCard = null;
+        int moved = 0;
+        Iterator<PresidentCard> it = hand.getComponents().iterator();
+        while (moved < nCards && it.hasNext()) {
+            PresidentCard card = it.next();
+            if (card.value == value) {
+                it.remove();
+                discardPile.add(card);
+                playedCard = card;
+                moved++;
+            }
+        }
+        if (moved != nCards)
+            throw new AssertionError("Player " + player + " does not hold " + nCards + " cards of value " + value);
 
         // President logic consequences
         gameState.updateCurrentCard(playedCard);
         gameState.clearPassingPlayers();   // reset passing players status
+        gameState.recordTrace(PresidentTrace.Type.PLAY, player, nCards, value);
 
-        if(gameState.isFirstCard()) {
+        if (gameState.isFirstCard()) {
             gameState.setCurrentCardUnset(false);
-            gameState.updateCurrentRequiredCard(2);
+            gameState.updateCurrentRequiredCard(nCards);
         }
 
-        if (playedCard.value == 10) {    // it closes the discardPile
+        if (value == PresidentCompactState.CLOSING_VALUE) {    // it closes the discardPile
             gameState.clearDiscardPile();
-            gameState.updateCurrentCard(new PresidentCard(0));
+            gameState.updateCurrentCard(PresidentCard.none());
             gameState.setCurrentCardUnset(true);
             gameState.updateCurrentRequiredCard(0);
             gameState.setPlayAgain(true);
+            gameState.recordTrace(PresidentTrace.Type.TRICK_CLEARED, player, 0, 0);
         }
-        System.out.println("Played cards: double "+ value);
-        return true;
     }
 
     @Override
-    public AbstractAction copy() {
-        return new PlayCards(deckFrom, deckTo, idxs, value);
+    public PlayCards copy() {
+        return this; // immutable
     }
 
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
-        if (!(obj instanceof PlayCards)) return false;
-        if (!super.equals(obj)) return false;
-        PlayCards playCards = (PlayCards) obj;
-        return Objects.equals(value, playCards.value);
+        if (!(obj instanceof PlayCards other)) return false;
+        return nCards == other.nCards && value == other.value;
     }
 
     @Override
     public int hashCode() {
-        return 0;
+        return PresidentCompactState.move(nCards, value);
     }
 
     @Override
     public String getString(AbstractGameState gs) {
-        return "double " + value;
+        return switch (nCards) {
+            case 2 -> "double " + value;
+            case 3 -> "triple " + value;
+            case 4 -> "quad " + value;
+            default -> nCards + " x " + value;
+        };
     }
 
     @Override
-    public void printToConsole(AbstractGameState gameState) {
-        super.printToConsole(gameState);
+    public String toString() {
+        return getString(null);
     }
 }
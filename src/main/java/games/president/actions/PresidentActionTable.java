@@ -0,0 +1,96 @@
+package games.president.actions;
+
+import core.actions.AbstractAction;
+import games.president.PresidentCompactState;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable table of every President action for one game configuration (range of card values and maximum set size).
+ * <p>
+ * President actions are identified by (number of cards, value) only, so there is a single instance of each, shared
+ * by all game states and copies with the same configuration. The forward model returns actions from this table
+ * instead of allocating new ones, and the value-based hashCode() gives each action its own bucket in the
+ * maps used by tree search.
+ */
+public final class PresidentActionTable {
+
+    private record Key(int minCardValue, int maxCardValue, int maxSetSize) {}
+
+    private static final Map<Key, PresidentActionTable> tables = new ConcurrentHashMap<>();
+
+    private final int minCardValue;
+    private final int maxCardValue;
+    private final int maxSetSize;
+    private final Pass pass = new Pass();
+    // nCards, value -> action (PlayCard for a single card, PlayCards otherwise)
+    private final AbstractAction[][] plays;
+
+    private PresidentActionTable(int minCardValue, int maxCardValue, int maxSetSize) {
+        this.minCardValue = minCardValue;
+        this.maxCardValue = maxCardValue;
+        this.maxSetSize = maxSetSize;
+        this.plays = new AbstractAction[maxSetSize + 1][maxCardValue + 1];
+        for (int value = minCardValue; value <= maxCardValue; value++) {
+            plays[1][value] = new PlayCard(value);
+            for (int n = 2; n <= maxSetSize; n++)
+                plays[n][value] = new PlayCards(n, value);
+        }
+    }
+
+    public static PresidentActionTable of(int minCardValue, int maxCardValue, int maxSetSize) {
+        return tables.computeIfAbsent(new Key(minCardValue, maxCardValue, maxSetSize),
+                k -> new PresidentActionTable(k.minCardValue, k.maxCardValue, k.maxSetSize));
+    }
+
+    public Pass pass() {
+        return pass;
+    }
+
+    /**
+     * @return the action playing nCards of the given value
+     */
+    public AbstractAction play(int nCards, int value) {
+        if (nCards < 1 || nCards > maxSetSize || value < minCardValue || value > maxCardValue)
+            throw new IllegalArgumentException("No action for " + nCards + " x " + value + " in " + this);
+        return plays[nCards][value];
+    }
+
+    /**
+     * @return the action corresponding to a move encoded as in PresidentCompactState
+     */
+    public AbstractAction get(int move) {
+        if (move == PresidentCompactState.PASS)
+            return pass;
+        return play(PresidentCompactState.moveSize(move), PresidentCompactState.moveValue(move));
+    }
+
+    /**
+     * @return the encoding of a President action as a PresidentCompactState move
+     */
+    public static int toMove(AbstractAction action) {
+        if (action instanceof PlayCard pc)
+            return PresidentCompactState.move(1, pc.value);
+        if (action instanceof PlayCards pcs)
+            return PresidentCompactState.move(pcs.nCards, pcs.value);
+        if (action instanceof Pass)
+            return PresidentCompactState.PASS;
+        throw new IllegalArgumentException("Not a President action: " + action);
+    }
+
+    public int getMinCardValue() {
+        return minCardValue;
+    }
+    public int getMaxCardValue() {
+        return maxCardValue;
+    }
+    public int getMaxSetSize() {
+        return maxSetSize;
+    }
+
+    @Override
+    public String toString() {
+        return "PresidentActionTable[" + minCardValue + ".." + maxCardValue + ", sets up to " + maxSetSize + "]";
+    }
+}
@@ -16,6 +16,13 @@ public class PresidentCard extends Card {
         this.value = value;
     }
 
+    /**
+     * Placeholder for the current card of an empty trick; it does not take a component ID.
+     */
+    public static PresidentCard none() {
+        return new PresidentCard(0, -1);
+    }
+
     public boolean beats(PresidentCard versusCard) {
         return this.value > versusCard.value;
     }
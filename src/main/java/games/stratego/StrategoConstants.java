@@ -1,5 +1,6 @@
 package games.stratego;
 
+import core.components.ComponentIdAllocator;
 import games.stratego.components.Piece;
 import utilities.Vector2D;
 
@@ -26,7 +27,7 @@ public class StrategoConstants {
                 return new ArrayList<>(bluePieces);
             }
 
-            final ArrayList<Piece> redPieces = new ArrayList<Piece>(){{
+            final ArrayList<Piece> redPieces = ComponentIdAllocator.unbound(() -> new ArrayList<Piece>(){{
                 add(new Piece(Piece.PieceType.FLAG, Piece.Alliance.RED, new Vector2D(6,0)));
                 add(new Piece(Piece.PieceType.BOMB, Piece.Alliance.RED, new Vector2D(8,2)));
                 add(new Piece(Piece.PieceType.BOMB, Piece.Alliance.RED, new Vector2D(6,2)));
@@ -67,9 +68,9 @@ public class StrategoConstants {
                 add(new Piece(Piece.PieceType.COLONEL, Piece.Alliance.RED, new Vector2D(3,2)));
                 add(new Piece(Piece.PieceType.GENERAL, Piece.Alliance.RED, new Vector2D(6,3)));
                 add(new Piece(Piece.PieceType.MARSHAL, Piece.Alliance.RED, new Vector2D(0,2)));
-            }};
+            }});
 
-            final ArrayList<Piece> bluePieces = new ArrayList<Piece>(){{
+            final ArrayList<Piece> bluePieces = ComponentIdAllocator.unbound(() -> new ArrayList<Piece>(){{
                 add(new Piece(Piece.PieceType.FLAG, Piece.Alliance.BLUE, new Vector2D(3,9)));
                 add(new Piece(Piece.PieceType.BOMB, Piece.Alliance.BLUE, new Vector2D(1,7)));
                 add(new Piece(Piece.PieceType.BOMB, Piece.Alliance.BLUE, new Vector2D(1,8)));
@@ -110,7 +111,7 @@ public class StrategoConstants {
                 add(new Piece(Piece.PieceType.COLONEL, Piece.Alliance.BLUE, new Vector2D(8,6)));
                 add(new Piece(Piece.PieceType.GENERAL, Piece.Alliance.BLUE, new Vector2D(3,6)));
                 add(new Piece(Piece.PieceType.MARSHAL, Piece.Alliance.BLUE, new Vector2D(9,7)));
-            }};
+            }});
         },
         Setup2 {
             @Override
@@ -123,7 +124,7 @@ public class StrategoConstants {
                 return new ArrayList<>(bluePieces);
             }
 
-            final ArrayList<Piece> redPieces = new ArrayList<Piece>(){{
+            final ArrayList<Piece> redPieces = ComponentIdAllocator.unbound(() -> new ArrayList<Piece>(){{
                 add(new Piece(Piece.PieceType.SERGEANT, Piece.Alliance.RED, new Vector2D(0,0)));
                 add(new Piece(Piece.PieceType.SCOUT, Piece.Alliance.RED, new Vector2D(1,0)));
                 add(new Piece(Piece.PieceType.MINER, Piece.Alliance.RED, new Vector2D(2,0)));
@@ -164,9 +165,9 @@ public class StrategoConstants {
                 add(new Piece(Piece.PieceType.MINER, Piece.Alliance.RED, new Vector2D(7,3)));
                 add(new Piece(Piece.PieceType.SERGEANT, Piece.Alliance.RED, new Vector2D(8,3)));
                 add(new Piece(Piece.PieceType.SCOUT, Piece.Alliance.RED, new Vector2D(9,3)));
-            }};
+            }});
 
-            final ArrayList<Piece> bluePieces = new ArrayList<Piece>(){{
+            final ArrayList<Piece> bluePieces = ComponentIdAllocator.unbound(() -> new ArrayList<Piece>(){{
                 add(new Piece(Piece.PieceType.SERGEANT, Piece.Alliance.BLUE, new Vector2D(9,9)));
                 add(new Piece(Piece.PieceType.SCOUT, Piece.Alliance.BLUE, new Vector2D(8,9)));
                 add(new Piece(Piece.PieceType.MINER, Piece.Alliance.BLUE, new Vector2D(7,9)));
@@ -207,7 +208,7 @@ public class StrategoConstants {
                 add(new Piece(Piece.PieceType.MINER, Piece.Alliance.BLUE, new Vector2D(2,6)));
                 add(new Piece(Piece.PieceType.SERGEANT, Piece.Alliance.BLUE, new Vector2D(1,6)));
                 add(new Piece(Piece.PieceType.SCOUT, Piece.Alliance.BLUE, new Vector2D(0,6)));
-            }};
+            }});
         },
         Setup3 {
             @Override
@@ -220,7 +221,7 @@ public class StrategoConstants {
                 return new ArrayList<>(bluePieces);
             }
 
-            final ArrayList<Piece> redPieces = new ArrayList<Piece>(){{
+            final ArrayList<Piece> redPieces = ComponentIdAllocator.unbound(() -> new ArrayList<Piece>(){{
                 add(new Piece(Piece.PieceType.MINER, Piece.Alliance.RED, new Vector2D(0,0)));
                 add(new Piece(Piece.PieceType.BOMB, Piece.Alliance.RED, new Vector2D(1,0)));
                 add(new Piece(Piece.PieceType.SERGEANT, Piece.Alliance.RED, new Vector2D(2,0)));
@@ -261,9 +262,9 @@ public class StrategoConstants {
                 add(new Piece(Piece.PieceType.MARSHAL, Piece.Alliance.RED, new Vector2D(7,3)));
                 add(new Piece(Piece.PieceType.SERGEANT, Piece.Alliance.RED, new Vector2D(8,3)));
                 add(new Piece(Piece.PieceType.SCOUT, Piece.Alliance.RED, new Vector2D(9,3)));
-            }};
+            }});
 
-            final ArrayList<Piece> bluePieces = new ArrayList<Piece>(){{
+            final ArrayList<Piece> bluePieces = ComponentIdAllocator.unbound(() -> new ArrayList<Piece>(){{
                 add(new Piece(Piece.PieceType.MINER, Piece.Alliance.BLUE, new Vector2D(9,9)));
                 add(new Piece(Piece.PieceType.BOMB, Piece.Alliance.BLUE, new Vector2D(8,9)));
                 add(new Piece(Piece.PieceType.SERGEANT, Piece.Alliance.BLUE, new Vector2D(7,9)));
@@ -304,7 +305,7 @@ public class StrategoConstants {
                 add(new Piece(Piece.PieceType.MARSHAL, Piece.Alliance.BLUE, new Vector2D(2,6)));
                 add(new Piece(Piece.PieceType.CAPTAIN, Piece.Alliance.BLUE, new Vector2D(1,6)));
                 add(new Piece(Piece.PieceType.SCOUT, Piece.Alliance.BLUE, new Vector2D(0,6)));
-            }};
+            }});
         }
         ;
 
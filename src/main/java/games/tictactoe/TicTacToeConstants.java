@@ -1,14 +1,15 @@
 package games.tictactoe;
 
 import core.components.BoardNode;
+import core.components.ComponentIdAllocator;
 import core.components.Token;
 
 import java.util.ArrayList;
 
 public class TicTacToeConstants {
-    public static final ArrayList<BoardNode> playerMapping = new ArrayList<>() {{
+    public static final ArrayList<BoardNode> playerMapping = ComponentIdAllocator.unbound(() -> new ArrayList<>() {{
         add(new BoardNode("x"));
         add(new BoardNode("o"));
-    }};
+    }});
     public static final String emptyCell = ".";
 }
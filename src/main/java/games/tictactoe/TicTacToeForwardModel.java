@@ -24,6 +24,7 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
         int gridSize = tttgp.gridSize;
         TicTacToeGameState state = (TicTacToeGameState) firstState;
         state.gridBoard = new GridBoard(gridSize, gridSize, new BoardNode(TicTacToeConstants.emptyCell));
+        state.zobristHash = 0;
     }
 
 
@@ -50,6 +51,12 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
         return actions;
         }
 
+    @Override
+    protected void _beforeAction(AbstractGameState currentState, AbstractAction action) {
+        if (action instanceof SetGridValueAction set)
+            ((TicTacToeGameState) currentState).placeToken(set.getX(), set.getY(), currentState.getCurrentPlayer());
+    }
+
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
         if (checkAndProcessGameEnd((TicTacToeGameState) currentState)) {
@@ -7,16 +7,20 @@ import core.components.Component;
 import core.components.GridBoard;
 import core.interfaces.IGridGameState;
 import core.interfaces.IPrintable;
+import core.interfaces.IZobristHashed;
 import games.GameType;
+import utilities.Zobrist;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 
-public class TicTacToeGameState extends AbstractGameState implements IPrintable, IGridGameState {
+public class TicTacToeGameState extends AbstractGameState implements IPrintable, IGridGameState, IZobristHashed {
 
     GridBoard gridBoard;
+    // XOR of the keys of all the tokens on the board, kept up to date by the forward model
+    long zobristHash;
 
     public TicTacToeGameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, nPlayers);
@@ -39,6 +43,7 @@ public class TicTacToeGameState extends AbstractGameState implements IPrintable,
     protected TicTacToeGameState _copy(int playerId) {
         TicTacToeGameState s = new TicTacToeGameState(gameParameters.copy(), getNPlayers());
         s.gridBoard = gridBoard.copy();
+        s.zobristHash = zobristHash;
         return s;
     }
 
@@ -66,6 +71,36 @@ public class TicTacToeGameState extends AbstractGameState implements IPrintable,
         return token == null ? -1 : token.getOwnerId();
     }
 
+    /**
+     * Called by the forward model as player places a token at (x, y)
+     */
+    void placeToken(int x, int y, int player) {
+        zobristHash ^= tokenKey(x, y, player);
+    }
+
+    private long tokenKey(int x, int y, int player) {
+        return Zobrist.key(0, (y * gridBoard.getWidth() + x) * getNPlayers() + player);
+    }
+
+    @Override
+    public long getZobristHash(int playerId) {
+        // the board is fully visible, so playerId does not matter; but the player to move does
+        return zobristHash ^ Zobrist.key(1, getCurrentPlayer());
+    }
+
+    /**
+     * @return the Zobrist hash of the board computed from scratch, for checking the incremental version
+     */
+    public long computeZobristHash() {
+        long hash = 0;
+        for (int x = 0; x < gridBoard.getWidth(); x++)
+            for (int y = 0; y < gridBoard.getHeight(); y++)
+                for (int p = 0; p < getNPlayers(); p++)
+                    if (gridBoard.getElement(x, y).getComponentName().equals(TicTacToeConstants.playerMapping.get(p).getComponentName()))
+                        hash ^= tokenKey(x, y, p);
+        return hash ^ Zobrist.key(1, getCurrentPlayer());
+    }
+
     @Override
     protected boolean _equals(Object o) {
         if (this == o) return true;
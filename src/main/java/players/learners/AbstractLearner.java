@@ -1,6 +1,7 @@
 package players.learners;
 
 import core.interfaces.ILearner;
+import evaluation.loggers.ColumnarDataset;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -57,16 +58,37 @@ public abstract class AbstractLearner implements ILearner {
         targetType = newTarget;
     }
 
-    protected void loadData(String... files) {
-        List<double[]> data = new ArrayList<>();
+    /**
+     * Receives each row of training data in turn, from forEachDatum()
+     */
+    protected interface DatumConsumer {
+        /**
+         * @param regressionData - the bias term (1.0) followed by the features; a new array for each row
+         * @param target         - the value to learn, as set by the target type and gamma
+         * @param currentScore   - the player's score at the time
+         */
+        void accept(double[] regressionData, double target, double currentScore);
+    }
+
+    /**
+     * Reads the data in the files one row at a time, without holding more than one row in memory. Each file can
+     * either be tab-delimited text as written by FileStatsLogger, or a binary columnar file as written by
+     * ColumnarStatsLogger, which is memory-mapped rather than parsed.
+     */
+    protected void forEachDatum(String[] files, DatumConsumer consumer) {
         for (String file : files) {
+            if (ColumnarDataset.isColumnar(file)) {
+                try (ColumnarDataset dataset = new ColumnarDataset(file)) {
+                    setHeader(dataset.columnNames());
+                    dataset.forEachRow(row -> processDatum(row, consumer));
+                }
+                continue;
+            }
             try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                header = reader.readLine().split("\\t");
-                descriptions = new String[header.length - 11];
-                System.arraycopy(header, 5, descriptions, 0, descriptions.length);
+                setHeader(reader.readLine().split("\\t"));
                 while (reader.ready()) {
                     double[] datum = Arrays.stream(reader.readLine().split("\\t")).mapToDouble(Double::parseDouble).toArray();
-                    data.add(datum);
+                    processDatum(datum, consumer);
                 }
             } catch (IOException e) {
                 e.printStackTrace();
@@ -76,8 +98,13 @@ public abstract class AbstractLearner implements ILearner {
                 throw new AssertionError("Problem parsing data as numeric : " + file);
             }
         }
+    }
+
+    private void setHeader(String[] newHeader) {
+        header = newHeader;
+        descriptions = new String[header.length - 11];
+        System.arraycopy(header, 5, descriptions, 0, descriptions.length);
 
-        // now convert data to [][]
         // we assume (for the moment) that the columns are: GameID, Player, Round, Turn, CurrentScore... Win, Ordinal, FinalScore
         // with ... representing the game specific features
         // these fields are all defined in FeatureListener, and we assume that any Listener that records data
@@ -91,37 +118,53 @@ public abstract class AbstractLearner implements ILearner {
                 || !header[header.length - 5].equals("TotalRounds") || !header[header.length - 6].equals("PlayerCount")) {
             throw new AssertionError("Unexpected final header entries " + String.join("", header));
         }
+    }
+
+    private void processDatum(double[] allData, DatumConsumer consumer) {
+        // calculate the number of turns from this point until the end of the game
+        double turns = allData[header.length - 5] - allData[2];
+        double playerCount = allData[header.length - 6];
+        // discount target (towards expected result where relevant)
+        double expectedAverage = 0.0;
+        if (targetType == Target.WIN_MEAN)
+            expectedAverage = 1.0 / playerCount;
+        if (targetType == Target.ORD_MEAN || targetType == Target.ORD_MEAN_SCALE)
+            expectedAverage = (1.0 + playerCount) / 2.0;
+
+        double target;
+        if (targetType == Target.SCORE_DELTA)
+            target = (allData[header.length - targetType.indexOffset] - allData[4]) * Math.pow(gamma, turns);
+        else
+            target = (allData[header.length - targetType.indexOffset] - expectedAverage) * Math.pow(gamma, turns) + expectedAverage;
+
+        if (targetType == Target.ORDINAL || targetType == Target.ORD_MEAN)
+            target = -target;  // if we are targeting the Ordinal position, then high is bad!
+        if (targetType == Target.ORD_MEAN_SCALE || targetType == Target.ORD_SCALE)
+            target = (playerCount - target) / (playerCount - 1.0);  // scale to [0, 1]
+
+        double[] regressionData = new double[header.length - 10];
+        regressionData[0] = 1.0; // the bias term
+        System.arraycopy(allData, 5, regressionData, 1, regressionData.length - 1);
+        consumer.accept(regressionData, target, allData[4]);
+    }
+
+    /**
+     * Reads all the data in the files into dataArray, target and currentScore
+     */
+    protected void loadData(String... files) {
+        List<double[]> data = new ArrayList<>();
+        List<double[]> targetAndScore = new ArrayList<>();
+        forEachDatum(files, (regressionData, target, currentScore) -> {
+            data.add(regressionData);
+            targetAndScore.add(new double[]{target, currentScore});
+        });
 
-        dataArray = new double[data.size()][];
+        dataArray = data.toArray(new double[0][]);
         target = new double[data.size()][1];
         currentScore = new double[data.size()][1];
         for (int i = 0; i < dataArray.length; i++) {
-            double[] allData = data.get(i);
-            // calculate the number of turns from this point until the end of the game
-            double turns = allData[header.length - 5] - allData[2];
-            double playerCount = allData[header.length - 6];
-            // discount target (towards expected result where relevant)
-            double expectedAverage = 0.0;
-            if (targetType == Target.WIN_MEAN)
-                expectedAverage = 1.0 / playerCount;
-            if (targetType == Target.ORD_MEAN || targetType == Target.ORD_MEAN_SCALE)
-                expectedAverage = (1.0 + playerCount) / 2.0;
-
-            if (targetType == Target.SCORE_DELTA)
-                target[i][0] = (allData[header.length - targetType.indexOffset] - allData[4]) * Math.pow(gamma, turns);
-            else
-                target[i][0] = (allData[header.length - targetType.indexOffset] - expectedAverage) * Math.pow(gamma, turns) + expectedAverage;
-
-            if (targetType == Target.ORDINAL || targetType == Target.ORD_MEAN)
-                target[i][0] = -target[i][0];  // if we are targeting the Ordinal position, then high is bad!
-            if (targetType == Target.ORD_MEAN_SCALE || targetType == Target.ORD_SCALE)
-                target[i][0] = (playerCount - target[i][0]) / (playerCount - 1.0);  // scale to [0, 1]
-
-            currentScore[i][0] = allData[4];
-            double[] regressionData = new double[header.length - 10];
-            regressionData[0] = 1.0; // the bias term
-            System.arraycopy(allData, 5, regressionData, 1, regressionData.length - 1);
-            dataArray[i] = regressionData;
+            target[i][0] = targetAndScore.get(i)[0];
+            currentScore[i][0] = targetAndScore.get(i)[1];
         }
     }
 
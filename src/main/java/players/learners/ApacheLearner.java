@@ -11,11 +11,10 @@ import org.apache.spark.sql.types.Metadata;
 import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
-import static java.util.stream.Collectors.toList;
-
 public abstract class ApacheLearner extends AbstractLearner {
 
     Dataset<Row> apacheData;
@@ -36,19 +35,17 @@ public abstract class ApacheLearner extends AbstractLearner {
 
     @Override
     public void learnFrom(String... files) {
-        loadData(files);
-        // first add the target to the data array so that we can convert to an apache dataset (we just add on the target)
-        double[][] apacheDataArray = new double[dataArray.length][dataArray[0].length];
-        for (int i = 0; i < dataArray.length; i++) {
+        // convert the raw data into Rows as it is read, with the target added on the end, so that the data is not
+        // also held as arrays
+        List<Row> rowList = new ArrayList<>();
+        forEachDatum(files, (regressionData, target, currentScore) -> {
             // we skip the BIAS at the front here, as we add that in separately
-            System.arraycopy(dataArray[i], 1, apacheDataArray[i], 0, descriptions.length);
-            apacheDataArray[i][descriptions.length] = target[i][0]; // add target to end
-        }
-        // convert the raw data into Rows
-        List<Row> rowList = Arrays.stream(apacheDataArray)
-                .map(doubleArray -> Arrays.stream(doubleArray).boxed().toArray())
-                .map(RowFactory::create)
-                .collect(toList());
+            Object[] values = new Object[regressionData.length];
+            for (int i = 1; i < regressionData.length; i++)
+                values[i - 1] = regressionData[i];
+            values[regressionData.length - 1] = target; // add target to end
+            rowList.add(RowFactory.create(values));
+        });
         // use the header to get the names, and all of them are double by design
         String[] apacheHeader = new String[descriptions.length + 1];
         System.arraycopy(descriptions, 0, apacheHeader, 0, descriptions.length);
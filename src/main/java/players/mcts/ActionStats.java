@@ -27,6 +27,35 @@ public class ActionStats {
         nVisits++;
     }
 
+    /**
+     * Adds the visits and values of other to these
+     */
+    public void add(ActionStats other) {
+        for (int i = 0; i < totValue.length; i++) {
+            totValue[i] += other.totValue[i];
+            squaredTotValue[i] += other.squaredTotValue[i];
+        }
+        nVisits += other.nVisits;
+        validVisits += other.validVisits;
+    }
+
+    /**
+     * Zeroes all statistics, so that this can be reused for a new action
+     */
+    public void reset() {
+        Arrays.fill(totValue, 0.0);
+        Arrays.fill(squaredTotValue, 0.0);
+        nVisits = 0;
+        validVisits = 0;
+    }
+
+    /**
+     * @return a rough estimate of the memory used by an ActionStats for nPlayers (on a 64-bit JVM)
+     */
+    static long estimatedBytes(int nPlayers) {
+        return 24 + 2 * (16 + 8L * nPlayers);
+    }
+
     public ActionStats copy() {
         ActionStats newStats = new ActionStats(totValue.length);
         newStats.nVisits = nVisits;
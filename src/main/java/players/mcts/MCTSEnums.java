@@ -34,6 +34,16 @@ public class MCTSEnums {
         // even if the best action was taken (this down-weights the actual observed reward from that iteration.)
     }
 
+    public enum Parallelism {
+        None, Root, Tree
+        // None runs the search on the calling thread only
+        // Root grows one independent tree per thread (each with its own forward model and random generator), and adds
+        // their root statistics together before the final action is chosen
+        // Tree has all threads share a single tree. Selection and backup take a lock on the tree, rollouts run
+        // concurrently; a virtual loss (of virtualLoss visits with no reward) on the path being rolled out steers
+        // the other threads elsewhere in the meantime
+    }
+
     public enum RolloutIncrement {
         TICK, TURN, ROUND
         // Determine which event will trigger an increment on the rolloutDepth counter.
@@ -15,6 +15,11 @@ public class MCTSMetrics implements IMetricsCollection {
 
     public static class TreeStats extends AbstractMetric {
 
+        @Override
+        public boolean readsPlayers() {
+            return true;  // the player's current tree
+        }
+
         @Override
         protected boolean _run(MetricsGameListener listener, Event e, Map<String, Object> records) {
             AbstractPlayer player = listener.getGame().getPlayers().get(e.state.getCurrentPlayer());
@@ -38,6 +43,7 @@ public class MCTSMetrics implements IMetricsCollection {
                 records.put("MeanNodeDepth", treeStats.meanNodeDepth);
                 records.put("Nodes", treeStats.totalNodes);
                 records.put("LeafNodes", treeStats.totalLeaves);
+                records.put("BytesPerNode", treeStats.estimatedBytes / (double) Math.max(treeStats.totalNodes, 1));
                 records.put("OneActionNodes", treeStats.oneActionNodes);
                 records.put("MeanActionsAtNode", treeStats.meanActionsAtNode);
                 records.put("MeanActionsExpanded", treeStats.meanActionsExpanded);
@@ -73,6 +79,7 @@ public class MCTSMetrics implements IMetricsCollection {
             cols.put("MeanNodeDepth", Double.class);
             cols.put("Nodes", Integer.class);
             cols.put("LeafNodes", Integer.class);
+            cols.put("BytesPerNode", Double.class); // rough estimate, excluding game states
             cols.put("OneActionNodes", Integer.class);
             cols.put("MeanActionsAtNode", Double.class);
             cols.put("MeanActionsExpanded", Double.class);
@@ -92,6 +99,11 @@ public class MCTSMetrics implements IMetricsCollection {
 
     public static class MultiTreeStats extends AbstractMetric {
 
+        @Override
+        public boolean readsPlayers() {
+            return true;  // the player's current tree
+        }
+
         @Override
         protected boolean _run(MetricsGameListener listener, Event e, Map<String, Object> records) {
             AbstractPlayer player = listener.getGame().getPlayers().get(e.state.getCurrentPlayer());
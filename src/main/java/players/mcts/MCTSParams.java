@@ -75,6 +75,10 @@ public class MCTSParams extends PlayerParameters {
     public double backupLambda = 1.0;
     public int maxBackupThreshold = 1000000;
     public Class<?> instantiationClass;
+    public MCTSEnums.Parallelism parallelism = MCTSEnums.Parallelism.None;
+    public int nThreads = 0;  // threads used if parallelism is not None; zero (or less) for one per available processor
+    public int virtualLoss = 1;  // visits added to each action on the path of an unfinished Tree parallel iteration
+    public boolean nodeArena = false;  // if true, tree nodes are recycled from one decision to the next (OneTree and SelfOnly only)
 
     public MCTSParams() {
         addTunableParameter("K", 1.0, Arrays.asList(0.03, 0.1, 0.3, 1.0, 3.0, 10.0, 30.0, 100.0));
@@ -124,6 +128,10 @@ public class MCTSParams extends PlayerParameters {
         addTunableParameter("backupLambda", 1.0);
         addTunableParameter("maxBackupThreshold", 1000000);
         addTunableParameter("instantiationClass", "players.mcts.MCTSPlayer");
+        addTunableParameter("parallelism", MCTSEnums.Parallelism.None, Arrays.asList(MCTSEnums.Parallelism.values()));
+        addTunableParameter("nThreads", 0);
+        addTunableParameter("virtualLoss", 1, Arrays.asList(0, 1, 3, 10));
+        addTunableParameter("nodeArena", false);
     }
 
     @Override
@@ -179,6 +187,10 @@ public class MCTSParams extends PlayerParameters {
         backupPolicy = (MCTSEnums.BackupPolicy) getParameterValue("backupPolicy");
         backupLambda = (double) getParameterValue("backupLambda");
         maxBackupThreshold = (int) getParameterValue("maxBackupThreshold");
+        parallelism = (MCTSEnums.Parallelism) getParameterValue("parallelism");
+        nThreads = (int) getParameterValue("nThreads");
+        virtualLoss = (int) getParameterValue("virtualLoss");
+        nodeArena = (boolean) getParameterValue("nodeArena");
         try {
             instantiationClass = Class.forName((String) getParameterValue("instantiationClass"));
         } catch (ClassNotFoundException e) {
@@ -31,6 +31,10 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
     List<Map<Object, Pair<Integer, Double>>> MASTStats;
     protected Map<Object, Integer> oldGraphKeys = new HashMap<>();
     protected List<Object> recentlyRemovedKeys = new ArrayList<>();
+    // threads and worker players for parallel search; created on the first decision of each game
+    ParallelSearch parallelSearch;
+    // pool of tree nodes recycled from one decision to the next, if params.nodeArena is set
+    NodeArena nodeArena;
 
     public MCTSPlayer() {
         this(new MCTSParams());
@@ -65,6 +69,8 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
         MASTStats = null;
         root = null;
         oldGraphKeys = new HashMap<>();
+        nodeArena = null;
+        closeParallelSearch();
         getParameters().getRolloutStrategy().initializePlayer(state);
         getParameters().getOpponentModel().initializePlayer(state);
     }
@@ -244,11 +250,18 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
 
     protected void createRootNode(AbstractGameState gameState) {
         SingleTreeNode newRoot = newRootNode(gameState);
+        MCTSParams params = getParameters();
+        if (params.nodeArena && (params.opponentTreePolicy == OneTree || params.opponentTreePolicy == SelfOnly)) {
+            // everything in the previous tree, apart from any part of it we are reusing, can now be recycled
+            if (nodeArena == null)
+                nodeArena = new NodeArena(getFactory());
+            nodeArena.reset(newRoot);
+        }
         if (newRoot == null) {
             if (getParameters().opponentTreePolicy == MultiTree)
                 root = new MultiTreeNode(this, gameState, rnd);
             else
-                root = SingleTreeNode.createRootNode(this, gameState, rnd, getFactory());
+                root = SingleTreeNode.createRootNode(this, gameState, rnd, nodeArena != null ? nodeArena : getFactory());
         } else {
             root = newRoot;
         }
@@ -257,11 +270,18 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
                     .map(m -> Utils.decay(m, getParameters().MASTGamma))
                     .collect(Collectors.toList());
 
+        useMASTStatisticsOf(root);
+    }
+
+    /**
+     * Points the rollout policy and opponent model at the MAST statistics of the given root, if they use them
+     */
+    void useMASTStatisticsOf(SingleTreeNode node) {
         if (getParameters().getRolloutStrategy() instanceof IMASTUser) {
-            ((IMASTUser) getParameters().getRolloutStrategy()).setStats(root.MASTStatistics);
+            ((IMASTUser) getParameters().getRolloutStrategy()).setStats(node.MASTStatistics);
         }
         if (getParameters().getOpponentModel() instanceof IMASTUser) {
-            ((IMASTUser) getParameters().getOpponentModel()).setStats(root.MASTStatistics);
+            ((IMASTUser) getParameters().getOpponentModel()).setStats(node.MASTStatistics);
         }
     }
 
@@ -272,7 +292,13 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
         createRootNode(gameState);
         long timeTaken = System.nanoTime() - currentTimeNano;
 
-        root.mctsSearch(timeTaken / 1000000);
+        if (getParameters().parallelism == MCTSEnums.Parallelism.None) {
+            root.mctsSearch(timeTaken / 1000000);
+        } else {
+            if (parallelSearch == null)
+                parallelSearch = new ParallelSearch(this, gameState);
+            parallelSearch.search(root, gameState, timeTaken / 1000000);
+        }
 
         if (getParameters().actionHeuristic instanceof ITreeProcessor)
             ((ITreeProcessor) getParameters().actionHeuristic).process(root);
@@ -305,7 +331,14 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
             ((IGameListener) getParameters().heuristic).onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, state));
         if (getParameters().actionHeuristic instanceof IGameListener)
             ((IGameListener) getParameters().actionHeuristic).onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, state));
+        closeParallelSearch();
+    }
 
+    private void closeParallelSearch() {
+        if (parallelSearch != null) {
+            parallelSearch.close();
+            parallelSearch = null;
+        }
     }
 
     @Override
@@ -30,6 +30,11 @@ public class MCTSTreeActionStatisticsListener extends ActionFeatureListener {
     }
 
 
+    @Override
+    public boolean readsPlayers() {
+        return true;  // the tree of the player that has just chosen an action
+    }
+
     @Override
     public void onEvent(Event event) {
         if (event.type == Event.GameEvent.ACTION_CHOSEN) {
@@ -0,0 +1,96 @@
+package players.mcts;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * A node factory that hands out nodes (and their action statistics) from a pool, which is recycled from one decision
+ * to the next instead of leaving the previous tree for the garbage collector.
+ * <p>
+ * reset() is called before each new tree is grown. Every node handed out since the previous reset is then cleared
+ * (see SingleTreeNode.recycle()) and becomes available again, except for the sub-tree below a root that is being
+ * kept with reuseTree. Cleared nodes keep the capacity of their maps, so that once the pool has grown to the size of a
+ * typical tree the search allocates very little for the tree itself.
+ * <p>
+ * Nothing outside the current tree should keep a reference to one of its nodes beyond the next decision.
+ */
+public class NodeArena implements Supplier<SingleTreeNode> {
+
+    private final Supplier<? extends SingleTreeNode> factory;
+    // nodes[0, inUse) are part of the current tree; the rest have been cleared and are ready for reuse
+    private List<SingleTreeNode> nodes = new ArrayList<>();
+    private int inUse;
+    private final List<ActionStats> freeStats = new ArrayList<>();
+
+    public NodeArena(Supplier<? extends SingleTreeNode> factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public SingleTreeNode get() {
+        if (inUse < nodes.size())
+            return nodes.get(inUse++);
+        SingleTreeNode node = factory.get();
+        nodes.add(node);
+        inUse++;
+        return node;
+    }
+
+    ActionStats newActionStats(int nPlayers) {
+        if (!freeStats.isEmpty()) {
+            ActionStats stats = freeStats.remove(freeStats.size() - 1);
+            if (stats.totValue.length == nPlayers) {
+                stats.reset();
+                return stats;
+            }
+        }
+        return new ActionStats(nPlayers);
+    }
+
+    /**
+     * Releases all the nodes handed out so far, apart from those in the tree below retainedRoot.
+     *
+     * @param retainedRoot - the root of a tree to keep, or null to release everything
+     */
+    public void reset(SingleTreeNode retainedRoot) {
+        Set<SingleTreeNode> retained = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (retainedRoot != null) {
+            Deque<SingleTreeNode> queue = new ArrayDeque<>();
+            queue.add(retainedRoot);
+            while (!queue.isEmpty()) {
+                SingleTreeNode node = queue.poll();
+                if (!retained.add(node))
+                    continue;
+                for (SingleTreeNode[] childArray : node.children.values()) {
+                    if (childArray == null) continue;
+                    for (SingleTreeNode child : childArray)
+                        if (child != null) queue.add(child);
+                }
+            }
+        }
+        List<SingleTreeNode> kept = new ArrayList<>(retained.size());
+        List<SingleTreeNode> released = new ArrayList<>(nodes.size());
+        for (int i = 0; i < inUse; i++) {
+            SingleTreeNode node = nodes.get(i);
+            if (retained.contains(node)) {
+                kept.add(node);
+            } else {
+                freeStats.addAll(node.actionValues.values());
+                node.recycle();
+                released.add(node);
+            }
+        }
+        int nKept = kept.size();
+        kept.addAll(released);
+        kept.addAll(nodes.subList(inUse, nodes.size()));
+        nodes = kept;
+        inUse = nKept;
+    }
+
+    /**
+     * @return the number of nodes in the pool, in use or not
+     */
+    public int size() {
+        return nodes.size();
+    }
+}
@@ -0,0 +1,295 @@
+package players.mcts;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import utilities.ElapsedCpuTimer;
+import utilities.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+import static players.PlayerConstants.*;
+import static players.mcts.MCTSEnums.Information.Closed_Loop;
+import static players.mcts.MCTSEnums.OpponentTreePolicy.*;
+import static players.mcts.MCTSEnums.Parallelism.Root;
+
+/**
+ * Runs the search of an MCTSPlayer on several threads, as set by MCTSParams.parallelism and nThreads.
+ * <p>
+ * The calling thread does its share of the work, alongside a pool of nThreads - 1 helper threads kept for the rest
+ * of the game. Each thread has its own worker player: a copy of the parameters with a different random seed (so
+ * rollout and opponent policies differ), its own forward model where one can be created for the game, and its own
+ * random generator.
+ * <p>
+ * Root: one independent tree per thread, each searched from the current state with its share of the budget (the full
+ * time for a time budget; otherwise the budget split as evenly as it can be, the first budget % nThreads threads
+ * getting one unit more than the rest); the statistics of the root of each are then added to those of the player's own
+ * tree, from which the action is chosen as usual. The calling thread searches the player's own tree, so has no worker.
+ * <p>
+ * Tree: all threads share the player's tree. Selection, expansion and backup are done under a lock on the root, while
+ * rollouts (usually most of the time of an iteration) run concurrently. Until its backup each unfinished iteration
+ * adds virtualLoss visits with no reward to the actions on its path, so that the other threads tend to look elsewhere.
+ * Each thread stops once the shared iteration, FM call or copy count reaches the budget, which may therefore be
+ * overshot by at most one iteration per thread; for a time budget each thread stops independently.
+ * Tree parallelism requires open loop (or information set) search, a OneTree or SelfOnly tree, and no MAST.
+ */
+class ParallelSearch implements AutoCloseable {
+
+    final MCTSPlayer player;
+    final int nThreads;
+    final MCTSPlayer[] workers;  // workers[0] is null for Root parallelism, where the player searches for itself
+    private final ExecutorService executor;
+    // guarded by the lock on the root of the tree being searched
+    private int iterationsStarted;
+
+    ParallelSearch(MCTSPlayer player, AbstractGameState state) {
+        MCTSParams params = player.getParameters();
+        if (params.opponentTreePolicy == MultiTree)
+            throw new AssertionError("Parallel search is not supported with MultiTree");
+        if (params.parallelism == MCTSEnums.Parallelism.Tree) {
+            if (params.information == Closed_Loop)
+                throw new AssertionError("Tree parallel search needs Open_Loop or Information_Set");
+            if (params.opponentTreePolicy != OneTree && params.opponentTreePolicy != SelfOnly)
+                throw new AssertionError("Tree parallel search needs a OneTree or SelfOnly tree, not " + params.opponentTreePolicy);
+            if (params.useMAST)
+                throw new AssertionError("Tree parallel search does not support MAST");
+        }
+        this.player = player;
+        this.nThreads = params.nThreads > 0 ? params.nThreads : Runtime.getRuntime().availableProcessors();
+        this.workers = new MCTSPlayer[nThreads];
+        for (int i = params.parallelism == Root ? 1 : 0; i < nThreads; i++)
+            workers[i] = newWorker(state, i);
+        this.executor = Executors.newFixedThreadPool(Math.max(nThreads - 1, 1), r -> {
+            Thread t = new Thread(r, "mcts-search");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private MCTSPlayer newWorker(AbstractGameState state, int index) {
+        MCTSParams params = (MCTSParams) player.getParameters().copy();
+        params.setParameterValue("parallelism", MCTSEnums.Parallelism.None);
+        params.setParameterValue("randomSeed", (int) (player.getParameters().getRandomSeed() + 1 + index));
+        MCTSPlayer worker = new MCTSPlayer(params, player.toString());
+        AbstractForwardModel forwardModel = player.getForwardModel();
+        try {
+            AbstractForwardModel own = state.getGameType().createForwardModel(state.getGameParameters(), state.getNPlayers());
+            if (own.getClass() == forwardModel.getClass())
+                forwardModel = own;
+        } catch (RuntimeException | AssertionError e) {
+            // we fall back to sharing the forward model of the player
+        }
+        if (forwardModel == player.getForwardModel())
+            worker.clearDecorators();  // the player's decorators are already on it
+        worker.setForwardModel(forwardModel);
+        worker.initializePlayer(state);
+        return worker;
+    }
+
+    /**
+     * Searches from the player's root node, which has just been created for the given state.
+     */
+    void search(SingleTreeNode root, AbstractGameState state, long initialisationTime) {
+        if (player.getParameters().parallelism == Root)
+            rootSearch(root, state, initialisationTime);
+        else
+            treeSearch(root, initialisationTime);
+    }
+
+    private void rootSearch(SingleTreeNode root, AbstractGameState state, long initialisationTime) {
+        MCTSParams params = root.params;
+        SingleTreeNode[] trees = new SingleTreeNode[nThreads];
+        trees[0] = root;
+        for (int i = 1; i < nThreads; i++) {
+            trees[i] = SingleTreeNode.createRootNode(workers[i], state, new Random(player.getRnd().nextLong()), player.getFactory());
+            workers[i].useMASTStatisticsOf(trees[i]);
+        }
+        runOnAllThreads(i -> trees[i].mctsSearch(initialisationTime, share(params, i), new WallClockTimer()));
+        for (int i = 1; i < nThreads; i++)
+            root.mergeRootStatistics(trees[i]);
+    }
+
+    /**
+     * @return the budget of thread i under Root parallelism
+     */
+    int share(MCTSParams params, int i) {
+        if (params.budgetType == BUDGET_TIME)
+            return params.budget;
+        return params.budget / nThreads + (i < params.budget % nThreads ? 1 : 0);
+    }
+
+    // What one Tree parallel iteration needs to carry from selection to backup
+    private record Iteration(SingleTreeNode selected, int lastActor, AbstractGameState rolloutState,
+                             List<SingleTreeNode> trajectory, List<Pair<Integer, AbstractAction>> actionsInTree,
+                             List<List<AbstractAction>> actionsAvailable, List<ActionStats> virtualLosses) {
+    }
+
+    private void treeSearch(SingleTreeNode root, long initialisationTime) {
+        ElapsedCpuTimer timer = new WallClockTimer();
+        synchronized (root) {
+            root.initialiseRootMetrics();
+            root.initialisationTimeTaken = initialisationTime;
+            iterationsStarted = 0;
+        }
+        runOnAllThreads(i -> searchSharedTree(root, workers[i], initialisationTime));
+        root.timeTaken = timer.elapsedMillis();
+    }
+
+    private void searchSharedTree(SingleTreeNode root, MCTSPlayer worker, long initialisationTime) {
+        MCTSParams params = root.params;
+        ElapsedCpuTimer timer = new WallClockTimer();
+        if (params.budgetType == BUDGET_TIME)
+            timer.setMaxTimeMillis(params.budget - initialisationTime);
+        // rollouts are run from a leaf that stands in for the selected node, with a root of its own to count the
+        // actions and FM calls, so that they touch nothing in the shared tree
+        SingleTreeNode rolloutRoot = new SingleTreeNode();
+        rolloutRoot.params = worker.getParameters();
+        rolloutRoot.forwardModel = worker.getForwardModel();
+        rolloutRoot.rnd = worker.getRnd();
+        rolloutRoot.root = rolloutRoot;
+        rolloutRoot.decisionPlayer = root.decisionPlayer;
+        SingleTreeNode leaf = new SingleTreeNode();
+        leaf.params = rolloutRoot.params;
+        leaf.forwardModel = rolloutRoot.forwardModel;
+        leaf.rnd = rolloutRoot.rnd;
+        leaf.root = rolloutRoot;
+
+        int numIters = 0;
+        while (true) {
+            Iteration iteration;
+            synchronized (root) {
+                if (budgetSpent(root))
+                    return;
+                iterationsStarted++;
+                iteration = select(root);
+            }
+
+            rolloutRoot.actionsInRollout = new ArrayList<>();
+            rolloutRoot.fmCallsCount = 0;
+            rolloutRoot.copyCount = 0;
+            leaf.decisionPlayer = iteration.selected.decisionPlayer;
+            leaf.openLoopState = iteration.rolloutState;
+            double[] delta = leaf.rollout(iteration.lastActor);
+
+            synchronized (root) {
+                for (ActionStats stats : iteration.virtualLosses)
+                    stats.nVisits -= params.virtualLoss;
+                for (int i = 0; i < iteration.trajectory.size(); i++)
+                    iteration.trajectory.get(i).actionsFromOpenLoopState = iteration.actionsAvailable.get(i);
+                root.currentNodeTrajectory = iteration.trajectory;
+                root.actionsInTree = iteration.actionsInTree;
+                root.actionsInRollout = rolloutRoot.actionsInRollout;
+                root.fmCallsCount += rolloutRoot.fmCallsCount;
+                root.copyCount += rolloutRoot.copyCount;
+                root.rolloutActionsTaken += rolloutRoot.actionsInRollout.size();
+                iteration.selected.backUp(delta);
+            }
+
+            numIters++;
+            if (params.budgetType == BUDGET_TIME) {
+                long remaining = timer.remainingTimeMillis();
+                double avgTimeTaken = (double) timer.elapsedMillis() / numIters;
+                if (remaining <= 2 * avgTimeTaken || remaining <= params.breakMS)
+                    return;
+            }
+        }
+    }
+
+    // The same stopping conditions as SingleTreeNode.mctsSearch(), checked before an iteration rather than after
+    private boolean budgetSpent(SingleTreeNode root) {
+        if (iterationsStarted == 0)
+            return false;
+        int budget = root.params.budget;
+        return switch (root.params.budgetType) {
+            case BUDGET_TIME -> false;
+            case BUDGET_ITERATIONS -> iterationsStarted >= budget;
+            case BUDGET_FM_CALLS -> root.fmCallsCount > budget || iterationsStarted > budget;
+            case BUDGET_COPY_CALLS -> root.copyCount > budget || iterationsStarted > budget;
+            case BUDGET_FMANDCOPY_CALLS -> root.copyCount + root.fmCallsCount > budget || iterationsStarted > budget;
+            default -> throw new AssertionError("Unsupported budget type " + root.params.budgetType);
+        };
+    }
+
+    private Iteration select(SingleTreeNode root) {
+        if (root.params.information == MCTSEnums.Information.Information_Set) {
+            if (root.redeterminisationPlayer == -1)
+                root.redeterminisationPlayer = root.decisionPlayer;
+            root.setActionsFromOpenLoopState(root.state.copy(root.redeterminisationPlayer));
+        } else {
+            root.setActionsFromOpenLoopState(root.state.copy());
+        }
+        root.copyCount++;
+        root.actionsInTree = new ArrayList<>();
+        root.currentNodeTrajectory = new ArrayList<>();
+        root.actionsInRollout = new ArrayList<>();
+
+        SingleTreeNode selected = root.treePolicy();
+        List<Pair<Integer, AbstractAction>> actionsInTree = root.actionsInTree;
+        int lastActor = actionsInTree.isEmpty() ? root.decisionPlayer : actionsInTree.get(actionsInTree.size() - 1).a;
+        List<SingleTreeNode> trajectory = root.currentNodeTrajectory;
+        List<List<AbstractAction>> actionsAvailable = new ArrayList<>(trajectory.size());
+        List<ActionStats> virtualLosses = new ArrayList<>(trajectory.size());
+        for (int i = 0; i < trajectory.size(); i++) {
+            SingleTreeNode node = trajectory.get(i);
+            actionsAvailable.add(node.actionsFromOpenLoopState);
+            ActionStats stats = node.actionValues.get(actionsInTree.get(i).b);
+            if (stats != null) {
+                stats.nVisits += root.params.virtualLoss;
+                virtualLosses.add(stats);
+            }
+        }
+        return new Iteration(selected, lastActor, selected.openLoopState, trajectory, actionsInTree,
+                actionsAvailable, virtualLosses);
+    }
+
+    /**
+     * Runs task(i) for each thread index i, with index 0 on the calling thread, and waits for all of them.
+     * The first failure (if any) is rethrown once they have all finished.
+     */
+    private void runOnAllThreads(IntConsumer task) {
+        List<Future<?>> futures = new ArrayList<>(nThreads - 1);
+        for (int i = 1; i < nThreads; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> task.accept(index)));
+        }
+        Throwable failure = null;
+        try {
+            task.accept(0);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) failure = e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) failure = e;
+            }
+        }
+        if (failure instanceof RuntimeException re) throw re;
+        if (failure instanceof Error err) throw err;
+        if (failure != null) throw new RuntimeException(failure);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // All threads share the same deadline, so we measure wall-clock rather than per-thread CPU time
+    private static class WallClockTimer extends ElapsedCpuTimer {
+        @Override
+        protected long getTime() {
+            return System.nanoTime();
+        }
+    }
+}
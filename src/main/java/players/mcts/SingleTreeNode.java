@@ -147,6 +147,82 @@ public class SingleTreeNode {
 
     }
 
+    /**
+     * Clears this node so that a NodeArena can hand it out again for a new tree, as if just constructed. The maps are
+     * cleared rather than replaced, so that their capacity is reused. Sub-classes that add state must extend this.
+     */
+    protected void recycle() {
+        state = null;
+        openLoopState = null;
+        params = null;
+        forwardModel = null;
+        rnd = null;
+        fmCallsCount = 0;
+        copyCount = 0;
+        paranoidPlayer = -1;
+        actionToReach = null;
+        nVisits = 0;
+        inheritedVisits = 0;
+        rolloutActionsTaken = 0;
+        lastActorInRollout = lastTurnInRollout = lastRoundInRollout = turnAtStartOfRollout = roundAtStartOfRollout = 0;
+        actionsFromOpenLoopState = Collections.emptyList();
+        actionValueEstimates.clear();
+        actionPDFEstimates.clear();
+        depth = 0;
+        decisionPlayer = 0;
+        redeterminisationPlayer = -1;
+        round = turn = turnOwner = 0;
+        terminalNode = false;
+        timeTaken = 0.0;
+        initialisationTimeTaken = 0.0;
+        highReward = Double.NEGATIVE_INFINITY;
+        lowReward = Double.POSITIVE_INFINITY;
+        regretMatchingAverage.clear();
+        nodeClash = 0;
+        root = null;
+        parent = null;
+        children.clear();
+        actionValues.clear();
+        MASTStatistics = null;
+        factory = null;
+        currentNodeTrajectory = null;
+        actionsInTree = null;
+        actionsInRollout = null;
+    }
+
+    protected ActionStats newActionStats(int nPlayers) {
+        if (factory instanceof NodeArena arena)
+            return arena.newActionStats(nPlayers);
+        return new ActionStats(nPlayers);
+    }
+
+    // Rough sizes in bytes on a 64-bit JVM with compressed references, used only to report the size of the tree
+    private static final int NODE_BYTES = 200, MAP_BYTES = 48, ENTRY_BYTES = 36, ARRAY_BYTES = 16, REF_BYTES = 4;
+
+    /**
+     * @return a rough estimate of the memory used by this node, its maps and its action statistics; game states and
+     * actions (which are shared or short-lived) are not included
+     */
+    long estimatedBytes() {
+        long bytes = NODE_BYTES + 5L * MAP_BYTES;
+        for (ActionStats stats : actionValues.values())
+            bytes += ENTRY_BYTES + ActionStats.estimatedBytes(stats.totValue.length);
+        for (SingleTreeNode[] childArray : children.values()) {
+            // LinkedHashMap entries carry two more references
+            bytes += ENTRY_BYTES + 2 * REF_BYTES;
+            if (childArray != null)
+                bytes += ARRAY_BYTES + (long) REF_BYTES * childArray.length;
+        }
+        // boxed Double values
+        bytes += (long) (actionValueEstimates.size() + actionPDFEstimates.size() + regretMatchingAverage.size()) * (ENTRY_BYTES + ARRAY_BYTES);
+        // hash tables are kept at least a quarter empty
+        bytes += (long) REF_BYTES * 4 / 3 * (actionValues.size() + children.size() + actionValueEstimates.size()
+                + actionPDFEstimates.size() + regretMatchingAverage.size());
+        if (actionsFromOpenLoopState != null)
+            bytes += ARRAY_BYTES + (long) REF_BYTES * actionsFromOpenLoopState.size();
+        return bytes;
+    }
+
     public void rootify(SingleTreeNode template, AbstractGameState newState) {
         // now we need to reset the depth on all the children (recursively)
         if (newState != null)
@@ -256,7 +332,7 @@ public class SingleTreeNode {
             }
             for (AbstractAction action : actionsFromOpenLoopState) {
                 if (!actionValues.containsKey(action)) {
-                    actionValues.put(action, new ActionStats(actionState.getNPlayers()));
+                    actionValues.put(action, newActionStats(actionState.getNPlayers()));
                     children.put(action.copy(), null); // mark a new node to be expanded
                     // This *does* rely on a good equals method being implemented for Actions
                     if (!children.containsKey(action))
@@ -306,15 +382,23 @@ public class SingleTreeNode {
      * Performs full MCTS search, using the defined budget limits.
      */
     public void mctsSearch(long initialisationTime) {
+        mctsSearch(initialisationTime, params.budget, new ElapsedCpuTimer());
+    }
+
+    /**
+     * Performs full MCTS search with the given budget (in the units of params.budgetType).
+     *
+     * @param elapsedTimer - the timer used for a time budget
+     */
+    void mctsSearch(long initialisationTime, int budget, ElapsedCpuTimer elapsedTimer) {
         initialiseRootMetrics();
         initialisationTimeTaken = initialisationTime;
         // Variables for tracking time budget
         double avgTimeTaken;
         long remaining;
         int remainingLimit = params.breakMS;
-        ElapsedCpuTimer elapsedTimer = new ElapsedCpuTimer();
         if (params.budgetType == BUDGET_TIME) {
-            elapsedTimer.setMaxTimeMillis(params.budget - initialisationTime);
+            elapsedTimer.setMaxTimeMillis(budget - initialisationTime);
         }
 
         // Tracking number of iterations for iteration budget
@@ -350,14 +434,14 @@ public class SingleTreeNode {
                 stop = remaining <= 2 * avgTimeTaken || remaining <= remainingLimit;
             } else if (budgetType == BUDGET_ITERATIONS) {
                 // Iteration budget
-                stop = numIters >= params.budget;
+                stop = numIters >= budget;
             } else if (budgetType == BUDGET_FM_CALLS) {
                 // FM calls budget
-                stop = fmCallsCount > params.budget || numIters > params.budget;
+                stop = fmCallsCount > budget || numIters > budget;
             } else if (budgetType == BUDGET_COPY_CALLS) {
-                stop = copyCount > params.budget || numIters > params.budget;
+                stop = copyCount > budget || numIters > budget;
             } else if (budgetType == BUDGET_FMANDCOPY_CALLS) {
-                stop = (copyCount + fmCallsCount) > params.budget || numIters > params.budget;
+                stop = (copyCount + fmCallsCount) > budget || numIters > budget;
             }
         }
         timeTaken = elapsedTimer.elapsedMillis();
@@ -511,7 +595,7 @@ public class SingleTreeNode {
             // However, we do break ties in favour of already expanded actions
             List<AbstractAction> sortedActions = new ArrayList<>(allAvailable);
             sortedActions.sort(Comparator.comparingDouble(a -> -actionValueEstimates.getOrDefault(a, 0.0) -
-                    actionValues.getOrDefault(a, new ActionStats(1)).nVisits * 1e-6));
+                    actionVisits(a) * 1e-6));
             return new ArrayList<>(sortedActions.subList(0, actionsToConsider));
         }
         return new ArrayList<>(allAvailable);
@@ -713,10 +797,16 @@ public class SingleTreeNode {
         return retValue;
     }
 
+    // Rewards are normalised to the range seen so far at the root, once there is one: with tree parallelisation
+    // (see ParallelSearch) an action can have visits, from virtual loss, before any reward has been backed up
+    private boolean normalisesRewards() {
+        return params.normaliseRewards && root.lowReward <= root.highReward;
+    }
+
     private double getFullValue(AbstractAction action) {
         double value = getActionValue(action);
         int actionVisits = actionVisits(action);
-        if (params.normaliseRewards && actionVisits > 0) {
+        if (actionVisits > 0 && normalisesRewards()) {
             value = normalise(value, root.lowReward, root.highReward);
         }
         if (params.progressiveBias > 0)
@@ -777,13 +867,15 @@ public class SingleTreeNode {
         // this will come into play for small values of FPU and acts as soft-pruning rather than the harder form if FPU is a fixed constant
         double explorationTerm = Math.max(params.firstPlayUrgency, params.K * Math.sqrt(effectiveTotalVisits));
         if (actionVisits > 0) {
+            // with tree parallelisation an action can have visits, from virtual loss, before its node does
+            effectiveTotalVisits = Math.max(effectiveTotalVisits, 1);
             explorationTerm = switch (params.treePolicy) {
                 case UCB_Tuned -> {
                     double range = root.highReward - root.lowReward;
                     if (range < 1e-6) range = 1e-6;
                     double meanSq = actionSquaredValue(action, decisionPlayer) / actionVisits;
                     double standardVar = 0.25;
-                    if (params.normaliseRewards) {
+                    if (normalisesRewards()) {
                         // we also need to standardise the sum of squares to calculate the variance
                         meanSq = (meanSq
                                 + root.lowReward * root.lowReward
@@ -825,7 +917,7 @@ public class SingleTreeNode {
         // we then normalise to [0, 1], or we subtract the mean action value to get an advantage (and reduce risk of
         // NaN or Infinities when we exponentiate)
         if (actionVisits > 0) {
-            if (params.normaliseRewards)
+            if (normalisesRewards())
                 actionValue = normalise(actionValue, root.lowReward, root.highReward);
             else
                 actionValue = actionValue - nodeValue(decisionPlayer);
@@ -1038,7 +1130,7 @@ public class SingleTreeNode {
         } else {
             for (AbstractAction action : actionsToConsider) {
                 if (!actionValues.containsKey(action))
-                    actionValues.put(action, new ActionStats(result.length));
+                    actionValues.put(action, newActionStats(result.length));
                 actionValues.get(action).validVisits++;
             }
         }
@@ -1125,6 +1217,27 @@ public class SingleTreeNode {
     }
 
 
+    /**
+     * Adds the root statistics of another tree, searched from the same state, to the statistics of this root.
+     * This is how root-parallel search combines its trees before bestAction() is called.
+     */
+    void mergeRootStatistics(SingleTreeNode other) {
+        nVisits += other.nVisits;
+        fmCallsCount += other.fmCallsCount;
+        copyCount += other.copyCount;
+        rolloutActionsTaken += other.rolloutActionsTaken;
+        highReward = Math.max(highReward, other.highReward);
+        lowReward = Math.min(lowReward, other.lowReward);
+        for (Map.Entry<AbstractAction, ActionStats> entry : other.actionValues.entrySet()) {
+            ActionStats stats = actionValues.get(entry.getKey());
+            if (stats == null)
+                actionValues.put(entry.getKey(), entry.getValue().copy());
+            else
+                stats.add(entry.getValue());
+        }
+        other.regretMatchingAverage.forEach((action, value) -> regretMatchingAverage.merge(action, value, Double::sum));
+    }
+
     protected void MASTBackup(List<Pair<Integer, AbstractAction>> rolloutActions, double[] delta) {
         for (Pair<Integer, AbstractAction> pair : rolloutActions) {
             AbstractAction action = pair.b;
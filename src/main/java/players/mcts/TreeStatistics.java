@@ -24,6 +24,7 @@ public class TreeStatistics {
     public double meanActionsAtNode;
     public double meanActionsExpanded;
     public int oneActionNodes;
+    public long estimatedBytes;  // see SingleTreeNode.estimatedBytes()
 
 
     public void mcgsStats(MCGSNode root) {
@@ -52,6 +53,7 @@ public class TreeStatistics {
         meanLeafDepth = totalLeaves > 0 ? IntStream.range(0, depthReached + 1).mapToDouble(i -> i * leafDistribution[i]).sum() : 0;
         meanNodeDepth = IntStream.range(0, depthReached + 1).mapToDouble(i -> i * nodeDistribution[i]).sum();
         oneActionNodes = (int) transpositionMap.values().stream().filter(n -> n.actionValues.size() == 1).count();
+        estimatedBytes = transpositionMap.values().stream().mapToLong(SingleTreeNode::estimatedBytes).sum();
     }
 
     public TreeStatistics(SingleTreeNode root) {
@@ -85,6 +87,7 @@ public class TreeStatistics {
                 if (node.terminalNode)
                     gameTerminalNodesAtDepth[node.depth]++;
                 totalActions += node.actionValues.size();
+                estimatedBytes += node.estimatedBytes();
                 // We have expanded an action if it has been visited more often than initialiseVisits
                 expandedActions += (int) node.actionValues.values().stream().filter(stats -> stats.nVisits > root.params.initialiseVisits).count();
                 if (node.actionValues.size() == 1)
@@ -5,14 +5,12 @@ import core.AbstractPlayer;
 import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
 import games.president.PresidentGameState;
-import games.president.PresidentParameters;
 import games.president.actions.PlayCard;
 import games.president.actions.PlayCards;
 import players.PlayerParameters;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 
 public class AggressivePlayer extends AbstractPlayer {
@@ -46,7 +44,6 @@ public class AggressivePlayer extends AbstractPlayer {
         PresidentGameState game = (PresidentGameState) gs;
         int playerId = gs.getCurrentPlayer();
         int nPlayers = game.getNPlayers();
-        int maxValue = ((PresidentParameters) game.getGameParameters()).maxCardValue;
 
         double bestScore = Double.NEGATIVE_INFINITY;
         AbstractAction bestAction = null;
@@ -66,14 +63,7 @@ public class AggressivePlayer extends AbstractPlayer {
             double pWin = 1.0;
             for (int opp = 0; opp < nPlayers; opp++) {
                 if (opp == playerId) continue;
-                Map<Integer, Double> oppMap = game.getCardProbabilities().get(opp);
-                double sumHigher = 0.0;
-                if (oppMap != null) {
-                    for (int higher = value + 1; higher <= maxValue; higher++) {
-                        sumHigher += oppMap.getOrDefault(higher, 0.0);
-                    }
-                }
-                pWin *= (1.0 - sumHigher);
+                pWin *= (1.0 - game.getBeliefs().getProbabilityAbove(opp, value));
             }
 
             if (pWin > bestScore) {
@@ -87,7 +77,10 @@ public class AggressivePlayer extends AbstractPlayer {
 
     @Override
     public players.president.AggressivePlayer copy() {
-        return this;
+        AggressivePlayer copy = new AggressivePlayer((PlayerParameters) parameters.copy(), heuristic, toString(),
+                new Random(rnd.nextLong()));
+        copy.setForwardModel(getForwardModel());
+        return copy;
     }
 
 }
@@ -0,0 +1,73 @@
+package players.president;
+
+import core.AbstractPlayer;
+import games.president.PresidentEndgameSolver;
+import players.PlayerConstants;
+import players.PlayerParameters;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static players.PlayerConstants.BUDGET_ITERATIONS;
+
+/**
+ * Budgets for PragmaticPlayer work as for MCTS, except that with BUDGET_ITERATIONS the budget is the number of
+ * rollouts per candidate action (the default, 5, is the old fixed rollout count).
+ * With BUDGET_FM_CALLS / BUDGET_COPY_CALLS / BUDGET_FMANDCOPY_CALLS it is a total over all rollouts, and with
+ * BUDGET_TIME it is wall-clock milliseconds.
+ */
+public class PragmaticParameters extends PlayerParameters {
+
+    public int rolloutDepth = 3;            // moves simulated after the candidate action
+    public int rolloutsPerRound = 4;        // rollouts per candidate action between budget checks
+    // 0 runs rollouts on the common fork-join pool, 1 on the calling thread, more on a dedicated pool of that size
+    public int threads = 0;
+
+    // once this many cards (or fewer) are left in all hands, moves are chosen by the exact endgame solver
+    // instead of rollouts; 0 (the default) disables the solver
+    public int endgameThreshold = 0;
+    public int endgameSamples = 5;          // determinisations solved per move
+    public int endgameTableBits = PresidentEndgameSolver.DEFAULT_TABLE_BITS;
+    public int endgameNodeLimit = (int) PresidentEndgameSolver.DEFAULT_NODE_LIMIT;
+
+    public PragmaticParameters() {
+        addTunableParameter("budgetType", BUDGET_ITERATIONS, Arrays.asList(PlayerConstants.values()));
+        addTunableParameter("budget", 5, Arrays.asList(5, 10, 50, 100, 1000, 10000));
+        budgetType = BUDGET_ITERATIONS;
+        budget = 5;
+        addTunableParameter("rolloutDepth", 3, Arrays.asList(1, 3, 5, 10, 100));
+        addTunableParameter("rolloutsPerRound", 4);
+        addTunableParameter("threads", 0);
+        addTunableParameter("endgameThreshold", 0, Arrays.asList(0, 4, 8, 12, 16));
+        addTunableParameter("endgameSamples", 5, Arrays.asList(1, 5, 10, 20));
+        addTunableParameter("endgameTableBits", PresidentEndgameSolver.DEFAULT_TABLE_BITS);
+        addTunableParameter("endgameNodeLimit", (int) PresidentEndgameSolver.DEFAULT_NODE_LIMIT);
+    }
+
+    @Override
+    public void _reset() {
+        super._reset();
+        rolloutDepth = (int) getParameterValue("rolloutDepth");
+        rolloutsPerRound = (int) getParameterValue("rolloutsPerRound");
+        threads = (int) getParameterValue("threads");
+        endgameThreshold = (int) getParameterValue("endgameThreshold");
+        endgameSamples = (int) getParameterValue("endgameSamples");
+        endgameTableBits = (int) getParameterValue("endgameTableBits");
+        endgameNodeLimit = (int) getParameterValue("endgameNodeLimit");
+    }
+
+    @Override
+    protected PragmaticParameters _copy() {
+        return new PragmaticParameters();
+    }
+
+    @Override
+    protected boolean _equals(Object o) {
+        return o instanceof PragmaticParameters;
+    }
+
+    @Override
+    public AbstractPlayer instantiate() {
+        return new PragmaticPlayer(this, gameHeuristic, "PragmaticPlayer", new Random(getRandomSeed()));
+    }
+}
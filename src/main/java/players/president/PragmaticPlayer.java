@@ -1,29 +1,49 @@
 package players.president;
 
+import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
+import games.president.PresidentCompactState;
+import games.president.PresidentEndgameSolver;
+import games.president.PresidentForwardModel;
 import games.president.PresidentGameState;
 import games.president.actions.PlayCard;
 import games.president.actions.PlayCards;
+import games.president.actions.PresidentActionTable;
 import players.PlayerParameters;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+import static players.PlayerConstants.*;
 
+/**
+ * Evaluates every candidate action by the mean heuristic value of short random rollouts from redeterminised copies
+ * of the state, and plays the best one. Rollouts are run in rounds (rolloutsPerRound per action), each round fanned
+ * out over a fork-join pool, until the budget in PragmaticParameters runs out. Every rollout has its own seed,
+ * derived from one draw of the player's Random per decision, and the redeterminised copies a round starts from are
+ * all made on the calling thread before it forks; so the choice does not depend on the number of threads, except
+ * with a time budget. The pool is shut down when the game ends (see finalizePlayer()).
+ * Near the end of the game the exact endgame solver can be used instead (see endgameThreshold, off by default).
+ */
 public class PragmaticPlayer extends AbstractPlayer {
 
     private final IStateHeuristic heuristic;
-    private final int rolloutDepth = 3;      // future moves to simulate
-    private final int rolloutCount = 5;      // simulations per action
+    private final PragmaticParameters params;
+    private final PresidentEndgameSolver solver;
+    private ForkJoinPool pool;
 
     public PragmaticPlayer(PlayerParameters params, IStateHeuristic heuristic, String name, Random random) {
-        super(params, name);
+        super(params != null ? params : new PragmaticParameters(), name);
         this.heuristic = heuristic;
         this.rnd = random != null ? random : new Random(System.currentTimeMillis());
+        this.params = parameters instanceof PragmaticParameters ? (PragmaticParameters) parameters : new PragmaticParameters();
+        this.solver = this.params.endgameThreshold > 0 ? new PresidentEndgameSolver(this.params.endgameTableBits, this.params.endgameNodeLimit) : null;
     }
 
     public PragmaticPlayer(IStateHeuristic heuristic) {
@@ -40,74 +60,207 @@ public class PragmaticPlayer extends AbstractPlayer {
 
     @Override
     public AbstractAction _getAction(AbstractGameState gs, List<AbstractAction> actions) {
-        double maxValue = Double.NEGATIVE_INFINITY;
-        AbstractAction bestAction = null;
-
         int playerID = gs.getCurrentPlayer();
         PresidentGameState game = (PresidentGameState) gs;
-        int currentRequiredCards = game.getCurrentRequiredCards();
 
         List<PlayCard> singleCardActions = new ArrayList<>();
         List<PlayCards> multiCardActions = new ArrayList<>();
         for (AbstractAction action : actions) {
             if (action instanceof PlayCard)
                 singleCardActions.add((PlayCard) action);
-            else
+            else if (action instanceof PlayCards)
                 multiCardActions.add((PlayCards) action);
         }
 
         if (singleCardActions.isEmpty() && multiCardActions.isEmpty())
             return actions.get(0);   // Pass
 
-        // Candidate actions (respecting currentRequiredCards)
-        List<AbstractAction> candidateActions = new ArrayList<>();
-        if (currentRequiredCards != 2) candidateActions.addAll(singleCardActions);
-        if (currentRequiredCards != 1) candidateActions.addAll(multiCardActions);
-
-        
-        for (AbstractAction action : candidateActions) {
-            double totalValue = 0.0; 
-            //  rolloutCount rollouts per each action, then take the average
-            for (int i = 0; i < rolloutCount; i++) {
-                // PresidentGameState._copy can perform redeterminisation
-                AbstractGameState simulated = gs.copy(playerID);
-                getForwardModel().next(simulated, action);
-
-                // simulate rollout from the new state
-                double rolloutScore = simulateRollout(simulated, playerID, rolloutDepth);
-                totalValue += rolloutScore;
+        // Candidate actions: every play of cards the forward model allows (which already respects the size of set
+        // required this round); passing is only chosen when there is no such play
+        List<AbstractAction> candidateActions = new ArrayList<>(singleCardActions);
+        candidateActions.addAll(multiCardActions);
+        if (candidateActions.size() == 1)
+            return candidateActions.get(0);
+
+        if (solver != null && cardsLeft(game) <= params.endgameThreshold) {
+            AbstractAction endgameAction = solveEndgame(game, playerID, candidateActions);
+            if (endgameAction != null)
+                return endgameAction;
+        }
+
+        return searchRollouts(game, playerID, candidateActions);
+    }
+
+    private AbstractAction searchRollouts(PresidentGameState game, int playerID, List<AbstractAction> candidateActions) {
+        int nActions = candidateActions.size();
+        double[] totals = new double[nActions];
+        int[] counts = new int[nActions];
+        long seed = rnd.nextLong();
+        long startTime = System.nanoTime();
+        long fmCalls = 0, copies = 0;
+        int round = 0, samples = 0;
+
+        boolean stop = false;
+        while (!stop) {
+            int perAction = params.rolloutsPerRound;
+            if (params.budgetType == BUDGET_ITERATIONS)
+                perAction = Math.max(1, Math.min(perAction, params.budget - samples));
+            int nTasks = nActions * perAction;
+            double[] values = new double[nTasks];
+            int[] calls = new int[nTasks];
+            // copying draws on the state, so the copies are made here, in order, rather than in the tasks
+            AbstractGameState[] starts = new AbstractGameState[nTasks];
+            Random[] rolloutRnds = new Random[nTasks];
+            for (int t = 0; t < nTasks; t++) {
+                // one stream per rollout, numbered across rounds
+                rolloutRnds[t] = new Random(seed + 0x9E3779B97F4A7C15L * (samples * nActions + t + 1));
+                starts[t] = game.copy(playerID, rolloutRnds[t]);
+            }
+            RolloutTasks tasks = new RolloutTasks(starts, rolloutRnds, candidateActions, playerID, values, calls, 0, nTasks);
+            if (params.threads == 1)
+                tasks.compute();
+            else
+                getPool().invoke(tasks);
+            for (int t = 0; t < nTasks; t++) {
+                totals[t % nActions] += values[t];
+                counts[t % nActions]++;
+                fmCalls += calls[t];
             }
+            copies += (long) nActions * perAction;
+            samples += perAction;
+            round++;
 
-            double avgValue = totalValue / rolloutCount;
-            if (avgValue > maxValue) {
-                maxValue = avgValue;
-                bestAction = action;
+            // Check stopping condition
+            switch (params.budgetType) {
+                case BUDGET_TIME -> {
+                    double elapsed = (System.nanoTime() - startTime) / 1e6;
+                    double remaining = params.budget - elapsed;
+                    stop = remaining <= 2 * elapsed / round || remaining <= params.breakMS;
+                }
+                case BUDGET_ITERATIONS -> stop = samples >= params.budget;
+                case BUDGET_FM_CALLS -> stop = fmCalls >= params.budget;
+                case BUDGET_COPY_CALLS -> stop = copies >= params.budget;
+                case BUDGET_FMANDCOPY_CALLS -> stop = fmCalls + copies >= params.budget;
             }
         }
 
-        return bestAction;
+        int best = 0;
+        for (int a = 1; a < nActions; a++)
+            if (totals[a] / counts[a] > totals[best] / counts[best]) best = a;
+        return candidateActions.get(best);
+    }
+
+    private ForkJoinPool getPool() {
+        if (params.threads <= 0)
+            return ForkJoinPool.commonPool();
+        if (pool == null)
+            pool = new ForkJoinPool(params.threads);
+        return pool;
+    }
+
+    @Override
+    public void finalizePlayer(AbstractGameState gameState) {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
     }
 
-    private double simulateRollout(AbstractGameState gs, int playerID, int depth) {
-        // terminal check
-        if (depth == 0 || !gs.isNotTerminal()) {
-            return (heuristic != null) ? heuristic.evaluateState(gs, playerID) : gs.getHeuristicScore(playerID);
+    /**
+     * Rollouts from..to-1 of a round; rollout t plays action t % nActions from starts[t] with rolloutRnds[t], and
+     * leaves its value in values[t] and its forward model calls in calls[t].
+     */
+    private class RolloutTasks extends RecursiveAction {
+        final AbstractGameState[] starts;
+        final Random[] rolloutRnds;
+        final List<AbstractAction> candidateActions;
+        final int playerID;
+        final double[] values;
+        final int[] calls;
+        final int from, to;
+
+        RolloutTasks(AbstractGameState[] starts, Random[] rolloutRnds, List<AbstractAction> candidateActions,
+                     int playerID, double[] values, int[] calls, int from, int to) {
+            this.starts = starts;
+            this.rolloutRnds = rolloutRnds;
+            this.candidateActions = candidateActions;
+            this.playerID = playerID;
+            this.values = values;
+            this.calls = calls;
+            this.from = from;
+            this.to = to;
         }
 
-        List<AbstractAction> possibleActions = getForwardModel().computeAvailableActions(gs);
+        @Override
+        protected void compute() {
+            if (to - from > 1 && params.threads != 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RolloutTasks(starts, rolloutRnds, candidateActions, playerID, values, calls, from, mid),
+                        new RolloutTasks(starts, rolloutRnds, candidateActions, playerID, values, calls, mid, to));
+                return;
+            }
+            for (int t = from; t < to; t++) {
+                values[t] = rollout(starts[t], playerID, candidateActions.get(t % candidateActions.size()),
+                        rolloutRnds[t], calls, t);
+                starts[t] = null;
+            }
+        }
+    }
+
+    private double rollout(AbstractGameState simulated, int playerID, AbstractAction action, Random rolloutRnd,
+                           int[] calls, int task) {
+        AbstractForwardModel fm = getForwardModel();
+        fm.next(simulated, action);
+        calls[task] = 1;
+        for (int depth = 0; depth < params.rolloutDepth && simulated.isNotTerminal(); depth++) {
+            List<AbstractAction> possibleActions = fm.computeAvailableActions(simulated);
+            if (possibleActions.isEmpty())
+                break;
+            fm.next(simulated, possibleActions.get(rolloutRnd.nextInt(possibleActions.size())));
+            calls[task]++;
+        }
+        return heuristic != null ? heuristic.evaluateState(simulated, playerID) : simulated.getHeuristicScore(playerID);
+    }
 
-        if (possibleActions == null || possibleActions.isEmpty()) {
-            return (heuristic != null) ? heuristic.evaluateState(gs, playerID) : gs.getHeuristicScore(playerID);
+    /**
+     * Determinised endgame search: each of endgameSamples redeterminisations is solved exactly, and the action with
+     * the best total final score wins. Returns null if the solver ran out of nodes, so that rollouts are used instead.
+     */
+    private AbstractAction solveEndgame(PresidentGameState game, int playerID, List<AbstractAction> candidateActions) {
+        PresidentForwardModel fm = (PresidentForwardModel) getForwardModel();
+        double[] totals = new double[candidateActions.size()];
+        for (int i = 0; i < params.endgameSamples; i++) {
+            PresidentCompactState root = PresidentCompactState.from(game.copy(playerID, rnd));
+            for (int a = 0; a < candidateActions.size(); a++) {
+                PresidentCompactState child = root.copy();
+                fm.next(child, PresidentActionTable.toMove(candidateActions.get(a)));
+                double[] scores = solver.solve(child);
+                if (scores == null)
+                    return null;
+                totals[a] += scores[playerID];
+            }
         }
-        
-        AbstractAction randomAction = possibleActions.get(gs.getRnd().nextInt(possibleActions.size()));
-        getForwardModel().next(gs, randomAction);
+        int best = 0;
+        for (int a = 1; a < totals.length; a++)
+            if (totals[a] > totals[best]) best = a;
+        return candidateActions.get(best);
+    }
 
-        return simulateRollout(gs, playerID, depth - 1);
+    private static int cardsLeft(PresidentGameState game) {
+        int total = 0;
+        for (int p = 0; p < game.getNPlayers(); p++)
+            total += game.getPlayerHandCards().get(p).getSize();
+        return total;
     }
 
+    /**
+     * A new player with copies of the parameters, its own endgame solver and pool, and a Random seeded from this one
+     */
     @Override
     public PragmaticPlayer copy() {
-        return this;
+        PragmaticPlayer copy = new PragmaticPlayer((PlayerParameters) parameters.copy(), heuristic, toString(),
+                new Random(rnd.nextLong()));
+        copy.setForwardModel(getForwardModel());
+        return copy;
     }
 }
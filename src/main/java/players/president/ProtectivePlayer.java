@@ -5,14 +5,12 @@ import core.AbstractPlayer;
 import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
 import games.president.PresidentGameState;
-import games.president.PresidentParameters;
 import games.president.actions.PlayCard;
 import games.president.actions.PlayCards;
 import players.PlayerParameters;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 
 public class ProtectivePlayer extends AbstractPlayer {
@@ -32,7 +30,6 @@ public class ProtectivePlayer extends AbstractPlayer {
     public AbstractAction _getAction(AbstractGameState gs, List<AbstractAction> actions) {
         PresidentGameState game = (PresidentGameState) gs;
         int playerId = gs.getCurrentPlayer();
-        int maxValue = ((PresidentParameters) game.getGameParameters()).maxCardValue;
 
         // soglia di "sicurezza" (da tarare)
         final double safeThreshold = 0.20;
@@ -55,20 +52,13 @@ public class ProtectivePlayer extends AbstractPlayer {
         AbstractAction bestFallbackByPwin = null;
         double bestPwin = Double.NEGATIVE_INFINITY;
 
-        // helper: evaluate a value using cardProbabilities
+        // helper: evaluate a value using the public beliefs
         for (PlayCard action : playCard) {
             int value = action.getNumber();
             double pWin = 1.0;
             for (int opp = 0; opp < game.getNPlayers(); opp++) {
                 if (opp == playerId) continue;
-                Map<Integer, Double> oppMap = game.getCardProbabilities().get(opp);
-                double sumHigher = 0.0;
-                if (oppMap != null) {
-                    for (int h = value + 1; h <= maxValue; h++) {
-                        sumHigher += oppMap.getOrDefault(h, 0.0);
-                    }
-                }
-                pWin *= (1.0 - sumHigher);
+                pWin *= (1.0 - game.getBeliefs().getProbabilityAbove(opp, value));
             }
 
             if (pWin >= safeThreshold) {
@@ -88,14 +78,7 @@ public class ProtectivePlayer extends AbstractPlayer {
             double pWin = 1.0;
             for (int opp = 0; opp < game.getNPlayers(); opp++) {
                 if (opp == playerId) continue;
-                Map<Integer, Double> oppMap = game.getCardProbabilities().get(opp);
-                double sumHigher = 0.0;
-                if (oppMap != null) {
-                    for (int h = value + 1; h <= maxValue; h++) {
-                        sumHigher += oppMap.getOrDefault(h, 0.0);
-                    }
-                }
-                pWin *= (1.0 - sumHigher);
+                pWin *= (1.0 - game.getBeliefs().getProbabilityAbove(opp, value));
             }
 
             if (pWin >= safeThreshold) {
@@ -135,6 +118,9 @@ public class ProtectivePlayer extends AbstractPlayer {
 
     @Override
     public players.president.ProtectivePlayer copy() {
-        return this;
+        ProtectivePlayer copy = new ProtectivePlayer((PlayerParameters) parameters.copy(), heuristic, toString(),
+                new Random(rnd.nextLong()));
+        copy.setForwardModel(getForwardModel());
+        return copy;
     }
 }
@@ -13,6 +13,11 @@ public class RHEAMetrics implements IMetricsCollection {
 
     public static class RHEAStats extends AbstractMetric {
 
+        @Override
+        public boolean readsPlayers() {
+            return true;  // the player's current population
+        }
+
         @Override
         protected boolean _run(MetricsGameListener listener, Event e, Map<String, Object> stats) {
             AbstractPlayer player = listener.getGame().getPlayers().get(e.state.getCurrentPlayer());
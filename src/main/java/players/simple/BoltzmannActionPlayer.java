@@ -4,6 +4,7 @@ import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
 import core.interfaces.IActionHeuristic;
+import players.PlayerParameters;
 import utilities.Utils;
 
 import java.util.*;
@@ -79,7 +80,11 @@ public class BoltzmannActionPlayer extends AbstractPlayer {
 
     @Override
     public AbstractPlayer copy() {
-        return this; // stateless (except for rnd)
+        BoltzmannActionPlayer copy = new BoltzmannActionPlayer(actionHeuristic, temperature, epsilon, rnd.nextLong());
+        copy.parameters = (PlayerParameters) parameters.copy();
+        copy.decorators = decorators;
+        copy.setName(toString());
+        return copy;
     }
 
     public IActionHeuristic getActionHeuristic() {
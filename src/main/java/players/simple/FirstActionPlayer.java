@@ -3,8 +3,10 @@ package players.simple;
 import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
+import players.PlayerParameters;
 
 import java.util.List;
+import java.util.Random;
 
 public class FirstActionPlayer extends AbstractPlayer{
     public FirstActionPlayer() {
@@ -28,6 +30,10 @@ public class FirstActionPlayer extends AbstractPlayer{
 
     @Override
     public FirstActionPlayer copy() {
-        return this;
+        FirstActionPlayer copy = new FirstActionPlayer();
+        copy.parameters = (PlayerParameters) parameters.copy();
+        copy.rnd = new Random(rnd.nextLong());
+        copy.decorators = decorators;
+        return copy;
     }
 }
@@ -0,0 +1,164 @@
+package utilities;
+
+import java.util.*;
+
+/**
+ * List on a circular array. Adding or removing at either end is O(1) (amortised), as with a LinkedList,
+ * but get(i) and set(i) are O(1) too, and inserting or removing in the middle only shifts the shorter side.
+ * <p>
+ * Used by array-backed Decks (see Deck.setArrayBacked()), which always add new components at index 0.
+ */
+public class CircularArrayList<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] elements;
+    private int head;  // index in elements of the first item
+    private int size;
+
+    public CircularArrayList() {
+        this(8);
+    }
+
+    public CircularArrayList(int initialCapacity) {
+        elements = initialCapacity > 0 ? new Object[initialCapacity] : EMPTY;
+    }
+
+    public CircularArrayList(Collection<? extends T> items) {
+        elements = items.toArray();
+        size = elements.length;
+        if (elements.getClass() != Object[].class)
+            elements = Arrays.copyOf(elements, size, Object[].class);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        return (T) elements[slot(index)];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T set(int index, T element) {
+        Objects.checkIndex(index, size);
+        int s = slot(index);
+        T old = (T) elements[s];
+        elements[s] = element;
+        return old;
+    }
+
+    @Override
+    public boolean add(T element) {
+        add(size, element);
+        return true;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        Objects.checkIndex(index, size + 1);
+        if (size == elements.length)
+            grow(size + 1);
+        if (index < size - index) {
+            // shift the front one slot to the left
+            head = (head - 1 + elements.length) % elements.length;
+            for (int i = 0; i < index; i++)
+                elements[slot(i)] = elements[slot(i + 1)];
+        } else {
+            for (int i = size; i > index; i--)
+                elements[slot(i)] = elements[slot(i - 1)];
+        }
+        elements[slot(index)] = element;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends T> items) {
+        Objects.checkIndex(index, size + 1);
+        int n = items.size();
+        if (n == 0) return false;
+        Object[] added = items.toArray();
+        Object[] merged = new Object[Math.max(size + n, elements.length)];
+        copyRange(0, merged, 0, index);
+        System.arraycopy(added, 0, merged, index, n);
+        copyRange(index, merged, index + n, size - index);
+        elements = merged;
+        head = 0;
+        size += n;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> items) {
+        return addAll(size, items);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T remove(int index) {
+        Objects.checkIndex(index, size);
+        T old = (T) elements[slot(index)];
+        if (index < size - 1 - index) {
+            // shift the front one slot to the right
+            for (int i = index; i > 0; i--)
+                elements[slot(i)] = elements[slot(i - 1)];
+            elements[head] = null;
+            head = (head + 1) % elements.length;
+        } else {
+            for (int i = index; i < size - 1; i++)
+                elements[slot(i)] = elements[slot(i + 1)];
+            elements[slot(size - 1)] = null;
+        }
+        size--;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, null);
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        copyInto(result);
+        return result;
+    }
+
+    private int slot(int index) {
+        int s = head + index;
+        return s < elements.length ? s : s - elements.length;
+    }
+
+    private void grow(int minCapacity) {
+        Object[] bigger = new Object[Math.max(minCapacity, Math.max(8, elements.length * 2))];
+        copyInto(bigger);
+        elements = bigger;
+        head = 0;
+    }
+
+    private void copyInto(Object[] target) {
+        copyRange(0, target, 0, size);
+    }
+
+    // copies count items from index from of this list into target, starting at targetPos
+    private void copyRange(int from, Object[] target, int targetPos, int count) {
+        if (count == 0) return;
+        int start = slot(from);
+        int firstPart = Math.min(count, elements.length - start);
+        System.arraycopy(elements, start, target, targetPos, firstPart);
+        if (firstPart < count)
+            System.arraycopy(elements, 0, target, targetPos + firstPart, count - firstPart);
+    }
+}
@@ -0,0 +1,32 @@
+package utilities;
+
+/**
+ * Random 64-bit keys for Zobrist hashing of game states.
+ * <p>
+ * Rather than holding a table of random numbers per game, the key for each (family, index) pair is computed on demand
+ * by passing it through the SplitMix64 finaliser. This gives the same well-mixed, effectively random key on every call
+ * and in every JVM, so hashes can be compared between runs, and a game does not need to know the size of its tables
+ * in advance.
+ * <p>
+ * A family distinguishes the different sorts of feature in a state (board cells, scores, the player to move...), so
+ * that the same index in two families gives independent keys. An empty cell, or a count of zero, should contribute
+ * nothing to the hash; there is then no need to initialise the hash beyond setting it to zero.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+
+    private Zobrist() {
+    }
+
+    public static long key(int family, long index) {
+        long z = SEED + family * 0x9E3779B97F4A7C15L + index * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static long key(int family, int a, int b) {
+        return key(family, ((long) a << 32) | (b & 0xFFFFFFFFL));
+    }
+}
@@ -0,0 +1,91 @@
+package core;
+
+import core.components.Deck;
+import core.components.PartialObservableDeck;
+import games.dominion.cards.CardType;
+import games.dominion.cards.DominionCard;
+import org.junit.Test;
+
+import java.util.*;
+
+import static core.CoreConstants.VisibilityMode.HIDDEN_TO_ALL;
+import static org.junit.Assert.*;
+
+public class ArrayBackedDecks {
+
+    Random rnd = new Random(77);
+    CardType[] types = {CardType.COPPER, CardType.SILVER, CardType.GOLD, CardType.ESTATE, CardType.MILITIA, CardType.SMITHY};
+
+    private DominionCard randomCard() {
+        return DominionCard.create(types[rnd.nextInt(types.length)]);
+    }
+
+    @Test
+    public void behavesLikeDefaultDeck() {
+        for (int run = 0; run < 50; run++) {
+            Deck<DominionCard> linked = new Deck<>("Linked", 0, HIDDEN_TO_ALL);
+            Deck<DominionCard> array = new Deck<>("Array", 0, HIDDEN_TO_ALL);
+            array.setArrayBacked(true);
+            long seed = rnd.nextLong();
+            Random r1 = new Random(seed), r2 = new Random(seed);
+            for (int step = 0; step < 200; step++) {
+                int size = linked.getSize();
+                switch (rnd.nextInt(7)) {
+                    case 0, 1 -> {
+                        DominionCard card = randomCard();
+                        linked.add(card);
+                        array.add(card);
+                    }
+                    case 2 -> {
+                        DominionCard card = randomCard();
+                        linked.addToBottom(card);
+                        array.addToBottom(card);
+                    }
+                    case 3 -> {
+                        int idx = rnd.nextInt(size + 1);
+                        DominionCard card = randomCard();
+                        linked.add(card, idx);
+                        array.add(card, idx);
+                    }
+                    case 4 -> {
+                        if (size > 0) {
+                            int idx = rnd.nextInt(size);
+                            assertEquals(linked.pick(idx), array.pick(idx));
+                        }
+                    }
+                    case 5 -> assertEquals(linked.draw(), array.draw());
+                    case 6 -> {
+                        linked.shuffle(r1);
+                        array.shuffle(r2);
+                    }
+                }
+                assertEquals(linked.getComponents(), array.getComponents());
+            }
+            assertEquals(linked.getComponents(), array.copy().getComponents());
+        }
+    }
+
+    @Test
+    public void copiesStayArrayBacked() {
+        Deck<DominionCard> deck = new Deck<>("Test", 1, HIDDEN_TO_ALL);
+        for (int i = 0; i < 10; i++)
+            deck.add(randomCard());
+        List<DominionCard> before = new ArrayList<>(deck.getComponents());
+        deck.setArrayBacked(true);
+        assertEquals(before, deck.getComponents());
+        assertTrue(deck.getComponents() instanceof RandomAccess);
+
+        Deck<DominionCard> copy = deck.copy();
+        assertTrue(copy.isArrayBacked());
+        assertEquals(deck, copy);
+        assertTrue(copy.getComponents() instanceof RandomAccess);
+
+        PartialObservableDeck<DominionCard> partial = new PartialObservableDeck<>("Partial", 1, new boolean[]{true, false});
+        partial.setArrayBacked(true);
+        for (int i = 0; i < 10; i++)
+            partial.add(randomCard());
+        partial.shuffleAndKeepVisibility(rnd);
+        assertTrue(partial.getComponents() instanceof RandomAccess);
+        assertTrue(partial.copy().isArrayBacked());
+    }
+}
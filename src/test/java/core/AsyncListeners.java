@@ -0,0 +1,103 @@
+package core;
+
+import evaluation.listeners.AsyncGameListener;
+import evaluation.listeners.IGameListener;
+import evaluation.metrics.Event;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class AsyncListeners {
+
+    // records a summary of every event, taken from the state given with the event
+    static class Recorder implements IGameListener {
+        final List<String> events = new ArrayList<>();
+        final List<AbstractGameState> states = new ArrayList<>();
+        // what the listener's game shows at each event
+        final List<String> games = new ArrayList<>();
+        Game game;
+        long delayMillis;
+        Event.GameEvent failOn;
+
+        @Override
+        public void onEvent(Event event) {
+            if (event.type == failOn)
+                throw new IllegalStateException("boom");
+            events.add(event.type + " " + event.playerID + " " + event.action + " " + event.state.getGameID()
+                    + " " + event.state.getGameTick() + " " + event.state.getCurrentPlayer());
+            states.add(event.state);
+            games.add(game.getNDecisions() + " " + game.getNextTime() + " " + game.getActionSpaceSize());
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void report() {
+        }
+
+        @Override
+        public void setGame(Game game) {
+            this.game = game;
+        }
+
+        @Override
+        public Game getGame() {
+            return game;
+        }
+    }
+
+    private List<AbstractPlayer> players() {
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+            players.add(new RandomPlayer(new Random(100 + i)));
+        return players;
+    }
+
+    @Test
+    public void asyncListenerSeesTheSameEventsInOrder() {
+        Recorder direct = new Recorder();
+        Recorder delayed = new Recorder();
+        delayed.delayMillis = 1;
+        // a small queue, so that the game has to wait for the listener
+        AsyncGameListener async = new AsyncGameListener(delayed, 4);
+        Game game = Game.runOne(GameType.LoveLetter, null, players(), 93, false, List.of(direct, async), null, 0);
+
+        // GAME_OVER waits for the queue to empty, so everything has been handled by the time the game returns
+        assertEquals(direct.events, delayed.events);
+        assertTrue(delayed.events.get(delayed.events.size() - 1).startsWith("GAME_OVER"));
+        // and each event has its own snapshot of the state and of the game, as they were when it was raised
+        assertTrue(delayed.states.stream().noneMatch(s -> s == game.getGameState()));
+        assertNotSame(game, delayed.getGame());
+        assertEquals(direct.games, delayed.games);
+        async.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void listenersThatReadThePlayersAreNotWrapped() {
+        new AsyncGameListener(new Recorder() {
+            @Override
+            public boolean readsPlayers() {
+                return true;
+            }
+        });
+    }
+
+    @Test
+    public void listenerFailureIsRethrownInTheGame() {
+        Recorder failing = new Recorder();
+        failing.failOn = Event.GameEvent.ACTION_TAKEN;
+        try (AsyncGameListener async = new AsyncGameListener(failing)) {
+            Game.runOne(GameType.LoveLetter, null, players(), 93, false, List.of(async), null, 0);
+            fail("expected the failure of the listener");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
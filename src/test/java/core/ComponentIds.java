@@ -0,0 +1,138 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.components.Component;
+import core.components.ComponentIdAllocator;
+import core.components.Deck;
+import games.president.PresidentForwardModel;
+import games.president.PresidentGameState;
+import games.president.PresidentParameters;
+import games.president.cards.PresidentCard;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class ComponentIds {
+
+    private List<Integer> cardIds(PresidentGameState state) {
+        List<Integer> ids = new ArrayList<>();
+        for (Deck<PresidentCard> hand : state.getPlayerHandCards())
+            for (PresidentCard card : hand.getComponents())
+                ids.add(card.getComponentID());
+        return ids;
+    }
+
+    private PresidentGameState newGame(long seed) {
+        PresidentParameters params = new PresidentParameters();
+        params.setRandomSeed(seed);
+        PresidentGameState state = new PresidentGameState(params, 4);
+        new PresidentForwardModel().setup(state);
+        return state;
+    }
+
+    @Test
+    public void idsArePerGame() {
+        PresidentGameState first = newGame(1);
+        // creating components elsewhere does not move the IDs of the next game
+        for (int i = 0; i < 100; i++) new PresidentCard(3);
+        PresidentGameState second = newGame(1);
+        assertEquals(cardIds(first), cardIds(second));
+        assertEquals(first.getIdAllocator().size(), second.getIdAllocator().size());
+        for (int id : cardIds(first))
+            assertTrue(id >= 0 && id < first.getIdAllocator().size());
+        assertEquals(new HashSet<>(cardIds(first)).size(), cardIds(first).size());
+    }
+
+    @Test
+    public void unboundComponentsUseSeparateRange() {
+        assertNull(ComponentIdAllocator.bound());
+        Component card = new PresidentCard(3);
+        assertTrue(card.getComponentID() >= ComponentIdAllocator.UNBOUND_BASE);
+    }
+
+    @Test
+    public void copiesInheritTheAllocator() {
+        PresidentGameState state = newGame(2);
+        PresidentGameState copy = (PresidentGameState) state.copy();
+        assertEquals(cardIds(state), cardIds(copy));
+        assertNotSame(state.getIdAllocator(), copy.getIdAllocator());
+        assertEquals(state.getIdAllocator().size(), copy.getIdAllocator().size());
+
+        ComponentIdAllocator previous = copy.getIdAllocator().bind();
+        int id;
+        try {
+            id = new PresidentCard(5).getComponentID();
+        } finally {
+            ComponentIdAllocator.restore(previous);
+        }
+        assertEquals(state.getIdAllocator().size(), id);
+        assertEquals(state.getIdAllocator().size() + 1, copy.getIdAllocator().size());
+    }
+
+    @Test
+    public void lookupsByIdFindTheCopysComponents() {
+        PresidentGameState state = newGame(3);
+        PresidentCard card = state.getPlayerHandCards().get(0).get(0);
+        assertSame(card, state.getComponentById(card.getComponentID()));
+
+        PresidentGameState copy = (PresidentGameState) state.copy();
+        PresidentCard copied = copy.getPlayerHandCards().get(0).get(0);
+        assertSame(copied, copy.getComponentById(card.getComponentID()));
+        assertNotSame(card, copied);
+        assertSame(card, state.getComponentById(card.getComponentID()));
+
+        // a component added after the first lookup is still found
+        ComponentIdAllocator previous = copy.getIdAllocator().bind();
+        PresidentCard added;
+        try {
+            added = new PresidentCard(7);
+        } finally {
+            ComponentIdAllocator.restore(previous);
+        }
+        copy.getPlayerHandCards().get(1).add(added);
+        assertSame(added, copy.getComponentById(added.getComponentID()));
+        assertNull(copy.getComponentById(-12345));
+
+        // the Area of all components shows the added card too, and lookups still work after building it
+        assertSame(added, copy.getAllComponents().getComponent(added.getComponentID()));
+        assertSame(copied, copy.getComponentById(card.getComponentID()));
+    }
+
+    @Test
+    public void concurrentGamesGetTheSameIds() throws Exception {
+        Map<Long, List<Integer>> expected = new HashMap<>();
+        for (long seed = 0; seed < 8; seed++)
+            expected.put(seed, play(seed));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (long seed = 0; seed < 8; seed++) {
+                long s = seed;
+                results.add(executor.submit(() -> play(s)));
+            }
+            for (int seed = 0; seed < 8; seed++)
+                assertEquals(expected.get((long) seed), results.get(seed).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // plays a random game, and returns the IDs of the discard pile at the end
+    private List<Integer> play(long seed) {
+        PresidentGameState state = newGame(seed);
+        PresidentForwardModel fm = new PresidentForwardModel();
+        Random rnd = new Random(seed);
+        while (state.isNotTerminal()) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (PresidentCard card : state.getDiscardPile().getComponents())
+            ids.add(card.getComponentID());
+        return ids;
+    }
+}
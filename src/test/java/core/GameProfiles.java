@@ -0,0 +1,86 @@
+package core;
+
+import games.GameType;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+import utilities.JSONUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GameProfiles {
+
+    private List<AbstractPlayer> players() {
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+            players.add(new RandomPlayer(new Random(100 + i)));
+        return players;
+    }
+
+    private long count(GameProfile profile, GameProfile.Step step) {
+        return profile.getLatencies(step).n();
+    }
+
+    @Test
+    public void everyStepOfEveryGameIsRecorded() {
+        GameProfile profile = new GameProfile();
+        int actions = 0, decisions = 0;
+        for (int seed = 0; seed < 3; seed++) {
+            Game game = Game.runOne(GameType.LoveLetter, null, players(), seed, false, null, null, 0, profile);
+            actions += game.getActionSpaceSize().size();
+            decisions += game.getNDecisions();
+            // the game's latencies are added when it is over
+            assertEquals(actions, count(profile, GameProfile.Step.COPY));
+        }
+        assertEquals(actions, count(profile, GameProfile.Step.COMPUTE_ACTIONS));
+        assertEquals(actions, count(profile, GameProfile.Step.NEXT));
+        assertEquals(decisions, count(profile, GameProfile.Step.DECISION));
+
+        for (GameProfile.Key key : profile.keys()) {
+            assertTrue(key.player() >= 0 && key.player() < 3);
+            assertEquals(key.fromTick(), GameProfile.tickBucket(key.fromTick()));
+            if (GameProfile.measuresAllocations())
+                assertEquals(profile.getLatencies(key).n(), profile.getAllocations(key).n());
+        }
+        if (GameProfile.measuresAllocations())
+            assertTrue(profile.getAllocations(GameProfile.Step.COPY).total() > 0);
+    }
+
+    @Test
+    public void tickBuckets() {
+        assertEquals(0, GameProfile.tickBucket(0));
+        assertEquals(0, GameProfile.tickBucket(15));
+        assertEquals(16, GameProfile.tickBucket(16));
+        assertEquals(16, GameProfile.tickBucket(31));
+        assertEquals(64, GameProfile.tickBucket(100));
+        assertEquals(127, new GameProfile.Key(GameProfile.Step.NEXT, 0, "Main", 64).toTick());
+    }
+
+    @Test
+    public void profileOfConcurrentGamesIsWrittenAsJSON() throws IOException {
+        File file = Files.createTempFile("profile", ".json").toFile();
+        file.deleteOnExit();
+        GameProfile profile = new GameProfile();
+        long[] seeds = ParallelGameRunner.seeds(93, 8);
+        int actions;
+        try (ParallelGameRunner runner = new ParallelGameRunner(4)) {
+            actions = runner.run(GameType.LoveLetter, null, players(), seeds, false, null, profile,
+                    g -> g.getActionSpaceSize().size()).stream().mapToInt(Integer::intValue).sum();
+        }
+        assertEquals(actions, count(profile, GameProfile.Step.NEXT));
+
+        profile.writeJSON(file.getPath());
+        JSONObject json = JSONUtils.loadJSONFile(file.getPath());
+        JSONObject next = (JSONObject) ((JSONObject) json.get("steps")).get("NEXT");
+        assertEquals((long) actions, ((JSONObject) next.get("latencyNanos")).get("n"));
+        assertEquals(profile.keys().size(), ((JSONArray) json.get("breakdown")).size());
+        assertEquals(GameProfile.measuresAllocations(), json.get("allocationsMeasured"));
+        assertEquals(GameProfile.ALLOCATIONS_COUNTED, json.get("allocationsCounted"));
+    }
+}
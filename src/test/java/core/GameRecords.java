@@ -0,0 +1,166 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.actions.ActionSpace;
+import evaluation.listeners.GameRecordListener;
+import evaluation.listeners.IGameListener;
+import evaluation.metrics.Event;
+import games.GameType;
+import games.president.PresidentGameState;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GameRecords {
+
+    // notes a fingerprint of the state at each decision, to check the replay against
+    static class Fingerprints implements IGameListener {
+        final Map<Integer, List<Long>> byGame = new HashMap<>();
+        Game game;
+
+        @Override
+        public void onEvent(Event event) {
+            if (event.type == Event.GameEvent.ACTION_CHOSEN)
+                byGame.computeIfAbsent(event.state.getGameID(), id -> new ArrayList<>()).add(fingerprint(event.state));
+        }
+
+        @Override
+        public void report() {
+        }
+
+        @Override
+        public void setGame(Game game) {
+            this.game = game;
+        }
+
+        @Override
+        public Game getGame() {
+            return game;
+        }
+    }
+
+    static long fingerprint(AbstractGameState state) {
+        PresidentGameState pgs = (PresidentGameState) state;
+        return pgs.computeZobristHash(state.getCurrentPlayer()) * 31 + state.getGameTick();
+    }
+
+    private List<AbstractPlayer> players(int seed) {
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            players.add(new RandomPlayer(new Random(seed * 10L + i)));
+        return players;
+    }
+
+    @Test
+    public void recordedGamesReplayExactly() throws IOException {
+        Path file = Files.createTempFile("games", ".rec");
+        Files.delete(file);
+        GameRecordListener recorder = new GameRecordListener(file.toString());
+        Fingerprints fingerprints = new Fingerprints();
+        List<Game> games = new ArrayList<>();
+        for (int g = 0; g < 5; g++)
+            games.add(Game.runOne(GameType.President, null, players(g), 1000 + g, false, List.of(recorder, fingerprints), null, 0));
+        recorder.report();
+
+        List<GameRecord> records = GameRecord.readAll(file.toString());
+        assertEquals(5, records.size());
+        for (int g = 0; g < 5; g++) {
+            GameRecord record = records.get(g);
+            Game game = games.get(g);
+            List<Long> expected = fingerprints.byGame.get(game.getGameState().getGameID());
+            assertEquals(GameType.President, record.getGameType());
+            assertEquals(1000 + g, record.getSeed());
+            assertEquals(expected.size(), record.size());
+
+            GameReplay replay = new GameReplay(record);
+            for (int d = 0; d < record.size(); d++) {
+                assertEquals(expected.get(d).longValue(), fingerprint(replay.advanceTo(d)));
+                replay.next();
+            }
+            AbstractGameState end = replay.getGameState();
+            assertFalse(end.isNotTerminal());
+            assertEquals(game.getGameState().getGameTick(), end.getGameTick());
+            assertArrayEquals(game.getGameState().getPlayerResults(), end.getPlayerResults());
+        }
+        // four bytes per decision, plus the header
+        long decisions = records.stream().mapToLong(GameRecord::size).sum();
+        assertTrue(Files.size(file) <= decisions * 4 + records.size() * 40L);
+        Files.delete(file);
+    }
+
+    @Test
+    public void replayFailsOnMismatchedRecord() throws IOException {
+        Game game = GameType.President.createGameInstance(4, 77);
+        game.reset(players(7));
+        ActionSpace[] spaces = new ActionSpace[]{ActionSpace.Default, ActionSpace.Default, ActionSpace.Default, ActionSpace.Default};
+        GameRecord record = new GameRecord(GameType.President, 4, GameRecord.parametersHash(game.getGameState().getGameParameters()), 77, spaces);
+        List<AbstractAction> actions = game.getForwardModel().computeAvailableActions(game.getGameState());
+        record.addDecision(0, actions.size() + 1, GameRecord.actionHash(actions.get(0)));
+
+        // written and read back unchanged
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        record.write(new DataOutputStream(bytes));
+        GameRecord read = GameRecord.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(actions.size() + 1, read.getActionCount(0));
+
+        GameReplay replay = new GameReplay(read);
+        try {
+            replay.next();
+            fail("expected the replay to detect the wrong number of actions");
+        } catch (IllegalStateException e) {
+            assertEquals(0, replay.getDecision());
+        }
+    }
+
+    @Test
+    public void replayFailsOnADifferentActionAtTheRecordedPosition() throws IOException {
+        Game game = GameType.President.createGameInstance(4, 77);
+        game.reset(players(7));
+        ActionSpace[] spaces = new ActionSpace[]{ActionSpace.Default, ActionSpace.Default, ActionSpace.Default, ActionSpace.Default};
+        GameRecord record = new GameRecord(GameType.President, 4, GameRecord.parametersHash(game.getGameState().getGameParameters()), 77, spaces);
+        List<AbstractAction> actions = game.getForwardModel().computeAvailableActions(game.getGameState());
+        assertTrue(actions.size() > 1);
+        assertNotEquals(GameRecord.actionHash(actions.get(0)), GameRecord.actionHash(actions.get(1)));
+        // the right number of actions, but the hash of another one
+        record.addDecision(0, actions.size(), GameRecord.actionHash(actions.get(1)));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        record.write(new DataOutputStream(bytes));
+        GameRecord read = GameRecord.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(GameRecord.actionHash(actions.get(1)), read.getActionHash(0));
+
+        GameReplay replay = new GameReplay(read);
+        assertThrows(IllegalStateException.class, replay::next);
+        assertEquals(0, replay.getDecision());
+    }
+
+    @Test
+    public void decisionsAreRecordedAgainstTheActionsOfTheTrueState() {
+        Game game = GameType.President.createGameInstance(4, 77);
+        game.reset(players(7));
+        AbstractGameState state = game.getGameState();
+        ActionSpace[] spaces = new ActionSpace[]{ActionSpace.Default, ActionSpace.Default, ActionSpace.Default, ActionSpace.Default};
+        GameRecord record = new GameRecord(GameType.President, 4, GameRecord.parametersHash(state.getGameParameters()), 77, spaces);
+        List<AbstractAction> actions = game.getForwardModel().computeAvailableActions(state.copy());
+        AbstractAction last = actions.get(actions.size() - 1);
+        record.addDecision(game.getForwardModel(), state, last);
+        assertEquals(actions.size() - 1, record.getActionIndex(0));
+        assertEquals(actions.size(), record.getActionCount(0));
+        assertEquals(GameRecord.actionHash(last), record.getActionHash(0));
+        assertThrows(IllegalArgumentException.class, () -> record.addDecision(game.getForwardModel(), state, null));
+    }
+
+    @Test
+    public void replayNeedsMatchingParameters() {
+        AbstractParameters params = GameType.President.createParameters(5);
+        ActionSpace[] spaces = new ActionSpace[]{ActionSpace.Default, ActionSpace.Default};
+        GameRecord record = new GameRecord(GameType.President, 2, GameRecord.parametersHash(params) + 1, 5, spaces);
+        assertThrows(IllegalArgumentException.class, () -> new GameReplay(record));
+    }
+}
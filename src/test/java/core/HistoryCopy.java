@@ -0,0 +1,115 @@
+package core;
+
+import core.actions.AbstractAction;
+import games.president.PresidentForwardModel;
+import games.president.PresidentGameState;
+import games.president.PresidentParameters;
+import org.junit.Before;
+import org.junit.Test;
+import utilities.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HistoryCopy {
+
+    PresidentForwardModel fm = new PresidentForwardModel();
+    PresidentGameState state;
+    Random rnd = new Random(11);
+
+    @Before
+    public void setup() {
+        PresidentParameters params = new PresidentParameters();
+        params.setRandomSeed(4);
+        state = new PresidentGameState(params, 4);
+        fm.setup(state);
+    }
+
+    private void playRandom(AbstractGameState gs, int moves) {
+        for (int i = 0; i < moves && gs.isNotTerminal(); i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(gs);
+            fm.next(gs, actions.get(rnd.nextInt(actions.size())));
+        }
+    }
+
+    @Test
+    public void copiesShareThePrefixButNotLaterActions() {
+        int start = state.getHistorySize();
+        playRandom(state, 6);
+        List<Pair<Integer, AbstractAction>> before = state.getHistory();
+        assertEquals(start + 6, before.size());
+        assertEquals(before.size(), state.getHistorySize());
+
+        AbstractGameState copy = state.copy();
+        assertEquals(before, copy.getHistory());
+        int copyText = copy.getHistoryAsText().size();
+
+        playRandom(copy, 3);
+        assertEquals(before, state.getHistory());
+        assertEquals(before.size() + 3, copy.getHistory().size());
+        assertEquals(before, copy.getHistory().subList(0, before.size()));
+
+        int stateText = state.getHistoryAsText().size();
+        state.recordHistory("event");
+        List<String> text = state.getHistoryAsText();
+        assertEquals(stateText + 1, text.size());
+        assertEquals("event", text.get(stateText));
+        assertTrue(copy.getHistoryAsText().size() >= copyText + 3);
+        assertFalse(copy.getHistoryAsText().contains("event"));
+    }
+
+    @Test
+    public void textIsRenderedOnceWhenRecorded() {
+        int[] rendered = new int[1];
+        AbstractAction counting = new core.actions.DoNothing() {
+            @Override
+            public String getString(AbstractGameState gameState) {
+                rendered[0]++;
+                return "counted";
+            }
+
+            @Override
+            public AbstractAction copy() {
+                return this;
+            }
+        };
+        state.recordAction(counting, 2);
+        assertEquals(1, rendered[0]);
+        AbstractGameState copy = state.copy();
+
+        List<String> text = new ArrayList<>(state.getHistoryAsText());
+        assertEquals("Player 2 : counted", text.get(text.size() - 1));
+        // neither asking again nor asking the copy renders the action again
+        assertEquals(text, state.getHistoryAsText());
+        assertEquals(text, copy.getHistoryAsText());
+        assertEquals(1, rendered[0]);
+    }
+
+    @Test
+    public void actionsAreRenderedAgainstTheStateTheyWereTakenIn() {
+        AbstractAction naming = new core.actions.DoNothing() {
+            @Override
+            public String getString(AbstractGameState gameState) {
+                return "tick " + gameState.getGameTick();
+            }
+
+            @Override
+            public AbstractAction copy() {
+                return this;
+            }
+        };
+        AbstractGameState taken = state;
+        int tick = taken.getGameTick();
+        taken.recordAction(naming, 1);
+        AbstractGameState copy = taken.copy();
+        copy.advanceGameTick();
+        taken.advanceGameTick();
+        List<String> text = taken.getHistoryAsText();
+        List<String> copyText = copy.getHistoryAsText();
+        assertEquals("Player 1 : tick " + tick, text.get(text.size() - 1));
+        assertEquals("Player 1 : tick " + tick, copyText.get(copyText.size() - 1));
+    }
+}
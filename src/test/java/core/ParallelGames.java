@@ -0,0 +1,85 @@
+package core;
+
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.*;
+
+public class ParallelGames {
+
+    private List<AbstractPlayer> players() {
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            players.add(new RandomPlayer(new Random(100 + i)));
+        return players;
+    }
+
+    private List<String> play(int nThreads) {
+        long[] seeds = ParallelGameRunner.seeds(42, 24);
+        try (ParallelGameRunner runner = new ParallelGameRunner(nThreads)) {
+            return runner.run(GameType.President, null, players(), seeds, false, null,
+                    game -> Arrays.toString(game.getGameState().getPlayerResults()) + " " + game.getGameState().getGameTick());
+        }
+    }
+
+    @Test
+    public void resultsDoNotDependOnThreadCount() {
+        List<String> single = play(1);
+        assertEquals(24, single.size());
+        assertEquals(single, play(4));
+        assertEquals(single, play(0));
+    }
+
+    @Test
+    public void playersThatAreTheirOwnCopyPlayOneGameAtATime() {
+        List<AbstractPlayer> players = players();
+        int[] inGame = new int[1];
+        int[] most = new int[1];
+        AbstractPlayer shared = new RandomPlayer(new Random(7)) {
+            @Override
+            public void initializePlayer(AbstractGameState state) {
+                most[0] = Math.max(most[0], ++inGame[0]);
+            }
+
+            @Override
+            public void finalizePlayer(AbstractGameState state) {
+                inGame[0]--;
+            }
+
+            @Override
+            public RandomPlayer copy() {
+                return this;
+            }
+        };
+        players.set(0, shared);
+        long[] seeds = ParallelGameRunner.seeds(5, 8);
+        try (ParallelGameRunner runner = new ParallelGameRunner(4)) {
+            assertEquals(8, runner.run(GameType.President, null, players, seeds, false, null, game -> game).size());
+        }
+        assertEquals(1, most[0]);
+        assertEquals(0, inGame[0]);
+    }
+
+    @Test
+    public void seedsAreDerivedFromMasterSeed() {
+        assertArrayEquals(ParallelGameRunner.seeds(7, 10), ParallelGameRunner.seeds(7, 10));
+        assertEquals(ParallelGameRunner.seeds(7, 10)[3], ParallelGameRunner.seeds(7, 20)[3]);
+        assertNotEquals(ParallelGameRunner.seeds(7, 10)[0], ParallelGameRunner.seeds(8, 10)[0]);
+    }
+
+    @Test
+    public void failuresAreRethrown() {
+        try (ParallelGameRunner runner = new ParallelGameRunner(2)) {
+            runner.runAll(List.<Callable<Integer>>of(() -> 1, () -> {
+                throw new IllegalStateException("boom");
+            }));
+            fail("expected the failure of the second task");
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+    }
+}
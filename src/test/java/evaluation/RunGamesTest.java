@@ -61,6 +61,39 @@ public class RunGamesTest {
             assertEquals(72, tournament.getNGamesPlayed()[i]);
     }
 
+    @Test
+    public void exhaustiveModeOnSeveralThreads() {
+        config.put(RunArg.mode, "exhaustive");
+        config.put(RunArg.nThreads, 4);
+        tournament = new RoundRobinTournament(agents, GameType.Poker, 3, null, config);
+        tournament.run();
+
+        for (int i = 0; i < agents.size(); i++)
+            assertEquals(72, tournament.getNGamesPlayed()[i]);
+    }
+
+    @Test
+    public void threadCountDoesNotChangeResults() {
+        config.put(RunArg.mode, "random");
+        config.put(RunArg.seed, 53);
+        double[][] winRates = new double[4][];
+        int[] threads = {1, 2, 3, 8};
+        for (int t = 0; t < threads.length; t++) {
+            List<AbstractPlayer> seeded = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+                seeded.add(new RandomPlayer(new Random(i)));
+            config.put(RunArg.nThreads, threads[t]);
+            tournament = new RoundRobinTournament(seeded, GameType.Poker, 3, null, config);
+            tournament.run();
+            winRates[t] = new double[seeded.size()];
+            for (int i = 0; i < seeded.size(); i++)
+                winRates[t][i] = tournament.getWinRate(i);
+        }
+        assertArrayEquals(winRates[0], winRates[1], 0.0);
+        assertArrayEquals(winRates[0], winRates[2], 0.0);
+        assertArrayEquals(winRates[0], winRates[3], 0.0);
+    }
+
     @Test
     public void exhaustiveSPMode() {
         config.put(RunArg.mode, "exhaustiveSP");
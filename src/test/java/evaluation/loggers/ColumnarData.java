@@ -0,0 +1,153 @@
+package evaluation.loggers;
+
+import core.interfaces.IStatisticLogger;
+import org.junit.Test;
+import players.learners.AbstractLearner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ColumnarData {
+
+    private Map<String, Object> row(int i) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("A", (double) i);
+        data.put("B", i * 0.5);
+        data.put("C", i % 3 == 0 ? null : i);
+        return data;
+    }
+
+    private Path tempFile() throws IOException {
+        Path file = Files.createTempFile("features", ColumnarStatsLogger.EXTENSION);
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void rowsAreReadBackAcrossBlocksAndAppends() throws IOException {
+        Path file = tempFile();
+        ColumnarStatsLogger logger = new ColumnarStatsLogger(file.toString(), false, false, 3);
+        for (int i = 0; i < 7; i++)
+            logger.record(row(i));
+        // a short block
+        logger.processDataAndNotFinish();
+        for (int i = 7; i < 10; i++)
+            logger.record(row(i));
+        logger.processDataAndFinish();
+
+        ColumnarStatsLogger appender = new ColumnarStatsLogger(file.toString(), false, true, 3);
+        for (int i = 10; i < 12; i++)
+            appender.record(row(i));
+        appender.processDataAndFinish();
+
+        try (ColumnarDataset data = new ColumnarDataset(file.toString())) {
+            assertArrayEquals(new String[]{"A", "B", "C"}, data.columnNames());
+            assertEquals(12, data.rows());
+            List<double[]> rows = new ArrayList<>();
+            data.forEachRow(r -> rows.add(r.clone()));
+            for (int i = 0; i < 12; i++) {
+                assertEquals(i, rows.get(i)[0], 0);
+                assertEquals(i * 0.5, data.get(i, 1), 0);
+                assertEquals(i % 3 == 0 ? Double.NaN : i, rows.get(i)[2], 0);
+            }
+            assertEquals(11.0, data.column(data.columnIndex("A"))[11], 0);
+        }
+    }
+
+    @Test
+    public void partialBlockIsIgnored() throws IOException {
+        Path file = tempFile();
+        ColumnarStatsLogger logger = new ColumnarStatsLogger(file.toString(), true, false, 4);
+        for (int i = 0; i < 5; i++)
+            logger.record(row(i));
+        logger.processDataAndFinish();
+        // the start of a block that was never finished
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{10, 0, 0, 0, 1, 2}));
+        }
+        try (ColumnarDataset data = new ColumnarDataset(file.toString())) {
+            assertTrue(data.isSinglePrecision());
+            assertEquals(5, data.rows());
+            assertEquals(2.0f, data.get(4, 1), 0);
+        }
+        assertTrue(ColumnarDataset.isColumnar(file.toString()));
+    }
+
+    // the bare minimum to look at what AbstractLearner reads in
+    static class DataReader extends AbstractLearner {
+        @Override
+        public void learnFrom(String... files) {
+            loadData(files);
+        }
+
+        @Override
+        public void writeToFile(String prefix) {
+        }
+
+        @Override
+        public String name() {
+            return "DataReader";
+        }
+
+        double[][] dataArray() {
+            return dataArray;
+        }
+
+        double[][] target() {
+            return target;
+        }
+    }
+
+    @Test
+    public void learnersReadTextAndColumnarDataAlike() throws IOException {
+        Path text = Files.createTempFile("features", ".txt");
+        text.toFile().deleteOnExit();
+        Files.delete(text);
+        Path columnar = tempFile();
+        IStatisticLogger[] loggers = {new FileStatsLogger(text.toString(), "\t", false), new ColumnarStatsLogger(columnar.toString())};
+        Random rnd = new Random(3);
+        for (int i = 0; i < 50; i++) {
+            Map<String, Double> data = new LinkedHashMap<>();
+            data.put("GameID", (double) (i / 10));
+            data.put("Player", (double) (i % 2));
+            data.put("Round", (double) (i % 10));
+            data.put("Turn", (double) (i % 10));
+            data.put("CurrentScore", (double) rnd.nextInt(20));
+            data.put("F1", (double) rnd.nextInt(5));
+            data.put("F2", (double) rnd.nextInt(5));
+            data.put("PlayerCount", 2.0);
+            data.put("TotalRounds", 10.0);
+            data.put("ActionScore", 0.0);
+            data.put("Win", (double) rnd.nextInt(2));
+            data.put("Ordinal", (double) (1 + rnd.nextInt(2)));
+            data.put("FinalScore", (double) rnd.nextInt(30));
+            for (IStatisticLogger logger : loggers)
+                logger.record(data);
+        }
+        for (IStatisticLogger logger : loggers)
+            logger.processDataAndFinish();
+
+        for (AbstractLearner.Target target : AbstractLearner.Target.values()) {
+            DataReader fromText = new DataReader();
+            DataReader fromColumns = new DataReader();
+            for (DataReader reader : List.of(fromText, fromColumns)) {
+                reader.setTarget(target);
+                reader.setGamma(0.9);
+            }
+            fromText.learnFrom(text.toString());
+            fromColumns.learnFrom(columnar.toString());
+            assertEquals(50, fromColumns.dataArray().length);
+            for (int i = 0; i < 50; i++) {
+                assertArrayEquals(fromText.dataArray()[i], fromColumns.dataArray()[i], 1e-9);
+                assertEquals(fromText.target()[i][0], fromColumns.target()[i][0], 1e-9);
+            }
+        }
+    }
+}
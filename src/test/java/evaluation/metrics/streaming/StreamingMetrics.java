@@ -0,0 +1,227 @@
+package evaluation.metrics.streaming;
+
+import core.AbstractPlayer;
+import core.Game;
+import evaluation.listeners.IGameListener;
+import evaluation.listeners.MetricsGameListener;
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.Event;
+import evaluation.metrics.GameMetrics;
+import evaluation.metrics.IDataLogger;
+import evaluation.summarisers.QuantileSketch;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static evaluation.metrics.IDataLogger.ReportDestination.ToFile;
+import static evaluation.metrics.IDataLogger.ReportType.RawData;
+import static evaluation.metrics.IDataLogger.ReportType.Summary;
+import static org.junit.Assert.*;
+
+public class StreamingMetrics {
+
+    // a metric that is fed by hand in these tests
+    static class Scores extends AbstractMetric {
+        @Override
+        protected boolean _run(MetricsGameListener listener, Event e, Map<String, Object> records) {
+            return false;
+        }
+
+        @Override
+        public Set<core.interfaces.IGameEvent> getDefaultEventTypes() {
+            return Collections.singleton(Event.GameEvent.ROUND_OVER);
+        }
+
+        @Override
+        public Map<String, Class<?>> getColumns(int nPlayersPerGame, Set<String> playerNames) {
+            Map<String, Class<?>> columns = new HashMap<>();
+            columns.put("Score", Double.class);
+            columns.put("Card", String.class);
+            return columns;
+        }
+    }
+
+    private void addRow(StreamingDataLogger logger, int game, int round, Double score, String card) {
+        logger.addData("GameID", String.valueOf(game));
+        logger.addData("GameName", "Test");
+        logger.addData("PlayerCount", "2");
+        logger.addData("GameSeed", "1");
+        logger.addData("Tick", round);
+        logger.addData("Turn", 0);
+        logger.addData("Round", round);
+        logger.addData("Event", "ROUND_OVER");
+        logger.addData("Score", score);
+        logger.addData("Card", card);
+    }
+
+    @Test
+    public void sketchQuantilesAreWithinAccuracy() {
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        Random rnd = new Random(42);
+        double[] values = new double[20000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(rnd.nextGaussian() * 3) * (rnd.nextInt(4) == 0 ? -1 : 1);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        for (double q : new double[]{0.0, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1.0}) {
+            double exact = values[(int) Math.floor(q * (values.length - 1))];
+            assertEquals(exact, sketch.quantile(q), Math.abs(exact) * 0.01 + 1e-9);
+        }
+
+        QuantileSketch other = new QuantileSketch(0.01);
+        other.add(5.0);
+        sketch.add(other);
+        assertEquals(values.length + 1, sketch.n());
+        assertTrue(Double.isNaN(new QuantileSketch().quantile(0.5)));
+    }
+
+    @Test
+    public void sketchSkipsValuesThatAreNotFinite() {
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        sketch.add(Double.POSITIVE_INFINITY);
+        sketch.add(Double.NEGATIVE_INFINITY);
+        sketch.add(Double.NaN);
+        for (int i = 1; i <= 100; i++)
+            sketch.add(i);
+        assertEquals(100, sketch.n());
+        assertEquals(1.0, sketch.quantile(0), 0.01);
+        assertEquals(100.0, sketch.quantile(1), 1.0);
+    }
+
+    @Test
+    public void summariesMatchExactStatistics() {
+        Scores metric = new Scores();
+        StreamingDataLogger logger = new StreamingDataLogger(metric, false);
+        metric.setDataLogger(logger);
+        logger.init(null, 2, Collections.emptySet());
+
+        Random rnd = new Random(7);
+        List<Double> scores = new ArrayList<>();
+        Map<String, List<Integer>> cardsPerGame = new HashMap<>();
+        int games = 50, longestGame = 0;
+        for (int g = 0; g < games; g++) {
+            Map<String, Integer> counts = new HashMap<>();
+            int rounds = 1 + rnd.nextInt(5);
+            longestGame = Math.max(longestGame, rounds);
+            for (int r = 0; r < rounds; r++) {
+                double score = rnd.nextInt(20) - 5;
+                String card = "C" + rnd.nextInt(3);
+                scores.add(score);
+                counts.merge(card, 1, Integer::sum);
+                addRow(logger, g, r, score, card);
+            }
+            for (String c : List.of("C0", "C1", "C2"))
+                cardsPerGame.computeIfAbsent(c, k -> new ArrayList<>()).add(counts.getOrDefault(c, 0));
+            metric.notifyGameOver();
+            logger.endGame(g);
+        }
+
+        NumericColumnSummary numeric = logger.numeric.get("Score");
+        double mean = scores.stream().mapToDouble(d -> d).average().orElseThrow();
+        double variance = scores.stream().mapToDouble(d -> (d - mean) * (d - mean)).sum() / (scores.size() - 1);
+        assertEquals(scores.size(), numeric.n());
+        assertEquals(scores.size(), logger.rows());
+        assertEquals(mean, numeric.mean(), 1e-9);
+        assertEquals(variance, numeric.variance(), 1e-9);
+        assertEquals(Collections.min(scores), numeric.min(), 0);
+        assertEquals(Collections.max(scores), numeric.max(), 0);
+        assertEquals(longestGame, numeric.rowsInLongestGame());
+
+        CategoryColumnSummary cards = logger.categories.get("Card");
+        assertEquals(games, cards.games());
+        for (Map.Entry<String, List<Integer>> e : cardsPerGame.entrySet()) {
+            List<Integer> counts = e.getValue();
+            double m = counts.stream().mapToInt(i -> i).average().orElseThrow();
+            double v = counts.stream().mapToDouble(i -> (i - m) * (i - m)).sum() / (counts.size() - 1);
+            assertEquals(counts.stream().mapToInt(i -> i).sum(), cards.total(e.getKey()));
+            assertEquals(m, cards.meanPerGame(e.getKey()), 1e-9);
+            assertEquals(v, cards.variancePerGame(e.getKey()), 1e-9);
+            assertEquals(Collections.min(counts), cards.minPerGame(e.getKey()), 0);
+            assertEquals(Collections.max(counts), cards.maxPerGame(e.getKey()), 0);
+        }
+    }
+
+    @Test
+    public void rawDataSpillsAndIsWrittenInOrder() throws IOException {
+        Scores metric = new Scores();
+        StreamingDataLogger logger = new StreamingDataLogger(metric, true, 3);
+        metric.setDataLogger(logger);
+        logger.init(null, 2, Collections.emptySet());
+        for (int r = 0; r < 10; r++)
+            addRow(logger, 1, r, r % 4 == 0 ? null : r * 1.5, "card, \"" + r + "\"");
+
+        Path folder = Files.createTempDirectory("streaming-metrics");
+        StreamingDataProcessor processor = new StreamingDataProcessor();
+        processor.processRawDataToFile(logger, folder.toString(), false);
+        logger.flush();
+        addRow(logger, 2, 0, 99.0, "last");
+        processor.processRawDataToFile(logger, folder.toString(), true);
+
+        List<String> lines = Files.readAllLines(folder.resolve("Scores.csv"));
+        assertEquals(12, lines.size());
+        List<String> header = Arrays.asList(lines.get(0).split(","));
+        int score = header.indexOf("Score");
+        int round = header.indexOf("Round");
+        for (int r = 0; r < 10; r++) {
+            String line = lines.get(r + 1);
+            assertTrue(line.contains("\"card, \"\"" + r + "\"\"\""));
+            String[] cells = line.replaceAll("\"[^\"]*(\"\"[^\"]*)*\"", "x").split(",", -1);
+            assertEquals(String.valueOf(r), cells[round]);
+            assertEquals(r % 4 == 0 ? "" : String.valueOf(r * 1.5), cells[score]);
+        }
+        assertTrue(lines.get(11).contains("99.0"));
+    }
+
+    @Test
+    public void copyKeepsTheSummariesAndRows() {
+        Scores metric = new Scores();
+        StreamingDataLogger logger = new StreamingDataLogger(metric, true, 3);
+        metric.setDataLogger(logger);
+        logger.init(null, 2, Collections.emptySet());
+        for (int r = 0; r < 5; r++)
+            addRow(logger, 0, r, r * 2.0, "C" + (r % 2));
+        logger.endGame(0);
+
+        StreamingDataLogger copy = (StreamingDataLogger) logger.copy();
+        assertEquals(5, copy.rows());
+        assertEquals(5, copy.rawData.rows());
+        assertEquals(logger.numeric.keySet(), copy.numeric.keySet());
+        assertEquals(logger.categories.keySet(), copy.categories.keySet());
+        NumericColumnSummary score = copy.numeric.get("Score");
+        assertEquals(5, score.n());
+        assertEquals(4.0, score.mean(), 1e-9);
+        assertEquals(8.0, score.max(), 0);
+        assertEquals(3, copy.categories.get("Card").total("C0"));
+
+        // and the two go their own ways afterwards
+        addRow(logger, 1, 0, 100.0, "C2");
+        assertEquals(5, copy.numeric.get("Score").n());
+        assertEquals(5, copy.rawData.rows());
+        assertEquals(0, copy.categories.get("Card").total("C2"));
+    }
+
+    @Test
+    public void streamingListenerWritesSummaries() throws IOException {
+        MetricsGameListener listener = new MetricsGameListener(ToFile, new IDataLogger.ReportType[]{Summary, RawData},
+                new AbstractMetric[]{new GameMetrics.FinalScore()}, true);
+        Path folder = Files.createTempDirectory("streaming-listener");
+        listener.setOutputDirectory(folder.toString());
+        for (int game = 0; game < 5; game++) {
+            List<AbstractPlayer> players = List.of(new RandomPlayer(new Random(game)), new RandomPlayer(new Random(game + 10)));
+            Game.runOne(GameType.LoveLetter, null, players, game, false, List.<IGameListener>of(listener), null, 0);
+        }
+        listener.report();
+
+        File summaries = folder.resolve("summaries").resolve("FinalScore").toFile();
+        assertTrue(new File(summaries, "FinalScore_Player-0.csv").exists());
+        List<String> raw = Files.readAllLines(folder.resolve("FinalScore.csv"));
+        assertEquals(6, raw.size());
+    }
+}
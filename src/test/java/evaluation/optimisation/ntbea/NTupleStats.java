@@ -0,0 +1,122 @@
+package evaluation.optimisation.ntbea;
+
+import core.ParallelGameRunner;
+import evaluation.optimisation.NTBEAParameters;
+import evaluation.optimisation.ntbea.functions.FunctionSearchSpace;
+import evaluation.optimisation.ntbea.functions.Hartmann;
+import org.junit.Before;
+import org.junit.Test;
+import utilities.StatSummary;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class NTupleStats {
+
+    NTBEAParameters params = new NTBEAParameters();
+    SearchSpace searchSpace = new FunctionSearchSpace(10, Hartmann.Hartmann6);
+    Random rnd = new Random(3);
+
+    @Before
+    public void setup() {
+        params.setParameterValue("useNTuples", true);
+        params.setParameterValue("neighbourhood", 20);
+        params.searchSpace = searchSpace;
+    }
+
+    // a deterministic fitness, so that any two runs of the same search agree
+    SolutionEvaluator evaluator = new SolutionEvaluator() {
+        int nEvals;
+
+        @Override
+        public void reset() {
+            nEvals = 0;
+        }
+
+        @Override
+        public double evaluate(int[] solution) {
+            nEvals++;
+            return Arrays.stream(solution).sum() % 7;
+        }
+
+        @Override
+        public SearchSpace searchSpace() {
+            return searchSpace;
+        }
+
+        @Override
+        public int nEvals() {
+            return nEvals;
+        }
+    };
+
+    @Test
+    public void aSingleSampleHasNoStandardError() {
+        NTuple pair = new NTuple(searchSpace, new int[]{1, 4});
+        pair.add(new int[]{1, 2, 3, 4, 5, 6}, 0.5);
+        assertEquals(0.5, pair.entries().get(0).mean(), 0);
+        assertEquals(0.0, pair.entries().get(0).stdErr(), 0);
+    }
+
+    @Test
+    public void denseAndSparseTuplesMatchStatSummary() {
+        NTuple pair = new NTuple(searchSpace, new int[]{1, 4});
+        NTuple all = new NTuple(searchSpace, new int[]{0, 1, 2, 3, 4, 5});
+        assertTrue(pair.dense);
+        assertFalse(all.dense);
+
+        int[] x = {1, 2, 3, 4, 5, 6};
+        int[] y = {9, 2, 0, 0, 5, 1};
+        StatSummary ss = new StatSummary();
+        for (int i = 0; i < 20; i++) {
+            double v = rnd.nextGaussian();
+            pair.add(i % 2 == 0 ? x : y, v);
+            all.add(x, v);
+            ss.add(v);
+        }
+        assertEquals(1, pair.nEntries());
+        assertEquals(20, pair.n(x));
+        assertEquals(ss.mean(), pair.mean(y), 1e-12);
+        assertEquals(ss.mean(), all.mean(x), 1e-12);
+        assertEquals(0, all.n(y));
+        assertTrue(Double.isNaN(all.mean(y)));
+
+        NTuple.Entry entry = all.entries().get(0);
+        assertArrayEquals(x, entry.pattern().v);
+        assertEquals(ss.stdErr(), entry.stdErr(), 1e-12);
+        assertArrayEquals(new int[]{2, 5}, pair.entries().get(0).pattern().v);
+        assertEquals(ss.stdErr(), pair.entries().get(0).stdErr(), 1e-12);
+
+        all.reset();
+        assertEquals(0, all.n(x));
+        assertTrue(all.entries().isEmpty());
+    }
+
+    private List<int[]> search(int batchSize, int nThreads) {
+        params.batchSize = batchSize;
+        NTupleSystem model = new NTupleSystem(params);
+        NTupleBanditEA ea = new NTupleBanditEA(model, params);
+        ea.rnd = new Random(17);
+        SearchSpaceUtil.random = new Random(5);
+        try (ParallelGameRunner runner = new ParallelGameRunner(nThreads)) {
+            ea.runTrial(evaluator, 50, runner);
+        }
+        return model.getSampledPoints();
+    }
+
+    @Test
+    public void batchesUseTheWholeBudget() {
+        assertEquals(50, search(4, 2).size());
+        assertEquals(50, search(1, 1).size());
+    }
+
+    @Test
+    public void batchedSearchIsReproducible() {
+        List<int[]> first = search(4, 1);
+        List<int[]> second = search(4, 3);
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++)
+            assertArrayEquals(first.get(i), second.get(i));
+    }
+}
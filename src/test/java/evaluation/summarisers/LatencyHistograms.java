@@ -0,0 +1,56 @@
+package evaluation.summarisers;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class LatencyHistograms {
+
+    @Test
+    public void histogramQuantilesAreWithinTheirRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random rnd = new Random(42);
+        long[] values = new long[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(rnd.nextDouble() * 25);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        assertEquals(values.length, histogram.n());
+        assertEquals(values[0], histogram.min());
+        assertEquals(values[values.length - 1], histogram.max());
+        for (double q : new double[]{0.1, 0.5, 0.9, 0.99}) {
+            long exact = values[(int) Math.ceil(q * values.length) - 1];
+            assertEquals(exact, histogram.quantile(q), exact / 64.0 + 1);
+        }
+
+        // small values are counted exactly
+        LatencyHistogram small = new LatencyHistogram();
+        for (int i = 0; i < 100; i++)
+            small.record(i);
+        assertEquals(49, small.quantile(0.5), 0.0);
+        assertEquals(49.5, small.mean(), 1e-9);
+
+        // and merging gives the same as recording everything on one
+        LatencyHistogram merged = small.copy();
+        merged.add(histogram);
+        assertEquals(histogram.n() + small.n(), merged.n());
+        assertEquals(0, merged.min());
+        assertEquals(histogram.total() + small.total(), merged.total());
+    }
+
+    @Test
+    public void bucketsAreContiguous() {
+        long expected = 0;
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(expected, LatencyHistogram.lowest(i));
+            assertEquals(i, LatencyHistogram.index(LatencyHistogram.lowest(i)));
+            assertEquals(i, LatencyHistogram.index(LatencyHistogram.lowest(i) + LatencyHistogram.width(i) - 1));
+            expected += LatencyHistogram.width(i);
+        }
+        assertEquals(3711, LatencyHistogram.index(Long.MAX_VALUE));
+    }
+}
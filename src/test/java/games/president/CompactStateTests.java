@@ -0,0 +1,70 @@
+package games.president;
+
+import core.actions.AbstractAction;
+import games.president.actions.PresidentActionTable;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CompactStateTests {
+
+    PresidentForwardModel fm = new PresidentForwardModel();
+
+    private PresidentGameState newGame(int nPlayers, long seed) {
+        PresidentParameters params = new PresidentParameters();
+        params.setRandomSeed(seed);
+        PresidentGameState state = new PresidentGameState(params, nPlayers);
+        fm.setup(state);
+        return state;
+    }
+
+    @Test
+    public void compactSimulationMatchesFullForwardModel() {
+        for (int nPlayers = 2; nPlayers <= 4; nPlayers++) {
+            for (long seed = 0; seed < 20; seed++) {
+                PresidentGameState state = newGame(nPlayers, seed);
+                Random rnd = new Random(seed);
+                PresidentCompactState compact = PresidentCompactState.from(state);
+                int[] moves = compact.newMoveBuffer();
+
+                while (state.isNotTerminal()) {
+                    assertEquals(PresidentCompactState.from(state), compact);
+
+                    List<AbstractAction> actions = fm.computeAvailableActions(state);
+                    int nMoves = fm.computeAvailableMoves(compact, moves);
+                    Set<Integer> expected = new HashSet<>();
+                    for (AbstractAction a : actions) expected.add(PresidentActionTable.toMove(a));
+                    Set<Integer> actual = new HashSet<>();
+                    for (int i = 0; i < nMoves; i++) actual.add(moves[i]);
+                    assertEquals(expected, actual);
+
+                    AbstractAction action = actions.get(rnd.nextInt(actions.size()));
+                    fm.next(state, action);
+                    fm.next(compact, PresidentActionTable.toMove(action));
+                }
+                assertTrue(compact.isGameOver());
+                for (int p = 0; p < nPlayers; p++)
+                    assertEquals(state.getGameScore(p), compact.getGameScore(p), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        PresidentGameState state = newGame(3, 42);
+        PresidentCompactState compact = PresidentCompactState.from(state);
+        PresidentCompactState copy = compact.copy();
+        assertEquals(compact, copy);
+
+        int[] moves = copy.newMoveBuffer();
+        fm.computeAvailableMoves(copy, moves);
+        fm.next(copy, moves[0]);
+        assertNotEquals(compact, copy);
+        assertEquals(PresidentCompactState.from(state), compact);
+
+        copy.copyFrom(compact);
+        assertEquals(compact, copy);
+    }
+}
@@ -0,0 +1,102 @@
+package games.president;
+
+import core.actions.AbstractAction;
+import org.junit.Test;
+import players.president.PragmaticPlayer;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class EndgameSolverTests {
+
+    PresidentForwardModel fm = new PresidentForwardModel();
+
+    // plain MaxN without a table, with the same tie-breaking as the solver (first best move)
+    private int[] reference(PresidentCompactState state, int[] bestMove) {
+        if (state.isGameOver()) {
+            int[] scores = new int[state.getNPlayers()];
+            for (int p = 0; p < scores.length; p++) scores[p] = (int) state.getGameScore(p);
+            return scores;
+        }
+        int[] moves = state.newMoveBuffer();
+        int n = fm.computeAvailableMoves(state, moves);
+        int[] best = null;
+        for (int i = 0; i < n; i++) {
+            PresidentCompactState child = state.copy();
+            fm.next(child, moves[i]);
+            int[] value = reference(child, null);
+            if (best == null || value[state.getCurrentPlayer()] > best[state.getCurrentPlayer()]) {
+                best = value;
+                if (bestMove != null) bestMove[0] = moves[i];
+            }
+        }
+        return best;
+    }
+
+    private PresidentGameState endgame(int nPlayers, long seed, int cardsLeft) {
+        PresidentParameters params = new PresidentParameters();
+        params.setRandomSeed(seed);
+        PresidentGameState state = new PresidentGameState(params, nPlayers);
+        fm.setup(state);
+        Random rnd = new Random(seed);
+        while (state.isNotTerminal() && PresidentCompactState.from(state).getTotalCards() > cardsLeft) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+        return state;
+    }
+
+    @Test
+    public void matchesPlainMaxN() {
+        PresidentEndgameSolver solver = new PresidentEndgameSolver(12, 1_000_000);
+        for (int nPlayers = 2; nPlayers <= 4; nPlayers++) {
+            for (long seed = 0; seed < 20; seed++) {
+                PresidentGameState state = endgame(nPlayers, seed, 8);
+                if (!state.isNotTerminal()) continue;
+                PresidentCompactState compact = PresidentCompactState.from(state);
+                int[] bestMove = new int[1];
+                int[] expected = reference(compact, bestMove);
+                double[] actual = solver.solve(compact);
+                assertNotNull(actual);
+                for (int p = 0; p < nPlayers; p++)
+                    assertEquals(expected[p], actual[p], 0.0);
+                assertEquals(bestMove[0], solver.getBestMove(compact));
+            }
+        }
+    }
+
+    @Test
+    public void closingCardWins() {
+        // P0 holds a 10 and a 3, P1 a 4: P0 plays the 10, plays again, and finishes first
+        PresidentCompactState state = new PresidentCompactState(2, 2, 10, 4);
+        state.hands[0][10] = 1;
+        state.hands[0][3] = 1;
+        state.hands[1][4] = 1;
+        state.handSizes[0] = 2;
+        state.handSizes[1] = 1;
+        PresidentEndgameSolver solver = new PresidentEndgameSolver();
+        assertEquals(PresidentCompactState.move(1, 10), solver.getBestMove(state));
+        assertArrayEquals(new double[]{1, 0}, solver.solve(state), 0.0);
+    }
+
+    @Test
+    public void nodeLimitAborts() {
+        PresidentGameState state = endgame(4, 3, 16);
+        PresidentEndgameSolver solver = new PresidentEndgameSolver(10, 5);
+        assertNull(solver.solve(PresidentCompactState.from(state)));
+        assertEquals(-1, solver.getBestMove(PresidentCompactState.from(state)));
+    }
+
+    @Test
+    public void pragmaticPlayerUsesSolverInEndgame() {
+        PresidentGameState state = endgame(3, 7, 6);
+        assertTrue(state.isNotTerminal());
+        PragmaticPlayer player = new PragmaticPlayer(null, null, "P", new Random(1));
+        player.setForwardModel(fm);
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        AbstractAction action = player.getAction(state, actions);
+        assertTrue(actions.contains(action));
+    }
+}
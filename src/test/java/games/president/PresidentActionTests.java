@@ -0,0 +1,114 @@
+package games.president;
+
+import core.actions.AbstractAction;
+import games.president.actions.Pass;
+import games.president.actions.PlayCard;
+import games.president.actions.PlayCards;
+import games.president.actions.PresidentActionTable;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class PresidentActionTests {
+
+    PresidentForwardModel fm = new PresidentForwardModel();
+
+    @Test
+    public void actionsHaveValueIdentity() {
+        assertEquals(new PlayCard(5), new PlayCard(5));
+        assertEquals(new PlayCard(5).hashCode(), new PlayCard(5).hashCode());
+        assertNotEquals(new PlayCard(5), new PlayCard(6));
+        assertEquals(new PlayCards(2, 7), new PlayCards(2, 7));
+        assertNotEquals(new PlayCards(2, 7), new PlayCards(3, 7));
+        assertNotEquals(new PlayCard(7), new PlayCards(2, 7));
+        assertEquals(new Pass(), new Pass());
+
+        Set<Integer> hashes = new HashSet<>();
+        PresidentActionTable table = PresidentActionTable.of(2, 10, 4);
+        hashes.add(table.pass().hashCode());
+        for (int n = 1; n <= 4; n++)
+            for (int v = 2; v <= 10; v++)
+                assertTrue(hashes.add(table.play(n, v).hashCode()));
+    }
+
+    @Test
+    public void availableActionsComeFromSharedTable() {
+        PresidentParameters params = new PresidentParameters();
+        params.setRandomSeed(11);
+        PresidentGameState state = new PresidentGameState(params, 3);
+        fm.setup(state);
+        PresidentActionTable table = fm.getActionTable(state);
+        assertSame(table, PresidentActionTable.of(params.minCardValue, params.maxCardValue, table.getMaxSetSize()));
+
+        Random rnd = new Random(11);
+        while (state.isNotTerminal()) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            assertEquals(actions.size(), new HashSet<>(actions).size());
+            for (AbstractAction action : actions) {
+                assertSame(table.get(PresidentActionTable.toMove(action)), action);
+                assertSame(action, action.copy());
+            }
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+    }
+
+    @Test
+    public void generatorEmitsSetsOfAnySizeUpToCap() {
+        int[] counts = new int[11];
+        counts[3] = 1;
+        counts[5] = 4;
+        counts[8] = 3;
+        int[] moves = new int[64];
+
+        // empty trick: every set size up to the cap
+        int n = PresidentForwardModel.generateMoves(counts, 2, 10, 0, 0, 3, moves);
+        Set<Integer> generated = new HashSet<>();
+        for (int i = 0; i < n; i++) generated.add(moves[i]);
+        Set<Integer> expected = new HashSet<>(Arrays.asList(
+                PresidentCompactState.move(1, 3),
+                PresidentCompactState.move(1, 5), PresidentCompactState.move(2, 5), PresidentCompactState.move(3, 5),
+                PresidentCompactState.move(1, 8), PresidentCompactState.move(2, 8), PresidentCompactState.move(3, 8)));
+        assertEquals(expected, generated);
+
+        // a triple of 5s is on the table: only higher triples
+        n = PresidentForwardModel.generateMoves(counts, 2, 10, 5, 3, 4, moves);
+        assertEquals(1, n);
+        assertEquals(PresidentCompactState.move(3, 8), moves[0]);
+
+        // a quad of 8s cannot be beaten
+        n = PresidentForwardModel.generateMoves(counts, 2, 10, 8, 4, 4, moves);
+        assertEquals(1, n);
+        assertEquals(PresidentCompactState.PASS, moves[0]);
+    }
+
+    @Test
+    public void fullGamesWithLargerSets() {
+        boolean largeSetPlayed = false;
+        for (long seed = 0; seed < 10; seed++) {
+            PresidentParameters params = new PresidentParameters();
+            params.copiesPerValue = 4;
+            params.setRandomSeed(seed);
+            PresidentGameState state = new PresidentGameState(params, 4);
+            fm.setup(state);
+            PresidentCompactState compact = PresidentCompactState.from(state);
+            int[] moves = compact.newMoveBuffer();
+
+            Random rnd = new Random(seed);
+            while (state.isNotTerminal()) {
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                assertEquals(actions.size(), fm.computeAvailableMoves(compact, moves));
+                // prefer the largest sets, so that triples and quads are exercised
+                AbstractAction action = actions.get(rnd.nextInt(actions.size()));
+                for (AbstractAction a : actions)
+                    if (a instanceof PlayCards pcs && pcs.getNCards() >= 3) action = a;
+                if (action instanceof PlayCards pcs && pcs.getNCards() >= 3) largeSetPlayed = true;
+                fm.next(state, action);
+                fm.next(compact, PresidentActionTable.toMove(action));
+                assertEquals(PresidentCompactState.from(state), compact);
+            }
+        }
+        assertTrue(largeSetPlayed);
+    }
+}
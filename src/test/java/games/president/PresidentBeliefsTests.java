@@ -0,0 +1,80 @@
+package games.president;
+
+import core.actions.AbstractAction;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PresidentBeliefsTests {
+
+    @Test
+    public void initialBeliefsAreUniform() {
+        PresidentBeliefs beliefs = new PresidentBeliefs(4, 2, 10, 2);
+        for (int p = 0; p < 4; p++) {
+            assertEquals(0.0, beliefs.getProbability(p, 1), 1e-12);
+            assertEquals(1.0 / 9, beliefs.getProbability(p, 5), 1e-12);
+            assertEquals(1.0, beliefs.getProbabilityAbove(p, 0), 1e-12);
+            assertEquals(5.0 / 9, beliefs.getProbabilityAbove(p, 5), 1e-12);
+            assertEquals(0.0, beliefs.getProbabilityAbove(p, 10), 1e-12);
+        }
+    }
+
+    @Test
+    public void playedValuesLoseWeight() {
+        PresidentBeliefs beliefs = new PresidentBeliefs(3, 2, 10, 2);
+        beliefs.onPlay(0, 1, 7);
+        assertEquals(1, beliefs.getRemaining(7));
+        assertTrue(beliefs.getProbability(1, 7) < beliefs.getProbability(1, 6));
+        beliefs.onPlay(1, 1, 7);
+        for (int p = 0; p < 3; p++) {
+            assertEquals(0.0, beliefs.getProbability(p, 7), 1e-12);
+            assertEquals(1.0, beliefs.getProbabilityAbove(p, 0), 1e-12);
+        }
+    }
+
+    @Test
+    public void limitsZeroImpossibleValues() {
+        PresidentBeliefs beliefs = new PresidentBeliefs(3, 2, 10, 2);
+        int[] limits = new int[11];
+        java.util.Arrays.fill(limits, 2);
+        for (int v = 6; v <= 10; v++) limits[v] = 0;
+        beliefs.applyLimits(1, limits);
+        assertEquals(0.0, beliefs.getProbabilityAbove(1, 5), 1e-12);
+        assertEquals(0.25, beliefs.getProbability(1, 2), 1e-12);
+        assertEquals(1.0 / 9, beliefs.getProbability(2, 2), 1e-12);
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        PresidentBeliefs beliefs = new PresidentBeliefs(3, 2, 10, 2);
+        PresidentBeliefs copy = beliefs.copy();
+        assertEquals(beliefs, copy);
+        copy.onPlay(0, 2, 4);
+        assertNotEquals(beliefs, copy);
+        assertEquals(2, beliefs.getRemaining(4));
+    }
+
+    @Test
+    public void beliefsStayNormalisedDuringGames() {
+        PresidentForwardModel fm = new PresidentForwardModel();
+        for (long seed = 0; seed < 10; seed++) {
+            PresidentParameters params = new PresidentParameters();
+            params.setRandomSeed(seed);
+            PresidentGameState state = new PresidentGameState(params, 4);
+            fm.setup(state);
+            Random rnd = new Random(seed);
+            while (state.isNotTerminal()) {
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+                PresidentBeliefs beliefs = state.getBeliefs();
+                for (int p = 0; p < 4; p++) {
+                    double total = beliefs.getProbabilityAbove(p, -1);
+                    assertTrue(total == 0.0 || Math.abs(total - 1.0) < 1e-9);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package games.president;
+
+import core.actions.AbstractAction;
+import core.components.Deck;
+import games.president.cards.PresidentCard;
+import utilities.Utils;
+
+import java.util.*;
+
+/**
+ * Compares the cost of a redeterminising copy, PresidentGameState.copy(playerId), against the card-by-card
+ * sampler it replaced (reproduced in legacyRedeterminise() below).
+ * <p>
+ * Arguments: players=4 copies=100000 seed=0 copiesPerValue=2 skip=6
+ * (skip is the number of random moves played before the measured copies, so that there are passes to constrain the
+ * deal).
+ */
+public class PresidentSamplerBenchmark {
+
+    public static void main(String[] args) {
+        int nPlayers = Utils.getArg(args, "players", 4);
+        int nCopies = Utils.getArg(args, "copies", 100000);
+        long seed = Utils.getArg(args, "seed", 0L);
+        int copiesPerValue = Utils.getArg(args, "copiesPerValue", 2);
+        int skip = Utils.getArg(args, "skip", 6);
+
+        PresidentParameters params = new PresidentParameters();
+        params.copiesPerValue = copiesPerValue;
+        params.setRandomSeed(seed);
+        PresidentGameState state = new PresidentGameState(params, nPlayers);
+        PresidentForwardModel fm = new PresidentForwardModel();
+        fm.setup(state);
+        Random rnd = new Random(seed);
+        for (int i = 0; i < skip && state.isNotTerminal(); i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+        int observer = state.getCurrentPlayer();
+        System.out.printf("%d players, %d cards per value, %d hidden cards, %d copies%n", nPlayers, copiesPerValue,
+                hiddenCards(state, observer), nCopies);
+
+        // warm up both paths
+        for (int i = 0; i < nCopies / 10; i++) {
+            state.copy(observer);
+            legacyRedeterminise((PresidentGameState) state.copy(), observer, rnd);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < nCopies; i++)
+            legacyRedeterminise((PresidentGameState) state.copy(), observer, rnd);
+        double legacyTime = (System.nanoTime() - start) / 1e3 / nCopies;
+
+        start = System.nanoTime();
+        for (int i = 0; i < nCopies; i++)
+            state.copy(observer);
+        double newTime = (System.nanoTime() - start) / 1e3 / nCopies;
+
+        start = System.nanoTime();
+        for (int i = 0; i < nCopies; i++)
+            state.copy();
+        double plainTime = (System.nanoTime() - start) / 1e3 / nCopies;
+
+        System.out.printf("Full copy, no redeterminisation : %8.3f us%n", plainTime);
+        System.out.printf("Legacy card-by-card sampler     : %8.3f us%n", legacyTime);
+        System.out.printf("PresidentHandSampler            : %8.3f us%n", newTime);
+    }
+
+    private static int hiddenCards(PresidentGameState state, int observer) {
+        int hidden = 0;
+        for (int p = 0; p < state.getNPlayers(); p++)
+            if (p != observer) hidden += state.getPlayerHandCards().get(p).getSize();
+        return hidden;
+    }
+
+    /**
+     * The previous redeterminisation in PresidentGameState._copy, applied to a full copy of the state.
+     */
+    static void legacyRedeterminise(PresidentGameState copy, int playerId, Random redeterminisationRnd) {
+        List<PresidentCard> pool = new ArrayList<>();
+        for (int i = 0; i < copy.getNPlayers(); i++) {
+            if (i != playerId) {
+                pool.addAll(copy.playerHandCards.get(i).getComponents());
+            }
+        }
+
+        for (int i = 0; i < copy.getNPlayers(); i++) {
+            if (i == playerId) continue;
+            Deck<PresidentCard> deck = copy.playerHandCards.get(i);
+            int nCards = deck.getSize();
+            deck.clear();
+
+
+            for (int c = 0; c < nCards; c++) {
+                if (pool.isEmpty()) break;
+
+                Map<Integer, Integer> valueCounts = new HashMap<>();
+                for (PresidentCard pc : pool) valueCounts.merge(pc.value, 1, Integer::sum);
+
+                List<Integer> values = new ArrayList<>(valueCounts.keySet());
+                double[] weights = new double[values.size()];
+                double totalW = 0.0;
+                for (int vi = 0; vi < values.size(); vi++) {
+                    int v = values.get(vi);
+                    double marginal = Math.max(copy.getBeliefs().getProbability(i, v), 1e-6);
+                    double w = marginal * valueCounts.get(v);
+                    weights[vi] = w;
+                    totalW += w;
+                }
+
+                double r = redeterminisationRnd.nextDouble() * totalW;
+                double acc = 0.0;
+                int chosenValueIdx = 0;
+                for (int vi = 0; vi < weights.length; vi++) {
+                    acc += weights[vi];
+                    if (r <= acc) { chosenValueIdx = vi; break; }
+                }
+                int chosenValue = values.get(chosenValueIdx);
+
+                PresidentCard chosenCard = null;
+                for (int k = 0; k < pool.size(); k++) {
+                    if (pool.get(k).value == chosenValue) {
+                        chosenCard = pool.remove(k);
+                        break;
+                    }
+                }
+                if (chosenCard == null) {
+                    chosenCard = pool.remove(0);
+                }
+                deck.add(chosenCard);
+            }
+        }
+    }
+}
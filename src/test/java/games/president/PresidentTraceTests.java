@@ -0,0 +1,62 @@
+package games.president;
+
+import core.actions.AbstractAction;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PresidentTraceTests {
+
+    PresidentForwardModel fm = new PresidentForwardModel();
+
+    @Test
+    public void traceIsOffByDefaultAndNotCopied() {
+        PresidentGameState state = new PresidentGameState(new PresidentParameters(), 3);
+        fm.setup(state);
+        assertNull(state.getTrace());
+
+        state.setTrace(new PresidentTrace(16));
+        PresidentGameState copy = (PresidentGameState) state.copy(state.getCurrentPlayer());
+        assertNull(copy.getTrace());
+    }
+
+    @Test
+    public void traceRecordsDealAndPlays() {
+        PresidentParameters params = new PresidentParameters();
+        params.setRandomSeed(3);
+        PresidentGameState state = new PresidentGameState(params, 3);
+        PresidentTrace trace = new PresidentTrace(1000);
+        state.setTrace(trace);
+        fm.setup(state);
+
+        int nCards = (params.maxCardValue - params.minCardValue + 1) * params.copiesPerValue;
+        assertEquals(nCards, trace.size());
+        for (int i = 0; i < nCards; i++)
+            assertEquals(PresidentTrace.Type.DEAL, trace.getType(i));
+
+        Random rnd = new Random(3);
+        while (state.isNotTerminal()) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+        int done = 0;
+        for (int i = 0; i < trace.size(); i++)
+            if (trace.getType(i) == PresidentTrace.Type.PLAYER_DONE) done++;
+        assertEquals(2, done);
+    }
+
+    @Test
+    public void ringBufferKeepsMostRecentRecords() {
+        PresidentTrace trace = new PresidentTrace(4);
+        for (int i = 0; i < 10; i++)
+            trace.record(PresidentTrace.Type.PLAY, i, 0, 1, i);
+        assertEquals(4, trace.size());
+        assertEquals(10, trace.getTotalRecorded());
+        assertEquals(6, trace.getValue(0));
+        assertEquals(9, trace.getValue(3));
+        assertEquals(4, trace.toText().size());
+    }
+}
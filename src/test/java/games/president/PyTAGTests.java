@@ -0,0 +1,109 @@
+package games.president;
+
+import core.AbstractPlayer;
+import core.VectorPyTAG;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Test;
+import players.python.PythonAgent;
+import players.simple.RandomPlayer;
+import utilities.ActionTreeNode;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class PyTAGTests {
+
+    PresidentForwardModel fm = new PresidentForwardModel();
+
+    @Test
+    public void actionTreeMatchesAvailableActions() {
+        PresidentParameters params = new PresidentParameters();
+        params.setRandomSeed(4);
+        PresidentGameState state = new PresidentGameState(params, 4);
+        fm.setup(state);
+        ActionTreeNode root = fm.initActionTree(state);
+        assertEquals(1 + params.maxSetSize * (params.maxCardValue - params.minCardValue + 1), root.getLeafNodes().size());
+        Random rnd = new Random(4);
+        while (state.isNotTerminal()) {
+            fm.updateActionTree(root, state);
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            Set<AbstractAction> inTree = new HashSet<>();
+            for (ActionTreeNode leaf : root.getValidLeaves())
+                inTree.add(leaf.getAction());
+            assertEquals(new HashSet<>(actions), inTree);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+    }
+
+    @Test
+    public void observationOnlyUsesOwnHand() {
+        PresidentParameters params = new PresidentParameters();
+        params.setRandomSeed(2);
+        PresidentGameState state = new PresidentGameState(params, 3);
+        fm.setup(state);
+        PresidentStateVector vector = new PresidentStateVector();
+        int player = state.getCurrentPlayer();
+        double[] obs = vector.featureVector(state, player);
+        assertEquals(vector.names().length, obs.length);
+        // a redeterminised copy looks the same to the observer
+        assertArrayEquals(obs, vector.featureVector(state.copy(player, new Random(1)), player), 0.0);
+        double cards = 0;
+        for (int v = 1; v <= PresidentStateVector.MAX_VALUE; v++)
+            cards += obs[PresidentStateVector.HAND + v - 1] + obs[PresidentStateVector.UNSEEN + v - 1];
+        assertEquals(params.copiesPerValue * (params.maxCardValue - params.minCardValue + 1), cards, 0.0);
+    }
+
+    @Test
+    public void fillWritesTheVectorInPlace() {
+        PresidentParameters params = new PresidentParameters();
+        params.setRandomSeed(5);
+        PresidentGameState state = new PresidentGameState(params, 4);
+        fm.setup(state);
+        PresidentStateVector vector = new PresidentStateVector();
+        assertTrue(vector.observableOnly());
+        int size = vector.names().length;
+        double[] out = new double[3 * size];
+        Arrays.fill(out, -1.0);
+        Arrays.fill(out, size, 2 * size, 0.0);
+        vector.fill((core.AbstractGameState) state, 1, out, size);
+        assertArrayEquals(vector.featureVector(state, 1), Arrays.copyOfRange(out, size, 2 * size), 0.0);
+        // and nothing outside the slice is touched
+        assertEquals(-1.0, out[size - 1], 0.0);
+        assertEquals(-1.0, out[2 * size], 0.0);
+    }
+
+    @Test
+    public void batchedEnvironmentsPlayToTheEnd() throws Exception {
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(new PythonAgent());
+        players.add(new RandomPlayer(new Random(0)));
+        players.add(new RandomPlayer(new Random(1)));
+        int nEnvs = 4;
+        VectorPyTAG envs = new VectorPyTAG(GameType.President, null, players, nEnvs, 0, false);
+        envs.reset();
+        int nActions = envs.getActionSpace();
+        assertEquals(nEnvs * envs.getObservationSpace(), envs.getObservations().length);
+
+        Random rnd = new Random(0);
+        int[] actions = new int[nEnvs];
+        int episodes = 0;
+        for (int step = 0; step < 200; step++) {
+            int[] masks = envs.getMasks();
+            for (int i = 0; i < nEnvs; i++) {
+                List<Integer> valid = new ArrayList<>();
+                for (int a = 0; a < nActions; a++)
+                    if (masks[i * nActions + a] == 1) valid.add(a);
+                assertFalse(valid.isEmpty());
+                actions[i] = valid.get(rnd.nextInt(valid.size()));
+            }
+            envs.step(actions);
+            for (int i = 0; i < nEnvs; i++) {
+                if (envs.getDones()[i]) episodes++;
+                assertEquals(0, envs.getPlayerIDs()[i]);
+            }
+        }
+        assertTrue(episodes > 0);
+    }
+}
@@ -0,0 +1,149 @@
+package games.president;
+
+import core.actions.AbstractAction;
+import games.president.actions.Pass;
+import games.president.cards.PresidentCard;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RedeterminisationTests {
+
+    PresidentForwardModel fm = new PresidentForwardModel();
+
+    private int[] counts(PresidentGameState state, int player) {
+        int[] counts = new int[20];
+        for (PresidentCard card : state.getPlayerHandCards().get(player).getComponents())
+            counts[card.value]++;
+        return counts;
+    }
+
+    @Test
+    public void copyKeepsObserverHandAndHiddenCards() {
+        for (long seed = 0; seed < 20; seed++) {
+            PresidentParameters params = new PresidentParameters();
+            params.setRandomSeed(seed);
+            PresidentGameState state = new PresidentGameState(params, 4);
+            fm.setup(state);
+            Random rnd = new Random(seed);
+            Random dealRnd = new Random(seed + 100);
+
+            while (state.isNotTerminal()) {
+                int observer = state.getCurrentPlayer();
+                PresidentGameState copy = state.copy(observer, dealRnd);
+                assertArrayEquals(counts(state, observer), counts(copy, observer));
+
+                int[] hidden = new int[20], hiddenCopy = new int[20];
+                for (int p = 0; p < 4; p++) {
+                    assertEquals(state.getPlayerHandCards().get(p).getSize(), copy.getPlayerHandCards().get(p).getSize());
+                    if (p == observer) continue;
+                    int[] c = counts(state, p), cc = counts(copy, p);
+                    for (int v = 0; v < 20; v++) {
+                        hidden[v] += c[v];
+                        hiddenCopy[v] += cc[v];
+                        // passes are public information, so the deal must agree with them
+                        if (v < state.getMaxCopiesHeld()[p].length)
+                            assertTrue(cc[v] <= state.getMaxCopiesHeld()[p][v]);
+                    }
+                }
+                assertArrayEquals(hidden, hiddenCopy);
+
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+        }
+    }
+
+    @Test
+    public void passLimitsHigherValues() {
+        PresidentParameters params = new PresidentParameters();
+        params.setRandomSeed(1);
+        PresidentGameState state = new PresidentGameState(params, 3);
+        fm.setup(state);
+        Random rnd = new Random(1);
+        while (state.isNotTerminal()) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            AbstractAction action = actions.get(rnd.nextInt(actions.size()));
+            if (action instanceof Pass) {
+                int player = state.getCurrentPlayer();
+                int value = state.getCurrentCard().value;
+                int required = state.getCurrentRequiredCards();
+                fm.next(state, action);
+                for (int v = value + 1; v <= params.maxCardValue; v++)
+                    assertTrue(state.getMaxCopiesHeld()[player][v] < required);
+                return;
+            }
+            fm.next(state, action);
+        }
+        fail("No pass in the game");
+    }
+
+    @Test
+    public void samplerRespectsLimits() {
+        PresidentHandSampler sampler = new PresidentHandSampler(3, 5);
+        int[] hidden = {0, 0, 2, 2, 2, 2};
+        int[] handSizes = {4, 4, 4};
+        int[][] limits = new int[3][6];
+        for (int[] l : limits) java.util.Arrays.fill(l, 2);
+        // player 1 cannot hold anything above 3: it must get both 2s and both 3s
+        limits[1][4] = 0;
+        limits[1][5] = 0;
+        int[][] dealt = new int[3][6];
+        Random rnd = new Random(0);
+        for (int attempts : new int[]{PresidentHandSampler.MAX_ATTEMPTS, 0}) {
+            // with no attempts, every deal is checked against the constraints card by card
+            sampler.attempts = attempts;
+            for (int i = 0; i < 100; i++) {
+                sampler.deal(hidden, handSizes, 0, null, limits, rnd, dealt);
+                assertArrayEquals(new int[]{0, 0, 2, 2, 0, 0}, dealt[1]);
+                assertArrayEquals(new int[]{0, 0, 0, 0, 2, 2}, dealt[2]);
+            }
+        }
+    }
+
+    @Test
+    public void checkedDealRespectsLimitsThatDefeatRandomDeals() {
+        // players 1 and 2 can each hold at most one copy of most values, and player 3 has room to spare; dealt most
+        // constrained first, a random deal often leaves player 2 with a value it cannot take
+        PresidentHandSampler sampler = new PresidentHandSampler(4, 6);
+        sampler.attempts = 0;
+        int[] hidden = {0, 0, 3, 3, 3, 3, 3};
+        int[] handSizes = {5, 5, 5, 5};
+        int[][] limits = new int[4][7];
+        for (int[] l : limits) java.util.Arrays.fill(l, 3);
+        for (int v = 2; v <= 6; v++) {
+            limits[1][v] = 1;
+            limits[2][v] = v <= 3 ? 2 : 1;
+        }
+        int[][] dealt = new int[4][7];
+        Random rnd = new Random(5);
+        for (int i = 0; i < 1000; i++) {
+            sampler.deal(hidden, handSizes, 0, null, limits, rnd, dealt);
+            int[] total = new int[7];
+            for (int p = 1; p < 4; p++) {
+                int size = 0;
+                for (int v = 0; v < 7; v++) {
+                    assertTrue(dealt[p][v] <= limits[p][v]);
+                    total[v] += dealt[p][v];
+                    size += dealt[p][v];
+                }
+                assertEquals(5, size);
+            }
+            assertArrayEquals(hidden, total);
+        }
+    }
+
+    @Test(expected = AssertionError.class)
+    public void inconsistentLimitsAreNotDropped() {
+        PresidentHandSampler sampler = new PresidentHandSampler(3, 3);
+        int[][] limits = new int[3][4];
+        for (int[] l : limits) java.util.Arrays.fill(l, 2);
+        // between them, players 1 and 2 can only hold one 3
+        limits[1][3] = 0;
+        limits[2][3] = 1;
+        sampler.deal(new int[]{0, 0, 2, 2}, new int[]{2, 2, 2}, 0, null, limits, new Random(0), new int[3][4]);
+    }
+}
@@ -0,0 +1,71 @@
+package games.president;
+
+import core.CoreConstants;
+import core.actions.AbstractAction;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class StateFeaturesTests {
+
+    PresidentForwardModel fm = new PresidentForwardModel();
+
+    // the heuristic as it was computed before the feature vector, from the PresidentGameState helpers
+    private double legacyHeuristic(PresidentHeuristic h, PresidentGameState gameState, int playerId) {
+        CoreConstants.GameResult playerResult = gameState.getPlayerResults()[playerId];
+        if (playerResult == CoreConstants.GameResult.LOSE_GAME) return -1;
+        if (playerResult == CoreConstants.GameResult.WIN_GAME) return 1;
+        PresidentParameters params = (PresidentParameters) gameState.getGameParameters();
+        int maxCards = gameState.getMaxCardsPerPlayer();
+        int nextPlayer = gameState.getNextPlayer();
+        int nextSize = gameState.getPlayerHandCards().get(nextPlayer).getSize();
+        double score = 0.0;
+        score += h.FACTOR_FEW_CARDS * (maxCards - gameState.getPlayerHandCards().get(playerId).getSize()) / (double) maxCards;
+        score += h.FACTOR_HIGH_CARDS * gameState.getAverageCardValue(playerId) / params.maxCardValue;
+        score += h.FACTOR_NEXT_PLAYER * (maxCards - nextSize) / (double) maxCards;
+        score += h.FACTOR_RELATIVE_ADVANTAGE * (gameState.getAverageOpponentsHandSize(playerId) - nextSize) / (double) maxCards;
+        score += h.FACTOR_FLEXIBILITY * gameState.getPlayableCardsCount(playerId) / (double) nextSize;
+        score += h.FACTOR_COMBO * gameState.getComboCount(playerId) / (double) nextSize;
+        return score;
+    }
+
+    @Test
+    public void heuristicMatchesPerFactorComputation() {
+        PresidentHeuristic heuristic = new PresidentHeuristic();
+        for (int nPlayers = 2; nPlayers <= 4; nPlayers++) {
+            for (long seed = 0; seed < 10; seed++) {
+                PresidentParameters params = new PresidentParameters();
+                params.setRandomSeed(seed);
+                PresidentGameState state = new PresidentGameState(params, nPlayers);
+                fm.setup(state);
+                Random rnd = new Random(seed);
+                while (state.isNotTerminal()) {
+                    for (int p = 0; p < nPlayers; p++)
+                        assertEquals(legacyHeuristic(heuristic, state, p), heuristic.evaluateState(state, p), 1e-12);
+                    List<AbstractAction> actions = fm.computeAvailableActions(state);
+                    fm.next(state, actions.get(rnd.nextInt(actions.size())));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void featureVectorMatchesFill() {
+        PresidentStateFeatures features = new PresidentStateFeatures();
+        PresidentParameters params = new PresidentParameters();
+        params.setRandomSeed(5);
+        PresidentGameState state = new PresidentGameState(params, 3);
+        fm.setup(state);
+        double[] buffer = new double[features.names().length];
+        for (int p = 0; p < 3; p++) {
+            features.fill(state, p, buffer);
+            assertArrayEquals(buffer, features.featureVector(state, p), 0.0);
+            // nobody has played yet: everything is playable
+            assertEquals(state.getPlayerHandCards().get(p).getSize() / (double) state.getPlayerHandCards().get(state.getNextPlayer()).getSize(),
+                    buffer[PresidentStateFeatures.FLEXIBILITY], 1e-12);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package players.mcts;
+
+import core.AbstractPlayer;
+import core.Game;
+import games.GameType;
+import games.tictactoe.TicTacToeForwardModel;
+import games.tictactoe.TicTacToeGameParameters;
+import games.tictactoe.TicTacToeGameState;
+import org.junit.Before;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class NodeArenaTests {
+
+    MCTSParams params;
+
+    @Before
+    public void setup() {
+        params = new MCTSParams();
+        params.setParameterValue("randomSeed", 4093);
+        params.setParameterValue("budgetType", PlayerConstants.BUDGET_ITERATIONS);
+        params.setParameterValue("budget", 200);
+        params.setParameterValue("rolloutLength", 10);
+    }
+
+    private List<String> play(MCTSPlayer mctsPlayer) {
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(mctsPlayer);
+        players.add(new RandomPlayer(new Random(39)));
+        TicTacToeGameParameters gameParams = new TicTacToeGameParameters();
+        gameParams.setRandomSeed(101);
+        Game game = new Game(GameType.TicTacToe, players, new TicTacToeForwardModel(), new TicTacToeGameState(gameParams, 2));
+        game.run();
+        return game.getGameState().getHistory().stream().map(Object::toString).toList();
+    }
+
+    private void assertSameGameWithArena() {
+        List<String> expected = play(new MCTSPlayer((MCTSParams) params.copy()));
+        params.setParameterValue("nodeArena", true);
+        MCTSPlayer arenaPlayer = new MCTSPlayer((MCTSParams) params.copy());
+        assertEquals(expected, play(arenaPlayer));
+        assertNotNull(arenaPlayer.nodeArena);
+    }
+
+    @Test
+    public void recycledNodesGiveTheSameSearch() {
+        assertSameGameWithArena();
+    }
+
+    @Test
+    public void recycledNodesGiveTheSameSearchWithTreeReuse() {
+        params.setParameterValue("reuseTree", true);
+        assertSameGameWithArena();
+    }
+
+    @Test
+    public void poolIsNoLargerThanOneTree() {
+        params.setParameterValue("nodeArena", true);
+        MCTSPlayer player = new MCTSPlayer(params);
+        play(player);
+        // each iteration expands at most one node
+        assertTrue(player.nodeArena.size() <= 201);
+        assertTrue(player.nodeArena.size() > 1);
+    }
+
+    @Test
+    public void recycledNodeIsEmpty() {
+        params.setParameterValue("nodeArena", true);
+        MCTSPlayer player = new MCTSPlayer(params);
+        play(player);
+        player.nodeArena.reset(null);
+        SingleTreeNode node = player.nodeArena.get();
+        assertEquals(0, node.getVisits());
+        assertTrue(node.actionValues.isEmpty());
+        assertTrue(node.children.isEmpty());
+        assertNull(node.root);
+    }
+}
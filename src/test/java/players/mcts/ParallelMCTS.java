@@ -0,0 +1,101 @@
+package players.mcts;
+
+import core.AbstractPlayer;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import games.dominion.DominionForwardModel;
+import games.dominion.DominionGameState;
+import games.dominion.DominionParameters;
+import games.tictactoe.TicTacToeForwardModel;
+import games.tictactoe.TicTacToeGameParameters;
+import games.tictactoe.TicTacToeGameState;
+import org.junit.Before;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ParallelMCTS {
+
+    MCTSParams params;
+
+    @Before
+    public void setup() {
+        // set through setParameterValue, so that the worker players' copies of the parameters pick them up
+        params = new MCTSParams();
+        params.setParameterValue("randomSeed", 9332);
+        params.setParameterValue("information", MCTSEnums.Information.Open_Loop);
+        params.setParameterValue("budgetType", PlayerConstants.BUDGET_ITERATIONS);
+        params.setParameterValue("budget", 300);
+        params.setParameterValue("rolloutLength", 10);
+        params.setParameterValue("nThreads", 3);
+    }
+
+    private TestMCTSPlayer searchFromStart() {
+        TicTacToeForwardModel fm = new TicTacToeForwardModel();
+        TicTacToeGameState state = new TicTacToeGameState(new TicTacToeGameParameters(), 2);
+        fm.setup(state);
+        TestMCTSPlayer player = new TestMCTSPlayer(params, null);
+        player.setForwardModel(fm);
+        player.initializePlayer(state);
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        AbstractAction chosen = player.getAction(state, actions);
+        assertTrue(actions.contains(chosen));
+        player.finalizePlayer(state);
+        return player;
+    }
+
+    @Test
+    public void rootParallelMergesAllTrees() {
+        params.setParameterValue("parallelism", MCTSEnums.Parallelism.Root);
+        SingleTreeNode root = searchFromStart().getRoot();
+        assertEquals(300, root.getVisits());
+        assertEquals(300, Arrays.stream(root.actionVisits()).sum());
+    }
+
+    @Test
+    public void rootParallelSplitsAnUnevenBudgetExactly() {
+        params.setParameterValue("parallelism", MCTSEnums.Parallelism.Root);
+        params.setParameterValue("budget", 301);
+        SingleTreeNode root = searchFromStart().getRoot();
+        assertEquals(301, root.getVisits());
+    }
+
+    @Test
+    public void treeParallelUsesTheWholeBudget() {
+        params.setParameterValue("parallelism", MCTSEnums.Parallelism.Tree);
+        params.setParameterValue("virtualLoss", 3);
+        SingleTreeNode root = searchFromStart().getRoot();
+        assertEquals(300, root.getVisits());
+        // no virtual loss is left behind
+        assertEquals(300, Arrays.stream(root.actionVisits()).sum());
+    }
+
+    @Test
+    public void treeParallelPlaysAGameWithHiddenInformation() {
+        params.setParameterValue("parallelism", MCTSEnums.Parallelism.Tree);
+        params.setParameterValue("information", MCTSEnums.Information.Information_Set);
+        params.setParameterValue("budgetType", PlayerConstants.BUDGET_FM_CALLS);
+        params.setParameterValue("budget", 500);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(new MCTSPlayer(params));
+        players.add(new RandomPlayer(new Random(3023)));
+        DominionParameters dp = new DominionParameters();
+        dp.setRandomSeed(330245);
+        dp.setMaxRounds(5);
+        Game game = new Game(GameType.Dominion, players, new DominionForwardModel(), new DominionGameState(dp, players.size()));
+        game.run();
+        assertFalse(game.getGameState().isNotTerminal());
+    }
+
+    @Test(expected = AssertionError.class)
+    public void treeParallelNeedsOpenLoop() {
+        params.setParameterValue("parallelism", MCTSEnums.Parallelism.Tree);
+        params.setParameterValue("information", MCTSEnums.Information.Closed_Loop);
+        searchFromStart();
+    }
+}
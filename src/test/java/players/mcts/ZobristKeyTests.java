@@ -0,0 +1,137 @@
+package players.mcts;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import core.actions.AbstractAction;
+import evaluation.features.ZobristStateKey;
+import games.GameType;
+import games.connect4.Connect4ForwardModel;
+import games.connect4.Connect4GameParameters;
+import games.connect4.Connect4GameState;
+import games.dotsboxes.*;
+import games.president.PresidentForwardModel;
+import games.president.PresidentGameState;
+import games.president.PresidentParameters;
+import games.tictactoe.TicTacToeForwardModel;
+import games.tictactoe.TicTacToeGameParameters;
+import games.tictactoe.TicTacToeGameState;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+import static org.junit.Assert.*;
+
+public class ZobristKeyTests {
+
+    ZobristStateKey key = new ZobristStateKey();
+
+    // plays a random game, checking at each step that the incremental hash matches the one computed from scratch
+    private void checkHashes(AbstractForwardModel fm, AbstractGameState state, ToLongFunction<AbstractGameState> fromScratch) {
+        Random rnd = new Random(93);
+        fm.setup(state);
+        while (state.isNotTerminal()) {
+            assertEquals(fromScratch.applyAsLong(state), (long) key.getKey(state));
+            assertEquals(key.getKey(state), key.getKey(state.copy()));
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+        assertEquals(fromScratch.applyAsLong(state), (long) key.getKey(state));
+    }
+
+    @Test
+    public void ticTacToeHashIsIncremental() {
+        checkHashes(new TicTacToeForwardModel(), new TicTacToeGameState(new TicTacToeGameParameters(), 2),
+                s -> ((TicTacToeGameState) s).computeZobristHash());
+    }
+
+    @Test
+    public void connect4HashIsIncremental() {
+        checkHashes(new Connect4ForwardModel(), new Connect4GameState(new Connect4GameParameters(), 2),
+                s -> ((Connect4GameState) s).computeZobristHash());
+    }
+
+    @Test
+    public void dotsAndBoxesHashIsIncremental() {
+        checkHashes(new DBForwardModel(), new DBGameState(new DBParameters(), 3),
+                s -> ((DBGameState) s).computeZobristHash());
+    }
+
+    @Test
+    public void presidentHashIsIncremental() {
+        PresidentParameters params = new PresidentParameters();
+        params.setRandomSeed(42);
+        checkHashes(new PresidentForwardModel(), new PresidentGameState(params, 4),
+                s -> ((PresidentGameState) s).computeZobristHash(s.getCurrentPlayer()));
+    }
+
+    @Test
+    public void presidentHashIgnoresHiddenCards() {
+        PresidentForwardModel fm = new PresidentForwardModel();
+        PresidentParameters params = new PresidentParameters();
+        params.setRandomSeed(7);
+        PresidentGameState state = new PresidentGameState(params, 4);
+        fm.setup(state);
+        Random rnd = new Random(7);
+        while (state.isNotTerminal()) {
+            int observer = state.getCurrentPlayer();
+            PresidentGameState copy = (PresidentGameState) state.copy(observer);
+            assertEquals(state.getZobristHash(observer), copy.getZobristHash(observer));
+            for (int p = 0; p < 4; p++)
+                assertEquals(copy.computeZobristHash(p), copy.getZobristHash(p));
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+    }
+
+    @Test
+    public void dotsAndBoxesTranspositionsMatchEdgeAndScoreKey() {
+        // two keys for the same information should find the same transpositions
+        DBEdgeAndScoreKey stringKey = new DBEdgeAndScoreKey();
+        Map<Long, String> seen = new HashMap<>();
+        DBForwardModel fm = new DBForwardModel();
+        DBParameters params = new DBParameters();
+        params.setParameterValue("gridWidth", 3);
+        params.setParameterValue("gridHeight", 3);
+        for (int game = 0; game < 50; game++) {
+            Random rnd = new Random(game);
+            DBGameState state = new DBGameState(params, 2);
+            fm.setup(state);
+            while (state.isNotTerminal()) {
+                String expected = stringKey.getKey(state, state.getCurrentPlayer());
+                String previous = seen.putIfAbsent(key.getKey(state, state.getCurrentPlayer()), expected);
+                if (previous != null)
+                    assertEquals(previous, expected);
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+        }
+        assertEquals(new HashSet<>(seen.values()).size(), seen.size());
+    }
+
+    @Test
+    public void MCGSWithZobristKeys() {
+        MCTSParams params = new MCTSParams();
+        params.setRandomSeed(9332);
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.MCGS;
+        params.MCGSStateKey = key;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 200;
+        params.rolloutLength = 10;
+        TestMCTSPlayer mctsPlayer = new TestMCTSPlayer(params, null);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(mctsPlayer);
+        players.add(new RandomPlayer(new Random(3023)));
+        Game game = GameType.DotsAndBoxes.createGameInstance(players.size());
+        game.reset(players);
+        game.oneAction();
+        MCGSNode root = (MCGSNode) mctsPlayer.getRoot(0);
+        assertEquals(200, root.getVisits());
+        assertTrue(root.getTranspositionMap().size() > 1);
+        assertTrue(root.getTranspositionMap().keySet().stream().allMatch(k -> k instanceof Long));
+    }
+}
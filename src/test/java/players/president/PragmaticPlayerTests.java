@@ -0,0 +1,92 @@
+package players.president;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import games.president.PresidentForwardModel;
+import games.president.PresidentGameState;
+import games.president.PresidentParameters;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static players.PlayerConstants.BUDGET_FM_CALLS;
+import static players.PlayerConstants.BUDGET_TIME;
+
+public class PragmaticPlayerTests {
+
+    PresidentForwardModel fm = new PresidentForwardModel();
+
+    private PragmaticPlayer player(int threads, long seed) {
+        PragmaticParameters params = new PragmaticParameters();
+        params.setParameterValue("threads", threads);
+        params.setParameterValue("budgetType", BUDGET_FM_CALLS);
+        params.setParameterValue("budget", 500);
+        params.setParameterValue("endgameThreshold", 0);
+        PragmaticPlayer player = new PragmaticPlayer(params, null, "P", new Random(seed));
+        player.setForwardModel(fm);
+        return player;
+    }
+
+    @Test
+    public void sameChoicesWithAnyNumberOfThreads() {
+        for (long seed = 0; seed < 5; seed++) {
+            PresidentParameters gameParams = new PresidentParameters();
+            gameParams.setRandomSeed(seed);
+            PresidentGameState state = new PresidentGameState(gameParams, 4);
+            fm.setup(state);
+            PragmaticPlayer sequential = player(1, seed), parallel = player(4, seed), common = player(0, seed);
+            Random rnd = new Random(seed);
+            while (state.isNotTerminal()) {
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                AbstractAction expected = sequential.getAction(state, actions);
+                assertEquals(expected, parallel.getAction(state, actions));
+                assertEquals(expected, common.getAction(state, actions));
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+        }
+    }
+
+    @Test
+    public void copiesAreIndependentPlayers() {
+        PragmaticPlayer original = player(4, 7);
+        PragmaticPlayer copy = original.copy();
+        assertNotSame(original, copy);
+        assertNotSame(original.getParameters(), copy.getParameters());
+        assertEquals(original.getParameters(), copy.getParameters());
+        assertNotSame(original.getRnd(), copy.getRnd());
+        assertSame(fm, copy.getForwardModel());
+
+        // the copy plays a game of its own, and then shuts its pool down
+        PresidentParameters gameParams = new PresidentParameters();
+        gameParams.setRandomSeed(7);
+        PresidentGameState state = new PresidentGameState(gameParams, 4);
+        fm.setup(state);
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        assertTrue(actions.contains(copy.getAction(state, actions)));
+        copy.finalizePlayer(state);
+        assertTrue(actions.contains(copy.getAction(state, actions)));
+        copy.finalizePlayer(state);
+    }
+
+    @Test
+    public void timeBudgetIsRespected() {
+        PragmaticParameters params = new PragmaticParameters();
+        params.setParameterValue("budgetType", BUDGET_TIME);
+        params.setParameterValue("budget", 50);
+        params.setParameterValue("endgameThreshold", 0);
+        PragmaticPlayer player = new PragmaticPlayer(params, null, "P", new Random(0));
+        player.setForwardModel(fm);
+
+        PresidentParameters gameParams = new PresidentParameters();
+        gameParams.setRandomSeed(3);
+        AbstractGameState state = new PresidentGameState(gameParams, 4);
+        fm.setup(state);
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        long start = System.currentTimeMillis();
+        AbstractAction action = player.getAction(state, actions);
+        assertTrue(actions.contains(action));
+        assertTrue(System.currentTimeMillis() - start < 500);
+    }
+}